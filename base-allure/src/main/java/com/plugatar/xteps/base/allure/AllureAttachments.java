@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.allure;
+
+import com.plugatar.xteps.base.XtepsBase;
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+import com.plugatar.xteps.base.attachment.AttachmentStore;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Utility class. Allure attachments utils.
+ */
+final class AllureAttachments {
+    private static final String STORE_NAMESPACE = "allure";
+
+    /**
+     * Utility class ctor.
+     */
+    private AllureAttachments() {
+    }
+
+    /**
+     * Streams given attachment source to the Allure results and returns the attachment.
+     * The content already written to the Allure results is referenced instead of being
+     * written again if attachment deduplication is enabled.
+     *
+     * @param allureLifecycle the Allure lifecycle
+     * @param name            the attachment name
+     * @param mimeType        the attachment MIME type
+     * @param source          the attachment source
+     * @return the attachment
+     * @throws IOException if an I/O error occurs
+     */
+    static Attachment writeAttachment(final AllureLifecycle allureLifecycle,
+                                      final String name,
+                                      final String mimeType,
+                                      final AttachmentSource source) throws IOException {
+        final String extension = fileExtension(name, source.file());
+        final AttachmentStore.Stored stored = XtepsBase.cached().attachmentStore().store(
+            STORE_NAMESPACE, source, storeSource -> {
+                final String attachmentSource = UUID.randomUUID() + "-attachment" + extension;
+                try (final InputStream stream = storeSource.openStream()) {
+                    allureLifecycle.writeAttachment(attachmentSource, stream);
+                }
+                return attachmentSource;
+            }
+        );
+        return new Attachment().setName(name).setSource(stored.ref()).setType(mimeType);
+    }
+
+    private static String fileExtension(final String name,
+                                        final Path file) {
+        final String fileName = file == null ? name : file.getFileName().toString();
+        final int dotIdx = fileName.lastIndexOf('.');
+        return dotIdx > 0 ? fileName.substring(dotIdx) : "";
+    }
+}
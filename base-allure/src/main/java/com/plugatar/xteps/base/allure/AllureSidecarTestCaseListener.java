@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.allure;
+
+import com.plugatar.xteps.base.sidecar.SidecarAggregator;
+import com.plugatar.xteps.base.sidecar.SidecarTestCaseListener;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.util.ResultsUtils;
+
+/**
+ * {@link SidecarTestCaseListener} implementation for Allure. Starts the replayed test case
+ * in the {@link SidecarAggregator} replay thread, so the {@link AllureStepListener} adds
+ * the replayed steps to this test case, and writes the test case result when it finishes.
+ */
+public class AllureSidecarTestCaseListener implements SidecarTestCaseListener {
+
+    /**
+     * Zero-argument public ctor.
+     */
+    public AllureSidecarTestCaseListener() {
+        final Class<Allure> dependencyCheck = Allure.class;
+    }
+
+    @Override
+    public final void testCaseStarted(final String uuid,
+                                      final String name,
+                                      final String fullName) {
+        final AllureLifecycle allureLifecycle = Allure.getLifecycle();
+        allureLifecycle.scheduleTestCase(new TestResult()
+            .setUuid(uuid)
+            .setName(name)
+            .setFullName(fullName)
+            .setTestCaseId(ResultsUtils.md5(fullName))
+            .setHistoryId(ResultsUtils.md5(fullName)));
+        allureLifecycle.startTestCase(uuid);
+    }
+
+    @Override
+    public final void testCaseFinished(final String uuid,
+                                       final Throwable exception) {
+        final AllureLifecycle allureLifecycle = Allure.getLifecycle();
+        if (exception == null) {
+            allureLifecycle.updateTestCase(uuid, testResult -> testResult.setStatus(Status.PASSED));
+        } else {
+            allureLifecycle.updateTestCase(uuid, testResult ->
+                testResult.setStatus(ResultsUtils.getStatus(exception).orElse(Status.BROKEN))
+                    .setStatusDetails(ResultsUtils.getStatusDetails(exception).orElse(null)));
+        }
+        allureLifecycle.stopTestCase(uuid);
+        allureLifecycle.writeTestCase(uuid);
+    }
+}
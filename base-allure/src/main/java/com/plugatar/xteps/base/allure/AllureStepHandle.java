@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.allure;
+
+import com.plugatar.xteps.base.handle.StepHandle;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.util.ResultsUtils;
+
+/**
+ * {@link StepHandle} implementation for Allure.
+ */
+final class AllureStepHandle implements StepHandle {
+    private final StepResult stepResult;
+
+    /**
+     * Ctor.
+     *
+     * @param stepResult the Allure step result
+     */
+    AllureStepHandle(final StepResult stepResult) {
+        this.stepResult = stepResult;
+    }
+
+    @Override
+    public StepHandle name(final String name) {
+        this.stepResult.setName(name);
+        return this;
+    }
+
+    @Override
+    public StepHandle description(final String description) {
+        this.stepResult.setDescription(description);
+        return this;
+    }
+
+    @Override
+    public StepHandle param(final String name,
+                            final Object value) {
+        this.stepResult.getParameters().add(ResultsUtils.createParameter(name, value));
+        return this;
+    }
+
+    @Override
+    public <T> T toolStep(final Class<T> type) {
+        return type.isInstance(this.stepResult) ? type.cast(this.stepResult) : null;
+    }
+}
@@ -15,22 +15,37 @@
  */
 package com.plugatar.xteps.base.allure;
 
-import com.plugatar.xteps.base.StepListener;
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepOutcome;
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+import com.plugatar.xteps.base.handle.StepHandles;
 import io.qameta.allure.Allure;
 import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
 import io.qameta.allure.model.Status;
 import io.qameta.allure.model.StepResult;
 import io.qameta.allure.util.NamingUtils;
 import io.qameta.allure.util.ResultsUtils;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
 
-import static com.plugatar.xteps.base.util.StepListenerUtils.paramArrayAsMap;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedDescription;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedName;
 
 /**
- * {@link StepListener} implementation for Allure.
+ * {@link StepEventListener} implementation for Allure.
  */
-public class AllureStepListener implements StepListener {
+public class AllureStepListener implements StepEventListener {
+    private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+        ListenerCapability.UUID, ListenerCapability.NAME, ListenerCapability.DESCRIPTION, ListenerCapability.PARAMS,
+        ListenerCapability.ATTACHMENTS
+    ));
     private final String emptyNameReplacement;
     private final String descriptionAttachmentName;
 
@@ -67,71 +82,60 @@ public class AllureStepListener implements StepListener {
     }
 
     @Override
-    public final void stepStarted(final String uuid,
-                                  final String name,
-                                  final String description,
-                                  final Object[] params) {
-        Map<String, Object> replacements = null;
-        /* Step name processing */
-        final String processedName;
-        if (name.isEmpty()) {
-            processedName = this.emptyNameReplacement;
-        } else {
-            if (params.length == 0) {
-                processedName = name;
-            } else {
-                replacements = paramArrayAsMap(params);
-                processedName = this.processedTemplate(name, replacements);
-            }
-        }
-        /* Step description processing */
-        final String processedDescription;
-        if (description.isEmpty()) {
-            processedDescription = null;
-        } else {
-            if (params.length == 0) {
-                processedDescription = description;
-            } else {
-                if (replacements == null) {
-                    replacements = paramArrayAsMap(params);
-                }
-                processedDescription = this.processedTemplate(description, replacements);
-            }
+    public final Set<ListenerCapability> capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public final void stepStarted(final StepEvent event) {
+        final StepResult stepResult = new StepResult()
+            .setName(processedName(event, this.emptyNameReplacement, NamingUtils::processNameTemplate))
+            .setDescription(processedDescription(event, NamingUtils::processNameTemplate));
+        if (StepHandles.isRequested()) {
+            StepHandles.bind(new AllureStepHandle(stepResult));
         }
-        /* Reporting */
-        Allure.getLifecycle().startStep(
-            uuid,
-            new StepResult().setName(processedName).setDescription(processedDescription)
-        );
+        Allure.getLifecycle().startStep(event.uuid(), stepResult);
     }
 
     @Override
-    public final void stepPassed(final String uuid) {
+    public final void stepFinished(final StepEvent event) {
         final AllureLifecycle allureLifecycle = Allure.getLifecycle();
-        allureLifecycle.updateStep(uuid, stepResult -> {
-            this.attachStepDescriptionIfPresent(stepResult);
-            stepResult.setStatus(Status.PASSED);
-        });
+        final String uuid = event.uuid();
+        final Map<String, String> extraParams = event.extraParams();
+        if (event.outcome() == StepOutcome.PASSED) {
+            allureLifecycle.updateStep(uuid, stepResult -> {
+                this.attachStepDescriptionIfPresent(stepResult);
+                addExtraParams(stepResult, extraParams);
+                stepResult.setStatus(Status.PASSED);
+            });
+        } else {
+            final Throwable exception = event.exception();
+            allureLifecycle.updateStep(uuid, stepResult -> {
+                this.attachStepDescriptionIfPresent(stepResult);
+                addExtraParams(stepResult, extraParams);
+                stepResult.setStatus(ResultsUtils.getStatus(exception).orElse(Status.BROKEN))
+                    .setStatusDetails(ResultsUtils.getStatusDetails(exception).orElse(null));
+            });
+        }
         allureLifecycle.stopStep(uuid);
     }
 
     @Override
-    public final void stepFailed(final String uuid,
-                                 final Throwable exception) {
+    public final void stepAttachment(final StepEvent event,
+                                     final String name,
+                                     final String mimeType,
+                                     final AttachmentSource source) throws IOException {
         final AllureLifecycle allureLifecycle = Allure.getLifecycle();
-        allureLifecycle.updateStep(uuid, stepResult -> {
-            this.attachStepDescriptionIfPresent(stepResult);
-            stepResult.setStatus(ResultsUtils.getStatus(exception).orElse(Status.BROKEN))
-                .setStatusDetails(ResultsUtils.getStatusDetails(exception).orElse(null));
-        });
-        allureLifecycle.stopStep(uuid);
+        final Attachment attachment = AllureAttachments.writeAttachment(allureLifecycle, name, mimeType, source);
+        allureLifecycle.updateStep(event.uuid(), stepResult -> stepResult.getAttachments().add(attachment));
     }
 
-    private String processedTemplate(final String template,
-                                     final Map<String, Object> replacements) {
-        return replacements.isEmpty()
-            ? template
-            : NamingUtils.processNameTemplate(template, replacements);
+    private static void addExtraParams(final StepResult stepResult,
+                                       final Map<String, String> extraParams) {
+        if (!extraParams.isEmpty()) {
+            extraParams.forEach((name, value) ->
+                stepResult.getParameters().add(ResultsUtils.createParameter(name, value)));
+        }
     }
 
     private void attachStepDescriptionIfPresent(final StepResult stepResult) {
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.allure;
+
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepOutcome;
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+import com.plugatar.xteps.base.handle.StepHandles;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.Stage;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.util.NamingUtils;
+import io.qameta.allure.util.ResultsUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedDescription;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedName;
+
+/**
+ * {@link StepEventListener} implementation for Allure that builds the step tree in memory.
+ * Unlike {@link AllureStepListener} it doesn't call the Allure lifecycle for each step,
+ * nested steps are collected into a per-thread tree of {@link StepResult} objects and the
+ * whole tree is added to the current Allure test case (or step, or fixture) in one operation
+ * when the outermost step of the thread finishes.
+ * <p>
+ * Steps are not started in the Allure lifecycle while they are in progress, so the lifecycle
+ * calls made inside the steps ({@link Allure#addAttachment}, {@link Allure#step} and
+ * {@code @Step} annotated methods) add attachments and steps to the current Allure test case
+ * rather than to the current Xteps step. Use Xteps {@code attach} methods to add attachments
+ * to the current step, they are routed through {@link #stepAttachment}.
+ * <p>
+ * Use this listener instead of {@link AllureStepListener}, not together with it.
+ */
+public class AllureStepTreeListener implements StepEventListener {
+    private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+        ListenerCapability.NAME, ListenerCapability.DESCRIPTION, ListenerCapability.PARAMS,
+        ListenerCapability.ATTACHMENTS
+    ));
+    private final String emptyNameReplacement;
+    private final String descriptionAttachmentName;
+    private final ThreadLocal<Frame> currentFrame;
+
+    /**
+     * Zero-argument public ctor.
+     */
+    public AllureStepTreeListener() {
+        this("Step", "Step description");
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param emptyNameReplacement      the empty step name replacement
+     * @param descriptionAttachmentName the step description attachment name
+     */
+    public AllureStepTreeListener(final String emptyNameReplacement,
+                                  final String descriptionAttachmentName) {
+        final Class<Allure> dependencyCheck = Allure.class;
+        if (emptyNameReplacement == null) {
+            throw new NullPointerException("emptyNameReplacement arg is null");
+        }
+        if (emptyNameReplacement.isEmpty()) {
+            throw new IllegalArgumentException("emptyNameReplacement arg is empty");
+        }
+        if (descriptionAttachmentName == null) {
+            throw new NullPointerException("descriptionAttachmentName arg is null");
+        }
+        if (descriptionAttachmentName.isEmpty()) {
+            throw new IllegalArgumentException("descriptionAttachmentName arg is empty");
+        }
+        this.emptyNameReplacement = emptyNameReplacement;
+        this.descriptionAttachmentName = descriptionAttachmentName;
+        this.currentFrame = new ThreadLocal<>();
+    }
+
+    @Override
+    public final Set<ListenerCapability> capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public final void stepStarted(final StepEvent event) {
+        /* Tree building */
+        final StepResult stepResult = new StepResult()
+            .setName(processedName(event, this.emptyNameReplacement, NamingUtils::processNameTemplate))
+            .setDescription(processedDescription(event, NamingUtils::processNameTemplate))
+            .setStage(Stage.RUNNING)
+            .setStart(System.currentTimeMillis());
+        if (StepHandles.isRequested()) {
+            StepHandles.bind(new AllureStepHandle(stepResult));
+        }
+        this.currentFrame.set(new Frame(event, stepResult, this.currentFrame.get()));
+    }
+
+    @Override
+    public final void stepFinished(final StepEvent event) {
+        final Frame frame = this.currentFrame.get();
+        if (frame == null || frame.event != event) {
+            return;
+        }
+        final StepResult stepResult = frame.stepResult;
+        if (event.outcome() == StepOutcome.PASSED) {
+            stepResult.setStatus(Status.PASSED);
+        } else {
+            final Throwable exception = event.exception();
+            stepResult.setStatus(ResultsUtils.getStatus(exception).orElse(Status.BROKEN))
+                .setStatusDetails(ResultsUtils.getStatusDetails(exception).orElse(null));
+        }
+        event.extraParams().forEach((name, value) ->
+            stepResult.getParameters().add(ResultsUtils.createParameter(name, value)));
+        final AllureLifecycle allureLifecycle = Allure.getLifecycle();
+        this.attachStepDescriptionIfPresent(allureLifecycle, stepResult);
+        if (frame.parent == null) {
+            this.currentFrame.remove();
+            /* Reporting the whole tree, the lifecycle overrides the start time of the step */
+            final long start = stepResult.getStart();
+            final String uuid = UUID.randomUUID().toString();
+            allureLifecycle.startStep(uuid, stepResult);
+            stepResult.setStart(start);
+            allureLifecycle.stopStep(uuid);
+        } else {
+            this.currentFrame.set(frame.parent);
+            stepResult.setStage(Stage.FINISHED).setStop(System.currentTimeMillis());
+            frame.parent.stepResult.getSteps().add(stepResult);
+        }
+    }
+
+    @Override
+    public final void stepAttachment(final StepEvent event,
+                                     final String name,
+                                     final String mimeType,
+                                     final AttachmentSource source) throws IOException {
+        Frame frame = this.currentFrame.get();
+        while (frame != null && frame.event != event) {
+            frame = frame.parent;
+        }
+        if (frame != null) {
+            frame.stepResult.getAttachments().add(
+                AllureAttachments.writeAttachment(Allure.getLifecycle(), name, mimeType, source)
+            );
+        }
+    }
+
+    private void attachStepDescriptionIfPresent(final AllureLifecycle allureLifecycle,
+                                                final StepResult stepResult) {
+        final String stepDescription = stepResult.getDescription();
+        if (stepDescription != null && !stepDescription.isEmpty()) {
+            final String source = UUID.randomUUID() + "-attachment.txt";
+            allureLifecycle.writeAttachment(
+                source, new ByteArrayInputStream(stepDescription.getBytes(StandardCharsets.UTF_8))
+            );
+            stepResult.getAttachments().add(
+                new Attachment().setName(this.descriptionAttachmentName).setSource(source).setType("text/plain")
+            );
+        }
+    }
+
+    private static final class Frame {
+        private final StepEvent event;
+        private final StepResult stepResult;
+        private final Frame parent;
+
+        private Frame(final StepEvent event,
+                      final StepResult stepResult,
+                      final Frame parent) {
+            this.event = event;
+            this.stepResult = stepResult;
+            this.parent = parent;
+        }
+    }
+}
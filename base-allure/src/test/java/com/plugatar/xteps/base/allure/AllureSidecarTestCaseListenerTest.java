@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.allure;
+
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.Stage;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for {@link AllureSidecarTestCaseListener}.
+ */
+final class AllureSidecarTestCaseListenerTest {
+
+    @Test
+    void replayedStepsAddedToReplayedTestCase() throws Exception {
+        final AllureSidecarTestCaseListener listener = new AllureSidecarTestCaseListener();
+        final DefaultStepReporter reporter = new DefaultStepReporter(new StepEventListener[]{new AllureStepListener()});
+        final String uuid = UUID.randomUUID().toString();
+        final AtomicReference<TestResult> testResult = new AtomicReference<>();
+        final RuntimeException exception = new RuntimeException("message");
+
+        final Thread replayThread = new Thread(() -> {
+            listener.testCaseStarted(uuid, "test", "Class.test");
+            Allure.getLifecycle().updateTestCase(uuid, testResult::set);
+            reporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), "step", "", new Object[]{},
+                () -> { });
+            listener.testCaseFinished(uuid, exception);
+        });
+        replayThread.start();
+        replayThread.join();
+
+        assertThat(testResult.get()).isNotNull();
+        assertThat(testResult.get().getName()).isEqualTo("test");
+        assertThat(testResult.get().getFullName()).isEqualTo("Class.test");
+        assertThat(testResult.get().getStage()).isEqualTo(Stage.FINISHED);
+        assertThat(testResult.get().getStatus()).isEqualTo(Status.BROKEN);
+        assertThat(testResult.get().getStatusDetails().getMessage()).isEqualTo("message");
+        assertThat(testResult.get().getSteps())
+            .extracting(StepResult::getName, StepResult::getStatus)
+            .containsExactly(tuple("step", Status.PASSED));
+    }
+}
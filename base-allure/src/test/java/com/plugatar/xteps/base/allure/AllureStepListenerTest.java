@@ -15,16 +15,23 @@
  */
 package com.plugatar.xteps.base.allure;
 
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.handle.StepHandle;
+import com.plugatar.xteps.base.handle.StepHandles;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
 import io.qameta.allure.Allure;
-import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Parameter;
 import io.qameta.allure.model.Stage;
 import io.qameta.allure.model.StepResult;
 import org.junit.jupiter.api.Test;
 
-import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.tuple;
 
 /**
  * Tests for {@link AllureStepListener}.
@@ -33,100 +40,115 @@ final class AllureStepListenerTest {
 
     @Test
     void stepStartedMethodEmptyName() {
-        final AllureLifecycle allureLifecycle = Allure.getLifecycle();
-
-        final AllureStepListener listener = new AllureStepListener();
-        final String uuid = UUID.randomUUID().toString();
         final String stepDescription = "step description";
 
-        listener.stepStarted(uuid, "", stepDescription, new Object[]{});
-        final AtomicReference<StepResult> stepResult = new AtomicReference<>();
-        allureLifecycle.updateStep(uuid, stepResult::set);
-        assertThat(stepResult.get().getName()).isEqualTo("Step");
-        assertThat(stepResult.get().getDescription()).isEqualTo(stepDescription);
-        assertThat(stepResult.get().getStage()).isEqualTo(Stage.RUNNING);
-
-        allureLifecycle.stopStep(uuid);
+        report("", stepDescription, new Object[]{}, () -> {
+            final StepResult stepResult = currentStepResult();
+            assertThat(stepResult.getName()).isEqualTo("Step");
+            assertThat(stepResult.getDescription()).isEqualTo(stepDescription);
+            assertThat(stepResult.getStage()).isEqualTo(Stage.RUNNING);
+        });
     }
 
     @Test
     void stepStartedMethodEmptyDescription() {
-        final AllureStepListener listener = new AllureStepListener();
-        final String uuid = UUID.randomUUID().toString();
         final String stepName = "step name";
 
-        listener.stepStarted(uuid, stepName, "", new Object[]{});
-        final AtomicReference<StepResult> stepResult = new AtomicReference<>();
-        Allure.getLifecycle().updateStep(uuid, stepResult::set);
-        assertThat(stepResult.get().getName()).isEqualTo(stepName);
-        assertThat(stepResult.get().getDescription()).isNull();
-        assertThat(stepResult.get().getStage()).isEqualTo(Stage.RUNNING);
-
-        Allure.getLifecycle().stopStep(uuid);
+        report(stepName, "", new Object[]{}, () -> {
+            final StepResult stepResult = currentStepResult();
+            assertThat(stepResult.getName()).isEqualTo(stepName);
+            assertThat(stepResult.getDescription()).isNull();
+            assertThat(stepResult.getStage()).isEqualTo(Stage.RUNNING);
+        });
     }
 
     @Test
     void stepStartedMethodWithoutReplacements() {
-        final AllureStepListener listener = new AllureStepListener();
-        final String uuid = UUID.randomUUID().toString();
         final String stepName = "step name";
         final String stepDescription = "step description";
 
-        listener.stepStarted(uuid, stepName, stepDescription, new Object[]{});
-        final AtomicReference<StepResult> stepResult = new AtomicReference<>();
-        Allure.getLifecycle().updateStep(uuid, stepResult::set);
-        assertThat(stepResult.get().getName()).isEqualTo(stepName);
-        assertThat(stepResult.get().getDescription()).isEqualTo(stepDescription);
-        assertThat(stepResult.get().getStage()).isEqualTo(Stage.RUNNING);
-
-        Allure.getLifecycle().stopStep(uuid);
+        report(stepName, stepDescription, new Object[]{}, () -> {
+            final StepResult stepResult = currentStepResult();
+            assertThat(stepResult.getName()).isEqualTo(stepName);
+            assertThat(stepResult.getDescription()).isEqualTo(stepDescription);
+            assertThat(stepResult.getStage()).isEqualTo(Stage.RUNNING);
+        });
     }
 
     @Test
     void stepStartedMethodWithContextReplacements() {
-        final AllureStepListener listener = new AllureStepListener();
-        final String uuid = UUID.randomUUID().toString();
         final String stepName = "step name, first context = {0}, second context = {1}";
         final String stepDescription = "step description, first context = {0}, second context = {1}";
 
-        listener.stepStarted(uuid, stepName, stepDescription, new Object[]{"context value 1", "context value 2"});
-        final AtomicReference<StepResult> stepResult = new AtomicReference<>();
-        Allure.getLifecycle().updateStep(uuid, stepResult::set);
-        assertThat(stepResult.get().getName()).isEqualTo(
-            "step name, first context = context value 1, second context = context value 2"
-        );
-        assertThat(stepResult.get().getDescription()).isEqualTo(
-            "step description, first context = context value 1, second context = context value 2"
-        );
-        assertThat(stepResult.get().getStage()).isEqualTo(Stage.RUNNING);
-
-        Allure.getLifecycle().stopStep(uuid);
+        report(stepName, stepDescription, new Object[]{"context value 1", "context value 2"}, () -> {
+            final StepResult stepResult = currentStepResult();
+            assertThat(stepResult.getName()).isEqualTo(
+                "step name, first context = context value 1, second context = context value 2"
+            );
+            assertThat(stepResult.getDescription()).isEqualTo(
+                "step description, first context = context value 1, second context = context value 2"
+            );
+            assertThat(stepResult.getStage()).isEqualTo(Stage.RUNNING);
+        });
     }
 
     @Test
-    void stepPassedMethod() {
-        final AllureStepListener listener = new AllureStepListener();
-        final String uuid = UUID.randomUUID().toString();
-        final String stepName = "step name";
-        Allure.getLifecycle().startStep(uuid, new StepResult().setName(stepName));
+    void stepStartedMethodBindsRequestedStepHandle() {
+        final StepHandle handle = StepHandles.request();
+
+        report("step name", "", new Object[]{}, () -> {
+            StepHandles.clearRequest();
+            handle.name("new step name").description("new step description").param("param", 1);
+            final StepResult stepResult = currentStepResult();
+            assertThat(handle.toolStep(StepResult.class)).isSameAs(stepResult);
+            assertThat(stepResult.getName()).isEqualTo("new step name");
+            assertThat(stepResult.getDescription()).isEqualTo("new step description");
+            assertThat(stepResult.getParameters()).extracting(Parameter::getName, Parameter::getValue)
+                .containsExactly(tuple("param", "1"));
+        });
+    }
+
+    @Test
+    void stepFinishedMethodForPassedStep() {
+        final AtomicReference<String> uuid = new AtomicReference<>();
 
-        listener.stepPassed(uuid);
+        report("step name", "", new Object[]{}, () ->
+            uuid.set(Allure.getLifecycle().getCurrentTestCaseOrStep().orElse(null)));
         final AtomicReference<StepResult> stepResult = new AtomicReference<>();
-        Allure.getLifecycle().updateStep(uuid, stepResult::set);
+        Allure.getLifecycle().updateStep(uuid.get(), stepResult::set);
+        assertThat(uuid.get()).isNotNull();
         assertThat(stepResult.get()).isNull();
     }
 
     @Test
-    void stepFailedMethod() {
-        final AllureStepListener listener = new AllureStepListener();
-        final String uuid = UUID.randomUUID().toString();
-        final String stepName = "step name";
+    void stepFinishedMethodForFailedStep() {
+        final AtomicReference<String> uuid = new AtomicReference<>();
         final AssertionError error = new AssertionError();
-        Allure.getLifecycle().startStep(uuid, new StepResult().setName(stepName));
 
-        listener.stepFailed(uuid, error);
+        assertThatCode(() -> report("step name", "", new Object[]{}, () -> {
+            uuid.set(Allure.getLifecycle().getCurrentTestCaseOrStep().orElse(null));
+            throw error;
+        })).isSameAs(error);
         final AtomicReference<StepResult> stepResult = new AtomicReference<>();
-        Allure.getLifecycle().updateStep(uuid, stepResult::set);
+        Allure.getLifecycle().updateStep(uuid.get(), stepResult::set);
+        assertThat(uuid.get()).isNotNull();
         assertThat(stepResult.get()).isNull();
     }
+
+    private static void report(final String name,
+                               final String description,
+                               final Object[] params,
+                               final Runnable action) {
+        new DefaultStepReporter(new StepEventListener[]{new AllureStepListener()}).report(
+            new FakeHooksContainer(), new FakeExceptionHandler(), name, description, params, () -> {
+                action.run();
+                return null;
+            });
+    }
+
+    private static StepResult currentStepResult() {
+        final AtomicReference<StepResult> stepResult = new AtomicReference<>();
+        Allure.getLifecycle().updateStep(stepResult::set);
+        return stepResult.get();
+    }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.allure;
+
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.Parameter;
+import io.qameta.allure.model.Stage;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for {@link AllureStepTreeListener}.
+ */
+final class AllureStepTreeListenerTest {
+    private AllureLifecycle originLifecycle;
+    private CapturingWriter writer;
+    private StepReporter stepReporter;
+    private String testCaseUuid;
+
+    @BeforeEach
+    void beforeEach() {
+        this.originLifecycle = Allure.getLifecycle();
+        this.writer = new CapturingWriter();
+        Allure.setLifecycle(new AllureLifecycle(this.writer));
+        this.stepReporter = new DefaultStepReporter(new StepEventListener[]{new AllureStepTreeListener()});
+        this.testCaseUuid = UUID.randomUUID().toString();
+        Allure.getLifecycle().scheduleTestCase(new TestResult().setUuid(this.testCaseUuid).setName("test"));
+        Allure.getLifecycle().startTestCase(this.testCaseUuid);
+    }
+
+    @AfterEach
+    void afterEach() {
+        Allure.setLifecycle(this.originLifecycle);
+    }
+
+    @Test
+    void stepTreeReportedToTestCase() {
+        this.report("Step {0}", "", new Object[]{"value"}, () -> {
+            this.report("Nested step 1", "", new Object[]{}, () -> {
+                this.report("", "", new Object[]{}, () -> { });
+            });
+            this.report("Nested step 2", "", new Object[]{}, () -> { });
+        });
+        final List<StepResult> steps = this.finishTestCase().getSteps();
+
+        assertThat(steps).hasSize(1);
+        final StepResult step = steps.get(0);
+        assertThat(step.getName()).isEqualTo("Step value");
+        assertThat(step.getStatus()).isEqualTo(Status.PASSED);
+        assertThat(step.getStage()).isEqualTo(Stage.FINISHED);
+        assertThat(step.getStop()).isGreaterThanOrEqualTo(step.getStart());
+        assertThat(step.getSteps()).extracting(StepResult::getName)
+            .containsExactly("Nested step 1", "Nested step 2");
+        final StepResult nestedStep = step.getSteps().get(0);
+        assertThat(nestedStep.getStart()).isGreaterThanOrEqualTo(step.getStart());
+        assertThat(nestedStep.getStage()).isEqualTo(Stage.FINISHED);
+        assertThat(nestedStep.getSteps()).extracting(StepResult::getName).containsExactly("Step");
+    }
+
+    @Test
+    void eachOutermostStepReportedToTestCase() {
+        this.report("Step 1", "", new Object[]{}, () -> { });
+        this.report("Step 2", "", new Object[]{}, () -> { });
+
+        assertThat(this.finishTestCase().getSteps()).extracting(StepResult::getName)
+            .containsExactly("Step 1", "Step 2");
+    }
+
+    @Test
+    void failedStepTreeReportedToTestCase() {
+        final AssertionError exception = new AssertionError("message");
+        assertThatCode(() -> this.report("Step", "", new Object[]{}, () -> {
+            this.report("Nested step", "", new Object[]{}, () -> { throw exception; });
+        })).isSameAs(exception);
+        final List<StepResult> steps = this.finishTestCase().getSteps();
+
+        assertThat(steps).hasSize(1);
+        assertThat(steps.get(0).getStatus()).isEqualTo(Status.FAILED);
+        final StepResult nestedStep = steps.get(0).getSteps().get(0);
+        assertThat(nestedStep.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(nestedStep.getStatusDetails().getMessage()).isEqualTo("message");
+    }
+
+    @Test
+    void stepDescriptionAttached() {
+        this.report("Step", "Step description {0}", new Object[]{"value"}, () -> { });
+        final StepResult step = this.finishTestCase().getSteps().get(0);
+
+        assertThat(step.getDescription()).isEqualTo("Step description value");
+        assertThat(step.getAttachments()).hasSize(1);
+        assertThat(step.getAttachments().get(0).getName()).isEqualTo("Step description");
+        assertThat(this.writer.attachments).containsKey(step.getAttachments().get(0).getSource());
+    }
+
+    @Test
+    void attachmentAddedToCurrentStep() {
+        this.report("Step", "", new Object[]{}, () -> {
+            this.report("Nested step", "", new Object[]{}, () -> this.stepReporter.attach("file.txt", "text/plain",
+                AttachmentSource.ofStream(new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8)))));
+        });
+        final StepResult nestedStep = this.finishTestCase().getSteps().get(0).getSteps().get(0);
+
+        assertThat(nestedStep.getAttachments()).hasSize(1);
+        final Attachment attachment = nestedStep.getAttachments().get(0);
+        assertThat(attachment.getName()).isEqualTo("file.txt");
+        assertThat(attachment.getType()).isEqualTo("text/plain");
+        assertThat(attachment.getSource()).endsWith("-attachment.txt");
+        assertThat(this.writer.attachments).containsKey(attachment.getSource());
+    }
+
+    @Test
+    void lifecycleAttachmentAddedToTestCase() {
+        this.report("Step", "", new Object[]{}, () -> Allure.addAttachment("file.txt", "content"));
+        final TestResult testResult = this.finishTestCase();
+
+        assertThat(testResult.getSteps().get(0).getAttachments()).isEmpty();
+        assertThat(testResult.getAttachments()).extracting(Attachment::getName).containsExactly("file.txt");
+    }
+
+    @Test
+    void extraParamsAddedToStep() {
+        final StepEventListener paramsListener = new StepEventListener() {
+            @Override
+            public void stepStarted(final StepEvent event) {
+            }
+
+            @Override
+            public void stepFinishing(final StepEvent event) {
+                event.addExtraParam("CPU time", "1 us");
+            }
+
+            @Override
+            public void stepFinished(final StepEvent event) {
+            }
+        };
+        this.stepReporter = new DefaultStepReporter(
+            new StepEventListener[]{new AllureStepTreeListener(), paramsListener});
+        this.report("Step", "", new Object[]{}, () -> { });
+        final StepResult step = this.finishTestCase().getSteps().get(0);
+
+        assertThat(step.getParameters()).extracting(Parameter::getName, Parameter::getValue)
+            .containsExactly(tuple("CPU time", "1 us"));
+    }
+
+    private void report(final String name,
+                        final String description,
+                        final Object[] params,
+                        final Runnable action) {
+        this.stepReporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), name, description, params,
+            () -> {
+                action.run();
+                return null;
+            });
+    }
+
+    private TestResult finishTestCase() {
+        Allure.getLifecycle().stopTestCase(this.testCaseUuid);
+        Allure.getLifecycle().writeTestCase(this.testCaseUuid);
+        assertThat(this.writer.testResults).hasSize(1);
+        return this.writer.testResults.get(0);
+    }
+
+    private static final class CapturingWriter implements AllureResultsWriter {
+        private final List<TestResult> testResults = new ArrayList<>();
+        private final Map<String, InputStream> attachments = new HashMap<>();
+
+        @Override
+        public void write(final TestResult testResult) {
+            this.testResults.add(testResult);
+        }
+
+        @Override
+        public void write(final TestResultContainer testResultContainer) {
+        }
+
+        @Override
+        public void write(final String source,
+                          final InputStream attachment) {
+            this.attachments.put(source, attachment);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.qase;
+
+import com.plugatar.xteps.base.handle.StepHandle;
+import io.qase.client.model.ResultCreateStepsInner;
+
+/**
+ * {@link StepHandle} implementation for Qase. Qase steps have no parameters, the parameters are ignored.
+ */
+final class QaseStepHandle implements StepHandle {
+    private final ResultCreateStepsInner step;
+
+    /**
+     * Ctor.
+     *
+     * @param step the Qase step
+     */
+    QaseStepHandle(final ResultCreateStepsInner step) {
+        this.step = step;
+    }
+
+    @Override
+    public StepHandle name(final String name) {
+        this.step.action(name);
+        return this;
+    }
+
+    @Override
+    public StepHandle description(final String description) {
+        this.step.comment(description);
+        return this;
+    }
+
+    @Override
+    public StepHandle param(final String name,
+                            final Object value) {
+        return this;
+    }
+
+    @Override
+    public <T> T toolStep(final Class<T> type) {
+        return type.isInstance(this.step) ? type.cast(this.step) : null;
+    }
+}
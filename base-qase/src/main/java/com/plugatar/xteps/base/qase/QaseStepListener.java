@@ -15,20 +15,30 @@
  */
 package com.plugatar.xteps.base.qase;
 
-import com.plugatar.xteps.base.StepListener;
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepOutcome;
+import com.plugatar.xteps.base.handle.StepHandles;
 import io.qase.api.StepStorage;
 import io.qase.api.utils.IntegrationUtils;
 import io.qase.client.model.ResultCreateStepsInner;
 
-import java.util.Map;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
-import static com.plugatar.xteps.base.util.StepListenerUtils.paramArrayAsMap;
-import static com.plugatar.xteps.base.util.StepListenerUtils.processedTemplate;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedDescription;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedName;
 
 /**
- * {@link StepListener} implementation for Qase.
+ * {@link StepEventListener} implementation for Qase.
  */
-public class QaseStepListener implements StepListener {
+public class QaseStepListener implements StepEventListener {
+    private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+        ListenerCapability.NAME, ListenerCapability.RENDERED_NAME, ListenerCapability.DESCRIPTION,
+        ListenerCapability.RENDERED_DESCRIPTION, ListenerCapability.PARAMS
+    ));
     private final String emptyNameReplacement;
     private final char leftReplacementBorder;
     private final char rightReplacementBorder;
@@ -61,56 +71,34 @@ public class QaseStepListener implements StepListener {
     }
 
     @Override
-    public final void stepStarted(final String uuid,
-                                  final String name,
-                                  final String description,
-                                  final Object[] params) {
-        Map<String, Object> replacements = null;
-        /* Step name processing */
-        final String processedName;
-        if (name.isEmpty()) {
-            processedName = this.emptyNameReplacement;
-        } else {
-            if (params.length == 0) {
-                processedName = name;
-            } else {
-                replacements = paramArrayAsMap(this.leftReplacementBorder, this.rightReplacementBorder, params);
-                processedName = processedTemplate(name, replacements);
-            }
-        }
-        /* Step description processing */
-        final String processedDescription;
-        if (description.isEmpty()) {
-            processedDescription = null;
-        } else {
-            if (params.length == 0) {
-                processedDescription = description;
-            } else {
-                if (replacements == null) {
-                    replacements = paramArrayAsMap(this.leftReplacementBorder, this.rightReplacementBorder, params);
-                }
-                processedDescription = processedTemplate(description, replacements);
-            }
-        }
-        /* Reporting */
-        StepStorage.startStep();
-        StepStorage.getCurrentStep()
-            .action(processedName)
-            .comment(processedDescription);
+    public final Set<ListenerCapability> capabilities() {
+        return CAPABILITIES;
     }
 
     @Override
-    public final void stepPassed(final String uuid) {
-        StepStorage.getCurrentStep().status(ResultCreateStepsInner.StatusEnum.PASSED);
-        StepStorage.stopStep();
+    public final void stepStarted(final StepEvent event) {
+        final String processedName = processedName(event, this.emptyNameReplacement,
+            this.leftReplacementBorder, this.rightReplacementBorder);
+        final String processedDescription = processedDescription(event,
+            this.leftReplacementBorder, this.rightReplacementBorder);
+        StepStorage.startStep();
+        final ResultCreateStepsInner step = StepStorage.getCurrentStep()
+            .action(processedName)
+            .comment(processedDescription);
+        if (StepHandles.isRequested()) {
+            StepHandles.bind(new QaseStepHandle(step));
+        }
     }
 
     @Override
-    public final void stepFailed(final String uuid,
-                                 final Throwable exception) {
-        StepStorage.getCurrentStep()
-            .status(ResultCreateStepsInner.StatusEnum.FAILED)
-            .addAttachmentsItem(IntegrationUtils.getStacktrace(exception));
+    public final void stepFinished(final StepEvent event) {
+        if (event.outcome() == StepOutcome.PASSED) {
+            StepStorage.getCurrentStep().status(ResultCreateStepsInner.StatusEnum.PASSED);
+        } else {
+            StepStorage.getCurrentStep()
+                .status(ResultCreateStepsInner.StatusEnum.FAILED)
+                .addAttachmentsItem(IntegrationUtils.getStacktrace(event.exception()));
+        }
         StepStorage.stopStep();
     }
 }
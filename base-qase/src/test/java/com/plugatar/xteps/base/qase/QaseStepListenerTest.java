@@ -15,13 +15,18 @@
  */
 package com.plugatar.xteps.base.qase;
 
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
 import io.qase.api.StepStorage;
 import io.qase.client.model.ResultCreateStepsInner;
 import org.junit.jupiter.api.Test;
 
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
 
 /**
  * Tests for {@link QaseStepListener}.
@@ -30,94 +35,92 @@ final class QaseStepListenerTest {
 
     @Test
     void stepStartedMethodEmptyName() {
-        final QaseStepListener listener = new QaseStepListener();
-        final String uuid = UUID.randomUUID().toString();
         final String stepDescription = "step description";
 
-        listener.stepStarted(uuid, "", stepDescription, new Object[]{});
-        final ResultCreateStepsInner step = StepStorage.getCurrentStep();
-        assertThat(step.getAction()).isEqualTo("Step");
-        assertThat(step.getComment()).isEqualTo(stepDescription);
-        assertThat(step.getStatus()).isNull();
-        StepStorage.stopStep();
+        report("", stepDescription, new Object[]{}, () -> {
+            final ResultCreateStepsInner step = StepStorage.getCurrentStep();
+            assertThat(step.getAction()).isEqualTo("Step");
+            assertThat(step.getComment()).isEqualTo(stepDescription);
+            assertThat(step.getStatus()).isNull();
+        });
     }
 
     @Test
     void stepStartedMethodEmptyDescription() {
-        final QaseStepListener listener = new QaseStepListener();
-        final String uuid = UUID.randomUUID().toString();
         final String stepName = "step name";
 
-        listener.stepStarted(uuid, stepName, "", new Object[]{});
-        final ResultCreateStepsInner step = StepStorage.getCurrentStep();
-        assertThat(step.getAction()).isEqualTo(stepName);
-        assertThat(step.getComment()).isNull();
-        assertThat(step.getStatus()).isNull();
-        StepStorage.stopStep();
+        report(stepName, "", new Object[]{}, () -> {
+            final ResultCreateStepsInner step = StepStorage.getCurrentStep();
+            assertThat(step.getAction()).isEqualTo(stepName);
+            assertThat(step.getComment()).isNull();
+            assertThat(step.getStatus()).isNull();
+        });
     }
 
     @Test
     void stepStartedMethodWithoutReplacements() {
-        final QaseStepListener listener = new QaseStepListener();
-        final String uuid = UUID.randomUUID().toString();
         final String stepName = "step name";
         final String stepDescription = "step description";
 
-        listener.stepStarted(uuid, stepName, stepDescription, new Object[]{});
-        final ResultCreateStepsInner step = StepStorage.getCurrentStep();
-        assertThat(step.getAction()).isEqualTo(stepName);
-        assertThat(step.getComment()).isEqualTo(stepDescription);
-        assertThat(step.getStatus()).isNull();
-        StepStorage.stopStep();
+        report(stepName, stepDescription, new Object[]{}, () -> {
+            final ResultCreateStepsInner step = StepStorage.getCurrentStep();
+            assertThat(step.getAction()).isEqualTo(stepName);
+            assertThat(step.getComment()).isEqualTo(stepDescription);
+            assertThat(step.getStatus()).isNull();
+        });
     }
 
     @Test
     void stepStartedMethodWithContextReplacements() {
-        final QaseStepListener listener = new QaseStepListener();
-        final String uuid = UUID.randomUUID().toString();
         final String stepName = "step name, first context = {0}, second context = {1}";
         final String stepDescription = "step description, first context = {0}, second context = {1}";
 
-        listener.stepStarted(uuid, stepName, stepDescription, new Object[]{"context value 1", "context value 2"});
-        final ResultCreateStepsInner step = StepStorage.getCurrentStep();
-        assertThat(step.getAction()).isEqualTo(
-            "step name, first context = context value 1, second context = context value 2"
-        );
-        assertThat(step.getComment()).isEqualTo(
-            "step description, first context = context value 1, second context = context value 2"
-        );
-        assertThat(step.getStatus()).isNull();
-        StepStorage.stopStep();
+        report(stepName, stepDescription, new Object[]{"context value 1", "context value 2"}, () -> {
+            final ResultCreateStepsInner step = StepStorage.getCurrentStep();
+            assertThat(step.getAction()).isEqualTo(
+                "step name, first context = context value 1, second context = context value 2"
+            );
+            assertThat(step.getComment()).isEqualTo(
+                "step description, first context = context value 1, second context = context value 2"
+            );
+            assertThat(step.getStatus()).isNull();
+        });
     }
 
     @Test
-    void stepPassedMethod() {
-        final QaseStepListener listener = new QaseStepListener();
-        final String uuid = UUID.randomUUID().toString();
+    void stepFinishedMethodForPassedStep() {
         final String stepName = "step name";
-        StepStorage.startStep();
-        StepStorage.getCurrentStep().action(stepName);
+        final AtomicReference<ResultCreateStepsInner> step = new AtomicReference<>();
 
-        final ResultCreateStepsInner step = StepStorage.getCurrentStep();
-        listener.stepPassed(uuid);
+        report(stepName, "", new Object[]{}, () -> step.set(StepStorage.getCurrentStep()));
         assertThat(StepStorage.getCurrentStep()).isNull();
-        assertThat(step.getAction()).isEqualTo(stepName);
-        assertThat(step.getStatus()).isSameAs(ResultCreateStepsInner.StatusEnum.PASSED);
+        assertThat(step.get().getAction()).isEqualTo(stepName);
+        assertThat(step.get().getStatus()).isSameAs(ResultCreateStepsInner.StatusEnum.PASSED);
     }
 
     @Test
-    void stepFailedMethod() {
-        final QaseStepListener listener = new QaseStepListener();
-        final String uuid = UUID.randomUUID().toString();
+    void stepFinishedMethodForFailedStep() {
         final String stepName = "step name";
+        final AtomicReference<ResultCreateStepsInner> step = new AtomicReference<>();
         final AssertionError error = new AssertionError();
-        StepStorage.startStep();
-        StepStorage.getCurrentStep().action(stepName);
 
-        final ResultCreateStepsInner step = StepStorage.getCurrentStep();
-        listener.stepFailed(uuid, error);
+        assertThatCode(() -> report(stepName, "", new Object[]{}, () -> {
+            step.set(StepStorage.getCurrentStep());
+            throw error;
+        })).isSameAs(error);
         assertThat(StepStorage.getCurrentStep()).isNull();
-        assertThat(step.getAction()).isEqualTo(stepName);
-        assertThat(step.getStatus()).isSameAs(ResultCreateStepsInner.StatusEnum.FAILED);
+        assertThat(step.get().getAction()).isEqualTo(stepName);
+        assertThat(step.get().getStatus()).isSameAs(ResultCreateStepsInner.StatusEnum.FAILED);
+    }
+
+    private static void report(final String name,
+                               final String description,
+                               final Object[] params,
+                               final Runnable action) {
+        new DefaultStepReporter(new StepEventListener[]{new QaseStepListener()}).report(
+            new FakeHooksContainer(), new FakeExceptionHandler(), name, description, params, () -> {
+                action.run();
+                return null;
+            });
     }
 }
@@ -19,16 +19,26 @@ import com.epam.reportportal.service.Launch;
 import com.epam.reportportal.service.step.StepRequestUtils;
 import com.epam.reportportal.utils.templating.TemplateConfiguration;
 import com.epam.reportportal.utils.templating.TemplateProcessing;
-import com.plugatar.xteps.base.StepListener;
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepOutcome;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
 
-import static com.plugatar.xteps.base.util.StepListenerUtils.paramArrayAsMap;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedDescription;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedName;
 
 /**
- * {@link StepListener} implementation for ReportPortal.
+ * {@link StepEventListener} implementation for ReportPortal.
  */
-public class ReportPortalStepListener implements StepListener {
+public class ReportPortalStepListener implements StepEventListener {
+    private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+        ListenerCapability.NAME, ListenerCapability.DESCRIPTION, ListenerCapability.PARAMS
+    ));
     private final String emptyNameReplacement;
     private final TemplateConfiguration templateConfiguration;
 
@@ -62,67 +72,35 @@ public class ReportPortalStepListener implements StepListener {
     }
 
     @Override
-    public final void stepStarted(final String uuid,
-                                  final String name,
-                                  final String description,
-                                  final Object[] params) {
-        final Launch launch = Launch.currentLaunch();
-        if (launch != null) {
-            Map<String, Object> replacements = null;
-            /* Step name processing */
-            final String processedName;
-            if (name.isEmpty()) {
-                processedName = this.emptyNameReplacement;
-            } else {
-                if (params.length == 0) {
-                    processedName = name;
-                } else {
-                    replacements = paramArrayAsMap(params);
-                    processedName = this.processedTemplate(name, replacements);
-                }
-            }
-            /* Step description processing */
-            final String processedDescription;
-            if (description.isEmpty()) {
-                processedDescription = null;
-            } else {
-                if (params.length == 0) {
-                    processedDescription = description;
-                } else {
-                    if (replacements == null) {
-                        replacements = paramArrayAsMap(params);
-                    }
-                    processedDescription = this.processedTemplate(description, replacements);
-                }
-            }
-            /* Reporting */
-            launch.getStepReporter().startNestedStep(
-                StepRequestUtils.buildStartStepRequest(processedName, processedDescription)
-            );
-        }
+    public final Set<ListenerCapability> capabilities() {
+        return CAPABILITIES;
     }
 
     @Override
-    public final void stepPassed(final String uuid) {
+    public final void stepStarted(final StepEvent event) {
         final Launch launch = Launch.currentLaunch();
         if (launch != null) {
-            launch.getStepReporter().finishNestedStep();
+            launch.getStepReporter().startNestedStep(StepRequestUtils.buildStartStepRequest(
+                processedName(event, this.emptyNameReplacement, this::processedTemplate),
+                processedDescription(event, this::processedTemplate)
+            ));
         }
     }
 
     @Override
-    public final void stepFailed(final String uuid,
-                                 final Throwable exception) {
+    public final void stepFinished(final StepEvent event) {
         final Launch launch = Launch.currentLaunch();
         if (launch != null) {
-            launch.getStepReporter().finishNestedStep(exception);
+            if (event.outcome() == StepOutcome.PASSED) {
+                launch.getStepReporter().finishNestedStep();
+            } else {
+                launch.getStepReporter().finishNestedStep(event.exception());
+            }
         }
     }
 
     private String processedTemplate(final String template,
                                      final Map<String, Object> replacements) {
-        return replacements.isEmpty()
-            ? template
-            : TemplateProcessing.processTemplate(template, replacements, this.templateConfiguration);
+        return TemplateProcessing.processTemplate(template, replacements, this.templateConfiguration);
     }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.sidecar;
+
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepOutcome;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Local stand-in for the reporting backends. Records finished step events and
+ * optionally prints them as an indented steps tree, allows to use and test the
+ * {@link SidecarAggregator} offline.
+ */
+public class RecordingStepEventListener implements StepEventListener {
+    private final PrintStream out;
+    private final List<StepEvent> events;
+
+    /**
+     * Zero-argument public ctor.
+     */
+    public RecordingStepEventListener() {
+        this(null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param out the print stream or null if steps should not be printed
+     */
+    public RecordingStepEventListener(final PrintStream out) {
+        this.out = out;
+        this.events = new ArrayList<>();
+    }
+
+    @Override
+    public final void stepStarted(final StepEvent event) {
+    }
+
+    @Override
+    public final synchronized void stepFinished(final StepEvent event) {
+        this.events.add(event);
+        if (this.out != null) {
+            final StringBuilder line = new StringBuilder();
+            for (int idx = 0; idx < event.depth(); ++idx) {
+                line.append("  ");
+            }
+            line.append(event.renderedName())
+                .append(" [").append(event.threadName()).append("] ")
+                .append(event.outcome())
+                .append(" ").append(event.durationNanos() / 1_000_000L).append(" ms");
+            if (event.outcome() == StepOutcome.FAILED) {
+                line.append(" ").append(event.exception());
+            }
+            this.out.println(line);
+        }
+    }
+
+    /**
+     * Returns recorded finished step events in the order of finishing.
+     *
+     * @return recorded step events
+     */
+    public final synchronized List<StepEvent> events() {
+        return Collections.unmodifiableList(new ArrayList<>(this.events));
+    }
+}
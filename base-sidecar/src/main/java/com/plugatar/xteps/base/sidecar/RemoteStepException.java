@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.sidecar;
+
+/**
+ * The exception of the step replayed by the {@link SidecarAggregator}. Keeps the class
+ * name, the message, the stack trace and the causes of the original exception thrown
+ * in the test JVM.
+ */
+public class RemoteStepException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private final String exceptionClassName;
+
+    /**
+     * Ctor.
+     *
+     * @param exceptionClassName the original exception class name
+     * @param message            the original exception message
+     */
+    public RemoteStepException(final String exceptionClassName,
+                               final String message) {
+        this(exceptionClassName, message, null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param exceptionClassName the original exception class name
+     * @param message            the original exception message
+     * @param cause              the original exception cause
+     */
+    public RemoteStepException(final String exceptionClassName,
+                               final String message,
+                               final Throwable cause) {
+        super(message == null ? exceptionClassName : exceptionClassName + ": " + message, cause, false, true);
+        this.exceptionClassName = exceptionClassName;
+    }
+
+    /**
+     * Returns the original exception class name.
+     *
+     * @return the original exception class name
+     */
+    public final String exceptionClassName() {
+        return this.exceptionClassName;
+    }
+}
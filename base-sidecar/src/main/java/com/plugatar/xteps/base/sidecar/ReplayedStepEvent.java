@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.sidecar;
+
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepOutcome;
+
+import java.util.UUID;
+
+import static com.plugatar.xteps.base.util.StepListenerUtils.paramArrayAsMap;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedTemplate;
+
+/**
+ * The step event decoded by the {@link SidecarAggregator}.
+ */
+final class ReplayedStepEvent implements StepEvent {
+    private final String uuid;
+    private final ReplayedStepEvent parent;
+    private final int depth;
+    private final long threadId;
+    private final String threadName;
+    private final long startNanos;
+    private final String name;
+    private final String description;
+    private final Object[] params;
+    private long endNanos;
+    private StepOutcome outcome;
+    private Throwable exception;
+
+    ReplayedStepEvent(final ReplayedStepEvent parent,
+                      final int depth,
+                      final long threadId,
+                      final String threadName,
+                      final long startNanos,
+                      final String name,
+                      final String description,
+                      final Object[] params) {
+        this.uuid = UUID.randomUUID().toString();
+        this.parent = parent;
+        this.depth = depth;
+        this.threadId = threadId;
+        this.threadName = threadName;
+        this.startNanos = startNanos;
+        this.name = name;
+        this.description = description;
+        this.params = params;
+        this.endNanos = startNanos;
+        this.outcome = StepOutcome.IN_PROGRESS;
+        this.exception = null;
+    }
+
+    void finish(final long endNanos,
+                final Throwable exception) {
+        this.endNanos = endNanos;
+        this.outcome = exception == null ? StepOutcome.PASSED : StepOutcome.FAILED;
+        this.exception = exception;
+    }
+
+    @Override
+    public String uuid() {
+        return this.uuid;
+    }
+
+    @Override
+    public StepEvent parent() {
+        return this.parent;
+    }
+
+    @Override
+    public int depth() {
+        return this.depth;
+    }
+
+    @Override
+    public long threadId() {
+        return this.threadId;
+    }
+
+    @Override
+    public String threadName() {
+        return this.threadName;
+    }
+
+    @Override
+    public long startNanos() {
+        return this.startNanos;
+    }
+
+    @Override
+    public long endNanos() {
+        return this.endNanos;
+    }
+
+    @Override
+    public StepOutcome outcome() {
+        return this.outcome;
+    }
+
+    @Override
+    public Throwable exception() {
+        return this.exception;
+    }
+
+    @Override
+    public String name() {
+        return this.name;
+    }
+
+    @Override
+    public String renderedName() {
+        return this.rendered(this.name);
+    }
+
+    @Override
+    public String description() {
+        return this.description;
+    }
+
+    @Override
+    public String renderedDescription() {
+        return this.rendered(this.description);
+    }
+
+    @Override
+    public Object[] params() {
+        return this.params;
+    }
+
+    private String rendered(final String template) {
+        return processedTemplate(template, paramArrayAsMap('{', '}', this.params));
+    }
+
+    @Override
+    public String toString() {
+        return "StepEvent(" + this.name + ", " + this.outcome + ")";
+    }
+}
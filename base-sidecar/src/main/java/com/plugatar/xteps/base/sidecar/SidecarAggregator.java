@@ -0,0 +1,405 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.sidecar;
+
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepListener;
+import com.plugatar.xteps.base.StepOutcome;
+import com.plugatar.xteps.base.XtepsException;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.FINISHED;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.HELLO;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.PASSED;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.STARTED;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.TEST_FINISHED;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.TEST_STARTED;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.VERSION;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.readString;
+
+/**
+ * Sidecar aggregator. Accepts loopback TCP connections of {@link SidecarStepListener}s,
+ * one connection per test JVM (for example, per surefire fork), decodes the step events
+ * and replays them into the given listeners. Events of each test thread are replayed in
+ * order by its own replay thread, so listeners are invoked concurrently the same way as in
+ * the test JVM, and listeners keeping the per-thread state (for example, the current test
+ * case) see the steps in the same thread as the test case. Thread names of the replayed
+ * events are prefixed with the test JVM name to distinguish threads of different forks.
+ * <p>
+ * Test cases reported by {@link SidecarStepListener#testCaseStarted(String, String)} and
+ * {@link SidecarStepListener#testCaseFinished(Throwable)} are replayed into the given
+ * {@link SidecarTestCaseListener}s before and after the test case steps.
+ * <p>
+ * Steps and test cases that are still in progress when the connection closes are finished
+ * as failed.
+ * <p>
+ * Can be started as a separate process:
+ * <pre>
+ * java -cp ... com.plugatar.xteps.base.sidecar.SidecarAggregator [port] [listener class name...]
+ * </pre>
+ * Listeners should implement {@link StepEventListener}, {@link StepListener} or
+ * {@link SidecarTestCaseListener} and have zero-argument public ctor,
+ * {@link RecordingStepEventListener} printing steps to the standard output is used by default.
+ * <p>
+ * Listeners that build their own output from the step events (for example, Chrome trace,
+ * folded stacks and OTLP-JSON listeners) need no test cases. Allure, TestIT, ReportPortal
+ * and Qase listeners add steps to the test case running in the invoking thread, they are
+ * used together with the test case listener of the same reporting system that starts and
+ * finishes the replayed test case in the replay thread (for example,
+ * {@code com.plugatar.xteps.base.allure.AllureSidecarTestCaseListener}).
+ */
+public class SidecarAggregator implements Closeable {
+    private final StepEventListener[] listeners;
+    private final SidecarTestCaseListener[] testCaseListeners;
+    private final ServerSocket serverSocket;
+    private final List<Socket> connections;
+    private final Thread acceptThread;
+    private volatile boolean closed;
+
+    /**
+     * Ctor. Binds to the loopback address and starts accepting connections.
+     *
+     * @param port      the port, zero for any free port
+     * @param listeners the listeners
+     * @throws NullPointerException     if {@code listeners} is null
+     *                                  or {@code listeners} array contains null element
+     * @throws IllegalArgumentException if {@code listeners} array is empty
+     * @throws XtepsException           if it's impossible to bind to the port
+     */
+    public SidecarAggregator(final int port,
+                             final StepEventListener[] listeners) {
+        this(port, listeners, new SidecarTestCaseListener[0]);
+    }
+
+    /**
+     * Ctor. Binds to the loopback address and starts accepting connections.
+     *
+     * @param port              the port, zero for any free port
+     * @param listeners         the listeners
+     * @param testCaseListeners the test case listeners
+     * @throws NullPointerException     if {@code listeners} or {@code testCaseListeners} is null
+     *                                  or {@code listeners} or {@code testCaseListeners} array
+     *                                  contains null element
+     * @throws IllegalArgumentException if {@code listeners} array is empty
+     * @throws XtepsException           if it's impossible to bind to the port
+     */
+    public SidecarAggregator(final int port,
+                             final StepEventListener[] listeners,
+                             final SidecarTestCaseListener[] testCaseListeners) {
+        if (listeners == null) { throw new NullPointerException("listeners arg is null"); }
+        if (testCaseListeners == null) { throw new NullPointerException("testCaseListeners arg is null"); }
+        if (listeners.length == 0) { throw new IllegalArgumentException("listeners arg array is empty"); }
+        for (int idx = 0; idx < listeners.length; ++idx) {
+            if (listeners[idx] == null) {
+                throw new NullPointerException("listeners arg array element by index " + idx + " is null");
+            }
+        }
+        for (int idx = 0; idx < testCaseListeners.length; ++idx) {
+            if (testCaseListeners[idx] == null) {
+                throw new NullPointerException("testCaseListeners arg array element by index " + idx + " is null");
+            }
+        }
+        this.listeners = listeners.clone();
+        this.testCaseListeners = testCaseListeners.clone();
+        this.connections = Collections.synchronizedList(new ArrayList<>());
+        this.closed = false;
+        try {
+            this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        } catch (final IOException ex) {
+            throw new XtepsException("Cannot bind sidecar aggregator to port " + port + " cause " + ex, ex);
+        }
+        this.acceptThread = new Thread(this::acceptConnections, "xteps-sidecar-aggregator-thread");
+        this.acceptThread.start();
+    }
+
+    /**
+     * Starts the aggregator.
+     *
+     * @param args the port and the listeners class names
+     * @throws Exception if the aggregator cannot be started
+     */
+    public static void main(final String[] args) throws Exception {
+        final int port = args.length == 0 ? 7357 : Integer.parseInt(args[0]);
+        final List<StepEventListener> listeners = new ArrayList<>();
+        final List<SidecarTestCaseListener> testCaseListeners = new ArrayList<>();
+        for (int idx = 1; idx < args.length; ++idx) {
+            final Object listener = Class.forName(args[idx]).getConstructor().newInstance();
+            if (listener instanceof StepEventListener) {
+                listeners.add((StepEventListener) listener);
+            } else if (listener instanceof StepListener) {
+                listeners.add(new StepListenerAdapter((StepListener) listener));
+            }
+            if (listener instanceof SidecarTestCaseListener) {
+                testCaseListeners.add((SidecarTestCaseListener) listener);
+            } else if (!(listener instanceof StepEventListener) && !(listener instanceof StepListener)) {
+                throw new IllegalArgumentException("Class " + args[idx] + " is not a listener");
+            }
+        }
+        if (listeners.isEmpty()) {
+            listeners.add(new RecordingStepEventListener(System.out));
+        }
+        final SidecarAggregator aggregator = new SidecarAggregator(port,
+            listeners.toArray(new StepEventListener[0]), testCaseListeners.toArray(new SidecarTestCaseListener[0]));
+        Runtime.getRuntime().addShutdownHook(new Thread(aggregator::close, "xteps-sidecar-shutdown-thread"));
+        aggregator.acceptThread.join();
+    }
+
+    /**
+     * Returns the port the aggregator is bound to.
+     *
+     * @return the port
+     */
+    public final int port() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and closes all connections.
+     */
+    @Override
+    public final void close() {
+        this.closed = true;
+        try {
+            this.serverSocket.close();
+        } catch (final IOException ignored) { }
+        synchronized (this.connections) {
+            for (final Socket connection : this.connections) {
+                try {
+                    connection.close();
+                } catch (final IOException ignored) { }
+            }
+        }
+    }
+
+    private void acceptConnections() {
+        int connectionIdx = 0;
+        while (!this.closed) {
+            final Socket connection;
+            try {
+                connection = this.serverSocket.accept();
+            } catch (final IOException ex) {
+                return;
+            }
+            this.connections.add(connection);
+            final String connectionName = "xteps-sidecar-connection-thread-" + ++connectionIdx;
+            final Thread connectionThread = new Thread(() -> this.readConnection(connection, connectionName),
+                connectionName);
+            connectionThread.setDaemon(true);
+            connectionThread.start();
+        }
+    }
+
+    private void readConnection(final Socket connection,
+                                final String connectionName) {
+        final Map<Long, ReplayedStepEvent> inProgress = new LinkedHashMap<>();
+        final Map<Long, String> testCasesInProgress = new LinkedHashMap<>();
+        final Map<Long, ExecutorService> replayExecutors = new LinkedHashMap<>();
+        String forkName = "";
+        try (final DataInputStream input =
+                 new DataInputStream(new BufferedInputStream(connection.getInputStream(), 64 * 1024))) {
+            while (true) {
+                final int frameLength = input.readInt();
+                final byte frameType = input.readByte();
+                if (frameType == HELLO) {
+                    if (input.readByte() != VERSION) {
+                        return;
+                    }
+                    forkName = readString(input);
+                } else if (frameType == STARTED) {
+                    final long stepId = input.readLong();
+                    final ReplayedStepEvent parent = inProgress.get(input.readLong());
+                    final int depth = input.readInt();
+                    final long threadId = input.readLong();
+                    final String threadName = readString(input);
+                    final long startNanos = input.readLong();
+                    final String name = readString(input);
+                    final String description = readString(input);
+                    final Object[] params = new Object[input.readInt()];
+                    for (int idx = 0; idx < params.length; ++idx) {
+                        params[idx] = readString(input);
+                    }
+                    final ReplayedStepEvent event = new ReplayedStepEvent(parent, depth, threadId,
+                        forkName + "/" + threadName, startNanos, name, description, params);
+                    inProgress.put(stepId, event);
+                    replayExecutor(replayExecutors, connectionName, threadId)
+                        .execute(() -> this.dispatch(event, true));
+                } else if (frameType == FINISHED) {
+                    final ReplayedStepEvent event = inProgress.remove(input.readLong());
+                    final long endNanos = input.readLong();
+                    final Throwable exception = input.readByte() == PASSED ? null : readException(input);
+                    if (event != null) {
+                        event.finish(endNanos, exception);
+                        replayExecutor(replayExecutors, connectionName, event.threadId())
+                            .execute(() -> this.dispatch(event, false));
+                    }
+                } else if (frameType == TEST_STARTED) {
+                    final long threadId = input.readLong();
+                    readString(input);
+                    final String uuid = readString(input);
+                    final String name = readString(input);
+                    final String fullName = readString(input);
+                    testCasesInProgress.put(threadId, uuid);
+                    replayExecutor(replayExecutors, connectionName, threadId)
+                        .execute(() -> this.dispatchTestCaseStarted(uuid, name, fullName));
+                } else if (frameType == TEST_FINISHED) {
+                    final long threadId = input.readLong();
+                    final String uuid = readString(input);
+                    final Throwable exception = input.readByte() == PASSED ? null : readException(input);
+                    if (uuid.equals(testCasesInProgress.get(threadId))) {
+                        testCasesInProgress.remove(threadId);
+                        replayExecutor(replayExecutors, connectionName, threadId)
+                            .execute(() -> this.dispatchTestCaseFinished(uuid, exception));
+                    }
+                } else {
+                    input.skipBytes(frameLength - 1);
+                }
+            }
+        } catch (final EOFException ignored) {
+        } catch (final IOException ex) {
+            if (!this.closed) {
+                ex.printStackTrace();
+            }
+        } finally {
+            this.connections.remove(connection);
+            final List<ReplayedStepEvent> unfinished = new ArrayList<>(inProgress.values());
+            Collections.reverse(unfinished);
+            for (final ReplayedStepEvent event : unfinished) {
+                event.finish(event.startNanos(),
+                    new XtepsException("Sidecar connection closed before the step finished"));
+                replayExecutor(replayExecutors, connectionName, event.threadId())
+                    .execute(() -> this.dispatch(event, false));
+            }
+            for (final Map.Entry<Long, String> entry : testCasesInProgress.entrySet()) {
+                final String uuid = entry.getValue();
+                final XtepsException exception =
+                    new XtepsException("Sidecar connection closed before the test case finished");
+                replayExecutor(replayExecutors, connectionName, entry.getKey())
+                    .execute(() -> this.dispatchTestCaseFinished(uuid, exception));
+            }
+            for (final ExecutorService executor : replayExecutors.values()) {
+                executor.shutdown();
+            }
+            try {
+                for (final ExecutorService executor : replayExecutors.values()) {
+                    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static ExecutorService replayExecutor(final Map<Long, ExecutorService> replayExecutors,
+                                                  final String connectionName,
+                                                  final long threadId) {
+        return replayExecutors.computeIfAbsent(threadId, id -> Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, connectionName + "-replay-" + id);
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    private void dispatch(final StepEvent event,
+                          final boolean started) {
+        for (final StepEventListener listener : this.listeners) {
+            try {
+                if (started) {
+                    listener.stepStarted(event);
+                } else {
+                    listener.stepFinished(event);
+                }
+            } catch (final Throwable ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private void dispatchTestCaseStarted(final String uuid,
+                                         final String name,
+                                         final String fullName) {
+        for (final SidecarTestCaseListener listener : this.testCaseListeners) {
+            try {
+                listener.testCaseStarted(uuid, name, fullName);
+            } catch (final Throwable ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private void dispatchTestCaseFinished(final String uuid,
+                                          final Throwable exception) {
+        for (final SidecarTestCaseListener listener : this.testCaseListeners) {
+            try {
+                listener.testCaseFinished(uuid, exception);
+            } catch (final Throwable ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private static Throwable readException(final DataInputStream input) throws IOException {
+        final String className = readString(input);
+        final String message = readString(input);
+        final StackTraceElement[] stackTrace = new StackTraceElement[input.readInt()];
+        for (int idx = 0; idx < stackTrace.length; ++idx) {
+            stackTrace[idx] = new StackTraceElement(readString(input), readString(input), readString(input),
+                input.readInt());
+        }
+        final Throwable cause = input.readByte() == 0 ? null : readException(input);
+        final RemoteStepException exception = new RemoteStepException(className, message, cause);
+        exception.setStackTrace(stackTrace);
+        return exception;
+    }
+
+    private static final class StepListenerAdapter implements StepEventListener {
+        private final StepListener listener;
+
+        private StepListenerAdapter(final StepListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void stepStarted(final StepEvent event) {
+            this.listener.stepStarted(event.uuid(), event.name(), event.description(), event.params());
+        }
+
+        @Override
+        public void stepFinished(final StepEvent event) {
+            if (event.outcome() == StepOutcome.PASSED) {
+                this.listener.stepPassed(event.uuid());
+            } else {
+                this.listener.stepFailed(event.uuid(), event.exception());
+            }
+        }
+    }
+}
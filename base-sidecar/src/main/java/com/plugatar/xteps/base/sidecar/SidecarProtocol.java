@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.sidecar;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sidecar wire protocol. Each frame is the frame length (int, excluding the length
+ * itself) followed by the frame type (byte) and the frame body. Strings are encoded
+ * as the UTF-8 bytes count (int, {@code -1} for null) followed by the UTF-8 bytes.
+ * <pre>
+ * HELLO    : version (byte), fork name (string)
+ * STARTED  : step id (long), parent step id (long, 0 if none), depth (int),
+ *            thread id (long), thread name (string), start nanos (long),
+ *            name (string), description (string), params count (int), params (string...)
+ * FINISHED : step id (long), end nanos (long), outcome (byte), exception if failed
+ * TEST_STARTED : thread id (long), thread name (string), test case uuid (string),
+ *                test case name (string), test case full name (string)
+ * TEST_FINISHED: thread id (long), test case uuid (string), outcome (byte), exception if failed
+ * exception: class name (string), message (string), stack trace elements count (int),
+ *            stack trace elements (class (string), method (string), file (string), line (int)...),
+ *            has cause (byte), cause exception if has cause
+ * </pre>
+ * At most {@link #MAX_CAUSES} causes are written, causes cycle is cut.
+ */
+final class SidecarProtocol {
+    static final byte VERSION = 2;
+    static final byte HELLO = 0;
+    static final byte STARTED = 1;
+    static final byte FINISHED = 2;
+    static final byte TEST_STARTED = 3;
+    static final byte TEST_FINISHED = 4;
+    static final byte PASSED = 1;
+    static final byte FAILED = 2;
+    static final int MAX_CAUSES = 16;
+
+    /**
+     * Utility class ctor.
+     */
+    private SidecarProtocol() {
+    }
+
+    /**
+     * Puts given string into given buffer.
+     *
+     * @param buffer  the buffer
+     * @param encoder the reusable UTF-8 encoder
+     * @param str     the string
+     * @throws BufferOverflowException if there is insufficient space in the buffer
+     */
+    static void putString(final ByteBuffer buffer,
+                          final CharsetEncoder encoder,
+                          final String str) {
+        if (str == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        final int lengthPosition = buffer.position();
+        buffer.putInt(0);
+        encoder.reset();
+        final CharBuffer chars = CharBuffer.wrap(str);
+        CoderResult result = encoder.encode(chars, buffer, true);
+        if (!result.isOverflow()) {
+            result = encoder.flush(buffer);
+        }
+        if (result.isOverflow()) {
+            throw new BufferOverflowException();
+        }
+        buffer.putInt(lengthPosition, buffer.position() - lengthPosition - 4);
+    }
+
+    /**
+     * Reads string.
+     *
+     * @param input the input
+     * @return string
+     * @throws IOException if an I/O error occurs
+     */
+    static String readString(final DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.sidecar;
+
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepOutcome;
+import com.plugatar.xteps.base.XtepsException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.FAILED;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.FINISHED;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.HELLO;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.MAX_CAUSES;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.PASSED;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.STARTED;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.TEST_FINISHED;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.TEST_STARTED;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.VERSION;
+import static com.plugatar.xteps.base.sidecar.SidecarProtocol.putString;
+import static com.plugatar.xteps.base.util.PropertiesUtils.intPropertyInRange;
+import static com.plugatar.xteps.base.util.PropertiesUtils.stringProperty;
+import static com.plugatar.xteps.base.util.PropertiesUtils.systemPropertiesWithFile;
+import static com.plugatar.xteps.base.util.StepListenerUtils.objAsString;
+
+/**
+ * {@link StepEventListener} implementation that sends compact step events over a
+ * loopback TCP connection to the {@link SidecarAggregator} process. Each test thread
+ * encodes frames into its own reused pending buffer, the daemon writer thread swaps the
+ * pending buffer with the spare one (also reused) and writes the frames to the connection,
+ * frames are not copied and no memory is allocated per frame. Test threads never wait for
+ * each other or for the connection. If the aggregator does not keep up and the pending
+ * bytes exceed the limit, step events are dropped instead of blocking the test thread,
+ * see {@link #droppedEventsCount()}.
+ * <p>
+ * Test cases of the test thread are reported by {@link #testCaseStarted(String, String)}
+ * and {@link #testCaseFinished(Throwable)} methods (for example, from a test framework
+ * extension), the aggregator replays them into the {@link SidecarTestCaseListener}s.
+ * <p>
+ * Properties (system properties or {@code xteps.properties} file):
+ * <ul>
+ * <li>{@code xteps.sidecar.host} - the aggregator host, default {@code 127.0.0.1}</li>
+ * <li>{@code xteps.sidecar.port} - the aggregator port, default {@code 7357}</li>
+ * <li>{@code xteps.sidecar.maxPendingBytes} - the max pending bytes count, default {@code 4194304}</li>
+ * </ul>
+ */
+public class SidecarStepListener implements StepEventListener, Closeable {
+    private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+        ListenerCapability.NAME, ListenerCapability.DESCRIPTION, ListenerCapability.PARAMS,
+        ListenerCapability.NESTING, ListenerCapability.THREAD, ListenerCapability.TIMINGS
+    ));
+    private static final List<SidecarStepListener> INSTANCES = new CopyOnWriteArrayList<>();
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final long WRITE_INTERVAL_NANOS = 10_000_000L;
+    private final SocketChannel channel;
+    private final long maxPendingBytes;
+    private final ByteBuffer helloFrame;
+    private final ThreadLocal<Encoder> encoders;
+    private final Queue<Encoder> allEncoders;
+    private final AtomicLong pendingBytes;
+    private final AtomicLong lastStepId;
+    private final AtomicLong droppedEventsCount;
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    /**
+     * Zero-argument public ctor.
+     *
+     * @throws XtepsException if properties are incorrect
+     *                        or if it's impossible to connect to the aggregator
+     */
+    public SidecarStepListener() {
+        this(systemPropertiesWithFile("xteps.properties"));
+    }
+
+    private SidecarStepListener(final Properties properties) {
+        this(
+            stringProperty(properties, "xteps.sidecar.host", "127.0.0.1"),
+            intPropertyInRange(properties, "xteps.sidecar.port", 0, 65535, 7357),
+            intPropertyInRange(properties, "xteps.sidecar.maxPendingBytes", 1, Integer.MAX_VALUE, 4 * 1024 * 1024)
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param host            the aggregator host
+     * @param port            the aggregator port
+     * @param maxPendingBytes the max pending bytes count
+     * @throws NullPointerException     if {@code host} is null
+     * @throws IllegalArgumentException if {@code maxPendingBytes} is not positive
+     * @throws XtepsException           if it's impossible to connect to the aggregator
+     */
+    public SidecarStepListener(final String host,
+                               final int port,
+                               final int maxPendingBytes) {
+        if (host == null) { throw new NullPointerException("host arg is null"); }
+        if (maxPendingBytes <= 0) { throw new IllegalArgumentException("maxPendingBytes arg is not positive"); }
+        this.maxPendingBytes = maxPendingBytes;
+        this.helloFrame = helloFrame(ManagementFactory.getRuntimeMXBean().getName());
+        this.allEncoders = new ConcurrentLinkedQueue<>();
+        this.encoders = ThreadLocal.withInitial(() -> {
+            final Encoder encoder = new Encoder(Thread.currentThread());
+            this.allEncoders.offer(encoder);
+            return encoder;
+        });
+        this.pendingBytes = new AtomicLong();
+        this.lastStepId = new AtomicLong();
+        this.droppedEventsCount = new AtomicLong();
+        this.closed = false;
+        try {
+            this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+            this.channel.socket().setTcpNoDelay(true);
+        } catch (final IOException ex) {
+            throw new XtepsException("Cannot connect to sidecar aggregator " + host + ":" + port + " cause " + ex, ex);
+        }
+        this.writerThread = new Thread(this::writeLoop, "xteps-sidecar-writer-thread");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        INSTANCES.add(this);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "xteps-sidecar-shutdown-thread"));
+    }
+
+    /**
+     * Reports the start of the test case performed by the current thread to all listener instances.
+     * The following steps of the current thread belong to this test case.
+     *
+     * @param name     the test case name
+     * @param fullName the test case full name (for example, the test class and method names)
+     * @throws NullPointerException if {@code name} or {@code fullName} is null
+     */
+    public static void testCaseStarted(final String name,
+                                       final String fullName) {
+        if (name == null) { throw new NullPointerException("name arg is null"); }
+        if (fullName == null) { throw new NullPointerException("fullName arg is null"); }
+        final String uuid = UUID.randomUUID().toString();
+        for (final SidecarStepListener listener : INSTANCES) {
+            if (!listener.closed) {
+                listener.encoders.get().testCaseStarted(uuid, name, fullName);
+            }
+        }
+    }
+
+    /**
+     * Reports the finish of the test case performed by the current thread to all listener instances.
+     *
+     * @param exception the test case exception or null if the test case passed
+     */
+    public static void testCaseFinished(final Throwable exception) {
+        for (final SidecarStepListener listener : INSTANCES) {
+            if (!listener.closed) {
+                listener.encoders.get().testCaseFinished(exception);
+            }
+        }
+    }
+
+    @Override
+    public final Set<ListenerCapability> capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public final void stepStarted(final StepEvent event) {
+        if (this.closed || this.pendingBytes.get() > this.maxPendingBytes) {
+            this.droppedEventsCount.incrementAndGet();
+            return;
+        }
+        this.encoders.get().started(this.lastStepId.incrementAndGet(), event);
+    }
+
+    @Override
+    public final void stepFinished(final StepEvent event) {
+        final Encoder encoder = this.encoders.get();
+        final Long stepId = encoder.stepIds.remove(event);
+        if (stepId == null) {
+            return;
+        }
+        if (this.closed) {
+            this.droppedEventsCount.incrementAndGet();
+            return;
+        }
+        encoder.finished(stepId, event);
+    }
+
+    /**
+     * Returns the count of events dropped because the aggregator did not keep up.
+     *
+     * @return dropped events count
+     */
+    public final long droppedEventsCount() {
+        return this.droppedEventsCount.get();
+    }
+
+    /**
+     * Writes all pending frames and closes the connection.
+     */
+    @Override
+    public final void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        INSTANCES.remove(this);
+        LockSupport.unpark(this.writerThread);
+        if (Thread.currentThread() != this.writerThread) {
+            try {
+                this.writerThread.join();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (this.helloFrame.hasRemaining()) {
+                this.channel.write(this.helloFrame);
+            }
+            while (true) {
+                final boolean closedBeforeDrain = this.closed;
+                final Iterator<Encoder> iterator = this.allEncoders.iterator();
+                while (iterator.hasNext()) {
+                    final Encoder encoder = iterator.next();
+                    /* The thread is checked before the draining, no frames are added after the thread death */
+                    final boolean threadAlive = encoder.thread.isAlive();
+                    this.write(encoder);
+                    if (!threadAlive) {
+                        iterator.remove();
+                    }
+                }
+                if (closedBeforeDrain) {
+                    return;
+                }
+                LockSupport.parkNanos(this, WRITE_INTERVAL_NANOS);
+            }
+        } catch (final IOException ex) {
+            this.closed = true;
+            INSTANCES.remove(this);
+        } finally {
+            try {
+                this.channel.close();
+            } catch (final IOException ignored) { }
+        }
+    }
+
+    private void write(final Encoder encoder) throws IOException {
+        final ByteBuffer frames;
+        synchronized (encoder) {
+            if (encoder.pending.position() == 0) {
+                return;
+            }
+            frames = encoder.pending;
+            encoder.pending = encoder.spare;
+            encoder.spare = frames;
+        }
+        frames.flip();
+        final int length = frames.remaining();
+        while (frames.hasRemaining()) {
+            this.channel.write(frames);
+        }
+        frames.clear();
+        this.pendingBytes.addAndGet(-length);
+    }
+
+    private static ByteBuffer helloFrame(final String forkName) {
+        final CharsetEncoder charsetEncoder = StandardCharsets.UTF_8.newEncoder();
+        int capacity = INITIAL_BUFFER_SIZE;
+        while (true) {
+            final ByteBuffer buffer = ByteBuffer.allocate(capacity);
+            try {
+                buffer.putInt(0).put(HELLO).put(VERSION);
+                putString(buffer, charsetEncoder, forkName);
+                buffer.putInt(0, buffer.position() - 4);
+                buffer.flip();
+                return buffer;
+            } catch (final BufferOverflowException ex) {
+                capacity *= 2;
+            }
+        }
+    }
+
+    /**
+     * Per-thread frames encoder. Frames are encoded by the owner thread into the pending buffer,
+     * the pending and the spare buffers are swapped by the writer thread, both are guarded by
+     * the encoder monitor. Step IDs and the current test case are accessed by the owner thread only.
+     */
+    private final class Encoder {
+        private final Thread thread;
+        private final CharsetEncoder charsetEncoder;
+        private final Map<StepEvent, Long> stepIds;
+        private String testCaseUuid;
+        private ByteBuffer pending;
+        private ByteBuffer spare;
+
+        private Encoder(final Thread thread) {
+            this.thread = thread;
+            this.charsetEncoder = StandardCharsets.UTF_8.newEncoder();
+            this.stepIds = new IdentityHashMap<>();
+            this.testCaseUuid = null;
+            this.pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+            this.spare = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        }
+
+        private void started(final long stepId,
+                             final StepEvent event) {
+            final StepEvent parent = event.parent();
+            final Long parentStepId = parent == null ? null : this.stepIds.get(parent);
+            this.stepIds.put(event, stepId);
+            final Object[] params = event.params();
+            final String[] paramStrings = new String[params.length];
+            for (int idx = 0; idx < params.length; ++idx) {
+                paramStrings[idx] = objAsString(params[idx]);
+            }
+            synchronized (this) {
+                final int start = this.pending.position();
+                while (true) {
+                    try {
+                        this.pending.putInt(0).put(STARTED)
+                            .putLong(stepId)
+                            .putLong(parentStepId == null ? 0L : parentStepId)
+                            .putInt(event.depth())
+                            .putLong(event.threadId());
+                        putString(this.pending, this.charsetEncoder, event.threadName());
+                        this.pending.putLong(event.startNanos());
+                        putString(this.pending, this.charsetEncoder, event.name());
+                        putString(this.pending, this.charsetEncoder, event.description());
+                        this.pending.putInt(paramStrings.length);
+                        for (final String param : paramStrings) {
+                            putString(this.pending, this.charsetEncoder, param);
+                        }
+                        this.endFrame(start);
+                        return;
+                    } catch (final BufferOverflowException ex) {
+                        this.grow(start);
+                    }
+                }
+            }
+        }
+
+        private synchronized void finished(final long stepId,
+                                           final StepEvent event) {
+            final int start = this.pending.position();
+            while (true) {
+                try {
+                    this.pending.putInt(0).put(FINISHED)
+                        .putLong(stepId)
+                        .putLong(event.endNanos());
+                    this.putOutcome(event.outcome() == StepOutcome.PASSED ? null : event.exception());
+                    this.endFrame(start);
+                    return;
+                } catch (final BufferOverflowException ex) {
+                    this.grow(start);
+                }
+            }
+        }
+
+        private synchronized void testCaseStarted(final String uuid,
+                                                  final String name,
+                                                  final String fullName) {
+            this.testCaseUuid = uuid;
+            final int start = this.pending.position();
+            while (true) {
+                try {
+                    this.pending.putInt(0).put(TEST_STARTED).putLong(this.thread.getId());
+                    putString(this.pending, this.charsetEncoder, this.thread.getName());
+                    putString(this.pending, this.charsetEncoder, uuid);
+                    putString(this.pending, this.charsetEncoder, name);
+                    putString(this.pending, this.charsetEncoder, fullName);
+                    this.endFrame(start);
+                    return;
+                } catch (final BufferOverflowException ex) {
+                    this.grow(start);
+                }
+            }
+        }
+
+        private synchronized void testCaseFinished(final Throwable exception) {
+            final String uuid = this.testCaseUuid;
+            if (uuid == null) {
+                return;
+            }
+            this.testCaseUuid = null;
+            final int start = this.pending.position();
+            while (true) {
+                try {
+                    this.pending.putInt(0).put(TEST_FINISHED).putLong(this.thread.getId());
+                    putString(this.pending, this.charsetEncoder, uuid);
+                    this.putOutcome(exception);
+                    this.endFrame(start);
+                    return;
+                } catch (final BufferOverflowException ex) {
+                    this.grow(start);
+                }
+            }
+        }
+
+        private void putOutcome(final Throwable exception) {
+            if (exception == null) {
+                this.pending.put(PASSED);
+                return;
+            }
+            this.pending.put(FAILED);
+            final Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            Throwable current = exception;
+            while (true) {
+                visited.add(current);
+                putString(this.pending, this.charsetEncoder, current.getClass().getName());
+                putString(this.pending, this.charsetEncoder, current.getMessage());
+                final StackTraceElement[] stackTrace = current.getStackTrace();
+                this.pending.putInt(stackTrace.length);
+                for (final StackTraceElement element : stackTrace) {
+                    putString(this.pending, this.charsetEncoder, element.getClassName());
+                    putString(this.pending, this.charsetEncoder, element.getMethodName());
+                    putString(this.pending, this.charsetEncoder, element.getFileName());
+                    this.pending.putInt(element.getLineNumber());
+                }
+                final Throwable cause = current.getCause();
+                if (cause == null || visited.contains(cause) || visited.size() > MAX_CAUSES) {
+                    this.pending.put((byte) 0);
+                    return;
+                }
+                this.pending.put((byte) 1);
+                current = cause;
+            }
+        }
+
+        private void endFrame(final int start) {
+            final int length = this.pending.position() - start;
+            this.pending.putInt(start, length - 4);
+            SidecarStepListener.this.pendingBytes.addAndGet(length);
+        }
+
+        /* Drops the partially encoded frame and keeps the previous frames */
+        private void grow(final int start) {
+            this.pending.position(start);
+            this.pending.flip();
+            final ByteBuffer grown = ByteBuffer.allocate(Math.max(this.pending.capacity() * 2, INITIAL_BUFFER_SIZE));
+            grown.put(this.pending);
+            this.pending = grown;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.sidecar;
+
+/**
+ * Test case listener of the {@link SidecarAggregator}. Test cases are reported in the test JVM
+ * by {@link SidecarStepListener#testCaseStarted(String, String)} and
+ * {@link SidecarStepListener#testCaseFinished(Throwable)} methods. The methods are invoked by the
+ * aggregator thread that replays the test thread events, before and after the steps of the test
+ * case, so the reporting backends keeping the current test case per thread (for example, the
+ * Allure lifecycle) add the replayed steps to the replayed test case.
+ */
+public interface SidecarTestCaseListener {
+
+    /**
+     * Invoked when the test case is started.
+     *
+     * @param uuid     the test case UUID
+     * @param name     the test case name
+     * @param fullName the test case full name (for example, the test class and method names)
+     */
+    void testCaseStarted(String uuid,
+                         String name,
+                         String fullName);
+
+    /**
+     * Invoked when the test case is finished.
+     *
+     * @param uuid      the test case UUID
+     * @param exception the test case exception or null if the test case passed
+     */
+    void testCaseFinished(String uuid,
+                          Throwable exception);
+}
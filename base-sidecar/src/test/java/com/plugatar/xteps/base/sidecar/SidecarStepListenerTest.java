@@ -0,0 +1,224 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.sidecar;
+
+import com.plugatar.xteps.base.ExceptionHandler;
+import com.plugatar.xteps.base.HooksContainer;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepOutcome;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.ThrowingConsumer;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link SidecarStepListener} and {@link SidecarAggregator}.
+ */
+final class SidecarStepListenerTest {
+
+    @Test
+    void stepsReplayedByAggregator() throws Exception {
+        final RecordingStepEventListener recorder = new RecordingStepEventListener();
+        try (final SidecarAggregator aggregator =
+                 new SidecarAggregator(0, new StepEventListener[]{recorder})) {
+            final SidecarStepListener listener = new SidecarStepListener("127.0.0.1", aggregator.port(), 1024);
+            final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+            final HooksContainer hooksContainer = new FakeHooksContainer();
+            final ExceptionHandler exceptionHandler = new FakeExceptionHandler();
+            final RuntimeException exception =
+                new RuntimeException("message", new IllegalStateException("cause"));
+
+            reporter.report(hooksContainer, exceptionHandler, "step {0}", "description",
+                (ThrowingConsumer<String, RuntimeException>) arg -> {
+                    assertThatCode(() -> reporter.report(hooksContainer, exceptionHandler, "nested step", "",
+                        new Object[]{}, () -> { throw exception; })).isSameAs(exception);
+                }, "ä");
+            listener.close();
+
+            final List<StepEvent> events = awaitEvents(recorder, 2);
+            assertThat(listener.droppedEventsCount()).isZero();
+            final StepEvent nested = events.get(0);
+            final StepEvent root = events.get(1);
+            assertThat(root.name()).isEqualTo("step {0}");
+            assertThat(root.renderedName()).isEqualTo("step ä");
+            assertThat(root.description()).isEqualTo("description");
+            assertThat(root.params()).containsExactly("ä");
+            assertThat(root.parent()).isNull();
+            assertThat(root.depth()).isZero();
+            assertThat(root.outcome()).isSameAs(StepOutcome.PASSED);
+            assertThat(root.threadId()).isEqualTo(Thread.currentThread().getId());
+            assertThat(root.threadName()).endsWith("/" + Thread.currentThread().getName());
+            assertThat(root.durationNanos()).isNotNegative();
+            assertThat(nested.name()).isEqualTo("nested step");
+            assertThat(nested.parent()).isSameAs(root);
+            assertThat(nested.depth()).isEqualTo(1);
+            assertThat(nested.outcome()).isSameAs(StepOutcome.FAILED);
+            assertThat(nested.exception())
+                .isInstanceOf(RemoteStepException.class)
+                .hasMessage("java.lang.RuntimeException: message");
+            assertThat(nested.exception().getStackTrace())
+                .extracting(StackTraceElement::toString)
+                .first()
+                .isEqualTo(exception.getStackTrace()[0].toString());
+            assertThat(nested.exception().getCause())
+                .isInstanceOf(RemoteStepException.class)
+                .hasMessage("java.lang.IllegalStateException: cause")
+                .hasNoCause();
+        }
+    }
+
+    @Test
+    void stepsOfParallelThreadsReplayedByAggregator() throws Exception {
+        final RecordingStepEventListener recorder = new RecordingStepEventListener();
+        try (final SidecarAggregator aggregator =
+                 new SidecarAggregator(0, new StepEventListener[]{recorder})) {
+            final SidecarStepListener listener =
+                new SidecarStepListener("127.0.0.1", aggregator.port(), 1024 * 1024);
+            final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+            final int threadsCount = 4;
+            final int stepsCount = 100;
+            final Thread[] threads = new Thread[threadsCount];
+            for (int threadIdx = 0; threadIdx < threadsCount; ++threadIdx) {
+                threads[threadIdx] = new Thread(() -> {
+                    for (int stepIdx = 0; stepIdx < stepsCount; ++stepIdx) {
+                        reporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), "step", "",
+                            new Object[]{}, () -> reporter.report(new FakeHooksContainer(),
+                                new FakeExceptionHandler(), "nested step", "", new Object[]{}, () -> { }));
+                    }
+                });
+                threads[threadIdx].start();
+            }
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            listener.close();
+
+            final List<StepEvent> events = awaitEvents(recorder, threadsCount * stepsCount * 2);
+            assertThat(listener.droppedEventsCount()).isZero();
+            assertThat(events).filteredOn(event -> event.depth() == 1)
+                .allSatisfy(event -> {
+                    assertThat(event.name()).isEqualTo("nested step");
+                    assertThat(event.parent().name()).isEqualTo("step");
+                    assertThat(event.parent().threadId()).isEqualTo(event.threadId());
+                });
+        }
+    }
+
+    @Test
+    void unfinishedStepsFailedIfConnectionClosed() throws Exception {
+        final RecordingStepEventListener recorder = new RecordingStepEventListener();
+        try (final SidecarAggregator aggregator =
+                 new SidecarAggregator(0, new StepEventListener[]{recorder})) {
+            final SidecarStepListener listener = new SidecarStepListener("127.0.0.1", aggregator.port(), 1024);
+            final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+
+            reporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), "step", "", new Object[]{},
+                listener::close);
+
+            final List<StepEvent> events = awaitEvents(recorder, 1);
+            assertThat(events.get(0).outcome()).isSameAs(StepOutcome.FAILED);
+            assertThat(listener.droppedEventsCount()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    void testCasesReplayedInStepsThread() throws Exception {
+        final TestCaseRecorder recorder = new TestCaseRecorder();
+        try (final SidecarAggregator aggregator = new SidecarAggregator(0,
+            new StepEventListener[]{recorder}, new SidecarTestCaseListener[]{recorder})) {
+            final SidecarStepListener listener = new SidecarStepListener("127.0.0.1", aggregator.port(), 1024);
+            final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+            final RuntimeException exception = new RuntimeException("message");
+
+            SidecarStepListener.testCaseStarted("test", "Class.test");
+            reporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), "step", "", new Object[]{},
+                () -> { });
+            SidecarStepListener.testCaseFinished(exception);
+            listener.close();
+
+            final List<String> records = recorder.await(3);
+            final String uuid = records.get(0).split(" ")[1];
+            final String replayThread = records.get(0).split(" ")[0];
+            assertThat(records).containsExactly(
+                replayThread + " " + uuid + " started test Class.test",
+                replayThread + " step",
+                replayThread + " " + uuid + " finished java.lang.RuntimeException: message"
+            );
+            assertThat(replayThread).isNotEqualTo(Thread.currentThread().getName());
+        }
+    }
+
+    private static final class TestCaseRecorder implements StepEventListener, SidecarTestCaseListener {
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public synchronized void stepStarted(final StepEvent event) {
+            this.records.add(Thread.currentThread().getName() + " " + event.name());
+        }
+
+        @Override
+        public void stepFinished(final StepEvent event) {
+        }
+
+        @Override
+        public synchronized void testCaseStarted(final String uuid,
+                                                 final String name,
+                                                 final String fullName) {
+            this.records.add(Thread.currentThread().getName() + " " + uuid + " started " + name + " " + fullName);
+        }
+
+        @Override
+        public synchronized void testCaseFinished(final String uuid,
+                                                  final Throwable exception) {
+            this.records.add(Thread.currentThread().getName() + " " + uuid + " finished " + exception.getMessage());
+        }
+
+        private List<String> await(final int count) throws InterruptedException {
+            final long deadline = System.nanoTime() + 10_000_000_000L;
+            while (this.records().size() < count && System.nanoTime() - deadline < 0L) {
+                Thread.sleep(10L);
+            }
+            final List<String> records = this.records();
+            assertThat(records).hasSize(count);
+            return records;
+        }
+
+        private synchronized List<String> records() {
+            return new ArrayList<>(this.records);
+        }
+    }
+
+    private static List<StepEvent> awaitEvents(final RecordingStepEventListener recorder,
+                                               final int count) throws InterruptedException {
+        final long deadline = System.nanoTime() + 10_000_000_000L;
+        List<StepEvent> events = recorder.events();
+        while (events.size() < count && System.nanoTime() - deadline < 0L) {
+            Thread.sleep(10L);
+            events = recorder.events();
+        }
+        assertThat(events).hasSize(count);
+        return events;
+    }
+}
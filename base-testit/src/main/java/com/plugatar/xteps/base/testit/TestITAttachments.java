@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.testit;
+
+import com.plugatar.xteps.base.XtepsBase;
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+import com.plugatar.xteps.base.attachment.AttachmentStore;
+import ru.testit.services.Adapter;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Utility class. TestIT attachments utils.
+ */
+final class TestITAttachments {
+    private static final String STORE_NAMESPACE = "testit";
+
+    /**
+     * Utility class ctor.
+     */
+    private TestITAttachments() {
+    }
+
+    /**
+     * Adds given attachment to the current TestIT step or test. The TestIT attachment is
+     * named after the file, so a file source with the same name is uploaded directly,
+     * other sources are transferred to a temporary file with the attachment name.
+     * The already uploaded content is referenced by the attachment id instead of being
+     * uploaded again if attachment deduplication is enabled.
+     *
+     * @param name               the attachment name
+     * @param source             the attachment source
+     * @param currentAttachments the current TestIT step or test attachment ids updater
+     * @throws IOException if an I/O error occurs
+     */
+    static void addAttachment(final String name,
+                              final AttachmentSource source,
+                              final Consumer<Consumer<List<String>>> currentAttachments) throws IOException {
+        final AttachmentStore.Stored stored = XtepsBase.cached().attachmentStore().store(
+            STORE_NAMESPACE, source, storeSource -> {
+                uploadAttachment(name, storeSource);
+                final String[] attachmentId = new String[1];
+                currentAttachments.accept(ids -> attachmentId[0] = ids.isEmpty() ? null : ids.get(ids.size() - 1));
+                return attachmentId[0];
+            }
+        );
+        if (stored.isDuplicate()) {
+            currentAttachments.accept(ids -> ids.add(stored.ref()));
+        }
+    }
+
+    private static void uploadAttachment(final String name,
+                                         final AttachmentSource source) throws IOException {
+        final Path file = source.file();
+        if (file != null && file.getFileName().toString().equals(name)) {
+            Adapter.getAdapterManager().addAttachments(Collections.singletonList(file.toString()));
+            return;
+        }
+        final Path tempDir = Files.createTempDirectory("xteps-attachment");
+        final Path tempFile = tempDir.resolve(name.replace('/', '_').replace('\\', '_'));
+        try {
+            try (final FileChannel channel = FileChannel.open(
+                tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                source.transferTo(channel);
+            }
+            Adapter.getAdapterManager().addAttachments(Collections.singletonList(tempFile.toString()));
+        } finally {
+            Files.deleteIfExists(tempFile);
+            Files.deleteIfExists(tempDir);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.testit;
+
+import com.plugatar.xteps.base.handle.StepHandle;
+import ru.testit.models.StepResult;
+
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * {@link StepHandle} implementation for TestIT.
+ */
+final class TestITStepHandle implements StepHandle {
+    private final StepResult stepResult;
+
+    /**
+     * Ctor.
+     *
+     * @param stepResult the TestIT step result
+     */
+    TestITStepHandle(final StepResult stepResult) {
+        this.stepResult = stepResult;
+    }
+
+    @Override
+    public StepHandle name(final String name) {
+        this.stepResult.setName(name);
+        return this;
+    }
+
+    @Override
+    public StepHandle description(final String description) {
+        this.stepResult.setDescription(description);
+        return this;
+    }
+
+    @Override
+    public StepHandle param(final String name,
+                            final Object value) {
+        if (this.stepResult.getParameters() == null) {
+            this.stepResult.setParameters(new HashMap<>());
+        }
+        this.stepResult.getParameters().put(name, Objects.toString(value));
+        return this;
+    }
+
+    @Override
+    public <T> T toolStep(final Class<T> type) {
+        return type.isInstance(this.stepResult) ? type.cast(this.stepResult) : null;
+    }
+}
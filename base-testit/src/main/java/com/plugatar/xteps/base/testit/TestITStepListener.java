@@ -15,21 +15,36 @@
  */
 package com.plugatar.xteps.base.testit;
 
-import com.plugatar.xteps.base.StepListener;
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepOutcome;
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+import com.plugatar.xteps.base.handle.StepHandles;
 import ru.testit.models.ItemStatus;
 import ru.testit.models.StepResult;
 import ru.testit.services.Adapter;
 import ru.testit.services.AdapterManager;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
-import static com.plugatar.xteps.base.util.StepListenerUtils.paramArrayAsMap;
-import static com.plugatar.xteps.base.util.StepListenerUtils.processedTemplate;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedDescription;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedName;
 
 /**
- * {@link StepListener} implementation for TestIT.
+ * {@link StepEventListener} implementation for TestIT.
  */
-public class TestITStepListener implements StepListener {
+public class TestITStepListener implements StepEventListener {
+    private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+        ListenerCapability.UUID, ListenerCapability.NAME, ListenerCapability.RENDERED_NAME,
+        ListenerCapability.DESCRIPTION, ListenerCapability.RENDERED_DESCRIPTION, ListenerCapability.PARAMS,
+        ListenerCapability.ATTACHMENTS
+    ));
     private final String emptyNameReplacement;
     private final char leftReplacementBorder;
     private final char rightReplacementBorder;
@@ -64,59 +79,60 @@ public class TestITStepListener implements StepListener {
     }
 
     @Override
-    public final void stepStarted(final String uuid,
-                                  final String name,
-                                  final String description,
-                                  final Object[] params) {
-        Map<String, Object> replacements = null;
-        /* Step name processing */
-        final String processedName;
-        if (name.isEmpty()) {
-            processedName = this.emptyNameReplacement;
-        } else {
-            if (params.length == 0) {
-                processedName = name;
-            } else {
-                replacements = paramArrayAsMap(this.leftReplacementBorder, this.rightReplacementBorder, params);
-                processedName = processedTemplate(name, replacements);
-            }
-        }
-        /* Step description processing */
-        final String processedDescription;
-        if (description.isEmpty()) {
-            processedDescription = null;
-        } else {
-            if (params.length == 0) {
-                processedDescription = description;
-            } else {
-                if (replacements == null) {
-                    replacements = paramArrayAsMap(this.leftReplacementBorder, this.rightReplacementBorder, params);
-                }
-                processedDescription = processedTemplate(description, replacements);
-            }
+    public final Set<ListenerCapability> capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public final void stepStarted(final StepEvent event) {
+        final StepResult stepResult = new StepResult()
+            .setName(processedName(event, this.emptyNameReplacement,
+                this.leftReplacementBorder, this.rightReplacementBorder))
+            .setDescription(processedDescription(event, this.leftReplacementBorder, this.rightReplacementBorder));
+        if (StepHandles.isRequested()) {
+            StepHandles.bind(new TestITStepHandle(stepResult));
         }
-        /* Reporting */
-        Adapter.getAdapterManager().startStep(
-            uuid,
-            new StepResult().setName(processedName).setDescription(processedDescription)
-        );
+        Adapter.getAdapterManager().startStep(event.uuid(), stepResult);
     }
 
     @Override
-    public final void stepPassed(final String uuid) {
+    public final void stepFinished(final StepEvent event) {
         final AdapterManager adapterManager = Adapter.getAdapterManager();
-        adapterManager.updateStep(uuid, stepResult -> stepResult.setItemStatus(ItemStatus.PASSED));
+        final String uuid = event.uuid();
+        final Map<String, String> extraParams = event.extraParams();
+        if (event.outcome() == StepOutcome.PASSED) {
+            adapterManager.updateStep(uuid, stepResult -> {
+                addExtraParams(stepResult, extraParams);
+                stepResult.setItemStatus(ItemStatus.PASSED);
+            });
+        } else {
+            final Throwable exception = event.exception();
+            adapterManager.updateStep(uuid, stepResult -> {
+                addExtraParams(stepResult, extraParams);
+                stepResult.setItemStatus(ItemStatus.FAILED).setThrowable(exception);
+            });
+        }
         adapterManager.stopStep(uuid);
     }
 
     @Override
-    public final void stepFailed(final String uuid,
-                                 final Throwable exception) {
-        final AdapterManager adapterManager = Adapter.getAdapterManager();
-        adapterManager.updateStep(
-            uuid,
-            stepResult -> stepResult.setItemStatus(ItemStatus.FAILED).setThrowable(exception)
-        );
-        adapterManager.stopStep(uuid);
+    public final void stepAttachment(final StepEvent event,
+                                     final String name,
+                                     final String mimeType,
+                                     final AttachmentSource source) throws IOException {
+        final String uuid = event.uuid();
+        TestITAttachments.addAttachment(name, source, action ->
+            Adapter.getAdapterManager().updateStep(uuid, stepResult -> action.accept(stepResult.getAttachments())));
+    }
+
+    private static void addExtraParams(final StepResult stepResult,
+                                       final Map<String, String> extraParams) {
+        if (!extraParams.isEmpty()) {
+            if (stepResult.getParameters() == null) {
+                stepResult.setParameters(new HashMap<>(extraParams));
+            } else {
+                stepResult.getParameters().putAll(extraParams);
+            }
+        }
     }
 }
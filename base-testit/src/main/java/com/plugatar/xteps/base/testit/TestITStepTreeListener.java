@@ -0,0 +1,192 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.testit;
+
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepOutcome;
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+import com.plugatar.xteps.base.handle.StepHandles;
+import ru.testit.models.ItemStage;
+import ru.testit.models.ItemStatus;
+import ru.testit.models.StepResult;
+import ru.testit.services.Adapter;
+import ru.testit.services.AdapterManager;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedDescription;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedName;
+
+/**
+ * {@link StepEventListener} implementation for TestIT that records steps locally.
+ * Unlike {@link TestITStepListener} it doesn't call the {@link AdapterManager} for each step,
+ * nested steps are collected into a per-thread tree of {@link StepResult} objects and the
+ * whole tree is handed to the {@link AdapterManager} in one batch when the top-level step
+ * of the thread completes.
+ * <p>
+ * Updates of the current step made by {@code TestITStepUtils} are applied to the locally
+ * recorded step, see {@link #updateCurrentStep(Consumer)}.
+ * <p>
+ * Attachments are uploaded immediately and added to the current TestIT test, because
+ * locally recorded steps are not known to the {@link AdapterManager}.
+ * <p>
+ * Use this listener instead of {@link TestITStepListener}, not together with it.
+ */
+public class TestITStepTreeListener implements StepEventListener {
+    private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+        ListenerCapability.NAME, ListenerCapability.RENDERED_NAME, ListenerCapability.DESCRIPTION,
+        ListenerCapability.RENDERED_DESCRIPTION, ListenerCapability.PARAMS, ListenerCapability.ATTACHMENTS
+    ));
+    private static final ThreadLocal<Frame> CURRENT_FRAME = new ThreadLocal<>();
+    private final String emptyNameReplacement;
+    private final char leftReplacementBorder;
+    private final char rightReplacementBorder;
+
+    /**
+     * Zero-argument public ctor.
+     */
+    public TestITStepTreeListener() {
+        this("Step", '{', '}');
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param emptyNameReplacement   the empty step name replacement
+     * @param leftReplacementBorder  the left replacement border
+     * @param rightReplacementBorder the right replacement border
+     */
+    public TestITStepTreeListener(final String emptyNameReplacement,
+                                  final char leftReplacementBorder,
+                                  final char rightReplacementBorder) {
+        final Class<Adapter> dependencyCheck = Adapter.class;
+        if (emptyNameReplacement == null) {
+            throw new NullPointerException("emptyNameReplacement arg is null");
+        }
+        if (emptyNameReplacement.isEmpty()) {
+            throw new IllegalArgumentException("emptyNameReplacement arg is empty");
+        }
+        this.emptyNameReplacement = emptyNameReplacement;
+        this.leftReplacementBorder = leftReplacementBorder;
+        this.rightReplacementBorder = rightReplacementBorder;
+    }
+
+    /**
+     * Updates the step of the current thread recorded by this listener.
+     *
+     * @param updateConsumer the update consumer
+     * @return {@code true} if the current thread has a recorded step and it was updated,
+     * otherwise {@code false}
+     * @throws NullPointerException if {@code updateConsumer} is null
+     */
+    public static boolean updateCurrentStep(final Consumer<StepResult> updateConsumer) {
+        if (updateConsumer == null) { throw new NullPointerException("updateConsumer arg is null"); }
+        final Frame frame = CURRENT_FRAME.get();
+        if (frame == null) {
+            return false;
+        }
+        updateConsumer.accept(frame.stepResult);
+        return true;
+    }
+
+    @Override
+    public final Set<ListenerCapability> capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public final void stepStarted(final StepEvent event) {
+        /* Recording */
+        final StepResult stepResult = new StepResult()
+            .setName(processedName(event, this.emptyNameReplacement,
+                this.leftReplacementBorder, this.rightReplacementBorder))
+            .setDescription(processedDescription(event, this.leftReplacementBorder, this.rightReplacementBorder))
+            .setItemStage(ItemStage.RUNNING)
+            .setStart(System.currentTimeMillis());
+        if (StepHandles.isRequested()) {
+            StepHandles.bind(new TestITStepHandle(stepResult));
+        }
+        CURRENT_FRAME.set(new Frame(event, stepResult, CURRENT_FRAME.get()));
+    }
+
+    @Override
+    public final void stepFinished(final StepEvent event) {
+        final Frame frame = CURRENT_FRAME.get();
+        if (frame == null || frame.event != event) {
+            return;
+        }
+        final StepResult stepResult = frame.stepResult;
+        if (event.outcome() == StepOutcome.PASSED) {
+            stepResult.setItemStatus(ItemStatus.PASSED);
+        } else {
+            stepResult.setItemStatus(ItemStatus.FAILED).setThrowable(event.exception());
+        }
+        final Map<String, String> extraParams = event.extraParams();
+        if (!extraParams.isEmpty()) {
+            if (stepResult.getParameters() == null) {
+                stepResult.setParameters(new HashMap<>(extraParams));
+            } else {
+                stepResult.getParameters().putAll(extraParams);
+            }
+        }
+        if (frame.parent == null) {
+            CURRENT_FRAME.remove();
+            /* Reporting the whole tree, the adapter manager overrides the start time of the step */
+            final AdapterManager adapterManager = Adapter.getAdapterManager();
+            final Long start = stepResult.getStart();
+            final String uuid = UUID.randomUUID().toString();
+            adapterManager.startStep(uuid, stepResult);
+            stepResult.setStart(start);
+            adapterManager.stopStep(uuid);
+        } else {
+            CURRENT_FRAME.set(frame.parent);
+            stepResult.setItemStage(ItemStage.FINISHED).setStop(System.currentTimeMillis());
+            frame.parent.stepResult.getSteps().add(stepResult);
+        }
+    }
+
+    @Override
+    public final void stepAttachment(final StepEvent event,
+                                     final String name,
+                                     final String mimeType,
+                                     final AttachmentSource source) throws IOException {
+        TestITAttachments.addAttachment(name, source, action ->
+            Adapter.getAdapterManager().updateTestCase(testResult -> action.accept(testResult.getAttachments())));
+    }
+
+    private static final class Frame {
+        private final StepEvent event;
+        private final StepResult stepResult;
+        private final Frame parent;
+
+        private Frame(final StepEvent event,
+                      final StepResult stepResult,
+                      final Frame parent) {
+            this.event = event;
+            this.stepResult = stepResult;
+            this.parent = parent;
+        }
+    }
+}
@@ -15,10 +15,13 @@
  */
 package com.plugatar.xteps.base.testit;
 
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
 import org.junit.jupiter.api.Test;
 
-import java.util.UUID;
-
 import static org.assertj.core.api.Assertions.assertThatCode;
 
 /**
@@ -27,27 +30,29 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 final class TestITStepListenerTest {
 
     @Test
-    void stepStartedMethod() {
-        assertThatCode(() -> new TestITStepListener().stepStarted(
-            UUID.randomUUID().toString(),
-            "step name",
-            "step description",
-            new Object[]{}
-        )).doesNotThrowAnyException();
-    }
-
-    @Test
-    void stepPassedMethod() {
-        assertThatCode(() -> new TestITStepListener().stepPassed(
-            UUID.randomUUID().toString()
+    void passedStepMethods() {
+        final StepReporter stepReporter = new DefaultStepReporter(new StepEventListener[]{new TestITStepListener()});
+        assertThatCode(() -> stepReporter.report(
+            new FakeHooksContainer(),
+            new FakeExceptionHandler(),
+            "step name {0}",
+            "step description {0}",
+            new Object[]{"param"},
+            () -> null
         )).doesNotThrowAnyException();
     }
 
     @Test
-    void stepFailedMethod() {
-        assertThatCode(() -> new TestITStepListener().stepFailed(
-            UUID.randomUUID().toString(),
-            new Throwable()
-        )).doesNotThrowAnyException();
+    void failedStepMethods() {
+        final StepReporter stepReporter = new DefaultStepReporter(new StepEventListener[]{new TestITStepListener()});
+        final AssertionError error = new AssertionError();
+        assertThatCode(() -> stepReporter.report(
+            new FakeHooksContainer(),
+            new FakeExceptionHandler(),
+            "step name",
+            "",
+            new Object[]{},
+            () -> { throw error; }
+        )).isSameAs(error);
     }
 }
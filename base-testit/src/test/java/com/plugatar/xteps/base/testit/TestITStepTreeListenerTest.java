@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.testit;
+
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
+import org.junit.jupiter.api.Test;
+import ru.testit.models.ItemStage;
+import ru.testit.models.ItemStatus;
+import ru.testit.models.StepResult;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link TestITStepTreeListener}.
+ */
+final class TestITStepTreeListenerTest {
+    private final StepReporter stepReporter =
+        new DefaultStepReporter(new StepEventListener[]{new TestITStepTreeListener()});
+
+    @Test
+    void updateCurrentStepMethodWithoutStep() {
+        assertThat(TestITStepTreeListener.updateCurrentStep(stepResult -> { })).isFalse();
+    }
+
+    @Test
+    void nestedStepsRecordedLocally() {
+        final AtomicReference<StepResult> nestedStepRef = new AtomicReference<>();
+        final AtomicReference<StepResult> stepRef = new AtomicReference<>();
+        assertThatCode(() -> this.report("Step {0}", new Object[]{"value"}, () -> {
+            this.report("Nested step", new Object[]{}, () ->
+                assertThat(TestITStepTreeListener.updateCurrentStep(stepResult -> {
+                    nestedStepRef.set(stepResult);
+                    stepResult.setName("New nested step name");
+                })).isTrue()
+            );
+            TestITStepTreeListener.updateCurrentStep(stepRef::set);
+        })).doesNotThrowAnyException();
+
+        assertThat(stepRef.get().getName()).isEqualTo("Step value");
+        assertThat(stepRef.get().getSteps()).containsExactly(nestedStepRef.get());
+        assertThat(nestedStepRef.get().getName()).isEqualTo("New nested step name");
+        assertThat(nestedStepRef.get().getItemStatus()).isEqualTo(ItemStatus.PASSED);
+        assertThat(nestedStepRef.get().getItemStage()).isEqualTo(ItemStage.FINISHED);
+        assertThat(TestITStepTreeListener.updateCurrentStep(stepResult -> { })).isFalse();
+    }
+
+    @Test
+    void failedNestedStepRecordedLocally() {
+        final AtomicReference<StepResult> stepRef = new AtomicReference<>();
+        final RuntimeException exception = new RuntimeException();
+        assertThatCode(() -> this.report("Step", new Object[]{}, () -> {
+            TestITStepTreeListener.updateCurrentStep(stepRef::set);
+            this.report("Nested step", new Object[]{}, () -> { throw exception; });
+        })).isSameAs(exception);
+
+        final StepResult nestedStep = stepRef.get().getSteps().get(0);
+        assertThat(nestedStep.getItemStatus()).isEqualTo(ItemStatus.FAILED);
+        assertThat(nestedStep.getThrowable()).isSameAs(exception);
+        assertThat(stepRef.get().getItemStatus()).isEqualTo(ItemStatus.FAILED);
+        assertThat(TestITStepTreeListener.updateCurrentStep(stepResult -> { })).isFalse();
+    }
+
+    private void report(final String name,
+                        final Object[] params,
+                        final Runnable action) {
+        this.stepReporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), name, "", params, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -41,7 +41,7 @@ public interface HooksContainer {
     void setOrder(HooksOrder order);
 
     /**
-     * Calls all hooks in this container. Exceptions will be added to the
+     * Calls and removes all hooks in this container. Exceptions will be added to the
      * base exception as suppressed exceptions.
      *
      * @throws XtepsException if one or more hooks threw exceptions
@@ -49,7 +49,7 @@ public interface HooksContainer {
     void callHooks();
 
     /**
-     * Calls all hooks in this container. Exceptions will be added to the
+     * Calls and removes all hooks in this container. Exceptions will be added to the
      * given base exception as suppressed exceptions.
      *
      * @param baseException the base exception
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base;
+
+/**
+ * Step event listener capability. Declares which pieces of the {@link StepEvent}
+ * the listener consumes, see {@link StepEventListener#capabilities()}.
+ */
+public enum ListenerCapability {
+
+    /**
+     * The step UUID, see {@link StepEvent#uuid()}.
+     */
+    UUID,
+
+    /**
+     * The raw step name, see {@link StepEvent#name()}.
+     */
+    NAME,
+
+    /**
+     * The rendered step name, see {@link StepEvent#renderedName()}.
+     */
+    RENDERED_NAME,
+
+    /**
+     * The raw step description, see {@link StepEvent#description()}.
+     */
+    DESCRIPTION,
+
+    /**
+     * The rendered step description, see {@link StepEvent#renderedDescription()}.
+     */
+    RENDERED_DESCRIPTION,
+
+    /**
+     * The step params, see {@link StepEvent#params()}.
+     */
+    PARAMS,
+
+    /**
+     * The parent step and the depth, see {@link StepEvent#parent()} and {@link StepEvent#depth()}.
+     */
+    NESTING,
+
+    /**
+     * The step thread, see {@link StepEvent#threadId()} and {@link StepEvent#threadName()}.
+     */
+    THREAD,
+
+    /**
+     * The step timings, see {@link StepEvent#startNanos()} and {@link StepEvent#endNanos()}.
+     */
+    TIMINGS,
+
+    /**
+     * The step attachments, see {@link StepEventListener#stepAttachment(StepEvent, String, String,
+     * com.plugatar.xteps.base.attachment.AttachmentSource)}.
+     */
+    ATTACHMENTS
+}
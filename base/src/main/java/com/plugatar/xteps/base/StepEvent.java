@@ -0,0 +1,191 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static com.plugatar.xteps.base.util.StepListenerUtils.paramArrayAsMap;
+
+/**
+ * Step event. All values are computed once by the step reporter and shared by all
+ * {@link StepEventListener}s. The same event instance is passed to the
+ * {@link StepEventListener#stepStarted(StepEvent)} and the
+ * {@link StepEventListener#stepFinished(StepEvent)} methods.
+ * <p>
+ * The nesting, the thread and the timings can only be captured when the step is
+ * performed, so they are captured only if at least one listener declares the
+ * corresponding {@link ListenerCapability}. Otherwise the parent is null, the depth
+ * is zero, the thread ID is {@code -1}, the thread name is empty and the start and
+ * end times are zero. Other values are computed lazily on the first access.
+ */
+public interface StepEvent {
+
+    /**
+     * Returns the step UUID.
+     *
+     * @return the step UUID (not null, UUID format)
+     */
+    String uuid();
+
+    /**
+     * Returns the parent step event or null if the step is a root step of the thread.
+     *
+     * @return the parent step event (may be null)
+     */
+    StepEvent parent();
+
+    /**
+     * Returns the parent step UUID or null if the step is a root step of the thread.
+     *
+     * @return the parent step UUID (may be null)
+     */
+    default String parentUuid() {
+        final StepEvent parent = this.parent();
+        return parent == null ? null : parent.uuid();
+    }
+
+    /**
+     * Returns the step depth, zero for the root step of the thread.
+     *
+     * @return the step depth
+     */
+    int depth();
+
+    /**
+     * Returns the ID of the thread the step is performed in.
+     *
+     * @return the thread ID
+     */
+    long threadId();
+
+    /**
+     * Returns the name of the thread the step is performed in.
+     *
+     * @return the thread name (not null)
+     */
+    String threadName();
+
+    /**
+     * Returns the step start time in nanoseconds, see {@link System#nanoTime()}.
+     *
+     * @return the step start time
+     */
+    long startNanos();
+
+    /**
+     * Returns the step end time in nanoseconds, see {@link System#nanoTime()}.
+     * Equals to {@link #startNanos()} if the step is in progress.
+     *
+     * @return the step end time
+     */
+    long endNanos();
+
+    /**
+     * Returns the step duration in nanoseconds, zero if the step is in progress.
+     *
+     * @return the step duration
+     */
+    default long durationNanos() {
+        return this.endNanos() - this.startNanos();
+    }
+
+    /**
+     * Returns the step outcome.
+     *
+     * @return the step outcome (not null)
+     */
+    StepOutcome outcome();
+
+    /**
+     * Returns the step exception if the step failed.
+     *
+     * @return the step exception (not null if the outcome is {@link StepOutcome#FAILED})
+     */
+    Throwable exception();
+
+    /**
+     * Returns the step name.
+     *
+     * @return the step name (not null, may be empty)
+     */
+    String name();
+
+    /**
+     * Returns the step name with {@code {0}}, {@code {1}}, ... replaced by the
+     * corresponding params.
+     *
+     * @return the rendered step name (not null, may be empty)
+     */
+    String renderedName();
+
+    /**
+     * Returns the step description.
+     *
+     * @return the step description (not null, may be empty)
+     */
+    String description();
+
+    /**
+     * Returns the step description with {@code {0}}, {@code {1}}, ... replaced by the
+     * corresponding params.
+     *
+     * @return the rendered step description (not null, may be empty)
+     */
+    String renderedDescription();
+
+    /**
+     * Returns the step params.
+     *
+     * @return the params array (not null, but elements may be null)
+     */
+    Object[] params();
+
+    /**
+     * Returns the step params by their indexes ({@code "0"}, {@code "1"}, ...). This map
+     * is the replacements map for the template engines of the reporting tools, the step
+     * reporter computes it once and shares it between all listeners, the map should not
+     * be modified.
+     *
+     * @return the params by indexes (not null, but values may be null)
+     */
+    default Map<String, Object> paramsByIndex() {
+        return paramArrayAsMap(this.params());
+    }
+
+    /**
+     * Returns the extra params added to the step by the listeners, see
+     * {@link StepEventListener#stepFinishing(StepEvent)}. Default implementation returns
+     * an empty map.
+     *
+     * @return the extra params names and values (not null)
+     */
+    default Map<String, String> extraParams() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Adds the extra param to the step, see {@link StepEventListener#stepFinishing(StepEvent)}.
+     * Default implementation does nothing.
+     *
+     * @param name  the param name
+     * @param value the param value
+     * @throws XtepsException if {@code name} or {@code value} is null
+     */
+    default void addExtraParam(final String name,
+                               final String value) {
+    }
+}
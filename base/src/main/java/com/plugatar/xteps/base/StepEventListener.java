@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base;
+
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Step event listener. Unlike {@link StepListener} receives the step nesting,
+ * thread and timings computed once by the step reporter.
+ */
+public interface StepEventListener {
+
+    /**
+     * Returns the pieces of the step event this listener consumes. The step reporter
+     * computes each piece at most once per step and only if at least one listener
+     * declares it. Invoked once when the step reporter is created.
+     *
+     * @return the listener capabilities (not null)
+     */
+    default Set<ListenerCapability> capabilities() {
+        return EnumSet.allOf(ListenerCapability.class);
+    }
+
+    /**
+     * Invoked each time a step starts.
+     *
+     * @param event the step event (not null)
+     */
+    void stepStarted(StepEvent event);
+
+    /**
+     * Invoked each time a step finishes, before the {@link #stepFinished(StepEvent)} method
+     * of any listener. Values measured by the listener at the step finish can be added to
+     * the event as extra params, see {@link StepEvent#addExtraParam(String, String)}, so they
+     * are available to all listeners regardless of the listeners order. Default
+     * implementation does nothing.
+     *
+     * @param event the step event (not null), the same instance as for the
+     *              {@link #stepStarted(StepEvent)} method
+     */
+    default void stepFinishing(final StepEvent event) {
+    }
+
+    /**
+     * Invoked each time a step finishes, passed or failed, see {@link StepEvent#outcome()}.
+     *
+     * @param event the step event (not null), the same instance as for the
+     *              {@link #stepStarted(StepEvent)} method
+     */
+    void stepFinished(StepEvent event);
+
+    /**
+     * Invoked each time an attachment is added to the step if the listener declares the
+     * {@link ListenerCapability#ATTACHMENTS} capability. The source should be streamed,
+     * it will be closed after all listeners are invoked. Default implementation does nothing.
+     *
+     * @param event    the step event (not null), the same instance as for the
+     *                 {@link #stepStarted(StepEvent)} method
+     * @param name     the attachment name (not null)
+     * @param mimeType the attachment MIME type (not null)
+     * @param source   the attachment source (not null)
+     * @throws Exception if it's impossible to add the attachment
+     */
+    default void stepAttachment(final StepEvent event,
+                                final String name,
+                                final String mimeType,
+                                final AttachmentSource source) throws Exception {
+    }
+}
@@ -15,8 +15,13 @@
  */
 package com.plugatar.xteps.base;
 
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+
 /**
- * Step listener.
+ * Step listener. The step UUID and params are computed for each step because they are
+ * the arguments of the {@link #stepStarted(String, String, String, Object[])} method,
+ * implement {@link StepEventListener} to get the step values lazily and share the
+ * rendered name and description with other listeners.
  */
 public interface StepListener {
 
@@ -48,4 +53,20 @@ public interface StepListener {
      */
     void stepFailed(String uuid,
                     Throwable exception);
+
+    /**
+     * Invoked each time an attachment is added to the step. The source should be streamed,
+     * it will be closed after all listeners are invoked. Default implementation does nothing.
+     *
+     * @param uuid     the step UUID (not null, UUID format)
+     * @param name     the attachment name (not null)
+     * @param mimeType the attachment MIME type (not null)
+     * @param source   the attachment source (not null)
+     * @throws Exception if it's impossible to add the attachment
+     */
+    default void stepAttachment(final String uuid,
+                                final String name,
+                                final String mimeType,
+                                final AttachmentSource source) throws Exception {
+    }
 }
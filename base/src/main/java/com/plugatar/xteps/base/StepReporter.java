@@ -15,6 +15,10 @@
  */
 package com.plugatar.xteps.base;
 
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+
+import java.io.IOException;
+
 /**
  * Step reporter.
  */
@@ -32,8 +36,8 @@ public interface StepReporter {
      * @param <R>              the type of the {@code action} result
      * @param <E>              the {@code action} exception type
      * @return the {@code action} result
-     * @throws XtepsException if {@code name} or {@code description} or {@code params}
-     *                        or {@code action} is null
+     * @throws XtepsException if {@code hooksContainer} or {@code exceptionHandler} or {@code name}
+     *                        or {@code description} or {@code params} or {@code action} is null
      * @throws E              if {@code action} threw exception
      */
     <R, E extends Throwable> R report(
@@ -44,4 +48,261 @@ public interface StepReporter {
         Object[] params,
         ThrowingSupplier<? extends R, ? extends E> action
     ) throws E;
+
+    /**
+     * Reports given step.
+     *
+     * @param hooksContainer   the hooks container
+     * @param exceptionHandler the exception handler
+     * @param name             the step name
+     * @param description      the step description
+     * @param params           the step params array
+     * @param action           the step action
+     * @param <E>              the {@code action} exception type
+     * @throws XtepsException if {@code hooksContainer} or {@code exceptionHandler} or {@code name}
+     *                        or {@code description} or {@code params} or {@code action} is null
+     * @throws E              if {@code action} threw exception
+     */
+    default <E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final Object[] params,
+        final ThrowingRunnable<? extends E> action
+    ) throws E {
+        if (action == null) { throw new XtepsException("action arg is null"); }
+        this.report(hooksContainer, exceptionHandler, name, description, params, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Reports given step with given action arguments as the step params.
+     * Implementations may avoid allocating the step params array and the action wrapper.
+     *
+     * @param hooksContainer   the hooks container
+     * @param exceptionHandler the exception handler
+     * @param name             the step name
+     * @param description      the step description
+     * @param action           the step action
+     * @param arg              the {@code action} input argument
+     * @param <T>              the type of the {@code action} input argument
+     * @param <E>              the {@code action} exception type
+     * @throws XtepsException if {@code hooksContainer} or {@code exceptionHandler} or {@code name}
+     *                        or {@code description} or {@code action} is null
+     * @throws E              if {@code action} threw exception
+     */
+    default <T, E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingConsumer<? super T, ? extends E> action,
+        final T arg
+    ) throws E {
+        if (action == null) { throw new XtepsException("action arg is null"); }
+        this.report(hooksContainer, exceptionHandler, name, description, new Object[]{arg}, () -> {
+            action.accept(arg);
+            return null;
+        });
+    }
+
+    /**
+     * Reports given step with given action arguments as the step params.
+     * Implementations may avoid allocating the step params array and the action wrapper.
+     *
+     * @param hooksContainer   the hooks container
+     * @param exceptionHandler the exception handler
+     * @param name             the step name
+     * @param description      the step description
+     * @param action           the step action
+     * @param arg              the {@code action} input argument
+     * @param arg2             the {@code action} second input argument
+     * @param <T>              the type of the {@code action} input argument
+     * @param <U>              the type of the {@code action} second input argument
+     * @param <E>              the {@code action} exception type
+     * @throws XtepsException if {@code hooksContainer} or {@code exceptionHandler} or {@code name}
+     *                        or {@code description} or {@code action} is null
+     * @throws E              if {@code action} threw exception
+     */
+    default <T, U, E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingBiConsumer<? super T, ? super U, ? extends E> action,
+        final T arg,
+        final U arg2
+    ) throws E {
+        if (action == null) { throw new XtepsException("action arg is null"); }
+        this.report(hooksContainer, exceptionHandler, name, description, new Object[]{arg, arg2}, () -> {
+            action.accept(arg, arg2);
+            return null;
+        });
+    }
+
+    /**
+     * Reports given step with given action arguments as the step params.
+     * Implementations may avoid allocating the step params array and the action wrapper.
+     *
+     * @param hooksContainer   the hooks container
+     * @param exceptionHandler the exception handler
+     * @param name             the step name
+     * @param description      the step description
+     * @param action           the step action
+     * @param arg              the {@code action} input argument
+     * @param arg2             the {@code action} second input argument
+     * @param arg3             the {@code action} third input argument
+     * @param <T>              the type of the {@code action} input argument
+     * @param <U>              the type of the {@code action} second input argument
+     * @param <V>              the type of the {@code action} third input argument
+     * @param <E>              the {@code action} exception type
+     * @throws XtepsException if {@code hooksContainer} or {@code exceptionHandler} or {@code name}
+     *                        or {@code description} or {@code action} is null
+     * @throws E              if {@code action} threw exception
+     */
+    default <T, U, V, E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingTriConsumer<? super T, ? super U, ? super V, ? extends E> action,
+        final T arg,
+        final U arg2,
+        final V arg3
+    ) throws E {
+        if (action == null) { throw new XtepsException("action arg is null"); }
+        this.report(hooksContainer, exceptionHandler, name, description, new Object[]{arg, arg2, arg3}, () -> {
+            action.accept(arg, arg2, arg3);
+            return null;
+        });
+    }
+
+    /**
+     * Reports given step with given action arguments as the step params and returns step result.
+     * Implementations may avoid allocating the step params array and the action wrapper.
+     *
+     * @param hooksContainer   the hooks container
+     * @param exceptionHandler the exception handler
+     * @param name             the step name
+     * @param description      the step description
+     * @param action           the step action
+     * @param arg              the {@code action} input argument
+     * @param <T>              the type of the {@code action} input argument
+     * @param <R>              the type of the {@code action} result
+     * @param <E>              the {@code action} exception type
+     * @return the {@code action} result
+     * @throws XtepsException if {@code hooksContainer} or {@code exceptionHandler} or {@code name}
+     *                        or {@code description} or {@code action} is null
+     * @throws E              if {@code action} threw exception
+     */
+    default <T, R, E extends Throwable> R report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingFunction<? super T, ? extends R, ? extends E> action,
+        final T arg
+    ) throws E {
+        if (action == null) { throw new XtepsException("action arg is null"); }
+        return this.report(hooksContainer, exceptionHandler, name, description, new Object[]{arg},
+            () -> action.apply(arg));
+    }
+
+    /**
+     * Reports given step with given action arguments as the step params and returns step result.
+     * Implementations may avoid allocating the step params array and the action wrapper.
+     *
+     * @param hooksContainer   the hooks container
+     * @param exceptionHandler the exception handler
+     * @param name             the step name
+     * @param description      the step description
+     * @param action           the step action
+     * @param arg              the {@code action} input argument
+     * @param arg2             the {@code action} second input argument
+     * @param <T>              the type of the {@code action} input argument
+     * @param <U>              the type of the {@code action} second input argument
+     * @param <R>              the type of the {@code action} result
+     * @param <E>              the {@code action} exception type
+     * @return the {@code action} result
+     * @throws XtepsException if {@code hooksContainer} or {@code exceptionHandler} or {@code name}
+     *                        or {@code description} or {@code action} is null
+     * @throws E              if {@code action} threw exception
+     */
+    default <T, U, R, E extends Throwable> R report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingBiFunction<? super T, ? super U, ? extends R, ? extends E> action,
+        final T arg,
+        final U arg2
+    ) throws E {
+        if (action == null) { throw new XtepsException("action arg is null"); }
+        return this.report(hooksContainer, exceptionHandler, name, description, new Object[]{arg, arg2},
+            () -> action.apply(arg, arg2));
+    }
+
+    /**
+     * Reports given step with given action arguments as the step params and returns step result.
+     * Implementations may avoid allocating the step params array and the action wrapper.
+     *
+     * @param hooksContainer   the hooks container
+     * @param exceptionHandler the exception handler
+     * @param name             the step name
+     * @param description      the step description
+     * @param action           the step action
+     * @param arg              the {@code action} input argument
+     * @param arg2             the {@code action} second input argument
+     * @param arg3             the {@code action} third input argument
+     * @param <T>              the type of the {@code action} input argument
+     * @param <U>              the type of the {@code action} second input argument
+     * @param <V>              the type of the {@code action} third input argument
+     * @param <R>              the type of the {@code action} result
+     * @param <E>              the {@code action} exception type
+     * @return the {@code action} result
+     * @throws XtepsException if {@code hooksContainer} or {@code exceptionHandler} or {@code name}
+     *                        or {@code description} or {@code action} is null
+     * @throws E              if {@code action} threw exception
+     */
+    default <T, U, V, R, E extends Throwable> R report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingTriFunction<? super T, ? super U, ? super V, ? extends R, ? extends E> action,
+        final T arg,
+        final U arg2,
+        final V arg3
+    ) throws E {
+        if (action == null) { throw new XtepsException("action arg is null"); }
+        return this.report(hooksContainer, exceptionHandler, name, description, new Object[]{arg, arg2, arg3},
+            () -> action.apply(arg, arg2, arg3));
+    }
+
+    /**
+     * Adds given attachment to the current step of the current thread and closes the source.
+     * Default implementation only closes the source.
+     *
+     * @param name     the attachment name
+     * @param mimeType the attachment MIME type
+     * @param source   the attachment source
+     * @throws XtepsException if {@code name} or {@code mimeType} or {@code source} is null
+     *                        or if there is no current step
+     *                        or if it's impossible to add the attachment
+     */
+    default void attach(final String name,
+                        final String mimeType,
+                        final AttachmentSource source) {
+        if (name == null) { throw new XtepsException("name arg is null"); }
+        if (mimeType == null) { throw new XtepsException("mimeType arg is null"); }
+        if (source == null) { throw new XtepsException("source arg is null"); }
+        try {
+            source.close();
+        } catch (final IOException ex) {
+            throw new XtepsException("Cannot close attachment source cause " + ex, ex);
+        }
+    }
 }
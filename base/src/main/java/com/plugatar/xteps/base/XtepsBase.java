@@ -15,6 +15,11 @@
  */
 package com.plugatar.xteps.base;
 
+import com.plugatar.xteps.base.attachment.AttachmentStore;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.util.ObjectFormatter;
+
 /**
  * Xteps base.
  */
@@ -63,6 +68,49 @@ public interface XtepsBase {
      */
     int threadHooksThreadPriority();
 
+    /**
+     * Returns the step results cache. The default implementation returns the cache shared by
+     * all XtepsBase implementations that do not override this method, the cache is configured
+     * with the default values of the {@code xteps.cache.*} properties.
+     *
+     * @return the step results cache
+     */
+    default StepCache stepCache() {
+        return XtepsBaseDefaults.stepCache();
+    }
+
+    /**
+     * Returns the shared step results. The default implementation returns the shared step
+     * results shared by all XtepsBase implementations that do not override this method.
+     *
+     * @return the shared step results
+     */
+    default SharedResources sharedResources() {
+        return XtepsBaseDefaults.sharedResources();
+    }
+
+    /**
+     * Returns the attachment deduplication store. The default implementation returns the
+     * disabled store shared by all XtepsBase implementations that do not override this method.
+     *
+     * @return the attachment deduplication store
+     */
+    default AttachmentStore attachmentStore() {
+        return XtepsBaseDefaults.attachmentStore();
+    }
+
+    /**
+     * Returns the object formatter used to render step params and contexts. The default
+     * implementation returns the formatter shared by all XtepsBase implementations that do
+     * not override this method, the formatter is configured with the default values of the
+     * {@code xteps.format.*} properties.
+     *
+     * @return the object formatter
+     */
+    default ObjectFormatter objectFormatter() {
+        return XtepsBaseDefaults.objectFormatter();
+    }
+
     /**
      * Returns cached XtepsBase instance.
      *
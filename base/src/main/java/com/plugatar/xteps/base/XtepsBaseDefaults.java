@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base;
+
+import com.plugatar.xteps.base.attachment.AttachmentStore;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.util.ObjectFormatter;
+
+import java.time.Duration;
+
+/**
+ * Default instances of the {@link XtepsBase} components that are returned by the default
+ * methods of {@link XtepsBase}. Each instance is created on first use and configured with
+ * the default values of the corresponding Xteps properties.
+ */
+final class XtepsBaseDefaults {
+
+    private XtepsBaseDefaults() {
+    }
+
+    static StepCache stepCache() {
+        return StepCacheHolder.INSTANCE;
+    }
+
+    static SharedResources sharedResources() {
+        return SharedResourcesHolder.INSTANCE;
+    }
+
+    static AttachmentStore attachmentStore() {
+        return AttachmentStoreHolder.INSTANCE;
+    }
+
+    static ObjectFormatter objectFormatter() {
+        return ObjectFormatterHolder.INSTANCE;
+    }
+
+    private static final class StepCacheHolder {
+        private static final StepCache INSTANCE =
+            XtepsBaseProvider.newStepCache(1000L, Duration.ZERO, HooksOrder.FROM_LAST, false);
+    }
+
+    private static final class SharedResourcesHolder {
+        private static final SharedResources INSTANCE = new SharedResources(HooksOrder.FROM_LAST);
+    }
+
+    private static final class AttachmentStoreHolder {
+        private static final AttachmentStore INSTANCE = new AttachmentStore(false, 10000);
+    }
+
+    private static final class ObjectFormatterHolder {
+        private static final ObjectFormatter INSTANCE = new ObjectFormatter(1000, 100);
+    }
+}
@@ -15,15 +15,25 @@
  */
 package com.plugatar.xteps.base;
 
+import com.plugatar.xteps.base.attachment.AttachmentStore;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.capture.StepLogCapture;
 import com.plugatar.xteps.base.handler.DefaultExceptionHandler;
 import com.plugatar.xteps.base.handler.FakeExceptionHandler;
 import com.plugatar.xteps.base.hook.DefaultHooksContainer;
 import com.plugatar.xteps.base.reporter.DefaultStepReporter;
 import com.plugatar.xteps.base.reporter.FakeStepReporter;
+import com.plugatar.xteps.base.sampler.StepSampler;
+import com.plugatar.xteps.base.util.ObjectFormatter;
 
-import java.io.InputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
@@ -33,6 +43,14 @@ import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.plugatar.xteps.base.util.PropertiesUtils.booleanProperty;
+import static com.plugatar.xteps.base.util.PropertiesUtils.intPropertyInRange;
+import static com.plugatar.xteps.base.util.PropertiesUtils.longPropertyInRange;
+import static com.plugatar.xteps.base.util.PropertiesUtils.propertyException;
+import static com.plugatar.xteps.base.util.PropertiesUtils.stringListProperty;
+import static com.plugatar.xteps.base.util.PropertiesUtils.stringProperty;
+import static com.plugatar.xteps.base.util.PropertiesUtils.systemPropertiesWithFile;
+
 /**
  * XtepsBase provider.
  */
@@ -68,15 +86,39 @@ final class XtepsBaseProvider {
         final StepReporter stepReporter;
         if (booleanProperty(properties, "xteps.enabled", true)) {
             final List<StepListener> listeners = new ArrayList<>();
+            final List<StepEventListener> eventListeners = new ArrayList<>();
             if (booleanProperty(properties, "xteps.spi", true)) {
-                listeners.addAll(listenersBySPI());
+                listeners.addAll(listenersBySPI(StepListener.class));
+                eventListeners.addAll(listenersBySPI(StepEventListener.class));
             }
-            listeners.addAll(listenersByClassNames(stringListProperty(
+            for (final Object listener : listenersByClassNames(stringListProperty(
                 properties, "xteps.listeners", ",", Collections.emptyList()
-            )));
-            stepReporter = listeners.isEmpty()
-                ? new FakeStepReporter()
-                : new DefaultStepReporter(uniqueByClass(listeners).toArray(new StepListener[0]));
+            ))) {
+                if (listener instanceof StepEventListener) {
+                    eventListeners.add((StepEventListener) listener);
+                } else {
+                    listeners.add((StepListener) listener);
+                }
+            }
+            final List<StepEventListener> uniqueEventListeners = uniqueByClass(eventListeners);
+            final List<StepListener> uniqueListeners = uniqueByClass(listeners).stream()
+                .filter(listener -> !(listener instanceof StepEventListener))
+                .collect(Collectors.toList());
+            if (uniqueListeners.isEmpty() && uniqueEventListeners.isEmpty()) {
+                stepReporter = new FakeStepReporter();
+            } else if (booleanProperty(properties, "xteps.logCapture", false)) {
+                final StepLogCapture logCapture = new StepLogCapture(
+                    intPropertyInRange(properties, "xteps.logCapture.bufferSize", 1, Integer.MAX_VALUE, 65536),
+                    booleanProperty(properties, "xteps.logCapture.logging", true),
+                    booleanProperty(properties, "xteps.logCapture.stdout", true)
+                );
+                logCapture.install();
+                stepReporter = new DefaultStepReporter(uniqueListeners.toArray(new StepListener[0]),
+                    uniqueEventListeners.toArray(new StepEventListener[0]), logCapture);
+            } else {
+                stepReporter = new DefaultStepReporter(uniqueListeners.toArray(new StepListener[0]),
+                    uniqueEventListeners.toArray(new StepEventListener[0]));
+            }
         } else {
             stepReporter = new FakeStepReporter();
         }
@@ -91,7 +133,56 @@ final class XtepsBaseProvider {
             Thread.MIN_PRIORITY, Thread.MAX_PRIORITY, Thread.NORM_PRIORITY);
         final ThrowingSupplier<HooksContainer, RuntimeException> hooksContainerGenerator =
             () -> new DefaultHooksContainer(defaultHooksOrder);
+        final long cacheMaxWeight = longPropertyInRange(properties, "xteps.cache.maxWeight",
+            1L, Long.MAX_VALUE, 1000L);
+        final Duration cacheTtl = Duration.ofMillis(longPropertyInRange(properties, "xteps.cache.ttl",
+            0L, Long.MAX_VALUE, 0L));
+        final boolean printCacheStats = booleanProperty(properties, "xteps.cache.printStats", false);
+        final SharedResources sharedResources = new SharedResources(defaultHooksOrder);
+        final ObjectFormatter objectFormatter = new ObjectFormatter(
+            intPropertyInRange(properties, "xteps.format.maxLength", 1, Integer.MAX_VALUE, 1000),
+            intPropertyInRange(properties, "xteps.format.maxElements", 1, Integer.MAX_VALUE, 100)
+        );
+        final AttachmentStore attachmentStore = new AttachmentStore(
+            booleanProperty(properties, "xteps.attachments.dedup", false),
+            intPropertyInRange(properties, "xteps.attachments.dedup.maxIndexSize", 1, Integer.MAX_VALUE, 10000)
+        );
+        final boolean printAttachmentStats = booleanProperty(properties, "xteps.attachments.dedup.printStats", false);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (printAttachmentStats) {
+                System.out.println("Xteps " + attachmentStore);
+            }
+            attachmentStore.clear();
+        }, "xteps-attachment-store-shutdown-thread"));
+        if (booleanProperty(properties, "xteps.sampler", false)) {
+            final StepSampler stepSampler = new StepSampler(
+                longPropertyInRange(properties, "xteps.sampler.interval", 1L, Long.MAX_VALUE, 10L),
+                intPropertyInRange(properties, "xteps.sampler.maxPaths", 1, Integer.MAX_VALUE, 10000),
+                threadHookPriority
+            );
+            final String wallTimeFile = stringProperty(properties, "xteps.sampler.wallFile",
+                "xteps-sampler-wall.folded");
+            final String cpuTimeFile = stringProperty(properties, "xteps.sampler.cpuFile",
+                "xteps-sampler-cpu.folded");
+            /* Files are written by the sampler daemon thread hook, see ThreadHooks */
+            stepSampler.start(() -> {
+                try (final Writer writer = new OutputStreamWriter(
+                    new FileOutputStream(wallTimeFile), StandardCharsets.UTF_8)) {
+                    stepSampler.writeWallTimeTo(writer);
+                } catch (final IOException ex) {
+                    ex.printStackTrace();
+                }
+                try (final Writer writer = new OutputStreamWriter(
+                    new FileOutputStream(cpuTimeFile), StandardCharsets.UTF_8)) {
+                    stepSampler.writeCpuTimeTo(writer);
+                } catch (final IOException ex) {
+                    ex.printStackTrace();
+                }
+            });
+        }
         return new XtepsBase() {
+            private volatile StepCache stepCache = null;
+
             @Override
             public StepReporter stepReporter() {
                 return stepReporter;
@@ -121,111 +212,51 @@ final class XtepsBaseProvider {
             public int threadHooksThreadPriority() {
                 return threadHookPriority;
             }
-        };
-    }
 
-    private static Properties systemPropertiesWithFile(final String propertiesFilePath) {
-        final Properties properties = new Properties();
-        try (final InputStream stream =
-                 ClassLoader.getSystemClassLoader().getResourceAsStream(propertiesFilePath)) {
-            if (stream != null) {
-                properties.load(stream);
-            }
-        } catch (final Exception ignored) { }
-        try (final InputStream stream =
-                 Thread.currentThread().getContextClassLoader().getResourceAsStream(propertiesFilePath)) {
-            if (stream != null) {
-                properties.load(stream);
+            @Override
+            public StepCache stepCache() {
+                StepCache cache = this.stepCache;
+                if (cache == null) {
+                    synchronized (this) {
+                        cache = this.stepCache;
+                        if (cache == null) {
+                            cache = newStepCache(cacheMaxWeight, cacheTtl, defaultHooksOrder, printCacheStats);
+                            this.stepCache = cache;
+                        }
+                    }
+                }
+                return cache;
             }
-        } catch (final Exception ignored) { }
-        properties.putAll(System.getProperties());
-        return properties;
-    }
 
-    private static boolean booleanProperty(final Properties properties,
-                                           final String propertyName,
-                                           final boolean defaultValue) {
-        final String propertyValue = properties.getProperty(propertyName);
-        if (propertyValue == null) {
-            return defaultValue;
-        }
-        final String trimmedPropertyValue = propertyValue.trim();
-        if (trimmedPropertyValue.isEmpty()) {
-            return defaultValue;
-        }
-        if (trimmedPropertyValue.equalsIgnoreCase("false")) {
-            return false;
-        }
-        if (trimmedPropertyValue.equalsIgnoreCase("true")) {
-            return true;
-        }
-        throw throwXtepsPropertyException(propertyName, propertyValue);
-    }
+            @Override
+            public SharedResources sharedResources() {
+                return sharedResources;
+            }
 
-    private static long longPropertyInRange(final Properties properties,
-                                            final String propertyName,
-                                            final long min,
-                                            final long max,
-                                            final long defaultValue) {
-        final String propertyValue = properties.getProperty(propertyName);
-        if (propertyValue == null) {
-            return defaultValue;
-        }
-        final String trimmedPropertyValue = propertyValue.trim();
-        if (trimmedPropertyValue.isEmpty()) {
-            return defaultValue;
-        }
-        try {
-            final long longValue = Long.parseLong(trimmedPropertyValue);
-            if (longValue < min || longValue > max) {
-                throw throwXtepsPropertyException(propertyName, propertyValue);
+            @Override
+            public AttachmentStore attachmentStore() {
+                return attachmentStore;
             }
-            return longValue;
-        } catch (final NumberFormatException ex) {
-            throw throwXtepsPropertyException(propertyName, propertyValue);
-        }
-    }
 
-    private static int intPropertyInRange(final Properties properties,
-                                          final String propertyName,
-                                          final int min,
-                                          final int max,
-                                          final int defaultValue) {
-        final String propertyValue = properties.getProperty(propertyName);
-        if (propertyValue == null) {
-            return defaultValue;
-        }
-        final String trimmedPropertyValue = propertyValue.trim();
-        if (trimmedPropertyValue.isEmpty()) {
-            return defaultValue;
-        }
-        try {
-            final int intValue = Integer.parseInt(trimmedPropertyValue);
-            if (intValue < min || intValue > max) {
-                throw throwXtepsPropertyException(propertyName, propertyValue);
+            @Override
+            public ObjectFormatter objectFormatter() {
+                return objectFormatter;
             }
-            return intValue;
-        } catch (final NumberFormatException ex) {
-            throw throwXtepsPropertyException(propertyName, propertyValue);
-        }
+        };
     }
 
-    private static List<String> stringListProperty(final Properties properties,
-                                                   final String propertyName,
-                                                   final String delimiter,
-                                                   final List<String> defaultValue) {
-        final String propertyValue = properties.getProperty(propertyName);
-        if (propertyValue == null) {
-            return defaultValue;
-        }
-        final List<String> stringList = Arrays.stream(propertyValue.split(delimiter))
-            .map(String::trim)
-            .filter(str -> !str.isEmpty())
-            .collect(Collectors.toList());
-        if (stringList.isEmpty()) {
-            return defaultValue;
-        }
-        return stringList;
+    static StepCache newStepCache(final long maxWeight,
+                                  final Duration ttl,
+                                  final HooksOrder hooksOrder,
+                                  final boolean printStats) {
+        final StepCache stepCache = new StepCache(maxWeight, ttl, StepCache.defaultWeigher(), hooksOrder);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (printStats) {
+                System.out.println("Xteps " + stepCache);
+            }
+            stepCache.invalidateAll();
+        }, "xteps-step-cache-shutdown-thread"));
+        return stepCache;
     }
 
     private static HooksOrder hooksOrderProperty(final Properties properties,
@@ -244,30 +275,35 @@ final class XtepsBaseProvider {
                 return currentOrder;
             }
         }
-        throw throwXtepsPropertyException(propertyName, propertyValue);
+        throw propertyException(propertyName, propertyValue);
     }
 
-    private static List<StepListener> listenersBySPI() {
-        final List<StepListener> listeners = new ArrayList<>();
+    private static <T> List<T> listenersBySPI(final Class<T> listenerClass) {
+        final List<T> listeners = new ArrayList<>();
         try {
-            for (final StepListener listener : ServiceLoader.load(StepListener.class)) {
+            for (final T listener : ServiceLoader.load(listenerClass)) {
                 listeners.add(listener);
             }
         } catch (final Exception ex) {
-            throw new XtepsException("Cannot instantiate StepListener by SPI cause " + ex, ex);
+            throw new XtepsException("Cannot instantiate " + listenerClass.getSimpleName() + " by SPI cause " + ex,
+                ex);
         }
         return listeners;
     }
 
-    private static List<StepListener> listenersByClassNames(final List<String> classNames) {
-        final List<StepListener> listeners = new ArrayList<>();
+    private static List<Object> listenersByClassNames(final List<String> classNames) {
+        final List<Object> listeners = new ArrayList<>();
         for (final String className : classNames) {
-            final StepListener listener;
+            final Object listener;
             try {
-                listener = (StepListener) Class.forName(className).getConstructor().newInstance();
+                listener = Class.forName(className).getConstructor().newInstance();
             } catch (final Exception ex) {
                 throw new XtepsException("Cannot instantiate StepListener " + className + " cause " + ex, ex);
             }
+            if (!(listener instanceof StepListener) && !(listener instanceof StepEventListener)) {
+                throw new XtepsException("Cannot instantiate StepListener " + className + " cause " + className
+                    + " is neither StepListener nor StepEventListener");
+            }
             listeners.add(listener);
         }
         return listeners;
@@ -279,9 +315,4 @@ final class XtepsBaseProvider {
             .filter(listener -> classes.add(listener.getClass()))
             .collect(Collectors.toList());
     }
-
-    private static XtepsException throwXtepsPropertyException(final String propertyName,
-                                                              final String propertyValue) {
-        throw new XtepsException("Incorrect value " + propertyValue + " for " + propertyName + "property");
-    }
 }
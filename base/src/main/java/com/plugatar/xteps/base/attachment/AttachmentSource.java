@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.attachment;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * Attachment source. The attachment content is streamed from the source to the
+ * reporting tool, it is never loaded into the heap as a whole.
+ */
+public interface AttachmentSource extends Closeable {
+
+    /**
+     * Returns {@code true} if the content can be read more than once.
+     *
+     * @return {@code true} if the content can be read more than once, otherwise {@code false}
+     */
+    boolean isRepeatable();
+
+    /**
+     * Returns the file of the source or null if the source is not a file.
+     *
+     * @return the file or null
+     */
+    Path file();
+
+    /**
+     * Returns the content size in bytes or {@code -1} if the size is unknown.
+     *
+     * @return the content size in bytes or {@code -1}
+     */
+    long size();
+
+    /**
+     * Opens the content stream. A not repeatable source can be opened only once.
+     *
+     * @return the content stream
+     * @throws IOException if an I/O error occurs or if the not repeatable source is already opened
+     */
+    InputStream openStream() throws IOException;
+
+    /**
+     * Transfers the content to given channel. Files are transferred by
+     * {@link java.nio.channels.FileChannel#transferTo(long, long, WritableByteChannel)}.
+     * A not repeatable source can be transferred only once.
+     *
+     * @param target the target channel
+     * @return the number of transferred bytes
+     * @throws IOException if an I/O error occurs or if the not repeatable source is already opened
+     */
+    long transferTo(WritableByteChannel target) throws IOException;
+
+    /**
+     * Returns repeatable attachment source of given file.
+     *
+     * @param file the file
+     * @return attachment source
+     * @throws NullPointerException if {@code file} is null
+     */
+    static AttachmentSource ofFile(final Path file) {
+        if (file == null) { throw new NullPointerException("file arg is null"); }
+        return new FileAttachmentSource(file);
+    }
+
+    /**
+     * Returns not repeatable attachment source of given channel. The channel
+     * will be closed by the {@link #close()} method.
+     *
+     * @param channel the channel
+     * @return attachment source
+     * @throws NullPointerException if {@code channel} is null
+     */
+    static AttachmentSource ofChannel(final ReadableByteChannel channel) {
+        if (channel == null) { throw new NullPointerException("channel arg is null"); }
+        return new ChannelAttachmentSource(channel);
+    }
+
+    /**
+     * Returns not repeatable attachment source of given stream. The stream
+     * will be closed by the {@link #close()} method.
+     *
+     * @param stream the stream
+     * @return attachment source
+     * @throws NullPointerException if {@code stream} is null
+     */
+    static AttachmentSource ofStream(final InputStream stream) {
+        if (stream == null) { throw new NullPointerException("stream arg is null"); }
+        return new ChannelAttachmentSource(Channels.newChannel(stream));
+    }
+}
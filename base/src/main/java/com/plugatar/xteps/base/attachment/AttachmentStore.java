@@ -0,0 +1,391 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.attachment;
+
+import com.plugatar.xteps.base.ThrowingFunction;
+import com.plugatar.xteps.base.XtepsException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed attachment store. The attachment content is hashed (SHA-256) while it is
+ * streamed, the content seen for the first time is written by the reporting tool writer once
+ * and the returned reference is reused for the same content afterwards.
+ * <p>
+ * The references are kept in the concurrent in-memory index bounded by the max index size,
+ * the oldest references are spilled to files and read back on demand. Concurrent attempts
+ * to store the same content wait for the first one. References are separated by namespaces,
+ * each reporting tool should use its own namespace.
+ */
+public final class AttachmentStore {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private final boolean enabled;
+    private final int maxIndexSize;
+    private final ConcurrentMap<String, CompletableFuture<String>> index;
+    private final Queue<String> indexOrder;
+    private final AtomicLong storedCount;
+    private final AtomicLong duplicateCount;
+    private final AtomicLong spilledCount;
+    private final AtomicLong bytesWritten;
+    private final AtomicLong bytesSaved;
+    private volatile Path spillDir;
+
+    /**
+     * Ctor.
+     *
+     * @param enabled      the deduplication enabled flag, a disabled store writes every attachment
+     * @param maxIndexSize the max count of references in the in-memory index
+     * @throws XtepsException if {@code maxIndexSize} is less than 1
+     */
+    public AttachmentStore(final boolean enabled,
+                           final int maxIndexSize) {
+        if (maxIndexSize < 1) { throw new XtepsException("maxIndexSize arg is less than 1"); }
+        this.enabled = enabled;
+        this.maxIndexSize = maxIndexSize;
+        this.index = new ConcurrentHashMap<>();
+        this.indexOrder = new ConcurrentLinkedQueue<>();
+        this.storedCount = new AtomicLong();
+        this.duplicateCount = new AtomicLong();
+        this.spilledCount = new AtomicLong();
+        this.bytesWritten = new AtomicLong();
+        this.bytesSaved = new AtomicLong();
+        this.spillDir = null;
+    }
+
+    /**
+     * Stores given attachment source. The {@code writer} is called only if the content was not
+     * seen before in given namespace, it should write the attachment and return the reference
+     * to it. Null reference means that the content should not be deduplicated.
+     *
+     * @param namespace the namespace
+     * @param source    the attachment source
+     * @param writer    the attachment writer
+     * @param <E>       the {@code writer} exception type
+     * @return stored attachment
+     * @throws XtepsException if {@code namespace} or {@code source} or {@code writer} is null
+     * @throws IOException    if an I/O error occurs
+     * @throws E              if {@code writer} threw exception
+     */
+    public <E extends Throwable> Stored store(
+        final String namespace,
+        final AttachmentSource source,
+        final ThrowingFunction<? super AttachmentSource, String, ? extends E> writer
+    ) throws IOException, E {
+        if (namespace == null) { throw new XtepsException("namespace arg is null"); }
+        if (source == null) { throw new XtepsException("source arg is null"); }
+        if (writer == null) { throw new XtepsException("writer arg is null"); }
+        if (!this.enabled) {
+            return new Stored(writer.apply(source), false);
+        }
+        final MessageDigest digest = newDigest();
+        digest.update(namespace.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        if (source.isRepeatable()) {
+            final long size = source.transferTo(new DigestChannel(digest, null));
+            return this.store(hex(digest.digest()), size, source, writer);
+        }
+        final Path spoolFile = Files.createTempFile("xteps-attachment", ".tmp");
+        try {
+            final long size;
+            try (final FileChannel spoolChannel = FileChannel.open(spoolFile, StandardOpenOption.WRITE)) {
+                size = source.transferTo(new DigestChannel(digest, spoolChannel));
+            }
+            try (final AttachmentSource spooledSource = AttachmentSource.ofFile(spoolFile)) {
+                return this.store(hex(digest.digest()), size, spooledSource, writer);
+            }
+        } finally {
+            Files.deleteIfExists(spoolFile);
+        }
+    }
+
+    /**
+     * Clears the index and deletes spilled references.
+     */
+    public void clear() {
+        this.index.clear();
+        this.indexOrder.clear();
+        final Path dir = this.spillDir;
+        if (dir != null) {
+            try (final Stream<Path> files = Files.list(dir)) {
+                files.forEach(file -> {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (final IOException ignored) { }
+                });
+            } catch (final IOException ignored) { }
+            try {
+                Files.deleteIfExists(dir);
+            } catch (final IOException ignored) { }
+            this.spillDir = null;
+        }
+    }
+
+    /**
+     * Returns the count of attachments written by the writer.
+     *
+     * @return the count of written attachments
+     */
+    public long storedCount() {
+        return this.storedCount.get();
+    }
+
+    /**
+     * Returns the count of attachments replaced by the reference to the already written content.
+     *
+     * @return the count of duplicate attachments
+     */
+    public long duplicateCount() {
+        return this.duplicateCount.get();
+    }
+
+    /**
+     * Returns the count of references spilled from the in-memory index to files.
+     *
+     * @return the count of spilled references
+     */
+    public long spilledCount() {
+        return this.spilledCount.get();
+    }
+
+    /**
+     * Returns the total size of attachments written by the writer in bytes.
+     *
+     * @return the total size of written attachments
+     */
+    public long bytesWritten() {
+        return this.bytesWritten.get();
+    }
+
+    /**
+     * Returns the total size of duplicate attachments in bytes.
+     *
+     * @return the total size of duplicate attachments
+     */
+    public long bytesSaved() {
+        return this.bytesSaved.get();
+    }
+
+    @Override
+    public String toString() {
+        return "AttachmentStore{enabled=" + this.enabled + ", indexSize=" + this.index.size() +
+            ", maxIndexSize=" + this.maxIndexSize + ", stored=" + this.storedCount.get() +
+            ", duplicates=" + this.duplicateCount.get() + ", spilled=" + this.spilledCount.get() +
+            ", bytesWritten=" + this.bytesWritten.get() + ", bytesSaved=" + this.bytesSaved.get() + "}";
+    }
+
+    private <E extends Throwable> Stored store(
+        final String key,
+        final long size,
+        final AttachmentSource source,
+        final ThrowingFunction<? super AttachmentSource, String, ? extends E> writer
+    ) throws IOException, E {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        final CompletableFuture<String> existingFuture = this.index.putIfAbsent(key, future);
+        if (existingFuture != null) {
+            String ref;
+            try {
+                ref = existingFuture.join();
+            } catch (final CompletionException ex) {
+                ref = null;
+            }
+            if (ref != null) {
+                return this.duplicate(ref, size);
+            }
+            return new Stored(writer.apply(source), false);
+        }
+        final String spilledRef = this.readSpilled(key);
+        if (spilledRef != null) {
+            future.complete(spilledRef);
+            this.indexed(key);
+            return this.duplicate(spilledRef, size);
+        }
+        final String ref;
+        try {
+            ref = writer.apply(source);
+        } catch (final Throwable ex) {
+            this.index.remove(key, future);
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+        this.storedCount.incrementAndGet();
+        this.bytesWritten.addAndGet(size);
+        if (ref == null) {
+            this.index.remove(key, future);
+            future.complete(null);
+        } else {
+            future.complete(ref);
+            this.indexed(key);
+        }
+        return new Stored(ref, false);
+    }
+
+    private Stored duplicate(final String ref,
+                             final long size) {
+        this.duplicateCount.incrementAndGet();
+        this.bytesSaved.addAndGet(size);
+        return new Stored(ref, true);
+    }
+
+    private void indexed(final String key) throws IOException {
+        this.indexOrder.add(key);
+        while (this.index.size() > this.maxIndexSize) {
+            final String evictedKey = this.indexOrder.poll();
+            if (evictedKey == null) {
+                return;
+            }
+            final CompletableFuture<String> evictedFuture = this.index.get(evictedKey);
+            if (evictedFuture != null) {
+                /* The reference is spilled before removal so that it is never lost */
+                Files.write(this.spillDir().resolve(evictedKey), evictedFuture.join().getBytes(StandardCharsets.UTF_8));
+                if (this.index.remove(evictedKey, evictedFuture)) {
+                    this.spilledCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private String readSpilled(final String key) throws IOException {
+        final Path dir = this.spillDir;
+        if (dir == null) {
+            return null;
+        }
+        try {
+            return new String(Files.readAllBytes(dir.resolve(key)), StandardCharsets.UTF_8);
+        } catch (final NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+    private Path spillDir() throws IOException {
+        Path dir = this.spillDir;
+        if (dir == null) {
+            synchronized (this) {
+                dir = this.spillDir;
+                if (dir == null) {
+                    dir = Files.createTempDirectory("xteps-attachment-index");
+                    this.spillDir = dir;
+                }
+            }
+        }
+        return dir;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new XtepsException("SHA-256 algorithm is not available", ex);
+        }
+    }
+
+    private static String hex(final byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int idx = 0; idx < bytes.length; ++idx) {
+            chars[idx * 2] = HEX_DIGITS[(bytes[idx] >> 4) & 0xF];
+            chars[idx * 2 + 1] = HEX_DIGITS[bytes[idx] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Stored attachment.
+     */
+    public static final class Stored {
+        private final String ref;
+        private final boolean duplicate;
+
+        private Stored(final String ref,
+                       final boolean duplicate) {
+            this.ref = ref;
+            this.duplicate = duplicate;
+        }
+
+        /**
+         * Returns the reference to the written attachment or null if the writer returned null.
+         *
+         * @return the reference or null
+         */
+        public String ref() {
+            return this.ref;
+        }
+
+        /**
+         * Returns {@code true} if the content was written before and the writer was not called.
+         *
+         * @return {@code true} if the content was written before, otherwise {@code false}
+         */
+        public boolean isDuplicate() {
+            return this.duplicate;
+        }
+    }
+
+    /**
+     * Channel that updates the digest with written bytes and passes them to the target channel.
+     */
+    private static final class DigestChannel implements WritableByteChannel {
+        private final MessageDigest digest;
+        private final WritableByteChannel target;
+
+        private DigestChannel(final MessageDigest digest,
+                              final WritableByteChannel target) {
+            this.digest = digest;
+            this.target = target;
+        }
+
+        @Override
+        public int write(final ByteBuffer src) throws IOException {
+            final int position = src.position();
+            final int limit = src.limit();
+            this.digest.update(src);
+            if (this.target == null) {
+                return limit - position;
+            }
+            src.limit(limit).position(position);
+            int written = 0;
+            while (src.hasRemaining()) {
+                written += this.target.write(src);
+            }
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Channel attachment source, the content can be read only once.
+ */
+final class ChannelAttachmentSource implements AttachmentSource {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final ReadableByteChannel channel;
+    private final AtomicBoolean opened;
+
+    /**
+     * Ctor.
+     *
+     * @param channel the channel
+     */
+    ChannelAttachmentSource(final ReadableByteChannel channel) {
+        this.channel = channel;
+        this.opened = new AtomicBoolean(false);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return false;
+    }
+
+    @Override
+    public Path file() {
+        return null;
+    }
+
+    @Override
+    public long size() {
+        return -1L;
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+        this.open();
+        return Channels.newInputStream(this.channel);
+    }
+
+    @Override
+    public long transferTo(final WritableByteChannel target) throws IOException {
+        this.open();
+        if (target instanceof FileChannel) {
+            final FileChannel fileChannel = (FileChannel) target;
+            final long startPosition = fileChannel.position();
+            long position = startPosition;
+            long transferred;
+            while ((transferred = fileChannel.transferFrom(this.channel, position, BUFFER_SIZE)) > 0L) {
+                position += transferred;
+            }
+            fileChannel.position(position);
+            return position - startPosition;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long total = 0L;
+        while (this.channel.read(buffer) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                total += target.write(buffer);
+            }
+            buffer.clear();
+        }
+        return total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void open() throws IOException {
+        if (!this.opened.compareAndSet(false, true)) {
+            throw new IOException("Attachment source can be read only once");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File attachment source.
+ */
+final class FileAttachmentSource implements AttachmentSource {
+    private final Path file;
+
+    /**
+     * Ctor.
+     *
+     * @param file the file
+     */
+    FileAttachmentSource(final Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public Path file() {
+        return this.file;
+    }
+
+    @Override
+    public long size() {
+        try {
+            return Files.size(this.file);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+        return Files.newInputStream(this.file);
+    }
+
+    @Override
+    public long transferTo(final WritableByteChannel target) throws IOException {
+        try (final FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long position = 0L;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return position;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return this.file.toString();
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.cache;
+
+import com.plugatar.xteps.base.HookPriority;
+import com.plugatar.xteps.base.HooksContainer;
+import com.plugatar.xteps.base.HooksOrder;
+import com.plugatar.xteps.base.ThrowingRunnable;
+import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.hook.DefaultHooksContainer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shared step results. The result for the same key is loaded once (single-flight), concurrent
+ * callers wait for the loading to complete. The result is reference counted, each caller takes
+ * a {@link Lease} and the result is released when the last lease is released.
+ * <p>
+ * Resources of the shared result should be released by release hooks. Release hooks added via
+ * {@link #releaseHook(ThrowingRunnable)} during the loading are attached to the shared result
+ * and will be called when the last lease is released or immediately if the loading failed.
+ */
+public final class SharedResources {
+    private static final ThreadLocal<HooksContainer> LOADING_RESOURCE_HOOKS = new ThreadLocal<>();
+    private final HooksOrder hooksOrder;
+    private final ConcurrentMap<Object, Resource> resources;
+
+    /**
+     * Ctor.
+     *
+     * @param hooksOrder the release hooks order
+     * @throws XtepsException if {@code hooksOrder} is null
+     */
+    public SharedResources(final HooksOrder hooksOrder) {
+        if (hooksOrder == null) { throw new XtepsException("hooksOrder arg is null"); }
+        this.hooksOrder = hooksOrder;
+        this.resources = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Adds given release hook to the shared result being loaded in the current thread.
+     *
+     * @param hook the hook
+     * @throws XtepsException if {@code hook} is null
+     *                        or if there is no shared result being loaded in the current thread
+     */
+    public static void releaseHook(final ThrowingRunnable<?> hook) {
+        releaseHook(HookPriority.NORM_HOOK_PRIORITY, hook);
+    }
+
+    /**
+     * Adds given release hook to the shared result being loaded in the current thread.
+     *
+     * @param priority the priority
+     * @param hook     the hook
+     * @throws XtepsException if {@code hook} is null
+     *                        or if there is no shared result being loaded in the current thread
+     *                        or if {@code priority} is not in the range {@link HookPriority#MIN_HOOK_PRIORITY} to
+     *                        {@link HookPriority#MAX_HOOK_PRIORITY}
+     */
+    public static void releaseHook(final int priority,
+                                   final ThrowingRunnable<?> hook) {
+        final HooksContainer hooks = LOADING_RESOURCE_HOOKS.get();
+        if (hooks == null) { throw new XtepsException("There is no shared result being loaded in the current thread"); }
+        hooks.addHook(priority, hook);
+    }
+
+    /**
+     * Takes a lease of the shared result for given key. The first lease of the shared result
+     * is the owner lease, the owner lease loads the result.
+     *
+     * @param key the key
+     * @return new lease
+     * @throws XtepsException if {@code key} is null
+     */
+    public Lease lease(final Object key) {
+        if (key == null) { throw new XtepsException("key arg is null"); }
+        final Lease[] lease = new Lease[1];
+        this.resources.compute(key, (k, resource) -> {
+            if (resource == null) {
+                final Resource newResource = new Resource(key, Thread.currentThread().getName(),
+                    new DefaultHooksContainer(this.hooksOrder));
+                newResource.refCount = 1;
+                lease[0] = new Lease(this, newResource, true);
+                return newResource;
+            }
+            resource.refCount++;
+            lease[0] = new Lease(this, resource, false);
+            return resource;
+        });
+        return lease[0];
+    }
+
+    /**
+     * Returns the count of shared results.
+     *
+     * @return the count of shared results
+     */
+    public int size() {
+        return this.resources.size();
+    }
+
+    /**
+     * Returns the count of not released leases of the shared result for given key.
+     *
+     * @param key the key
+     * @return the count of leases
+     * @throws XtepsException if {@code key} is null
+     */
+    public int leaseCount(final Object key) {
+        if (key == null) { throw new XtepsException("key arg is null"); }
+        final Resource resource = this.resources.get(key);
+        return resource == null ? 0 : resource.refCount;
+    }
+
+    private void release(final Resource resource) {
+        final boolean[] lastLease = new boolean[1];
+        this.resources.computeIfPresent(resource.key, (k, current) -> {
+            if (current != resource) {
+                return current;
+            }
+            if (--current.refCount == 0) {
+                lastLease[0] = true;
+                return null;
+            }
+            return current;
+        });
+        if (lastLease[0] && resource.loaded()) {
+            resource.hooks.callHooks();
+        }
+    }
+
+    private void remove(final Resource resource) {
+        this.resources.remove(resource.key, resource);
+    }
+
+    /**
+     * The lease of the shared result.
+     */
+    public static final class Lease {
+        private final SharedResources sharedResources;
+        private final Resource resource;
+        private final boolean owner;
+        private final AtomicBoolean released;
+
+        private Lease(final SharedResources sharedResources,
+                      final Resource resource,
+                      final boolean owner) {
+            this.sharedResources = sharedResources;
+            this.resource = resource;
+            this.owner = owner;
+            this.released = new AtomicBoolean(false);
+        }
+
+        /**
+         * Returns true if this lease is the owner lease, the owner lease loads the result.
+         *
+         * @return true if this lease is the owner lease
+         */
+        public boolean isOwner() {
+            return this.owner;
+        }
+
+        /**
+         * Returns the name of the thread that took the owner lease.
+         *
+         * @return the name of the owner thread
+         */
+        public String ownerThreadName() {
+            return this.resource.ownerThreadName;
+        }
+
+        /**
+         * Returns the shared result. The owner lease loads the result on the first call, other
+         * leases wait for the owner lease to load the result.
+         *
+         * @param loader the result loader
+         * @param <R>    the result type
+         * @param <E>    the {@code loader} exception type
+         * @return the shared result
+         * @throws XtepsException if {@code loader} is null
+         *                        or if this lease is released
+         *                        or if the current thread was interrupted while waiting for the result
+         *                        or if the owner lease failed to load the result (the loading exception
+         *                        is the cause, each waiting lease gets its own exception)
+         * @throws E              if {@code loader} of the owner lease threw exception
+         */
+        public <R, E extends Throwable> R get(final ThrowingSupplier<? extends R, ? extends E> loader) throws E {
+            if (loader == null) { throw new XtepsException("loader arg is null"); }
+            if (this.released.get()) { throw new XtepsException("Lease is released"); }
+            return this.owner && this.resource.startLoading()
+                ? this.resource.load(this.sharedResources, loader)
+                : this.resource.await();
+        }
+
+        /**
+         * Releases this lease. The shared result will be released when the last lease is released.
+         * Repeated calls have no effect.
+         *
+         * @throws XtepsException if release hooks threw exceptions
+         */
+        public void release() {
+            if (this.released.compareAndSet(false, true)) {
+                this.sharedResources.release(this.resource);
+            }
+        }
+    }
+
+    private static final class Resource {
+        private final Object key;
+        private final String ownerThreadName;
+        private final HooksContainer hooks;
+        private volatile int refCount;
+        private boolean loading;
+        private boolean done;
+        private Object result;
+        private Throwable exception;
+
+        private Resource(final Object key,
+                         final String ownerThreadName,
+                         final HooksContainer hooks) {
+            this.key = key;
+            this.ownerThreadName = ownerThreadName;
+            this.hooks = hooks;
+            this.refCount = 0;
+            this.loading = false;
+            this.done = false;
+            this.result = null;
+            this.exception = null;
+        }
+
+        private synchronized boolean startLoading() {
+            if (this.loading) {
+                return false;
+            }
+            this.loading = true;
+            return true;
+        }
+
+        private synchronized boolean loaded() {
+            return this.done && this.exception == null;
+        }
+
+        private <R, E extends Throwable> R load(final SharedResources sharedResources,
+                                                final ThrowingSupplier<? extends R, ? extends E> loader) throws E {
+            final HooksContainer previousHooks = LOADING_RESOURCE_HOOKS.get();
+            LOADING_RESOURCE_HOOKS.set(this.hooks);
+            final R loadedResult;
+            try {
+                loadedResult = loader.get();
+            } catch (final Throwable ex) {
+                sharedResources.remove(this);
+                this.hooks.callHooks(ex);
+                this.complete(null, ex);
+                throw ex;
+            } finally {
+                if (previousHooks == null) {
+                    LOADING_RESOURCE_HOOKS.remove();
+                } else {
+                    LOADING_RESOURCE_HOOKS.set(previousHooks);
+                }
+            }
+            this.complete(loadedResult, null);
+            return loadedResult;
+        }
+
+        private synchronized void complete(final Object loadedResult,
+                                           final Throwable loadingException) {
+            this.result = loadedResult;
+            this.exception = loadingException;
+            this.done = true;
+            this.notifyAll();
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized <R> R await() {
+            while (!this.done) {
+                try {
+                    this.wait();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new XtepsException("Interrupted while waiting for the shared result", ex);
+                }
+            }
+            if (this.exception != null) {
+                throw new XtepsException("Shared result loading by the " + this.ownerThreadName
+                    + " thread failed", this.exception);
+            }
+            return (R) this.result;
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.cache;
+
+import com.plugatar.xteps.base.HookPriority;
+import com.plugatar.xteps.base.HooksContainer;
+import com.plugatar.xteps.base.HooksOrder;
+import com.plugatar.xteps.base.ThrowingRunnable;
+import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.hook.DefaultHooksContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded step results cache with LRU eviction by the total weight of the entries and
+ * optional expiration after write.
+ * <p>
+ * Resources of the cached value should be released by eviction hooks. Eviction hooks added
+ * via {@link #evictionHook(ThrowingRunnable)} during the {@link #load(Object, ThrowingSupplier)}
+ * method call are attached to the loaded entry and will be called only when the entry is
+ * evicted, expired or invalidated. Chain hooks are not suitable for it: the cached value
+ * outlives the steps chain that loaded it, and the chain hooks are called when this steps
+ * chain is finished, by the {@code callChainHooks} method or on the step failure.
+ * <p>
+ * Entries are evicted from the least recently used end only: on each load, the least
+ * recently used entries are evicted while the total weight exceeds the maximum weight
+ * or while the least recently used entry is expired. An expired entry that was used
+ * more recently is removed on access or when it becomes the least recently used entry.
+ * <p>
+ * Null values are not cached.
+ */
+public final class StepCache {
+    private static final ThreadLocal<HooksContainer> LOADING_ENTRY_HOOKS = new ThreadLocal<>();
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongFunction<Object> weigher;
+    private final HooksOrder hooksOrder;
+    private final LinkedHashMap<Object, Entry> entries;
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Ctor.
+     *
+     * @param maxWeight  the maximum total weight of the entries
+     * @param ttl        the time to live of the entry after write, zero means no expiration
+     * @param weigher    the weigher of the values
+     * @param hooksOrder the eviction hooks order
+     * @throws XtepsException if {@code ttl} or {@code weigher} or {@code hooksOrder} is null
+     *                        or if {@code maxWeight} is less than 1 or if {@code ttl} is negative
+     */
+    public StepCache(final long maxWeight,
+                     final Duration ttl,
+                     final ToLongFunction<Object> weigher,
+                     final HooksOrder hooksOrder) {
+        if (ttl == null) { throw new XtepsException("ttl arg is null"); }
+        if (weigher == null) { throw new XtepsException("weigher arg is null"); }
+        if (hooksOrder == null) { throw new XtepsException("hooksOrder arg is null"); }
+        if (maxWeight < 1L) { throw new XtepsException("maxWeight arg is less than 1"); }
+        if (ttl.isNegative()) { throw new XtepsException("ttl arg is negative"); }
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttl.toNanos();
+        this.weigher = weigher;
+        this.hooksOrder = hooksOrder;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the default weigher. The weight of the {@link Weighted} value is its
+     * {@link Weighted#cacheWeight()}, the weight of other values is 1.
+     *
+     * @return default weigher
+     */
+    public static ToLongFunction<Object> defaultWeigher() {
+        return value -> value instanceof Weighted ? ((Weighted) value).cacheWeight() : 1L;
+    }
+
+    /**
+     * Adds given eviction hook to the entry being loaded in the current thread.
+     *
+     * @param hook the hook
+     * @throws XtepsException if {@code hook} is null
+     *                        or if there is no entry being loaded in the current thread
+     */
+    public static void evictionHook(final ThrowingRunnable<?> hook) {
+        evictionHook(HookPriority.NORM_HOOK_PRIORITY, hook);
+    }
+
+    /**
+     * Adds given eviction hook to the entry being loaded in the current thread.
+     *
+     * @param priority the priority
+     * @param hook     the hook
+     * @throws XtepsException if {@code hook} is null
+     *                        or if there is no entry being loaded in the current thread
+     *                        or if {@code priority} is not in the range {@link HookPriority#MIN_HOOK_PRIORITY} to
+     *                        {@link HookPriority#MAX_HOOK_PRIORITY}
+     */
+    public static void evictionHook(final int priority,
+                                    final ThrowingRunnable<?> hook) {
+        final HooksContainer hooks = LOADING_ENTRY_HOOKS.get();
+        if (hooks == null) { throw new XtepsException("There is no cache entry being loaded in the current thread"); }
+        hooks.addHook(priority, hook);
+    }
+
+    /**
+     * Returns the value for given key or null if there is no value or the value is expired.
+     *
+     * @param key the key
+     * @return the value or null
+     * @throws XtepsException if {@code key} is null
+     *                        or if eviction hooks of the expired entry threw exceptions
+     */
+    public Object getIfPresent(final Object key) {
+        if (key == null) { throw new XtepsException("key arg is null"); }
+        final Entry expired;
+        synchronized (this) {
+            final Entry entry = this.entries.get(key);
+            if (entry == null) {
+                this.missCount++;
+                return null;
+            }
+            if (!this.isExpired(entry, System.nanoTime())) {
+                this.hitCount++;
+                return entry.value;
+            }
+            this.missCount++;
+            this.removeEntry(key, entry);
+            expired = entry;
+        }
+        callEvictionHooks(expired);
+        return null;
+    }
+
+    /**
+     * Returns the value for given key, loads and caches the value if there is no value.
+     *
+     * @param key    the key
+     * @param loader the value loader
+     * @param <R>    the value type
+     * @param <E>    the {@code loader} exception type
+     * @return the value
+     * @throws XtepsException if {@code key} or {@code loader} is null
+     *                        or if eviction hooks threw exceptions
+     * @throws E              if {@code loader} threw exception
+     */
+    @SuppressWarnings("unchecked")
+    public <R, E extends Throwable> R get(final Object key,
+                                          final ThrowingSupplier<? extends R, ? extends E> loader) throws E {
+        final Object value = this.getIfPresent(key);
+        return value == null ? this.load(key, loader) : (R) value;
+    }
+
+    /**
+     * Loads and caches the value for given key. Eviction hooks added in the {@code loader}
+     * will be attached to the entry. If the {@code loader} threw exception, eviction hooks
+     * will be called immediately. If another thread cached the value for the same key
+     * during loading, the value of the other thread will be returned and eviction hooks
+     * of the loaded value will be called immediately.
+     *
+     * @param key    the key
+     * @param loader the value loader
+     * @param <R>    the value type
+     * @param <E>    the {@code loader} exception type
+     * @return the value
+     * @throws XtepsException if {@code key} or {@code loader} is null
+     *                        or if eviction hooks threw exceptions
+     * @throws E              if {@code loader} threw exception
+     */
+    @SuppressWarnings("unchecked")
+    public <R, E extends Throwable> R load(final Object key,
+                                           final ThrowingSupplier<? extends R, ? extends E> loader) throws E {
+        if (key == null) { throw new XtepsException("key arg is null"); }
+        if (loader == null) { throw new XtepsException("loader arg is null"); }
+        final HooksContainer previousHooks = LOADING_ENTRY_HOOKS.get();
+        final HooksContainer hooks = new DefaultHooksContainer(this.hooksOrder);
+        LOADING_ENTRY_HOOKS.set(hooks);
+        final R value;
+        try {
+            value = loader.get();
+        } catch (final Throwable ex) {
+            hooks.callHooks(ex);
+            throw ex;
+        } finally {
+            if (previousHooks == null) {
+                LOADING_ENTRY_HOOKS.remove();
+            } else {
+                LOADING_ENTRY_HOOKS.set(previousHooks);
+            }
+        }
+        if (value == null) {
+            hooks.callHooks();
+            return null;
+        }
+        final Entry newEntry = new Entry(value, this.weigher.applyAsLong(value), hooks, System.nanoTime());
+        final List<Entry> evicted = new ArrayList<>();
+        final Object result;
+        synchronized (this) {
+            final Entry existing = this.entries.get(key);
+            if (existing != null && !this.isExpired(existing, newEntry.writeNanos)) {
+                evicted.add(newEntry);
+                result = existing.value;
+            } else {
+                if (existing != null) {
+                    this.removeEntry(key, existing);
+                    evicted.add(existing);
+                }
+                this.entries.put(key, newEntry);
+                this.weight += newEntry.weight;
+                this.evictEntries(newEntry, evicted);
+                result = value;
+            }
+        }
+        callEvictionHooks(evicted);
+        return (R) result;
+    }
+
+    /**
+     * Removes the entry for given key and calls its eviction hooks.
+     *
+     * @param key the key
+     * @throws XtepsException if {@code key} is null
+     *                        or if eviction hooks threw exceptions
+     */
+    public void invalidate(final Object key) {
+        if (key == null) { throw new XtepsException("key arg is null"); }
+        final Entry entry;
+        synchronized (this) {
+            entry = this.entries.get(key);
+            if (entry == null) {
+                return;
+            }
+            this.removeEntry(key, entry);
+        }
+        callEvictionHooks(entry);
+    }
+
+    /**
+     * Removes all entries and calls their eviction hooks.
+     *
+     * @throws XtepsException if eviction hooks threw exceptions
+     */
+    public void invalidateAll() {
+        final List<Entry> evicted;
+        synchronized (this) {
+            evicted = new ArrayList<>(this.entries.values());
+            this.entries.clear();
+            this.weight = 0L;
+            this.evictionCount += evicted.size();
+        }
+        callEvictionHooks(evicted);
+    }
+
+    /**
+     * Returns the count of entries.
+     *
+     * @return the count of entries
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the total weight of entries.
+     *
+     * @return the total weight of entries
+     */
+    public synchronized long weight() {
+        return this.weight;
+    }
+
+    /**
+     * Returns the count of cache hits.
+     *
+     * @return the count of cache hits
+     */
+    public synchronized long hitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Returns the count of cache misses.
+     *
+     * @return the count of cache misses
+     */
+    public synchronized long missCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Returns the count of evicted, expired and invalidated entries.
+     *
+     * @return the count of evicted entries
+     */
+    public synchronized long evictionCount() {
+        return this.evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final long requestCount = this.hitCount + this.missCount;
+        return "StepCache{size=" + this.entries.size() + ", weight=" + this.weight + ", maxWeight=" + this.maxWeight +
+            ", hits=" + this.hitCount + ", misses=" + this.missCount + ", evictions=" + this.evictionCount +
+            ", hitRate=" + (requestCount == 0L ? 0.0 : (double) this.hitCount / requestCount) + "}";
+    }
+
+    private boolean isExpired(final Entry entry,
+                              final long nowNanos) {
+        return this.ttlNanos != 0L && nowNanos - entry.writeNanos >= this.ttlNanos;
+    }
+
+    private void removeEntry(final Object key,
+                             final Entry entry) {
+        this.entries.remove(key);
+        this.weight -= entry.weight;
+        this.evictionCount++;
+    }
+
+    private void evictEntries(final Entry newEntry,
+                              final List<Entry> evicted) {
+        final Iterator<Entry> iterator = this.entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (entry == newEntry
+                || (this.weight <= this.maxWeight && !this.isExpired(entry, newEntry.writeNanos))) {
+                return;
+            }
+            iterator.remove();
+            this.weight -= entry.weight;
+            this.evictionCount++;
+            evicted.add(entry);
+        }
+    }
+
+    private static void callEvictionHooks(final Entry entry) {
+        entry.hooks.callHooks();
+    }
+
+    private static void callEvictionHooks(final List<Entry> entries) {
+        XtepsException baseEx = null;
+        for (final Entry entry : entries) {
+            try {
+                entry.hooks.callHooks();
+            } catch (final XtepsException ex) {
+                if (baseEx == null) {
+                    baseEx = ex;
+                } else {
+                    baseEx.addSuppressed(ex);
+                }
+            }
+        }
+        if (baseEx != null) {
+            throw baseEx;
+        }
+    }
+
+    /**
+     * Value with the cache weight.
+     */
+    public interface Weighted {
+
+        /**
+         * Returns the cache weight of this value.
+         *
+         * @return the cache weight
+         */
+        long cacheWeight();
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long weight;
+        private final HooksContainer hooks;
+        private final long writeNanos;
+
+        private Entry(final Object value,
+                      final long weight,
+                      final HooksContainer hooks,
+                      final long writeNanos) {
+            this.value = value;
+            this.weight = weight;
+            this.hooks = hooks;
+            this.writeNanos = writeNanos;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.capture;
+
+import com.plugatar.xteps.base.XtepsException;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Step log capture. Collects {@code java.util.logging} records and stdout/stderr output emitted
+ * in the thread while it performs a step. The output is written to the per-thread fixed-size
+ * ring buffer, the buffer is allocated once per thread and never grows. The step start and
+ * finish positions bound the output of the step, the captured output is extracted only if
+ * the step failed. The oldest output is overwritten if the step output exceeds the buffer size.
+ */
+public final class StepLogCapture {
+    private static final byte[] TRUNCATED_MARKER = "...\n".getBytes(StandardCharsets.UTF_8);
+    private final int bufferSize;
+    private final boolean captureLogging;
+    private final boolean captureStdout;
+    private final ThreadLocal<RingBuffer> buffers;
+    private Handler loggingHandler;
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+
+    /**
+     * Ctor.
+     *
+     * @param bufferSize     the per-thread ring buffer size in bytes
+     * @param captureLogging the {@code java.util.logging} capture flag
+     * @param captureStdout  the stdout and stderr capture flag
+     * @throws XtepsException if {@code bufferSize} is less than 1
+     */
+    public StepLogCapture(final int bufferSize,
+                          final boolean captureLogging,
+                          final boolean captureStdout) {
+        if (bufferSize < 1) { throw new XtepsException("bufferSize arg is less than 1"); }
+        this.bufferSize = bufferSize;
+        this.captureLogging = captureLogging;
+        this.captureStdout = captureStdout;
+        this.buffers = ThreadLocal.withInitial(() -> new RingBuffer(bufferSize));
+    }
+
+    /**
+     * Installs the root logger handler and replaces {@link System#out} and {@link System#err}
+     * with streams that write to the original streams and to the ring buffer.
+     */
+    public synchronized void install() {
+        if (this.captureLogging && this.loggingHandler == null) {
+            this.loggingHandler = new CaptureHandler(this);
+            Logger.getLogger("").addHandler(this.loggingHandler);
+        }
+        if (this.captureStdout && this.originalOut == null) {
+            this.originalOut = System.out;
+            this.originalErr = System.err;
+            System.setOut(new PrintStream(new CaptureStream(this, this.originalOut), true));
+            System.setErr(new PrintStream(new CaptureStream(this, this.originalErr), true));
+        }
+    }
+
+    /**
+     * Removes the root logger handler and restores the original {@link System#out} and {@link System#err}.
+     */
+    public synchronized void uninstall() {
+        if (this.loggingHandler != null) {
+            Logger.getLogger("").removeHandler(this.loggingHandler);
+            this.loggingHandler = null;
+        }
+        if (this.originalOut != null) {
+            System.setOut(this.originalOut);
+            System.setErr(this.originalErr);
+            this.originalOut = null;
+            this.originalErr = null;
+        }
+    }
+
+    /**
+     * Returns the per-thread ring buffer size in bytes.
+     *
+     * @return the ring buffer size
+     */
+    public int bufferSize() {
+        return this.bufferSize;
+    }
+
+    /**
+     * Marks the start of the step in the current thread.
+     *
+     * @return the step start position
+     */
+    public long stepStarted() {
+        final RingBuffer buffer = this.buffers.get();
+        ++buffer.depth;
+        return buffer.position;
+    }
+
+    /**
+     * Marks the finish of the step in the current thread and returns the output captured since
+     * given step start position if the step failed.
+     *
+     * @param startPosition the step start position
+     * @param failed        the step failed flag
+     * @return the captured output or null if the step passed or there is no output
+     */
+    public byte[] stepFinished(final long startPosition,
+                               final boolean failed) {
+        final RingBuffer buffer = this.buffers.get();
+        if (buffer.depth > 0) {
+            --buffer.depth;
+        }
+        return failed ? buffer.copySince(startPosition) : null;
+    }
+
+    /**
+     * Writes given bytes to the ring buffer of the current thread if the thread performs a step.
+     *
+     * @param bytes  the bytes
+     * @param offset the offset
+     * @param length the length
+     */
+    public void write(final byte[] bytes,
+                      final int offset,
+                      final int length) {
+        final RingBuffer buffer = this.buffers.get();
+        if (buffer.depth > 0) {
+            buffer.write(bytes, offset, length);
+        }
+    }
+
+    private boolean isCapturing() {
+        return this.buffers.get().depth > 0;
+    }
+
+    private static final class RingBuffer {
+        private final byte[] data;
+        private long position;
+        private int depth;
+
+        private RingBuffer(final int size) {
+            this.data = new byte[size];
+            this.position = 0L;
+            this.depth = 0;
+        }
+
+        private void write(final byte[] bytes,
+                           final int offset,
+                           final int length) {
+            int srcOffset = offset;
+            int srcLength = length;
+            if (srcLength > this.data.length) {
+                srcOffset += srcLength - this.data.length;
+                this.position += srcLength - this.data.length;
+                srcLength = this.data.length;
+            }
+            final int idx = (int) (this.position % this.data.length);
+            final int firstPart = Math.min(srcLength, this.data.length - idx);
+            System.arraycopy(bytes, srcOffset, this.data, idx, firstPart);
+            System.arraycopy(bytes, srcOffset + firstPart, this.data, 0, srcLength - firstPart);
+            this.position += srcLength;
+        }
+
+        private void write(final byte b) {
+            this.data[(int) (this.position % this.data.length)] = b;
+            ++this.position;
+        }
+
+        private byte[] copySince(final long startPosition) {
+            final long available = this.position - startPosition;
+            if (available <= 0L) {
+                return null;
+            }
+            final boolean truncated = available > this.data.length;
+            final int length = (int) Math.min(available, this.data.length);
+            final int markerLength = truncated ? TRUNCATED_MARKER.length : 0;
+            final byte[] result = new byte[markerLength + length];
+            System.arraycopy(TRUNCATED_MARKER, 0, result, 0, markerLength);
+            final int idx = (int) ((this.position - length) % this.data.length);
+            final int firstPart = Math.min(length, this.data.length - idx);
+            System.arraycopy(this.data, idx, result, markerLength, firstPart);
+            System.arraycopy(this.data, 0, result, markerLength + firstPart, length - firstPart);
+            return result;
+        }
+    }
+
+    private static final class CaptureStream extends OutputStream {
+        private final StepLogCapture capture;
+        private final OutputStream target;
+
+        private CaptureStream(final StepLogCapture capture,
+                              final OutputStream target) {
+            this.capture = capture;
+            this.target = target;
+        }
+
+        @Override
+        public void write(final int b) {
+            try {
+                this.target.write(b);
+            } catch (final Exception ignored) { }
+            final RingBuffer buffer = this.capture.buffers.get();
+            if (buffer.depth > 0) {
+                buffer.write((byte) b);
+            }
+        }
+
+        @Override
+        public void write(final byte[] bytes,
+                          final int offset,
+                          final int length) {
+            try {
+                this.target.write(bytes, offset, length);
+            } catch (final Exception ignored) { }
+            this.capture.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() {
+            try {
+                this.target.flush();
+            } catch (final Exception ignored) { }
+        }
+    }
+
+    private static final class CaptureHandler extends Handler {
+        private final StepLogCapture capture;
+
+        private CaptureHandler(final StepLogCapture capture) {
+            this.capture = capture;
+            this.setFormatter(new SimpleFormatter());
+            this.setLevel(Level.ALL);
+        }
+
+        @Override
+        public void publish(final LogRecord record) {
+            if (record != null && this.capture.isCapturing() && this.isLoggable(record)) {
+                final byte[] bytes = this.getFormatter().format(record).getBytes(StandardCharsets.UTF_8);
+                this.capture.write(bytes, 0, bytes.length);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
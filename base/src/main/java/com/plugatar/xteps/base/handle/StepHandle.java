@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.handle;
+
+/**
+ * Step handle. Holds direct references to the step results of the reporting tools,
+ * updates are applied to the step results without lookups of the current step.
+ * The handle is valid only while the step is performed.
+ */
+public interface StepHandle {
+
+    /**
+     * Sets the step name.
+     *
+     * @param name the step name
+     * @return this step handle
+     */
+    StepHandle name(String name);
+
+    /**
+     * Sets the step description.
+     *
+     * @param description the step description
+     * @return this step handle
+     */
+    StepHandle description(String description);
+
+    /**
+     * Adds the step parameter.
+     *
+     * @param name  the parameter name
+     * @param value the parameter value
+     * @return this step handle
+     */
+    StepHandle param(String name,
+                     Object value);
+
+    /**
+     * Returns the step result of the reporting tool with given type or null if there is
+     * no such step result, for example {@code io.qameta.allure.model.StepResult}.
+     *
+     * @param type the step result type
+     * @param <T>  the step result type
+     * @return the step result or null
+     */
+    <T> T toolStep(Class<T> type);
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.handle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Step handles utils. The steps chain requests the handle before reporting the step,
+ * step listeners bind their step results to the requested handle when the step starts.
+ * <pre>{@code
+ * public void stepStarted(...) {
+ *     final StepResult stepResult = new StepResult();
+ *     if (StepHandles.isRequested()) {
+ *         StepHandles.bind(new ToolStepHandle(stepResult));
+ *     }
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class StepHandles {
+    private static final ThreadLocal<CompositeStepHandle> REQUESTED_HANDLE = new ThreadLocal<>();
+
+    /**
+     * Utility class ctor.
+     */
+    private StepHandles() {
+    }
+
+    /**
+     * Requests the handle of the next step started in the current thread.
+     *
+     * @return the step handle
+     */
+    public static StepHandle request() {
+        final CompositeStepHandle handle = new CompositeStepHandle();
+        REQUESTED_HANDLE.set(handle);
+        return handle;
+    }
+
+    /**
+     * Clears the handle request of the current thread.
+     */
+    public static void clearRequest() {
+        REQUESTED_HANDLE.remove();
+    }
+
+    /**
+     * Returns {@code true} if the handle of the step started in the current thread is requested.
+     *
+     * @return {@code true} if the handle is requested, otherwise {@code false}
+     */
+    public static boolean isRequested() {
+        return REQUESTED_HANDLE.get() != null;
+    }
+
+    /**
+     * Binds given tool step handle to the requested handle of the current thread.
+     * Does nothing if the handle is not requested.
+     *
+     * @param toolHandle the tool step handle
+     * @throws NullPointerException if {@code toolHandle} is null
+     */
+    public static void bind(final StepHandle toolHandle) {
+        if (toolHandle == null) { throw new NullPointerException("toolHandle arg is null"); }
+        final CompositeStepHandle handle = REQUESTED_HANDLE.get();
+        if (handle != null) {
+            handle.toolHandles.add(toolHandle);
+        }
+    }
+
+    private static final class CompositeStepHandle implements StepHandle {
+        private final List<StepHandle> toolHandles;
+
+        private CompositeStepHandle() {
+            this.toolHandles = new ArrayList<>(2);
+        }
+
+        @Override
+        public StepHandle name(final String name) {
+            for (int idx = 0; idx < this.toolHandles.size(); ++idx) {
+                this.toolHandles.get(idx).name(name);
+            }
+            return this;
+        }
+
+        @Override
+        public StepHandle description(final String description) {
+            for (int idx = 0; idx < this.toolHandles.size(); ++idx) {
+                this.toolHandles.get(idx).description(description);
+            }
+            return this;
+        }
+
+        @Override
+        public StepHandle param(final String name,
+                                final Object value) {
+            for (int idx = 0; idx < this.toolHandles.size(); ++idx) {
+                this.toolHandles.get(idx).param(name, value);
+            }
+            return this;
+        }
+
+        @Override
+        public <T> T toolStep(final Class<T> type) {
+            for (int idx = 0; idx < this.toolHandles.size(); ++idx) {
+                final T toolStep = this.toolHandles.get(idx).toolStep(type);
+                if (toolStep != null) {
+                    return toolStep;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -21,21 +21,22 @@ import com.plugatar.xteps.base.ThrowingRunnable;
 import com.plugatar.xteps.base.XtepsException;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.plugatar.xteps.base.HookPriority.MAX_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.MIN_HOOK_PRIORITY;
 
 /**
- * Default HooksContainer.
+ * Default HooksContainer. Hooks are removed from the container when they are called:
+ * the whole list of added hooks is taken by one atomic swap, so each added hook is called
+ * once and in the priority order even if the container is shared by nested steps chains
+ * and hooks are called concurrently.
  */
 public class DefaultHooksContainer implements HooksContainer {
     private volatile HooksOrder order;
-    private final Queue<HookItems> hookItemsQueue;
+    private final AtomicReference<HookItems> lastHookItems;
 
     /**
      * Ctor.
@@ -45,7 +46,7 @@ public class DefaultHooksContainer implements HooksContainer {
     public DefaultHooksContainer(final HooksOrder order) {
         if (order == null) { throw new NullPointerException("order arg is null"); }
         this.order = order;
-        this.hookItemsQueue = new ConcurrentLinkedQueue<>();
+        this.lastHookItems = new AtomicReference<>();
     }
 
     @Override
@@ -55,7 +56,12 @@ public class DefaultHooksContainer implements HooksContainer {
         if (priority < MIN_HOOK_PRIORITY || priority > MAX_HOOK_PRIORITY) {
             throw new XtepsException("priority arg not in the range " + MIN_HOOK_PRIORITY + " to " + MAX_HOOK_PRIORITY);
         }
-        this.hookItemsQueue.add(new HookItems(priority, hook));
+        final HookItems hookItems = new HookItems(priority, hook);
+        HookItems last;
+        do {
+            last = this.lastHookItems.get();
+            hookItems.previous = last;
+        } while (!this.lastHookItems.compareAndSet(last, hookItems));
     }
 
     @Override
@@ -66,9 +72,9 @@ public class DefaultHooksContainer implements HooksContainer {
 
     @Override
     public final void callHooks() {
-        if (!this.hookItemsQueue.isEmpty()) {
+        if (this.lastHookItems.get() != null) {
             final List<Throwable> exceptions = new ArrayList<>();
-            for (final HookItems hookItems : this.orderedHooks()) {
+            for (final HookItems hookItems : this.drainOrderedHooks()) {
                 try {
                     hookItems.hook().run();
                 } catch (final Throwable ex) {
@@ -87,8 +93,8 @@ public class DefaultHooksContainer implements HooksContainer {
     @Override
     public final void callHooks(final Throwable baseException) {
         if (baseException == null) { throwNullArgException("baseException"); }
-        if (!this.hookItemsQueue.isEmpty()) {
-            for (final HookItems hookItems : this.orderedHooks()) {
+        if (this.lastHookItems.get() != null) {
+            for (final HookItems hookItems : this.drainOrderedHooks()) {
                 try {
                     hookItems.hook().run();
                 } catch (final Throwable ex) {
@@ -98,15 +104,19 @@ public class DefaultHooksContainer implements HooksContainer {
         }
     }
 
-    private List<HookItems> orderedHooks() {
-        final List<HookItems> hooksItemsList = Arrays.asList(
-            this.hookItemsQueue.toArray(new HookItems[this.hookItemsQueue.size()])
-        );
+    private List<HookItems> drainOrderedHooks() {
+        /* the whole hooks list is taken by exactly one caller, so each hook is called once */
+        final List<HookItems> hooksItemsList = new ArrayList<>();
+        for (HookItems hookItems = this.lastHookItems.getAndSet(null);
+             hookItems != null;
+             hookItems = hookItems.previous) {
+            hooksItemsList.add(hookItems);
+        }
         switch (this.order) {
             case FROM_FIRST:
+                Collections.reverse(hooksItemsList);
                 break;
             case FROM_LAST:
-                Collections.reverse(hooksItemsList);
                 break;
             default:
                 throw new Error("Impossible");
@@ -122,6 +132,7 @@ public class DefaultHooksContainer implements HooksContainer {
     private static final class HookItems implements Comparable<HookItems> {
         private final int priority;
         private final ThrowingRunnable<?> hook;
+        private HookItems previous;
 
         private HookItems(final int priority,
                           final ThrowingRunnable<?> hook) {
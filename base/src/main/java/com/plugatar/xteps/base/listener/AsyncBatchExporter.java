@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.listener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous batch exporter. Items are offered by a lock-free queue and exported
+ * in batches by a daemon thread when the batch is full or when the export interval
+ * elapses. Remaining items are exported on JVM shutdown.
+ *
+ * @param <T> the type of the items
+ */
+final class AsyncBatchExporter<T> {
+    private final int maxQueueSize;
+    private final int batchSize;
+    private final long exportIntervalNanos;
+    private final Exporter<T> exporter;
+    private final Queue<T> queue;
+    private final AtomicInteger queueSize;
+    private final AtomicLong droppedCount;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * Ctor.
+     *
+     * @param threadName           the export thread name
+     * @param maxQueueSize         the max queue size, items are dropped if the queue is full
+     * @param batchSize            the max batch size
+     * @param exportIntervalMillis the export interval in milliseconds
+     * @param exporter             the exporter
+     */
+    AsyncBatchExporter(final String threadName,
+                       final int maxQueueSize,
+                       final int batchSize,
+                       final long exportIntervalMillis,
+                       final Exporter<T> exporter) {
+        this.maxQueueSize = maxQueueSize;
+        this.batchSize = batchSize;
+        this.exportIntervalNanos = exportIntervalMillis * 1_000_000L;
+        this.exporter = exporter;
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.queueSize = new AtomicInteger();
+        this.droppedCount = new AtomicLong();
+        this.closed = false;
+        this.thread = new Thread(this::exportLoop, threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, threadName + "-shutdown"));
+    }
+
+    /**
+     * Offers given item for export.
+     *
+     * @param item the item
+     */
+    void offer(final T item) {
+        final int size = this.queueSize.incrementAndGet();
+        if (size > this.maxQueueSize || this.closed) {
+            this.queueSize.decrementAndGet();
+            this.droppedCount.incrementAndGet();
+            return;
+        }
+        this.queue.offer(item);
+        if (size == this.batchSize) {
+            LockSupport.unpark(this.thread);
+        }
+    }
+
+    /**
+     * Returns the count of items dropped because the queue was full.
+     *
+     * @return dropped items count
+     */
+    long droppedCount() {
+        return this.droppedCount.get();
+    }
+
+    /**
+     * Exports all queued items in the caller thread.
+     */
+    synchronized void flush() {
+        while (this.exportBatch()) {
+            /* export until the queue is empty */
+        }
+    }
+
+    /**
+     * Stops the export thread and exports all queued items.
+     */
+    void close() {
+        this.closed = true;
+        LockSupport.unpark(this.thread);
+        this.flush();
+    }
+
+    private void exportLoop() {
+        while (!this.closed) {
+            if (this.queueSize.get() < this.batchSize) {
+                LockSupport.parkNanos(this, this.exportIntervalNanos);
+            }
+            this.flush();
+        }
+    }
+
+    private synchronized boolean exportBatch() {
+        if (this.queue.isEmpty()) {
+            return false;
+        }
+        final List<T> batch = new ArrayList<>(Math.min(this.batchSize, this.queueSize.get()));
+        T item;
+        while (batch.size() < this.batchSize && (item = this.queue.poll()) != null) {
+            batch.add(item);
+        }
+        this.queueSize.addAndGet(-batch.size());
+        try {
+            this.exporter.export(batch);
+        } catch (final Exception ex) {
+            this.droppedCount.addAndGet(batch.size());
+        }
+        return true;
+    }
+
+    /**
+     * Batch exporter.
+     *
+     * @param <T> the type of the items
+     */
+    @FunctionalInterface
+    interface Exporter<T> {
+
+        /**
+         * Exports given batch.
+         *
+         * @param batch the batch
+         * @throws Exception if export failed
+         */
+        void export(List<T> batch) throws Exception;
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.listener;
+
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepOutcome;
+import com.plugatar.xteps.base.XtepsException;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.plugatar.xteps.base.listener.JsonUtils.appendJsonString;
+import static com.plugatar.xteps.base.util.PropertiesUtils.stringProperty;
+import static com.plugatar.xteps.base.util.PropertiesUtils.systemPropertiesWithFile;
+import static com.plugatar.xteps.base.util.StepListenerUtils.objAsString;
+import static com.plugatar.xteps.base.util.StepListenerUtils.paramArrayAsMap;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedTemplate;
+
+/**
+ * {@link StepEventListener} implementation that writes steps as begin/end events in the
+ * Chrome Trace Event Format, the trace can be opened in Perfetto or {@code chrome://tracing}.
+ * Each thread is a separate lane, each test JVM (for example, surefire fork) is a separate
+ * process identified by its process ID. Timestamps are based on the wall clock, so traces
+ * of different forks can be merged into one timeline.
+ * <p>
+ * Events are written asynchronously by a buffered streaming writer, the step thread only
+ * renders the step name and params and enqueues the immutable events. The JSON array is closed on JVM shutdown, an unclosed trace (for
+ * example, after a JVM crash) can also be opened.
+ * <p>
+ * Properties (system properties or {@code xteps.properties} file):
+ * <ul>
+ * <li>{@code xteps.chromeTrace.file} - the output file, {@code {pid}} is replaced by the
+ * process ID, default {@code xteps-trace-{pid}.json}</li>
+ * </ul>
+ */
+public class ChromeTraceStepListener implements StepEventListener {
+    private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+        ListenerCapability.NAME, ListenerCapability.PARAMS, ListenerCapability.THREAD, ListenerCapability.TIMINGS
+    ));
+    private static final String[] EMPTY_PARAMS = {};
+    private final String pid;
+    private final long wallClockOffsetNanos;
+    private final Writer writer;
+    private final Set<Long> namedThreads;
+    private final ThreadLocal<Frame> currentFrame;
+    private final AsyncBatchExporter<TraceEvent> exporter;
+    private boolean firstEvent;
+
+    /**
+     * Zero-argument public ctor.
+     *
+     * @throws XtepsException if it's impossible to open the file
+     */
+    public ChromeTraceStepListener() {
+        this(stringProperty(systemPropertiesWithFile("xteps.properties"), "xteps.chromeTrace.file",
+            "xteps-trace-{pid}.json"));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param file the output file, {@code {pid}} is replaced by the process ID
+     * @throws NullPointerException if {@code file} is null
+     * @throws XtepsException       if it's impossible to open the file
+     */
+    public ChromeTraceStepListener(final String file) {
+        if (file == null) { throw new NullPointerException("file arg is null"); }
+        final String jvmName = ManagementFactory.getRuntimeMXBean().getName();
+        final int atIdx = jvmName.indexOf('@');
+        this.pid = atIdx > 0 && jvmName.substring(0, atIdx).chars().allMatch(Character::isDigit)
+            ? jvmName.substring(0, atIdx)
+            : String.valueOf(jvmName.hashCode() & Integer.MAX_VALUE);
+        this.wallClockOffsetNanos = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+        final String processedFile = file.replace("{pid}", this.pid);
+        try {
+            this.writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(processedFile), StandardCharsets.UTF_8), 64 * 1024);
+        } catch (final IOException ex) {
+            throw new XtepsException("Cannot open file " + processedFile + " cause " + ex, ex);
+        }
+        this.namedThreads = new HashSet<>();
+        this.currentFrame = new ThreadLocal<>();
+        this.firstEvent = true;
+        this.exporter = new AsyncBatchExporter<>("xteps-chrome-trace-thread", 1 << 20, 1024, 500L, this::write);
+        this.exporter.offer(new TraceEvent('M', 0L, 0L, null, null, EMPTY_PARAMS, null));
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "xteps-chrome-trace-shutdown-thread"));
+    }
+
+    @Override
+    public final Set<ListenerCapability> capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public final void stepStarted(final StepEvent event) {
+        final Frame previous = this.currentFrame.get();
+        final Object[] params = event.params();
+        final String name = event.name().isEmpty()
+            ? "Step"
+            : params.length == 0 ? event.name() : processedTemplate(event.name(), paramArrayAsMap('{', '}', params));
+        final String[] paramStrings = new String[params.length];
+        for (int idx = 0; idx < params.length; ++idx) {
+            paramStrings[idx] = objAsString(params[idx]);
+        }
+        this.currentFrame.set(new Frame(event, previous, name));
+        this.exporter.offer(new TraceEvent('B', event.startNanos(), event.threadId(), event.threadName(), name,
+            paramStrings, null));
+    }
+
+    @Override
+    public final void stepFinished(final StepEvent event) {
+        final Frame frame = this.currentFrame.get();
+        if (frame == null || frame.event != event) {
+            return;
+        }
+        if (frame.previous == null) {
+            this.currentFrame.remove();
+        } else {
+            this.currentFrame.set(frame.previous);
+        }
+        this.exporter.offer(new TraceEvent('E', event.endNanos(), event.threadId(), event.threadName(), frame.name,
+            EMPTY_PARAMS, event.outcome() == StepOutcome.FAILED ? String.valueOf(event.exception()) : null));
+    }
+
+    /**
+     * Writes all enqueued events.
+     */
+    public final void flush() {
+        this.exporter.flush();
+    }
+
+    private void close() {
+        this.exporter.close();
+        synchronized (this.exporter) {
+            try {
+                this.writer.write(this.firstEvent ? "[]\n" : "\n]\n");
+                this.writer.close();
+            } catch (final IOException ignored) { }
+        }
+    }
+
+    /* Events are copied by the step thread, only immutable values are read here */
+    private void write(final List<TraceEvent> batch) throws IOException {
+        final StringBuilder json = new StringBuilder(batch.size() * 128);
+        final Set<Long> batchNamedThreads = new HashSet<>();
+        boolean first = this.firstEvent;
+        for (final TraceEvent event : batch) {
+            if (event.phase == 'M') {
+                first = this.appendEventStart(json, first, "process_name", 'M', 0L, 0L);
+                json.append(",\"args\":{\"name\":");
+                appendJsonString(json, "xteps " + this.pid);
+                json.append("}}");
+                continue;
+            }
+            if (!this.namedThreads.contains(event.threadId) && batchNamedThreads.add(event.threadId)) {
+                first = this.appendEventStart(json, first, "thread_name", 'M', event.threadId, 0L);
+                json.append(",\"args\":{\"name\":");
+                appendJsonString(json, event.threadName);
+                json.append("}}");
+            }
+            first = this.appendEventStart(json, first, event.name, event.phase, event.threadId, event.nanos);
+            json.append(",\"cat\":\"step\"");
+            if (event.params.length != 0) {
+                json.append(",\"args\":{");
+                for (int idx = 0; idx < event.params.length; ++idx) {
+                    if (idx != 0) {
+                        json.append(',');
+                    }
+                    json.append('"').append(idx).append("\":");
+                    appendJsonString(json, event.params[idx]);
+                }
+                json.append('}');
+            } else if (event.exception != null) {
+                json.append(",\"args\":{\"exception\":");
+                appendJsonString(json, event.exception);
+                json.append('}');
+            }
+            json.append('}');
+        }
+        this.writer.write(json.toString());
+        this.writer.flush();
+        /* The state is changed only after the events are written */
+        this.firstEvent = first;
+        this.namedThreads.addAll(batchNamedThreads);
+    }
+
+    private boolean appendEventStart(final StringBuilder json,
+                                     final boolean first,
+                                     final String name,
+                                     final char phase,
+                                     final long threadId,
+                                     final long nanos) {
+        json.append(first ? "[\n" : ",\n");
+        json.append("{\"name\":");
+        appendJsonString(json, name);
+        json.append(",\"ph\":\"").append(phase).append("\",\"pid\":").append(this.pid)
+            .append(",\"tid\":").append(threadId);
+        if (phase != 'M') {
+            final long wallNanos = nanos + this.wallClockOffsetNanos;
+            final long fraction = wallNanos % 1000L;
+            json.append(",\"ts\":").append(wallNanos / 1000L).append('.');
+            if (fraction < 100L) {
+                json.append(fraction < 10L ? "00" : "0");
+            }
+            json.append(fraction);
+        }
+        return false;
+    }
+
+    private static final class Frame {
+        private final StepEvent event;
+        private final Frame previous;
+        private final String name;
+
+        private Frame(final StepEvent event,
+                      final Frame previous,
+                      final String name) {
+            this.event = event;
+            this.previous = previous;
+            this.name = name;
+        }
+    }
+
+    private static final class TraceEvent {
+        private final char phase;
+        private final long nanos;
+        private final long threadId;
+        private final String threadName;
+        private final String name;
+        private final String[] params;
+        private final String exception;
+
+        private TraceEvent(final char phase,
+                           final long nanos,
+                           final long threadId,
+                           final String threadName,
+                           final String name,
+                           final String[] params,
+                           final String exception) {
+            this.phase = phase;
+            this.nanos = nanos;
+            this.threadId = threadId;
+            this.threadName = threadName;
+            this.name = name;
+            this.params = params;
+            this.exception = exception;
+        }
+    }
+}
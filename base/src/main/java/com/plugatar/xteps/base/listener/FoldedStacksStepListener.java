@@ -0,0 +1,170 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.listener;
+
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.util.StepPathTrie;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Properties;
+import java.util.Set;
+
+import static com.plugatar.xteps.base.util.PropertiesUtils.intPropertyInRange;
+import static com.plugatar.xteps.base.util.PropertiesUtils.stringProperty;
+import static com.plugatar.xteps.base.util.PropertiesUtils.systemPropertiesWithFile;
+
+/**
+ * {@link StepEventListener} implementation that aggregates the step self time (the step
+ * wall time minus the wall time of its nested steps) per step path in a {@link StepPathTrie}
+ * and writes it in the collapsed stack format ({@code root;Login;Type password 1234})
+ * ready for flame graph tools. Each distinct step path is stored once and the count of
+ * distinct step paths is limited, deeper paths over the limit are aggregated into their
+ * parent path, so memory usage does not depend on the steps count. Raw step names are used,
+ * so steps with name templates are aggregated by the template.
+ * <p>
+ * Properties (system properties or {@code xteps.properties} file):
+ * <ul>
+ * <li>{@code xteps.folded.file} - the output file written on JVM shutdown,
+ * default {@code xteps-steps.folded}</li>
+ * <li>{@code xteps.folded.maxPaths} - the max count of distinct step paths, default {@code 10000}</li>
+ * </ul>
+ * Values are written in microseconds.
+ */
+public class FoldedStacksStepListener implements StepEventListener {
+    private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+        ListenerCapability.NAME, ListenerCapability.NESTING, ListenerCapability.TIMINGS
+    ));
+    private static final int DEFAULT_MAX_PATHS = 10000;
+    private static final int SELF_NANOS = 0;
+    private final StepPathTrie trie;
+    private final ThreadLocal<Frame> currentFrame;
+
+    /**
+     * Zero-argument public ctor.
+     */
+    public FoldedStacksStepListener() {
+        this(systemPropertiesWithFile("xteps.properties"));
+    }
+
+    private FoldedStacksStepListener(final Properties properties) {
+        this(stringProperty(properties, "xteps.folded.file", "xteps-steps.folded"),
+            intPropertyInRange(properties, "xteps.folded.maxPaths", 1, Integer.MAX_VALUE, DEFAULT_MAX_PATHS));
+    }
+
+    /**
+     * Ctor. The count of distinct step paths is limited to 10000.
+     *
+     * @param file the output file written on JVM shutdown or null if the output should not be written
+     */
+    public FoldedStacksStepListener(final String file) {
+        this(file, DEFAULT_MAX_PATHS);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param file     the output file written on JVM shutdown or null if the output should not be written
+     * @param maxPaths the max count of distinct step paths
+     * @throws IllegalArgumentException if {@code maxPaths} is less than 1
+     */
+    public FoldedStacksStepListener(final String file,
+                                    final int maxPaths) {
+        if (maxPaths < 1) { throw new IllegalArgumentException("maxPaths arg is less than 1"); }
+        this.trie = new StepPathTrie(1, maxPaths);
+        this.currentFrame = new ThreadLocal<>();
+        if (file != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> this.writeToFile(file),
+                "xteps-folded-stacks-shutdown-thread"));
+        }
+    }
+
+    @Override
+    public final Set<ListenerCapability> capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public final void stepStarted(final StepEvent event) {
+        final Frame previous = this.currentFrame.get();
+        final StepPathTrie.Node parentNode = previous == null || event.parent() == null
+            ? this.trie.root()
+            : previous.node;
+        this.currentFrame.set(new Frame(event, previous, parentNode.child(event.name())));
+    }
+
+    @Override
+    public final void stepFinished(final StepEvent event) {
+        final Frame frame = this.currentFrame.get();
+        if (frame == null || frame.event != event) {
+            return;
+        }
+        final Frame previous = frame.previous;
+        if (previous == null) {
+            this.currentFrame.remove();
+        } else {
+            this.currentFrame.set(previous);
+        }
+        final long duration = event.durationNanos();
+        frame.node.add(SELF_NANOS, Math.max(0L, duration - frame.nestedNanos));
+        if (previous != null) {
+            previous.nestedNanos += duration;
+        }
+    }
+
+    /**
+     * Writes aggregated step paths in the collapsed stack format.
+     *
+     * @param writer the writer
+     * @throws IOException if an I/O error occurs
+     */
+    public final void writeTo(final Writer writer) throws IOException {
+        if (writer == null) { throw new XtepsException("writer arg is null"); }
+        this.trie.writeFoldedTo(writer, SELF_NANOS, 1000L);
+    }
+
+    private void writeToFile(final String file) {
+        try (final Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            this.writeTo(writer);
+        } catch (final IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private static final class Frame {
+        private final StepEvent event;
+        private final Frame previous;
+        private final StepPathTrie.Node node;
+        private long nestedNanos;
+
+        private Frame(final StepEvent event,
+                      final Frame previous,
+                      final StepPathTrie.Node node) {
+            this.event = event;
+            this.previous = previous;
+            this.node = node;
+            this.nestedNanos = 0L;
+        }
+    }
+}
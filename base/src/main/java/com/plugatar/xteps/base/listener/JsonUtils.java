@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.listener;
+
+/**
+ * JSON utils.
+ */
+final class JsonUtils {
+
+    /**
+     * Utility class ctor.
+     */
+    private JsonUtils() {
+    }
+
+    /**
+     * Appends given string as JSON string literal.
+     *
+     * @param builder the builder
+     * @param str     the string
+     * @return given builder
+     */
+    static StringBuilder appendJsonString(final StringBuilder builder,
+                                          final String str) {
+        if (str == null) {
+            return builder.append("null");
+        }
+        builder.append('"');
+        for (int idx = 0; idx < str.length(); ++idx) {
+            final char ch = str.charAt(idx);
+            switch (ch) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        builder.append(ch);
+                    }
+                    break;
+            }
+        }
+        return builder.append('"');
+    }
+}
@@ -0,0 +1,490 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.listener;
+
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepOutcome;
+import com.plugatar.xteps.base.XtepsException;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.plugatar.xteps.base.listener.JsonUtils.appendJsonString;
+import static com.plugatar.xteps.base.util.PropertiesUtils.intPropertyInRange;
+import static com.plugatar.xteps.base.util.PropertiesUtils.longPropertyInRange;
+import static com.plugatar.xteps.base.util.PropertiesUtils.stringProperty;
+import static com.plugatar.xteps.base.util.PropertiesUtils.systemPropertiesWithFile;
+import static com.plugatar.xteps.base.util.StepListenerUtils.objAsString;
+import static com.plugatar.xteps.base.util.StepListenerUtils.paramArrayAsMap;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedTemplate;
+
+/**
+ * {@link StepEventListener} implementation that maps each step to an OpenTelemetry span
+ * and exports spans asynchronously in batches in the OTLP-JSON format, one
+ * {@code ExportTraceServiceRequest} per batch. Spans are written as JSON lines to a file
+ * or posted to an OTLP/HTTP endpoint (for example, a local collector).
+ * <p>
+ * Nested steps of the thread become child spans. Root steps of each thread start new
+ * traces, or continue the trace given by the W3C {@code traceparent} header value of the
+ * {@code xteps.otel.traceparent} property. Steps performed by other threads (for example,
+ * executor threads) become child spans of the step that submitted the task if the
+ * {@link SpanContext} is propagated:
+ * <pre>{@code
+ * executor.submit(OtlpJsonStepListener.currentContext().wrap(() -> ...));
+ * }</pre>
+ * <p>
+ * The step thread creates span IDs, renders the step name and description, copies the
+ * formatted params and the step values into the span and enqueues it, the JSON encoding
+ * is performed by the export thread. Remaining spans are exported on JVM shutdown.
+ * <p>
+ * Properties (system properties or {@code xteps.properties} file):
+ * <ul>
+ * <li>{@code xteps.otel.file} - the output file, default {@code xteps-spans.json}</li>
+ * <li>{@code xteps.otel.endpoint} - the OTLP/HTTP traces endpoint, used instead of the file if set</li>
+ * <li>{@code xteps.otel.serviceName} - the service name, default {@code xteps}</li>
+ * <li>{@code xteps.otel.traceparent} - the parent of all root steps</li>
+ * <li>{@code xteps.otel.batchSize} - the max batch size, default {@code 512}</li>
+ * <li>{@code xteps.otel.exportInterval} - the export interval in milliseconds, default {@code 1000}</li>
+ * <li>{@code xteps.otel.maxQueueSize} - the max queued spans count, default {@code 65536}</li>
+ * </ul>
+ */
+public class OtlpJsonStepListener implements StepEventListener {
+    private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+        ListenerCapability.NAME, ListenerCapability.DESCRIPTION, ListenerCapability.PARAMS,
+        ListenerCapability.NESTING, ListenerCapability.THREAD, ListenerCapability.TIMINGS
+    ));
+    private static final List<OtlpJsonStepListener> INSTANCES = new CopyOnWriteArrayList<>();
+    private final String serviceName;
+    private final Span externalParent;
+    private final long wallClockOffsetNanos;
+    private final ThreadLocal<Span> currentSpan;
+    private final ThreadLocal<Span> attachedParent;
+    private final OutputStream out;
+    private final AsyncBatchExporter<Span> exporter;
+
+    /**
+     * Zero-argument public ctor.
+     *
+     * @throws XtepsException if properties are incorrect or if it's impossible to open the file
+     */
+    public OtlpJsonStepListener() {
+        this(systemPropertiesWithFile("xteps.properties"));
+    }
+
+    private OtlpJsonStepListener(final Properties properties) {
+        this(
+            stringProperty(properties, "xteps.otel.serviceName", "xteps"),
+            stringProperty(properties, "xteps.otel.file", "xteps-spans.json"),
+            stringProperty(properties, "xteps.otel.endpoint", null),
+            stringProperty(properties, "xteps.otel.traceparent", null),
+            intPropertyInRange(properties, "xteps.otel.batchSize", 1, Integer.MAX_VALUE, 512),
+            longPropertyInRange(properties, "xteps.otel.exportInterval", 1L, Long.MAX_VALUE, 1000L),
+            intPropertyInRange(properties, "xteps.otel.maxQueueSize", 1, Integer.MAX_VALUE, 65536)
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param serviceName          the service name
+     * @param file                 the output file, ignored if {@code endpoint} is not null
+     * @param endpoint             the OTLP/HTTP traces endpoint or null
+     * @param traceparent          the W3C traceparent of all root steps or null
+     * @param batchSize            the max batch size
+     * @param exportIntervalMillis the export interval in milliseconds
+     * @param maxQueueSize         the max queued spans count, spans are dropped if the queue is full
+     * @throws NullPointerException     if {@code serviceName} is null or both {@code file} and
+     *                                  {@code endpoint} are null
+     * @throws IllegalArgumentException if {@code traceparent} is incorrect or {@code batchSize} or
+     *                                  {@code exportIntervalMillis} or {@code maxQueueSize} is not positive
+     * @throws XtepsException           if it's impossible to open the file
+     */
+    public OtlpJsonStepListener(final String serviceName,
+                                final String file,
+                                final String endpoint,
+                                final String traceparent,
+                                final int batchSize,
+                                final long exportIntervalMillis,
+                                final int maxQueueSize) {
+        if (serviceName == null) { throw new NullPointerException("serviceName arg is null"); }
+        if (file == null && endpoint == null) { throw new NullPointerException("file and endpoint args are null"); }
+        if (batchSize <= 0) { throw new IllegalArgumentException("batchSize arg is not positive"); }
+        if (exportIntervalMillis <= 0L) {
+            throw new IllegalArgumentException("exportIntervalMillis arg is not positive");
+        }
+        if (maxQueueSize <= 0) { throw new IllegalArgumentException("maxQueueSize arg is not positive"); }
+        this.serviceName = serviceName;
+        this.externalParent = traceparent == null ? null : parsedTraceparent(traceparent);
+        this.wallClockOffsetNanos = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+        this.currentSpan = new ThreadLocal<>();
+        this.attachedParent = new ThreadLocal<>();
+        final AsyncBatchExporter.Exporter<Span> batchExporter;
+        if (endpoint == null) {
+            try {
+                this.out = new FileOutputStream(file, true);
+            } catch (final IOException ex) {
+                throw new XtepsException("Cannot open file " + file + " cause " + ex, ex);
+            }
+            batchExporter = batch -> {
+                this.out.write(this.encodedBatch(batch).append('\n').toString().getBytes(StandardCharsets.UTF_8));
+                this.out.flush();
+            };
+        } else {
+            this.out = null;
+            batchExporter = batch -> post(endpoint, this.encodedBatch(batch).toString());
+        }
+        this.exporter = new AsyncBatchExporter<>("xteps-otel-export-thread", maxQueueSize, batchSize,
+            exportIntervalMillis, batchExporter);
+        INSTANCES.add(this);
+    }
+
+    /**
+     * Returns the span context of the current step of the current thread (or the attached
+     * span context if the thread does not perform a step) for all listener instances.
+     *
+     * @return the span context
+     */
+    public static SpanContext currentContext() {
+        final Map<OtlpJsonStepListener, Span> parents = new IdentityHashMap<>();
+        for (final OtlpJsonStepListener listener : INSTANCES) {
+            final Span current = listener.currentSpan.get();
+            final Span parent = current == null ? listener.attachedParent.get() : current;
+            if (parent != null) {
+                parents.put(listener, new Span(null, null, parent.traceIdHigh, parent.traceIdLow, parent.spanId, 0L));
+            }
+        }
+        return new SpanContext(parents);
+    }
+
+    @Override
+    public final Set<ListenerCapability> capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public final void stepStarted(final StepEvent event) {
+        final Span previous = this.currentSpan.get();
+        final Span attached;
+        final Span parent = previous != null
+            ? previous
+            : (attached = this.attachedParent.get()) != null ? attached : this.externalParent;
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final Span span = parent == null
+            ? new Span(event, previous, random.nextLong(), random.nextLong(), nonZeroRandom(random), 0L)
+            : new Span(event, previous, parent.traceIdHigh, parent.traceIdLow, nonZeroRandom(random), parent.spanId);
+        this.currentSpan.set(span);
+    }
+
+    @Override
+    public final void stepFinished(final StepEvent event) {
+        final Span span = this.currentSpan.get();
+        if (span == null || span.event != event) {
+            return;
+        }
+        if (span.previous == null) {
+            this.currentSpan.remove();
+        } else {
+            this.currentSpan.set(span.previous);
+        }
+        span.finish(event);
+        this.exporter.offer(span);
+    }
+
+    /**
+     * Exports all finished spans in the caller thread.
+     */
+    public final void flush() {
+        this.exporter.flush();
+    }
+
+    /**
+     * Returns the count of spans dropped because the queue was full or the export failed.
+     *
+     * @return dropped spans count
+     */
+    public final long droppedSpansCount() {
+        return this.exporter.droppedCount();
+    }
+
+    private StringBuilder encodedBatch(final List<Span> batch) {
+        final StringBuilder json = new StringBuilder(256 + batch.size() * 512);
+        json.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        appendAttribute(json, "service.name", this.serviceName);
+        json.append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"xteps\"},\"spans\":[");
+        for (int idx = 0; idx < batch.size(); ++idx) {
+            if (idx != 0) {
+                json.append(',');
+            }
+            this.appendSpan(json, batch.get(idx));
+        }
+        return json.append("]}]}]}");
+    }
+
+    private void appendSpan(final StringBuilder json,
+                            final Span span) {
+        final String[] params = span.params;
+        json.append("{\"traceId\":\"");
+        appendHex(json, span.traceIdHigh);
+        appendHex(json, span.traceIdLow);
+        json.append("\",\"spanId\":\"");
+        appendHex(json, span.spanId);
+        json.append('"');
+        if (span.parentSpanId != 0L) {
+            json.append(",\"parentSpanId\":\"");
+            appendHex(json, span.parentSpanId);
+            json.append('"');
+        }
+        json.append(",\"name\":");
+        appendJsonString(json, span.name);
+        json.append(",\"kind\":1,\"startTimeUnixNano\":\"")
+            .append(span.startNanos + this.wallClockOffsetNanos)
+            .append("\",\"endTimeUnixNano\":\"")
+            .append(span.endNanos + this.wallClockOffsetNanos)
+            .append("\",\"attributes\":[");
+        json.append("{\"key\":\"thread.id\",\"value\":{\"intValue\":\"").append(span.threadId).append("\"}},");
+        appendAttribute(json, "thread.name", span.threadName);
+        if (!span.description.isEmpty()) {
+            json.append(',');
+            appendAttribute(json, "xteps.step.description", span.description);
+        }
+        for (int idx = 0; idx < params.length; ++idx) {
+            json.append(',');
+            appendAttribute(json, "xteps.step.param." + idx, params[idx]);
+        }
+        json.append(']');
+        if (span.exceptionType != null) {
+            json.append(",\"events\":[{\"name\":\"exception\",\"timeUnixNano\":\"")
+                .append(span.endNanos + this.wallClockOffsetNanos)
+                .append("\",\"attributes\":[");
+            appendAttribute(json, "exception.type", span.exceptionType);
+            if (span.exceptionMessage != null) {
+                json.append(',');
+                appendAttribute(json, "exception.message", span.exceptionMessage);
+            }
+            json.append("]}],\"status\":{\"code\":2");
+            if (span.exceptionMessage != null) {
+                json.append(",\"message\":");
+                appendJsonString(json, span.exceptionMessage);
+            }
+            json.append("}}");
+        } else {
+            json.append(",\"status\":{\"code\":1}}");
+        }
+    }
+
+    private static void appendAttribute(final StringBuilder json,
+                                        final String key,
+                                        final String value) {
+        json.append("{\"key\":");
+        appendJsonString(json, key);
+        json.append(",\"value\":{\"stringValue\":");
+        appendJsonString(json, value);
+        json.append("}}");
+    }
+
+    private static void appendHex(final StringBuilder json,
+                                  final long value) {
+        final String hex = Long.toHexString(value);
+        for (int idx = hex.length(); idx < 16; ++idx) {
+            json.append('0');
+        }
+        json.append(hex);
+    }
+
+    private static long nonZeroRandom(final ThreadLocalRandom random) {
+        long value;
+        do {
+            value = random.nextLong();
+        } while (value == 0L);
+        return value;
+    }
+
+    private static Span parsedTraceparent(final String traceparent) {
+        final String[] parts = traceparent.split("-");
+        if (parts.length != 4 || parts[1].length() != 32 || parts[2].length() != 16) {
+            throw new IllegalArgumentException("traceparent arg is incorrect " + traceparent);
+        }
+        try {
+            return new Span(null, null, Long.parseUnsignedLong(parts[1].substring(0, 16), 16),
+                Long.parseUnsignedLong(parts[1].substring(16), 16), Long.parseUnsignedLong(parts[2], 16), 0L);
+        } catch (final NumberFormatException ex) {
+            throw new IllegalArgumentException("traceparent arg is incorrect " + traceparent, ex);
+        }
+    }
+
+    private static void post(final String endpoint,
+                             final String json) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(endpoint).openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (final OutputStream out = connection.getOutputStream()) {
+                out.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+            final int responseCode = connection.getResponseCode();
+            if (responseCode < 200 || responseCode >= 300) {
+                throw new IOException("OTLP endpoint " + endpoint + " responded with code " + responseCode);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static void setAttachedParent(final OtlpJsonStepListener listener,
+                                          final Span parent) {
+        if (parent == null) {
+            listener.attachedParent.remove();
+        } else {
+            listener.attachedParent.set(parent);
+        }
+    }
+
+    /**
+     * Span context of the step, propagates the parent span to the steps performed by other threads.
+     */
+    public static final class SpanContext {
+        private final Map<OtlpJsonStepListener, Span> parents;
+
+        private SpanContext(final Map<OtlpJsonStepListener, Span> parents) {
+            this.parents = parents;
+        }
+
+        /**
+         * Attaches this span context to the current thread, root steps of the current thread
+         * become child spans of the captured step until the returned scope is closed.
+         *
+         * @return the scope
+         */
+        public Scope attach() {
+            final Map<OtlpJsonStepListener, Span> previousParents = new IdentityHashMap<>();
+            for (final OtlpJsonStepListener listener : INSTANCES) {
+                previousParents.put(listener, listener.attachedParent.get());
+                setAttachedParent(listener, this.parents.get(listener));
+            }
+            return new Scope(previousParents);
+        }
+
+        /**
+         * Returns given runnable performed with this span context attached to the performing thread.
+         *
+         * @param runnable the runnable
+         * @return runnable with this span context
+         * @throws NullPointerException if {@code runnable} is null
+         */
+        public Runnable wrap(final Runnable runnable) {
+            if (runnable == null) { throw new NullPointerException("runnable arg is null"); }
+            return () -> {
+                try (final Scope scope = this.attach()) {
+                    runnable.run();
+                }
+            };
+        }
+    }
+
+    /**
+     * Span context scope, restores the previously attached span context when closed.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Map<OtlpJsonStepListener, Span> previousParents;
+
+        private Scope(final Map<OtlpJsonStepListener, Span> previousParents) {
+            this.previousParents = previousParents;
+        }
+
+        @Override
+        public void close() {
+            this.previousParents.forEach(OtlpJsonStepListener::setAttachedParent);
+        }
+    }
+
+    private static final class Span {
+        private static final String[] EMPTY_PARAMS = {};
+        private final long traceIdHigh;
+        private final long traceIdLow;
+        private final long spanId;
+        private final long parentSpanId;
+        private StepEvent event;
+        private Span previous;
+        private String name;
+        private String description;
+        private String[] params;
+        private long threadId;
+        private String threadName;
+        private long startNanos;
+        private long endNanos;
+        private String exceptionType;
+        private String exceptionMessage;
+
+        private Span(final StepEvent event,
+                     final Span previous,
+                     final long traceIdHigh,
+                     final long traceIdLow,
+                     final long spanId,
+                     final long parentSpanId) {
+            this.event = event;
+            this.previous = previous;
+            this.traceIdHigh = traceIdHigh;
+            this.traceIdLow = traceIdLow;
+            this.spanId = spanId;
+            this.parentSpanId = parentSpanId;
+        }
+
+        /* Copies the step values in the step thread, the event is not read by the export thread */
+        private void finish(final StepEvent finishedEvent) {
+            this.event = null;
+            this.previous = null;
+            final Object[] eventParams = finishedEvent.params();
+            final Map<String, Object> replacements = paramArrayAsMap('{', '}', eventParams);
+            final String eventName = finishedEvent.name();
+            final String eventDescription = finishedEvent.description();
+            this.name = eventName.isEmpty() ? "Step" : processedTemplate(eventName, replacements);
+            this.description = eventDescription.isEmpty() ? "" : processedTemplate(eventDescription, replacements);
+            if (eventParams.length == 0) {
+                this.params = EMPTY_PARAMS;
+            } else {
+                this.params = new String[eventParams.length];
+                for (int idx = 0; idx < eventParams.length; ++idx) {
+                    this.params[idx] = objAsString(eventParams[idx]);
+                }
+            }
+            this.threadId = finishedEvent.threadId();
+            this.threadName = finishedEvent.threadName();
+            this.startNanos = finishedEvent.startNanos();
+            this.endNanos = finishedEvent.endNanos();
+            if (finishedEvent.outcome() == StepOutcome.FAILED) {
+                final Throwable exception = finishedEvent.exception();
+                this.exceptionType = exception.getClass().getName();
+                this.exceptionMessage = exception.getMessage();
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.listener;
+
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.util.StepPathTrie;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static com.plugatar.xteps.base.util.PropertiesUtils.booleanProperty;
+import static com.plugatar.xteps.base.util.PropertiesUtils.intPropertyInRange;
+import static com.plugatar.xteps.base.util.PropertiesUtils.stringProperty;
+import static com.plugatar.xteps.base.util.PropertiesUtils.systemPropertiesWithFile;
+
+/**
+ * {@link StepEventListener} implementation that measures the thread CPU time and the thread
+ * allocated bytes of each step. The thread counters are read at the step start and finish,
+ * so the parent step values include the nested steps values. The values are aggregated per
+ * step path in a {@link StepPathTrie} and written on JVM shutdown as a tab-separated report
+ * sorted by allocated bytes, use it to find the steps that cause GC pressure. Raw step names
+ * are used, so steps with name templates are aggregated by the template.
+ * <p>
+ * The values can be added to the step as extra params ({@code CPU time} and {@code Allocated})
+ * before the step is finished, see {@link StepEvent#extraParams()}. The Allure and TestIT
+ * listeners add extra params to the reported steps.
+ * <p>
+ * Properties (system properties or {@code xteps.properties} file):
+ * <ul>
+ * <li>{@code xteps.resources.file} - the report file written on JVM shutdown,
+ * default {@code xteps-step-resources.tsv}</li>
+ * <li>{@code xteps.resources.params} - add values to the steps as parameters, default {@code false}</li>
+ * <li>{@code xteps.resources.maxPaths} - the max count of distinct step paths, steps of deeper paths
+ * over the limit are not aggregated (the parent step values already include them), default {@code 10000}</li>
+ * </ul>
+ * The allocated bytes are measured only on JVMs providing {@code com.sun.management.ThreadMXBean}.
+ */
+public class ResourceAccountingStepListener implements StepEventListener {
+    private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+        ListenerCapability.NAME, ListenerCapability.NESTING
+    ));
+    private static final int DEFAULT_MAX_PATHS = 10000;
+    private static final int COUNT = 0;
+    private static final int CPU_NANOS = 1;
+    private static final int ALLOCATED_BYTES = 2;
+    private final ThreadLocal<Frame> currentFrame;
+    private final boolean params;
+    private final StepPathTrie trie;
+
+    /**
+     * Zero-argument public ctor.
+     */
+    public ResourceAccountingStepListener() {
+        this(systemPropertiesWithFile("xteps.properties"));
+    }
+
+    private ResourceAccountingStepListener(final Properties properties) {
+        this(stringProperty(properties, "xteps.resources.file", "xteps-step-resources.tsv"),
+            booleanProperty(properties, "xteps.resources.params", false),
+            intPropertyInRange(properties, "xteps.resources.maxPaths", 1, Integer.MAX_VALUE, DEFAULT_MAX_PATHS));
+    }
+
+    /**
+     * Ctor. The count of distinct step paths is limited to 10000.
+     *
+     * @param file   the report file written on JVM shutdown or null if the report should not be written
+     * @param params add values to the steps as extra params
+     */
+    public ResourceAccountingStepListener(final String file,
+                                          final boolean params) {
+        this(file, params, DEFAULT_MAX_PATHS);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param file     the report file written on JVM shutdown or null if the report should not be written
+     * @param params   add values to the steps as extra params
+     * @param maxPaths the max count of distinct step paths
+     * @throws IllegalArgumentException if {@code maxPaths} is less than 1
+     */
+    public ResourceAccountingStepListener(final String file,
+                                          final boolean params,
+                                          final int maxPaths) {
+        if (maxPaths < 1) { throw new IllegalArgumentException("maxPaths arg is less than 1"); }
+        this.currentFrame = new ThreadLocal<>();
+        this.params = params;
+        this.trie = new StepPathTrie(3, maxPaths);
+        if (file != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> this.writeToFile(file),
+                "xteps-resource-accounting-shutdown-thread"));
+        }
+    }
+
+    @Override
+    public final Set<ListenerCapability> capabilities() {
+        return CAPABILITIES;
+    }
+
+    @Override
+    public final void stepStarted(final StepEvent event) {
+        final Frame previous = this.currentFrame.get();
+        final StepPathTrie.Node parentNode = previous == null || event.parent() == null
+            ? this.trie.root()
+            : previous.node;
+        final StepPathTrie.Node node = parentNode.child(event.name());
+        /* The trie returns the parent node if the paths count limit is reached */
+        this.currentFrame.set(new Frame(event, previous, node, node != parentNode,
+            Counters.cpuNanos(), Counters.allocatedBytes()));
+    }
+
+    @Override
+    public final void stepFinishing(final StepEvent event) {
+        if (!this.params) {
+            return;
+        }
+        final Frame frame = this.currentFrame.get();
+        if (frame == null || frame.event != event) {
+            return;
+        }
+        if (frame.startCpuNanos != -1L) {
+            event.addExtraParam("CPU time", ((Counters.cpuNanos() - frame.startCpuNanos) / 1000L) + " us");
+        }
+        if (frame.startAllocatedBytes != -1L) {
+            event.addExtraParam("Allocated", (Counters.allocatedBytes() - frame.startAllocatedBytes) + " bytes");
+        }
+    }
+
+    @Override
+    public final void stepFinished(final StepEvent event) {
+        final long cpuNanos = Counters.cpuNanos();
+        final long allocatedBytes = Counters.allocatedBytes();
+        final Frame frame = this.currentFrame.get();
+        if (frame == null || frame.event != event) {
+            return;
+        }
+        if (frame.previous == null) {
+            this.currentFrame.remove();
+        } else {
+            this.currentFrame.set(frame.previous);
+        }
+        if (!frame.aggregated) {
+            return;
+        }
+        frame.node.add(COUNT, 1L);
+        if (frame.startCpuNanos != -1L) {
+            frame.node.add(CPU_NANOS, Math.max(0L, cpuNanos - frame.startCpuNanos));
+        }
+        if (frame.startAllocatedBytes != -1L) {
+            frame.node.add(ALLOCATED_BYTES, Math.max(0L, allocatedBytes - frame.startAllocatedBytes));
+        }
+    }
+
+    /**
+     * Writes the tab-separated report: step path, steps count, CPU time in microseconds and
+     * allocated bytes. Lines are sorted by allocated bytes in descending order.
+     *
+     * @param writer the writer
+     * @throws IOException if an I/O error occurs
+     */
+    public final void writeTo(final Writer writer) throws IOException {
+        if (writer == null) { throw new XtepsException("writer arg is null"); }
+        final List<Line> lines = new ArrayList<>();
+        this.trie.forEachPath((path, node) -> {
+            final long count = node.get(COUNT);
+            if (count != 0L) {
+                lines.add(new Line(path, count, node.get(CPU_NANOS) / 1000L, node.get(ALLOCATED_BYTES)));
+            }
+        });
+        lines.sort((line1, line2) -> {
+            final int result = Long.compare(line2.allocatedBytes, line1.allocatedBytes);
+            return result != 0 ? result : line1.path.compareTo(line2.path);
+        });
+        writer.append("path\tcount\tcpuMicros\tallocatedBytes\n");
+        for (final Line line : lines) {
+            writer.append(line.path).append('\t').append(Long.toString(line.count))
+                .append('\t').append(Long.toString(line.cpuMicros))
+                .append('\t').append(Long.toString(line.allocatedBytes)).append('\n');
+        }
+        writer.flush();
+    }
+
+    private void writeToFile(final String file) {
+        try (final Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            this.writeTo(writer);
+        } catch (final IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private static final class Counters {
+        private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+        private static final boolean CPU_TIME_SUPPORTED = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+            && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+        private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN = allocationMXBean();
+
+        private static long cpuNanos() {
+            return CPU_TIME_SUPPORTED ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : -1L;
+        }
+
+        private static long allocatedBytes() {
+            return ALLOCATION_MX_BEAN == null
+                ? -1L
+                : ALLOCATION_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        private static com.sun.management.ThreadMXBean allocationMXBean() {
+            try {
+                if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+                    final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+                    if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                        return bean;
+                    }
+                }
+            } catch (final LinkageError ignored) { }
+            return null;
+        }
+    }
+
+    private static final class Line {
+        private final String path;
+        private final long count;
+        private final long cpuMicros;
+        private final long allocatedBytes;
+
+        private Line(final String path,
+                     final long count,
+                     final long cpuMicros,
+                     final long allocatedBytes) {
+            this.path = path;
+            this.count = count;
+            this.cpuMicros = cpuMicros;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+
+    private static final class Frame {
+        private final StepEvent event;
+        private final Frame previous;
+        private final StepPathTrie.Node node;
+        private final boolean aggregated;
+        private final long startCpuNanos;
+        private final long startAllocatedBytes;
+
+        private Frame(final StepEvent event,
+                      final Frame previous,
+                      final StepPathTrie.Node node,
+                      final boolean aggregated,
+                      final long startCpuNanos,
+                      final long startAllocatedBytes) {
+            this.event = event;
+            this.previous = previous;
+            this.node = node;
+            this.aggregated = aggregated;
+            this.startCpuNanos = startCpuNanos;
+            this.startAllocatedBytes = startAllocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.pool;
+
+import com.plugatar.xteps.base.ThrowingConsumer;
+import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Bounded pool of contexts, for example, web drivers or database connections. Contexts are
+ * created on demand up to the maximum pool size, callers wait for a returned context if all
+ * contexts are borrowed. Idle contexts are validated before borrowing and destroyed after
+ * the maximum idle time.
+ * <p>
+ * Borrowed contexts are tracked by identity, only a context borrowed from this pool and not
+ * yet returned can be returned or invalidated. Exceptions of the context destroyer are thrown
+ * as {@link XtepsException} by the method that destroys the context. Contexts destroyed during
+ * borrowing (expired or invalid idle contexts) do not fail the borrowing, the destroyer
+ * exceptions are printed to the standard error stream, as thread hooks exceptions are.
+ *
+ * @param <T> the context type
+ */
+public final class ContextPool<T> implements AutoCloseable {
+    private final ThrowingSupplier<? extends T, ?> factory;
+    private final Predicate<? super T> validator;
+    private final ThrowingConsumer<? super T, ?> destroyer;
+    private final int maxSize;
+    private final long maxIdleNanos;
+    private final Deque<IdleContext<T>> idleContexts;
+    private final Set<T> borrowedContexts;
+    private int activeCount;
+    private boolean closed;
+    private long borrowCount;
+    private long createdCount;
+    private long destroyedCount;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    /**
+     * Ctor.
+     *
+     * @param factory     the context factory
+     * @param validator   the context validator, invalid idle contexts will be destroyed
+     * @param destroyer   the context destroyer
+     * @param maxSize     the maximum count of contexts
+     * @param maxIdleTime the maximum idle time of the context, zero means no idle eviction
+     * @throws XtepsException if {@code factory} or {@code validator} or {@code destroyer} or
+     *                        {@code maxIdleTime} is null or if {@code maxSize} is less than 1
+     *                        or if {@code maxIdleTime} is negative
+     */
+    public ContextPool(final ThrowingSupplier<? extends T, ?> factory,
+                       final Predicate<? super T> validator,
+                       final ThrowingConsumer<? super T, ?> destroyer,
+                       final int maxSize,
+                       final Duration maxIdleTime) {
+        if (factory == null) { throw new XtepsException("factory arg is null"); }
+        if (validator == null) { throw new XtepsException("validator arg is null"); }
+        if (destroyer == null) { throw new XtepsException("destroyer arg is null"); }
+        if (maxIdleTime == null) { throw new XtepsException("maxIdleTime arg is null"); }
+        if (maxSize < 1) { throw new XtepsException("maxSize arg is less than 1"); }
+        if (maxIdleTime.isNegative()) { throw new XtepsException("maxIdleTime arg is negative"); }
+        this.factory = factory;
+        this.validator = validator;
+        this.destroyer = destroyer;
+        this.maxSize = maxSize;
+        this.maxIdleNanos = maxIdleTime.toNanos();
+        this.idleContexts = new ArrayDeque<>();
+        this.borrowedContexts = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.activeCount = 0;
+        this.closed = false;
+    }
+
+    /**
+     * Borrows the context. Returns the most recently returned valid idle context or creates
+     * a new context. Waits for a returned context if all contexts are borrowed.
+     *
+     * @return the context
+     * @throws XtepsException if the pool is closed
+     *                        or if the context factory threw exception or returned null
+     *                        or if the current thread was interrupted while waiting for the context
+     */
+    public T borrow() {
+        final long startNanos = System.nanoTime();
+        final List<T> evicted = new ArrayList<>();
+        IdleContext<T> idleContext = null;
+        try {
+            synchronized (this) {
+                while (true) {
+                    if (this.closed) { throw new XtepsException("Pool is closed"); }
+                    this.evictIdle(System.nanoTime(), evicted);
+                    if (!this.idleContexts.isEmpty()) {
+                        idleContext = this.idleContexts.pollFirst();
+                        break;
+                    }
+                    if (this.activeCount < this.maxSize) {
+                        break;
+                    }
+                    try {
+                        this.wait();
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new XtepsException("Interrupted while waiting for the pooled context", ex);
+                    }
+                }
+                this.activeCount++;
+                this.borrowCount++;
+                final long waitNanos = System.nanoTime() - startNanos;
+                this.totalWaitNanos += waitNanos;
+                this.maxWaitNanos = Math.max(this.maxWaitNanos, waitNanos);
+            }
+        } finally {
+            this.destroyReporting(evicted);
+        }
+        if (idleContext != null) {
+            if (this.isValid(idleContext.context)) {
+                synchronized (this) {
+                    this.borrowedContexts.add(idleContext.context);
+                }
+                return idleContext.context;
+            }
+            this.destroyReporting(Collections.singletonList(idleContext.context));
+        }
+        final T context;
+        try {
+            context = this.factory.get();
+        } catch (final Throwable ex) {
+            this.releaseSlot();
+            throw new XtepsException("Cannot create pooled context", ex);
+        }
+        if (context == null) {
+            this.releaseSlot();
+            throw new XtepsException("Pooled context factory returned null");
+        }
+        synchronized (this) {
+            this.createdCount++;
+            this.borrowedContexts.add(context);
+        }
+        return context;
+    }
+
+    /**
+     * Returns given borrowed context to the pool. The context will be destroyed if the pool is closed.
+     *
+     * @param context the context
+     * @throws XtepsException if {@code context} is null
+     *                        or if {@code context} is not borrowed from this pool or already returned
+     *                        or if the context destroyer threw exception
+     */
+    public void giveBack(final T context) {
+        if (context == null) { throw new XtepsException("context arg is null"); }
+        final boolean poolClosed;
+        synchronized (this) {
+            this.checkBorrowed(context);
+            this.activeCount--;
+            poolClosed = this.closed;
+            if (!poolClosed) {
+                this.idleContexts.addFirst(new IdleContext<>(context, System.nanoTime()));
+            }
+            this.notifyAll();
+        }
+        if (poolClosed) {
+            this.destroy(context);
+        }
+    }
+
+    /**
+     * Destroys given borrowed context instead of returning it to the pool.
+     *
+     * @param context the context
+     * @throws XtepsException if {@code context} is null
+     *                        or if {@code context} is not borrowed from this pool or already returned
+     *                        or if the context destroyer threw exception
+     */
+    public void invalidate(final T context) {
+        if (context == null) { throw new XtepsException("context arg is null"); }
+        synchronized (this) {
+            this.checkBorrowed(context);
+            this.activeCount--;
+            this.notifyAll();
+        }
+        this.destroy(context);
+    }
+
+    /**
+     * Destroys idle contexts exceeding the maximum idle time.
+     *
+     * @throws XtepsException if the context destroyer threw exception
+     */
+    public void evictIdle() {
+        final List<T> evicted = new ArrayList<>();
+        synchronized (this) {
+            this.evictIdle(System.nanoTime(), evicted);
+        }
+        this.destroy(evicted);
+    }
+
+    /**
+     * Closes this pool and destroys all idle contexts. Borrowed contexts will be destroyed
+     * when they are returned.
+     *
+     * @throws XtepsException if the context destroyer threw exception
+     */
+    @Override
+    public void close() {
+        final List<T> idle = new ArrayList<>();
+        synchronized (this) {
+            this.closed = true;
+            this.idleContexts.forEach(idleContext -> idle.add(idleContext.context));
+            this.idleContexts.clear();
+            this.notifyAll();
+        }
+        this.destroy(idle);
+    }
+
+    /**
+     * Returns the count of borrowed contexts.
+     *
+     * @return the count of borrowed contexts
+     */
+    public synchronized int activeCount() {
+        return this.activeCount;
+    }
+
+    /**
+     * Returns the count of idle contexts.
+     *
+     * @return the count of idle contexts
+     */
+    public synchronized int idleCount() {
+        return this.idleContexts.size();
+    }
+
+    /**
+     * Returns the pool utilization, the ratio of borrowed contexts to the maximum count of contexts.
+     *
+     * @return the pool utilization in the range 0 to 1
+     */
+    public synchronized double utilization() {
+        return (double) this.activeCount / this.maxSize;
+    }
+
+    /**
+     * Returns the count of borrowings.
+     *
+     * @return the count of borrowings
+     */
+    public synchronized long borrowCount() {
+        return this.borrowCount;
+    }
+
+    /**
+     * Returns the count of created contexts.
+     *
+     * @return the count of created contexts
+     */
+    public synchronized long createdCount() {
+        return this.createdCount;
+    }
+
+    /**
+     * Returns the count of destroyed contexts.
+     *
+     * @return the count of destroyed contexts
+     */
+    public synchronized long destroyedCount() {
+        return this.destroyedCount;
+    }
+
+    /**
+     * Returns the total time of waiting for contexts.
+     *
+     * @return the total wait time
+     */
+    public synchronized Duration totalWaitTime() {
+        return Duration.ofNanos(this.totalWaitNanos);
+    }
+
+    /**
+     * Returns the maximum time of waiting for the context.
+     *
+     * @return the maximum wait time
+     */
+    public synchronized Duration maxWaitTime() {
+        return Duration.ofNanos(this.maxWaitNanos);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ContextPool{active=" + this.activeCount + ", idle=" + this.idleContexts.size() +
+            ", maxSize=" + this.maxSize + ", borrowed=" + this.borrowCount + ", created=" + this.createdCount +
+            ", destroyed=" + this.destroyedCount + ", totalWaitMillis=" + this.totalWaitNanos / 1_000_000L +
+            ", maxWaitMillis=" + this.maxWaitNanos / 1_000_000L + "}";
+    }
+
+    private void evictIdle(final long nowNanos,
+                           final List<T> evicted) {
+        if (this.maxIdleNanos == 0L) {
+            return;
+        }
+        final Iterator<IdleContext<T>> iterator = this.idleContexts.descendingIterator();
+        while (iterator.hasNext()) {
+            final IdleContext<T> idleContext = iterator.next();
+            if (nowNanos - idleContext.idleSinceNanos < this.maxIdleNanos) {
+                break;
+            }
+            iterator.remove();
+            evicted.add(idleContext.context);
+        }
+    }
+
+    private boolean isValid(final T context) {
+        try {
+            return this.validator.test(context);
+        } catch (final RuntimeException ex) {
+            return false;
+        }
+    }
+
+    private void checkBorrowed(final T context) {
+        if (!this.borrowedContexts.remove(context)) {
+            throw new XtepsException("context arg is not borrowed from this pool or already returned");
+        }
+    }
+
+    private void releaseSlot() {
+        synchronized (this) {
+            this.activeCount--;
+            this.notifyAll();
+        }
+    }
+
+    private void destroyReporting(final List<T> contexts) {
+        try {
+            this.destroy(contexts);
+        } catch (final XtepsException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private void destroy(final List<T> contexts) {
+        XtepsException baseEx = null;
+        for (final T context : contexts) {
+            try {
+                this.destroy(context);
+            } catch (final XtepsException ex) {
+                if (baseEx == null) {
+                    baseEx = ex;
+                } else {
+                    baseEx.addSuppressed(ex);
+                }
+            }
+        }
+        if (baseEx != null) {
+            throw baseEx;
+        }
+    }
+
+    private void destroy(final T context) {
+        synchronized (this) {
+            this.destroyedCount++;
+        }
+        try {
+            this.destroyer.accept(context);
+        } catch (final Throwable ex) {
+            throw new XtepsException("Cannot destroy pooled context", ex);
+        }
+    }
+
+    private static final class IdleContext<T> {
+        private final T context;
+        private final long idleSinceNanos;
+
+        private IdleContext(final T context,
+                            final long idleSinceNanos) {
+            this.context = context;
+            this.idleSinceNanos = idleSinceNanos;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.reporter;
+
+import com.plugatar.xteps.base.HooksContainer;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Current step introspection. The step reporters maintain the per-thread stack of the
+ * performed step names, push and pop operations are O(1) and do not allocate (the stack
+ * array grows only when the nesting exceeds the previous maximum). The stack of the current
+ * thread is read without synchronization, the stacks of other threads (for watchdogs and
+ * samplers) are read as a best-effort snapshot. The stacks registry refers to the threads
+ * weakly, stacks of the collected threads are removed from the registry.
+ * <p>
+ * Step names are not processed templates, the params placeholders are not replaced.
+ */
+public final class CurrentStep {
+    private static final String[] EMPTY_PATH = {};
+    private static final ThreadLocal<Stack> CURRENT_STACK = ThreadLocal.withInitial(CurrentStep::newStack);
+    private static final ConcurrentMap<Long, Stack> STACKS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Thread> COLLECTED_THREADS = new ReferenceQueue<>();
+
+    /**
+     * Utility class ctor.
+     */
+    private CurrentStep() {
+    }
+
+    /**
+     * Returns the name of the current step of the current thread or null if the thread does not perform a step.
+     *
+     * @return the current step name or null
+     */
+    public static String name() {
+        final Stack stack = CURRENT_STACK.get();
+        final int size = stack.size;
+        return size == 0 ? null : stack.names[size - 1];
+    }
+
+    /**
+     * Returns the nesting depth of the current step of the current thread,
+     * {@code 0} if the thread does not perform a step.
+     *
+     * @return the current step depth
+     */
+    public static int depth() {
+        return CURRENT_STACK.get().size;
+    }
+
+    /**
+     * Returns the names of the steps performed by the current thread from the outermost to the current step.
+     *
+     * @return the current step path
+     */
+    public static String[] path() {
+        return CURRENT_STACK.get().snapshot();
+    }
+
+    /**
+     * Returns the names of the steps performed by given thread from the outermost to the current step.
+     *
+     * @param thread the thread
+     * @return the current step path of the thread
+     * @throws XtepsException if {@code thread} is null
+     */
+    public static String[] path(final Thread thread) {
+        if (thread == null) { throw new XtepsException("thread arg is null"); }
+        final Stack stack = STACKS.get(thread.getId());
+        return stack == null || stack.get() != thread ? EMPTY_PATH : stack.snapshot();
+    }
+
+    /**
+     * Returns the current step paths of all threads performing steps.
+     *
+     * @return the current step paths by threads
+     */
+    public static Map<Thread, String[]> paths() {
+        final Map<Thread, String[]> paths = new HashMap<>();
+        for (final Stack stack : STACKS.values()) {
+            final Thread thread = stack.get();
+            if (thread != null && thread.isAlive()) {
+                final String[] path = stack.snapshot();
+                if (path.length != 0) {
+                    paths.put(thread, path);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(paths);
+    }
+
+    /**
+     * Pushes given step name and the step hooks container to the stack of the current thread.
+     * Called by the step reporters when the step is started.
+     *
+     * @param name           the step name
+     * @param hooksContainer the step hooks container
+     */
+    static void push(final String name,
+                     final HooksContainer hooksContainer) {
+        CURRENT_STACK.get().push(name, hooksContainer);
+    }
+
+    /**
+     * Pops the current step name from the stack of the current thread.
+     * Called by the step reporters when the step is finished.
+     */
+    static void pop() {
+        CURRENT_STACK.get().pop();
+    }
+
+    /**
+     * Returns the hooks container of the nearest step of the current thread that keeps hooks
+     * or null if there is no such step. Fake hooks containers are skipped.
+     *
+     * @return the hooks container or null
+     */
+    static HooksContainer hooksContainer() {
+        final Stack stack = CURRENT_STACK.get();
+        for (int idx = stack.size - 1; idx >= 0; --idx) {
+            final HooksContainer hooksContainer = stack.hooksContainers[idx];
+            if (!(hooksContainer instanceof FakeHooksContainer)) {
+                return hooksContainer;
+            }
+        }
+        return null;
+    }
+
+    private static Stack newStack() {
+        Reference<? extends Thread> collected;
+        while ((collected = COLLECTED_THREADS.poll()) != null) {
+            final Stack collectedStack = (Stack) collected;
+            STACKS.remove(collectedStack.threadId, collectedStack);
+        }
+        final Thread thread = Thread.currentThread();
+        final Stack stack = new Stack(thread);
+        STACKS.put(stack.threadId, stack);
+        return stack;
+    }
+
+    private static final class Stack extends WeakReference<Thread> {
+        private final long threadId;
+        private volatile String[] names;
+        private volatile int size;
+        private HooksContainer[] hooksContainers;
+
+        private Stack(final Thread thread) {
+            super(thread, COLLECTED_THREADS);
+            this.threadId = thread.getId();
+            this.names = new String[8];
+            this.size = 0;
+            this.hooksContainers = new HooksContainer[8];
+        }
+
+        private void push(final String name,
+                          final HooksContainer hooksContainer) {
+            final int currentSize = this.size;
+            String[] currentNames = this.names;
+            if (currentSize == currentNames.length) {
+                final String[] newNames = new String[currentSize * 2];
+                System.arraycopy(currentNames, 0, newNames, 0, currentSize);
+                currentNames = newNames;
+                this.names = newNames;
+                this.hooksContainers = Arrays.copyOf(this.hooksContainers, currentSize * 2);
+            }
+            this.hooksContainers[currentSize] = hooksContainer;
+            currentNames[currentSize] = name;
+            /* The volatile write publishes the name to other threads */
+            this.size = currentSize + 1;
+        }
+
+        private void pop() {
+            final int currentSize = this.size;
+            if (currentSize != 0) {
+                this.size = currentSize - 1;
+                this.names[currentSize - 1] = null;
+                this.hooksContainers[currentSize - 1] = null;
+            }
+        }
+
+        private String[] snapshot() {
+            final int currentSize = this.size;
+            if (currentSize == 0) {
+                return EMPTY_PATH;
+            }
+            final String[] currentNames = this.names;
+            int length = Math.min(currentSize, currentNames.length);
+            final String[] path = new String[length];
+            System.arraycopy(currentNames, 0, path, 0, length);
+            /* Steps of another thread could be popped while copying */
+            for (int idx = 0; idx < length; ++idx) {
+                if (path[idx] == null) {
+                    length = idx;
+                    break;
+                }
+            }
+            return length == path.length ? path : Arrays.copyOf(path, length);
+        }
+    }
+}
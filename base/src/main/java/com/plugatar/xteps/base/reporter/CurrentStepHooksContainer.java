@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.reporter;
+
+import com.plugatar.xteps.base.HooksContainer;
+import com.plugatar.xteps.base.HooksOrder;
+import com.plugatar.xteps.base.ThrowingRunnable;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.hook.ThreadHooks;
+
+/**
+ * Current step hooks container. Adds hooks to the hooks container of the nearest step
+ * performed by the current thread, the hooks will be called with the hooks of this step
+ * (for example, when the steps chain hooks are called or when the step failed). Fake hooks
+ * containers are skipped. If the current thread does not perform a step with a hooks
+ * container, hooks are added to the {@link ThreadHooks} of the current thread.
+ */
+public class CurrentStepHooksContainer implements HooksContainer {
+
+    /**
+     * Ctor.
+     */
+    public CurrentStepHooksContainer() {
+    }
+
+    @Override
+    public final void addHook(final int priority,
+                              final ThrowingRunnable<?> hook) {
+        final HooksContainer hooksContainer = CurrentStep.hooksContainer();
+        if (hooksContainer == null) {
+            ThreadHooks.addHook(priority, hook);
+        } else {
+            hooksContainer.addHook(priority, hook);
+        }
+    }
+
+    @Override
+    public final void setOrder(final HooksOrder order) {
+        final HooksContainer hooksContainer = CurrentStep.hooksContainer();
+        if (hooksContainer == null) {
+            ThreadHooks.setOrder(order);
+        } else {
+            hooksContainer.setOrder(order);
+        }
+    }
+
+    @Override
+    public final void callHooks() {
+    }
+
+    @Override
+    public final void callHooks(final Throwable baseException) {
+        if (baseException == null) { throw new XtepsException("baseException arg is null"); }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.reporter;
+
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepOutcome;
+import com.plugatar.xteps.base.XtepsException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.plugatar.xteps.base.util.StepListenerUtils.paramArrayAsMap;
+import static com.plugatar.xteps.base.util.StepListenerUtils.processedTemplate;
+
+/**
+ * Default StepEvent. The UUID, the params, the params by indexes and the rendered
+ * name and description are computed lazily and memoized.
+ */
+final class DefaultStepEvent implements StepEvent {
+    private static final Object[] EMPTY_PARAMS = {};
+    private final DefaultStepEvent parent;
+    private final int depth;
+    private final long threadId;
+    private final String threadName;
+    private final String name;
+    private final String description;
+    private final int argsCount;
+    private final Object arg1;
+    private final Object arg2;
+    private final Object arg3;
+    private long startNanos;
+    private long endNanos;
+    private long logStartPosition;
+    private String uuid;
+    private Object[] params;
+    private Map<String, Object> paramsByIndex;
+    private Map<String, Object> replacements;
+    private String renderedName;
+    private String renderedDescription;
+    private StepOutcome outcome;
+    private Throwable exception;
+    private Map<String, String> extraParams;
+    private XtepsException listenerException;
+
+    private DefaultStepEvent(final DefaultStepEvent parent,
+                             final Thread thread,
+                             final String name,
+                             final String description,
+                             final Object[] params,
+                             final int argsCount,
+                             final Object arg1,
+                             final Object arg2,
+                             final Object arg3) {
+        this.parent = parent;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.threadId = thread == null ? -1L : thread.getId();
+        this.threadName = thread == null ? "" : thread.getName();
+        this.name = name;
+        this.description = description;
+        this.params = params;
+        this.argsCount = argsCount;
+        this.arg1 = arg1;
+        this.arg2 = arg2;
+        this.arg3 = arg3;
+        this.startNanos = 0L;
+        this.endNanos = 0L;
+        this.logStartPosition = 0L;
+        this.uuid = null;
+        this.paramsByIndex = null;
+        this.replacements = null;
+        this.renderedName = null;
+        this.renderedDescription = null;
+        this.outcome = StepOutcome.IN_PROGRESS;
+        this.exception = null;
+        this.extraParams = null;
+        this.listenerException = null;
+    }
+
+    static DefaultStepEvent withParams(final DefaultStepEvent parent,
+                                       final Thread thread,
+                                       final String name,
+                                       final String description,
+                                       final Object[] params) {
+        return new DefaultStepEvent(parent, thread, name, description, params, 0, null, null, null);
+    }
+
+    static DefaultStepEvent withArgs(final DefaultStepEvent parent,
+                                     final Thread thread,
+                                     final String name,
+                                     final String description,
+                                     final int argsCount,
+                                     final Object arg1,
+                                     final Object arg2,
+                                     final Object arg3) {
+        return new DefaultStepEvent(parent, thread, name, description, null, argsCount, arg1, arg2, arg3);
+    }
+
+    void start(final long startNanos) {
+        this.startNanos = startNanos;
+        this.endNanos = startNanos;
+    }
+
+    void logStartPosition(final long logStartPosition) {
+        this.logStartPosition = logStartPosition;
+    }
+
+    long logStartPosition() {
+        return this.logStartPosition;
+    }
+
+    void finish(final long endNanos,
+                final Throwable exception) {
+        this.endNanos = endNanos;
+        this.outcome = exception == null ? StepOutcome.PASSED : StepOutcome.FAILED;
+        this.exception = exception;
+    }
+
+    void addListenerException(final Throwable exception) {
+        if (this.listenerException == null) {
+            this.listenerException =
+                new XtepsException("One or more listeners threw exceptions (see suppressed exceptions)");
+        }
+        this.listenerException.addSuppressed(exception);
+    }
+
+    XtepsException listenerException() {
+        return this.listenerException;
+    }
+
+    @Override
+    public String uuid() {
+        String result;
+        if ((result = this.uuid) == null) {
+            result = UUID.randomUUID().toString();
+            this.uuid = result;
+        }
+        return result;
+    }
+
+    @Override
+    public DefaultStepEvent parent() {
+        return this.parent;
+    }
+
+    @Override
+    public int depth() {
+        return this.depth;
+    }
+
+    @Override
+    public long threadId() {
+        return this.threadId;
+    }
+
+    @Override
+    public String threadName() {
+        return this.threadName;
+    }
+
+    @Override
+    public long startNanos() {
+        return this.startNanos;
+    }
+
+    @Override
+    public long endNanos() {
+        return this.endNanos;
+    }
+
+    @Override
+    public StepOutcome outcome() {
+        return this.outcome;
+    }
+
+    @Override
+    public Throwable exception() {
+        return this.exception;
+    }
+
+    @Override
+    public String name() {
+        return this.name;
+    }
+
+    @Override
+    public String renderedName() {
+        String result;
+        if ((result = this.renderedName) == null) {
+            result = this.rendered(this.name);
+            this.renderedName = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String description() {
+        return this.description;
+    }
+
+    @Override
+    public String renderedDescription() {
+        String result;
+        if ((result = this.renderedDescription) == null) {
+            result = this.rendered(this.description);
+            this.renderedDescription = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Object[] params() {
+        Object[] result;
+        if ((result = this.params) == null) {
+            switch (this.argsCount) {
+                case 1:
+                    result = new Object[]{this.arg1};
+                    break;
+                case 2:
+                    result = new Object[]{this.arg1, this.arg2};
+                    break;
+                case 3:
+                    result = new Object[]{this.arg1, this.arg2, this.arg3};
+                    break;
+                default:
+                    result = EMPTY_PARAMS;
+                    break;
+            }
+            this.params = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> paramsByIndex() {
+        Map<String, Object> result;
+        if ((result = this.paramsByIndex) == null) {
+            result = Collections.unmodifiableMap(paramArrayAsMap(this.params()));
+            this.paramsByIndex = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, String> extraParams() {
+        final Map<String, String> result = this.extraParams;
+        return result == null ? Collections.emptyMap() : Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public void addExtraParam(final String name,
+                              final String value) {
+        if (name == null) { throw new XtepsException("name arg is null"); }
+        if (value == null) { throw new XtepsException("value arg is null"); }
+        Map<String, String> result;
+        if ((result = this.extraParams) == null) {
+            result = new LinkedHashMap<>(4);
+            this.extraParams = result;
+        }
+        result.put(name, value);
+    }
+
+    private String rendered(final String template) {
+        if (template.isEmpty() || template.indexOf('{') == -1) {
+            return template;
+        }
+        Map<String, Object> result;
+        if ((result = this.replacements) == null) {
+            result = paramArrayAsMap('{', '}', this.params());
+            this.replacements = result;
+        }
+        return processedTemplate(template, result);
+    }
+
+    @Override
+    public String toString() {
+        return "StepEvent(" + this.name + ", " + this.outcome + ")";
+    }
+}
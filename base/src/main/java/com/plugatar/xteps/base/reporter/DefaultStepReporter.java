@@ -17,18 +17,52 @@ package com.plugatar.xteps.base.reporter;
 
 import com.plugatar.xteps.base.ExceptionHandler;
 import com.plugatar.xteps.base.HooksContainer;
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
 import com.plugatar.xteps.base.StepListener;
+import com.plugatar.xteps.base.StepOutcome;
 import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.ThrowingBiConsumer;
+import com.plugatar.xteps.base.ThrowingBiFunction;
+import com.plugatar.xteps.base.ThrowingConsumer;
+import com.plugatar.xteps.base.ThrowingFunction;
+import com.plugatar.xteps.base.ThrowingRunnable;
 import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.ThrowingTriConsumer;
+import com.plugatar.xteps.base.ThrowingTriFunction;
 import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+import com.plugatar.xteps.base.capture.StepLogCapture;
 
-import java.util.UUID;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Default StepReporter.
  */
 public class DefaultStepReporter implements StepReporter {
-    private final StepListener[] listeners;
+    /**
+     * The name of the attachment with the output captured while the failed step was performed.
+     */
+    public static final String LOG_ATTACHMENT_NAME = "Step log";
+    private final StepEventListener[] listeners;
+    private final StepEventListener[] attachmentListeners;
+    private final StepEventListener[] finishingListeners;
+    private final boolean captureNesting;
+    private final boolean captureThread;
+    private final boolean captureTimings;
+    private final ThreadLocal<DefaultStepEvent> currentEvent;
+    private final StepLogCapture logCapture;
 
     /**
      * Ctor.
@@ -39,18 +73,103 @@ public class DefaultStepReporter implements StepReporter {
      * @throws IllegalArgumentException if {@code listeners} array is empty
      */
     public DefaultStepReporter(final StepListener[] listeners) {
+        this(listeners, new StepEventListener[0]);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param eventListeners the event listeners list
+     * @throws NullPointerException     if {@code eventListeners} is null
+     *                                  or {@code eventListeners} array contains null element
+     * @throws IllegalArgumentException if {@code eventListeners} array is empty
+     */
+    public DefaultStepReporter(final StepEventListener[] eventListeners) {
+        this(new StepListener[0], eventListeners);
+    }
+
+    /**
+     * Ctor. The {@code listeners} are adapted onto {@link StepEventListener} and
+     * notified before the {@code eventListeners}. The listeners capabilities are
+     * requested once, see {@link StepEventListener#capabilities()}.
+     *
+     * @param listeners      the listeners list
+     * @param eventListeners the event listeners list
+     * @throws NullPointerException     if {@code listeners} or {@code eventListeners} is null
+     *                                  or {@code listeners} or {@code eventListeners} array contains null element
+     * @throws IllegalArgumentException if both {@code listeners} and {@code eventListeners} arrays are empty
+     */
+    public DefaultStepReporter(final StepListener[] listeners,
+                               final StepEventListener[] eventListeners) {
+        this(listeners, eventListeners, null, false);
+    }
+
+    /**
+     * Ctor. The output captured by {@code logCapture} while the step is performed is added
+     * to the step as the {@value #LOG_ATTACHMENT_NAME} attachment only if the step failed.
+     *
+     * @param listeners      the listeners list
+     * @param eventListeners the event listeners list
+     * @param logCapture     the step log capture
+     * @throws NullPointerException     if {@code listeners} or {@code eventListeners} or {@code logCapture} is null
+     *                                  or {@code listeners} or {@code eventListeners} array contains null element
+     * @throws IllegalArgumentException if both {@code listeners} and {@code eventListeners} arrays are empty
+     */
+    public DefaultStepReporter(final StepListener[] listeners,
+                               final StepEventListener[] eventListeners,
+                               final StepLogCapture logCapture) {
+        this(listeners, eventListeners, logCapture, true);
+    }
+
+    private DefaultStepReporter(final StepListener[] listeners,
+                                final StepEventListener[] eventListeners,
+                                final StepLogCapture logCapture,
+                                final boolean logCaptureRequired) {
         if (listeners == null) { throw new NullPointerException("listeners arg is null"); }
-        if (listeners.length == 0) { throw new IllegalArgumentException("listeners arg array is empty"); }
+        if (eventListeners == null) { throw new NullPointerException("eventListeners arg is null"); }
+        if (logCaptureRequired && logCapture == null) { throw new NullPointerException("logCapture arg is null"); }
+        if (listeners.length == 0 && eventListeners.length == 0) {
+            throw new IllegalArgumentException("listeners and eventListeners arg arrays are empty");
+        }
+        final StepEventListener[] allListeners = new StepEventListener[listeners.length + eventListeners.length];
         for (int idx = 0; idx < listeners.length; ++idx) {
             if (listeners[idx] == null) {
                 throw new NullPointerException("listeners arg array element by index " + idx + " is null");
             }
+            allListeners[idx] = new StepListenerAdapter(listeners[idx]);
+        }
+        for (int idx = 0; idx < eventListeners.length; ++idx) {
+            if (eventListeners[idx] == null) {
+                throw new NullPointerException("eventListeners arg array element by index " + idx + " is null");
+            }
+            allListeners[listeners.length + idx] = eventListeners[idx];
+        }
+        final Set<ListenerCapability> capabilities = EnumSet.noneOf(ListenerCapability.class);
+        final List<StepEventListener> attachmentListeners = new ArrayList<>();
+        final List<StepEventListener> finishingListeners = new ArrayList<>();
+        for (final StepEventListener listener : allListeners) {
+            final Set<ListenerCapability> listenerCapabilities = listener.capabilities();
+            capabilities.addAll(listenerCapabilities);
+            if (listenerCapabilities.contains(ListenerCapability.ATTACHMENTS)) {
+                attachmentListeners.add(listener);
+            }
+            if (overridesStepFinishing(listener)) {
+                finishingListeners.add(listener);
+            }
         }
-        this.listeners = listeners;
+        this.listeners = allListeners;
+        this.attachmentListeners = attachmentListeners.toArray(new StepEventListener[0]);
+        this.finishingListeners = finishingListeners.toArray(new StepEventListener[0]);
+        /* Attachments are added to the current step, so the current step is tracked for them too */
+        this.captureNesting = capabilities.contains(ListenerCapability.NESTING)
+            || capabilities.contains(ListenerCapability.ATTACHMENTS);
+        this.captureThread = capabilities.contains(ListenerCapability.THREAD);
+        this.captureTimings = capabilities.contains(ListenerCapability.TIMINGS);
+        this.currentEvent = new ThreadLocal<>();
+        this.logCapture = logCapture;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public final <R, E extends Throwable> R report(
         final HooksContainer hooksContainer,
         final ExceptionHandler exceptionHandler,
@@ -59,49 +178,361 @@ public class DefaultStepReporter implements StepReporter {
         final Object[] params,
         final ThrowingSupplier<? extends R, ? extends E> action
     ) throws E {
-        if (hooksContainer == null) { throwNullArgException("hooksContainer"); }
-        if (exceptionHandler == null) { throwNullArgException("exceptionHandler"); }
-        if (name == null) { throwNullArgException("name"); }
-        if (description == null) { throwNullArgException("description"); }
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
         if (params == null) { throwNullArgException("params"); }
-        if (action == null) { throwNullArgException("action"); }
-        /* Step start */
-        final String uuid = UUID.randomUUID().toString();
-        XtepsException listenerException = null;
-        for (final StepListener listener : this.listeners) {
-            try {
-                listener.stepStarted(uuid, name, description, params);
-            } catch (final Throwable ex) {
-                if (listenerException == null) {
-                    listenerException = listenerException();
-                }
-                listenerException.addSuppressed(ex);
-            }
-        }
-        /* Step action */
-        E stepException = null;
+        final DefaultStepEvent event = this.stepStarted(hooksContainer, DefaultStepEvent.withParams(
+            this.parentEvent(), this.currentThread(), name, description, params));
         R stepResult = null;
+        Throwable stepException = null;
         try {
             stepResult = action.get();
         } catch (final Throwable ex) {
-            stepException = (E) ex;
+            stepException = ex;
         }
-        /* Step finish */
-        for (final StepListener listener : this.listeners) {
-            try {
-                if (stepException == null) {
-                    listener.stepPassed(uuid);
-                } else {
-                    listener.stepFailed(uuid, stepException);
+        this.stepFinished(hooksContainer, exceptionHandler, event, stepException);
+        return stepResult;
+    }
+
+    @Override
+    public final <E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final Object[] params,
+        final ThrowingRunnable<? extends E> action
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        if (params == null) { throwNullArgException("params"); }
+        final DefaultStepEvent event = this.stepStarted(hooksContainer, DefaultStepEvent.withParams(
+            this.parentEvent(), this.currentThread(), name, description, params));
+        Throwable stepException = null;
+        try {
+            action.run();
+        } catch (final Throwable ex) {
+            stepException = ex;
+        }
+        this.stepFinished(hooksContainer, exceptionHandler, event, stepException);
+    }
+
+    @Override
+    public final <T, E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingConsumer<? super T, ? extends E> action,
+        final T arg
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        final DefaultStepEvent event = this.stepStarted(hooksContainer, DefaultStepEvent.withArgs(
+            this.parentEvent(), this.currentThread(), name, description, 1, arg, null, null));
+        Throwable stepException = null;
+        try {
+            action.accept(arg);
+        } catch (final Throwable ex) {
+            stepException = ex;
+        }
+        this.stepFinished(hooksContainer, exceptionHandler, event, stepException);
+    }
+
+    @Override
+    public final <T, U, E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingBiConsumer<? super T, ? super U, ? extends E> action,
+        final T arg,
+        final U arg2
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        final DefaultStepEvent event = this.stepStarted(hooksContainer, DefaultStepEvent.withArgs(
+            this.parentEvent(), this.currentThread(), name, description, 2, arg, arg2, null));
+        Throwable stepException = null;
+        try {
+            action.accept(arg, arg2);
+        } catch (final Throwable ex) {
+            stepException = ex;
+        }
+        this.stepFinished(hooksContainer, exceptionHandler, event, stepException);
+    }
+
+    @Override
+    public final <T, U, V, E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingTriConsumer<? super T, ? super U, ? super V, ? extends E> action,
+        final T arg,
+        final U arg2,
+        final V arg3
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        final DefaultStepEvent event = this.stepStarted(hooksContainer, DefaultStepEvent.withArgs(
+            this.parentEvent(), this.currentThread(), name, description, 3, arg, arg2, arg3));
+        Throwable stepException = null;
+        try {
+            action.accept(arg, arg2, arg3);
+        } catch (final Throwable ex) {
+            stepException = ex;
+        }
+        this.stepFinished(hooksContainer, exceptionHandler, event, stepException);
+    }
+
+    @Override
+    public final <T, R, E extends Throwable> R report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingFunction<? super T, ? extends R, ? extends E> action,
+        final T arg
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        final DefaultStepEvent event = this.stepStarted(hooksContainer, DefaultStepEvent.withArgs(
+            this.parentEvent(), this.currentThread(), name, description, 1, arg, null, null));
+        R stepResult = null;
+        Throwable stepException = null;
+        try {
+            stepResult = action.apply(arg);
+        } catch (final Throwable ex) {
+            stepException = ex;
+        }
+        this.stepFinished(hooksContainer, exceptionHandler, event, stepException);
+        return stepResult;
+    }
+
+    @Override
+    public final <T, U, R, E extends Throwable> R report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingBiFunction<? super T, ? super U, ? extends R, ? extends E> action,
+        final T arg,
+        final U arg2
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        final DefaultStepEvent event = this.stepStarted(hooksContainer, DefaultStepEvent.withArgs(
+            this.parentEvent(), this.currentThread(), name, description, 2, arg, arg2, null));
+        R stepResult = null;
+        Throwable stepException = null;
+        try {
+            stepResult = action.apply(arg, arg2);
+        } catch (final Throwable ex) {
+            stepException = ex;
+        }
+        this.stepFinished(hooksContainer, exceptionHandler, event, stepException);
+        return stepResult;
+    }
+
+    @Override
+    public final <T, U, V, R, E extends Throwable> R report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingTriFunction<? super T, ? super U, ? super V, ? extends R, ? extends E> action,
+        final T arg,
+        final U arg2,
+        final V arg3
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        final DefaultStepEvent event = this.stepStarted(hooksContainer, DefaultStepEvent.withArgs(
+            this.parentEvent(), this.currentThread(), name, description, 3, arg, arg2, arg3));
+        R stepResult = null;
+        Throwable stepException = null;
+        try {
+            stepResult = action.apply(arg, arg2, arg3);
+        } catch (final Throwable ex) {
+            stepException = ex;
+        }
+        this.stepFinished(hooksContainer, exceptionHandler, event, stepException);
+        return stepResult;
+    }
+
+    /**
+     * {@inheritDoc} Listeners are invoked in the current thread. A not repeatable source is
+     * spooled to a temporary file if more than one listener consumes attachments.
+     */
+    @Override
+    public final void attach(final String name,
+                             final String mimeType,
+                             final AttachmentSource source) {
+        if (name == null) { throwNullArgException("name"); }
+        if (mimeType == null) { throwNullArgException("mimeType"); }
+        if (source == null) { throwNullArgException("source"); }
+        Path spoolFile = null;
+        Throwable attachException = null;
+        try {
+            final DefaultStepEvent event = this.captureNesting ? this.currentEvent.get() : null;
+            if (event == null) {
+                if (this.attachmentListeners.length == 0) {
+                    return;
                 }
+                throw new XtepsException("Cannot add attachment " + name + ", there is no current step");
+            }
+            AttachmentSource listenersSource = source;
+            if (this.attachmentListeners.length > 1 && !source.isRepeatable()) {
+                spoolFile = spool(source);
+                listenersSource = AttachmentSource.ofFile(spoolFile);
+            }
+            XtepsException listenerException = null;
+            for (final StepEventListener listener : this.attachmentListeners) {
+                try {
+                    listener.stepAttachment(event, name, mimeType, listenersSource);
+                } catch (final Throwable ex) {
+                    if (listenerException == null) {
+                        listenerException = new XtepsException(
+                            "One or more listeners threw exceptions (see suppressed exceptions)");
+                    }
+                    listenerException.addSuppressed(ex);
+                }
+            }
+            if (listenerException != null) {
+                throw listenerException;
+            }
+        } catch (final Throwable ex) {
+            attachException = ex;
+            throw ex;
+        } finally {
+            final XtepsException releaseException = release(source, spoolFile);
+            if (releaseException != null) {
+                if (attachException == null) {
+                    throw releaseException;
+                }
+                attachException.addSuppressed(releaseException);
+            }
+        }
+    }
+
+    private static Path spool(final AttachmentSource source) {
+        final Path spoolFile;
+        try {
+            spoolFile = Files.createTempFile("xteps-attachment", ".tmp");
+        } catch (final IOException ex) {
+            throw new XtepsException("Cannot spool attachment source cause " + ex, ex);
+        }
+        try (final FileChannel channel = FileChannel.open(spoolFile, StandardOpenOption.WRITE)) {
+            source.transferTo(channel);
+        } catch (final IOException ex) {
+            final XtepsException baseEx = new XtepsException("Cannot spool attachment source cause " + ex, ex);
+            deleteSpoolFile(spoolFile, baseEx);
+            throw baseEx;
+        } catch (final RuntimeException | Error ex) {
+            deleteSpoolFile(spoolFile, ex);
+            throw ex;
+        }
+        return spoolFile;
+    }
+
+    private static void deleteSpoolFile(final Path spoolFile,
+                                        final Throwable baseEx) {
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (final IOException ex) {
+            baseEx.addSuppressed(ex);
+        }
+    }
+
+    private static XtepsException release(final AttachmentSource source,
+                                          final Path spoolFile) {
+        XtepsException baseEx = null;
+        try {
+            source.close();
+        } catch (final Exception ex) {
+            baseEx = new XtepsException("Cannot close attachment source cause " + ex, ex);
+        } finally {
+            if (spoolFile != null) {
+                try {
+                    Files.deleteIfExists(spoolFile);
+                } catch (final IOException ex) {
+                    final XtepsException deleteEx = new XtepsException("Cannot delete attachment spool file cause "
+                        + ex, ex);
+                    if (baseEx == null) {
+                        baseEx = deleteEx;
+                    } else {
+                        baseEx.addSuppressed(deleteEx);
+                    }
+                }
+            }
+        }
+        return baseEx;
+    }
+
+    private DefaultStepEvent parentEvent() {
+        return this.captureNesting ? this.currentEvent.get() : null;
+    }
+
+    private Thread currentThread() {
+        return this.captureThread ? Thread.currentThread() : null;
+    }
+
+    private DefaultStepEvent stepStarted(final HooksContainer hooksContainer,
+                                         final DefaultStepEvent event) {
+        CurrentStep.push(event.name(), hooksContainer);
+        if (this.captureNesting) {
+            this.currentEvent.set(event);
+        }
+        if (this.logCapture != null) {
+            event.logStartPosition(this.logCapture.stepStarted());
+        }
+        if (this.captureTimings) {
+            event.start(System.nanoTime());
+        }
+        for (final StepEventListener listener : this.listeners) {
+            try {
+                listener.stepStarted(event);
             } catch (final Throwable ex) {
-                if (listenerException == null) {
-                    listenerException = listenerException();
+                event.addListenerException(ex);
+            }
+        }
+        return event;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Throwable> void stepFinished(final HooksContainer hooksContainer,
+                                                    final ExceptionHandler exceptionHandler,
+                                                    final DefaultStepEvent event,
+                                                    final Throwable stepException) throws E {
+        CurrentStep.pop();
+        if (this.logCapture != null) {
+            final byte[] log = this.logCapture.stepFinished(event.logStartPosition(), stepException != null);
+            if (log != null) {
+                try {
+                    this.attach(LOG_ATTACHMENT_NAME, "text/plain",
+                        AttachmentSource.ofStream(new ByteArrayInputStream(log)));
+                } catch (final Throwable ex) {
+                    event.addListenerException(ex);
                 }
-                listenerException.addSuppressed(ex);
             }
         }
-        /* Result */
+        event.finish(this.captureTimings ? System.nanoTime() : 0L, stepException);
+        if (this.captureNesting) {
+            final DefaultStepEvent parent = event.parent();
+            if (parent == null) {
+                this.currentEvent.remove();
+            } else {
+                this.currentEvent.set(parent);
+            }
+        }
+        for (final StepEventListener listener : this.finishingListeners) {
+            try {
+                listener.stepFinishing(event);
+            } catch (final Throwable ex) {
+                event.addListenerException(ex);
+            }
+        }
+        for (final StepEventListener listener : this.listeners) {
+            try {
+                listener.stepFinished(event);
+            } catch (final Throwable ex) {
+                event.addListenerException(ex);
+            }
+        }
+        final XtepsException listenerException = event.listenerException();
         if (listenerException != null) {
             if (stepException != null) {
                 listenerException.addSuppressed(stepException);
@@ -112,17 +543,91 @@ public class DefaultStepReporter implements StepReporter {
         } else if (stepException != null) {
             hooksContainer.callHooks(stepException);
             exceptionHandler.handle(stepException);
-            throw stepException;
-        } else {
-            return stepResult;
+            throw (E) stepException;
         }
     }
 
-    private static XtepsException listenerException() {
-        return new XtepsException("One or more listeners threw exceptions (see suppressed exceptions)");
+    private static boolean overridesStepFinishing(final StepEventListener listener) {
+        try {
+            return listener.getClass().getMethod("stepFinishing", StepEvent.class)
+                .getDeclaringClass() != StepEventListener.class;
+        } catch (final NoSuchMethodException ex) {
+            return false;
+        }
     }
 
     private static void throwNullArgException(final String argName) {
         throw new XtepsException(argName + " arg is null");
     }
+
+    private static void checkArgs(final HooksContainer hooksContainer,
+                                  final ExceptionHandler exceptionHandler,
+                                  final String name,
+                                  final String description,
+                                  final Object action) {
+        if (hooksContainer == null) { throwNullArgException("hooksContainer"); }
+        if (exceptionHandler == null) { throwNullArgException("exceptionHandler"); }
+        if (name == null) { throwNullArgException("name"); }
+        if (description == null) { throwNullArgException("description"); }
+        if (action == null) { throwNullArgException("action"); }
+    }
+
+    /**
+     * Adapts {@link StepListener} to {@link StepEventListener}. The UUID, the name, the
+     * description and the params are the arguments of the step listener methods, so they
+     * are always requested.
+     */
+    private static final class StepListenerAdapter implements StepEventListener {
+        private static final Set<ListenerCapability> CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+            ListenerCapability.UUID, ListenerCapability.NAME, ListenerCapability.DESCRIPTION, ListenerCapability.PARAMS
+        ));
+        private static final Set<ListenerCapability> ATTACHMENTS_CAPABILITIES = Collections.unmodifiableSet(EnumSet.of(
+            ListenerCapability.UUID, ListenerCapability.NAME, ListenerCapability.DESCRIPTION, ListenerCapability.PARAMS,
+            ListenerCapability.ATTACHMENTS
+        ));
+        private final StepListener listener;
+        private final Set<ListenerCapability> capabilities;
+
+        private StepListenerAdapter(final StepListener listener) {
+            this.listener = listener;
+            this.capabilities = overridesStepAttachment(listener) ? ATTACHMENTS_CAPABILITIES : CAPABILITIES;
+        }
+
+        private static boolean overridesStepAttachment(final StepListener listener) {
+            try {
+                return listener.getClass().getMethod("stepAttachment",
+                    String.class, String.class, String.class, AttachmentSource.class
+                ).getDeclaringClass() != StepListener.class;
+            } catch (final NoSuchMethodException ex) {
+                return false;
+            }
+        }
+
+        @Override
+        public Set<ListenerCapability> capabilities() {
+            return this.capabilities;
+        }
+
+        @Override
+        public void stepStarted(final StepEvent event) {
+            this.listener.stepStarted(event.uuid(), event.name(), event.description(), event.params());
+        }
+
+        @Override
+        public void stepFinished(final StepEvent event) {
+            if (event.outcome() == StepOutcome.PASSED) {
+                this.listener.stepPassed(event.uuid());
+            } else {
+                this.listener.stepFailed(event.uuid(), event.exception());
+            }
+        }
+
+        @Override
+        public void stepAttachment(final StepEvent event,
+                                   final String name,
+                                   final String mimeType,
+                                   final AttachmentSource source) throws Exception {
+            this.listener.stepAttachment(event.uuid(), name, mimeType, source);
+        }
+    }
 }
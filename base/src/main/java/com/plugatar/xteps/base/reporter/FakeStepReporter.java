@@ -18,11 +18,18 @@ package com.plugatar.xteps.base.reporter;
 import com.plugatar.xteps.base.ExceptionHandler;
 import com.plugatar.xteps.base.HooksContainer;
 import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.ThrowingBiConsumer;
+import com.plugatar.xteps.base.ThrowingBiFunction;
+import com.plugatar.xteps.base.ThrowingConsumer;
+import com.plugatar.xteps.base.ThrowingFunction;
+import com.plugatar.xteps.base.ThrowingRunnable;
 import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.ThrowingTriConsumer;
+import com.plugatar.xteps.base.ThrowingTriFunction;
 import com.plugatar.xteps.base.XtepsException;
 
 /**
- * Fake StepReporter.
+ * Fake StepReporter. Does not report steps, only maintains the {@link CurrentStep} stack.
  */
 public class FakeStepReporter implements StepReporter {
 
@@ -41,22 +48,193 @@ public class FakeStepReporter implements StepReporter {
         final Object[] params,
         final ThrowingSupplier<? extends R, ? extends E> action
     ) throws E {
-        if (hooksContainer == null) { throwNullArgException("hooksContainer"); }
-        if (exceptionHandler == null) { throwNullArgException("exceptionHandler"); }
-        if (name == null) { throwNullArgException("name"); }
-        if (description == null) { throwNullArgException("description"); }
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
         if (params == null) { throwNullArgException("params"); }
-        if (action == null) { throwNullArgException("action"); }
+        CurrentStep.push(name, hooksContainer);
         try {
             return action.get();
         } catch (final Throwable stepEx) {
-            hooksContainer.callHooks(stepEx);
-            exceptionHandler.handle(stepEx);
+            handleStepException(hooksContainer, exceptionHandler, stepEx);
+            throw stepEx;
+        } finally {
+            CurrentStep.pop();
+        }
+    }
+
+    @Override
+    public final <E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final Object[] params,
+        final ThrowingRunnable<? extends E> action
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        if (params == null) { throwNullArgException("params"); }
+        CurrentStep.push(name, hooksContainer);
+        try {
+            action.run();
+        } catch (final Throwable stepEx) {
+            handleStepException(hooksContainer, exceptionHandler, stepEx);
+            throw stepEx;
+        } finally {
+            CurrentStep.pop();
+        }
+    }
+
+    @Override
+    public final <T, E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingConsumer<? super T, ? extends E> action,
+        final T arg
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        CurrentStep.push(name, hooksContainer);
+        try {
+            action.accept(arg);
+        } catch (final Throwable stepEx) {
+            handleStepException(hooksContainer, exceptionHandler, stepEx);
+            throw stepEx;
+        } finally {
+            CurrentStep.pop();
+        }
+    }
+
+    @Override
+    public final <T, U, E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingBiConsumer<? super T, ? super U, ? extends E> action,
+        final T arg,
+        final U arg2
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        CurrentStep.push(name, hooksContainer);
+        try {
+            action.accept(arg, arg2);
+        } catch (final Throwable stepEx) {
+            handleStepException(hooksContainer, exceptionHandler, stepEx);
+            throw stepEx;
+        } finally {
+            CurrentStep.pop();
+        }
+    }
+
+    @Override
+    public final <T, U, V, E extends Throwable> void report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingTriConsumer<? super T, ? super U, ? super V, ? extends E> action,
+        final T arg,
+        final U arg2,
+        final V arg3
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        CurrentStep.push(name, hooksContainer);
+        try {
+            action.accept(arg, arg2, arg3);
+        } catch (final Throwable stepEx) {
+            handleStepException(hooksContainer, exceptionHandler, stepEx);
+            throw stepEx;
+        } finally {
+            CurrentStep.pop();
+        }
+    }
+
+    @Override
+    public final <T, R, E extends Throwable> R report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingFunction<? super T, ? extends R, ? extends E> action,
+        final T arg
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        CurrentStep.push(name, hooksContainer);
+        try {
+            return action.apply(arg);
+        } catch (final Throwable stepEx) {
+            handleStepException(hooksContainer, exceptionHandler, stepEx);
+            throw stepEx;
+        } finally {
+            CurrentStep.pop();
+        }
+    }
+
+    @Override
+    public final <T, U, R, E extends Throwable> R report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingBiFunction<? super T, ? super U, ? extends R, ? extends E> action,
+        final T arg,
+        final U arg2
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        CurrentStep.push(name, hooksContainer);
+        try {
+            return action.apply(arg, arg2);
+        } catch (final Throwable stepEx) {
+            handleStepException(hooksContainer, exceptionHandler, stepEx);
             throw stepEx;
+        } finally {
+            CurrentStep.pop();
+        }
+    }
+
+    @Override
+    public final <T, U, V, R, E extends Throwable> R report(
+        final HooksContainer hooksContainer,
+        final ExceptionHandler exceptionHandler,
+        final String name,
+        final String description,
+        final ThrowingTriFunction<? super T, ? super U, ? super V, ? extends R, ? extends E> action,
+        final T arg,
+        final U arg2,
+        final V arg3
+    ) throws E {
+        checkArgs(hooksContainer, exceptionHandler, name, description, action);
+        CurrentStep.push(name, hooksContainer);
+        try {
+            return action.apply(arg, arg2, arg3);
+        } catch (final Throwable stepEx) {
+            handleStepException(hooksContainer, exceptionHandler, stepEx);
+            throw stepEx;
+        } finally {
+            CurrentStep.pop();
         }
     }
 
     private static void throwNullArgException(final String argName) {
         throw new XtepsException(argName + " arg is null");
     }
+
+    private static void checkArgs(final HooksContainer hooksContainer,
+                                  final ExceptionHandler exceptionHandler,
+                                  final String name,
+                                  final String description,
+                                  final Object action) {
+        if (hooksContainer == null) { throwNullArgException("hooksContainer"); }
+        if (exceptionHandler == null) { throwNullArgException("exceptionHandler"); }
+        if (name == null) { throwNullArgException("name"); }
+        if (description == null) { throwNullArgException("description"); }
+        if (action == null) { throwNullArgException("action"); }
+    }
+
+    private static void handleStepException(final HooksContainer hooksContainer,
+                                            final ExceptionHandler exceptionHandler,
+                                            final Throwable stepException) {
+        hooksContainer.callHooks(stepException);
+        exceptionHandler.handle(stepException);
+    }
 }
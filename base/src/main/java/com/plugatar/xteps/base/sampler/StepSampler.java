@@ -0,0 +1,219 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.sampler;
+
+import com.plugatar.xteps.base.ThrowingRunnable;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.hook.ThreadHooks;
+import com.plugatar.xteps.base.reporter.CurrentStep;
+import com.plugatar.xteps.base.util.StepPathTrie;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.plugatar.xteps.base.HookPriority.NORM_HOOK_PRIORITY;
+
+/**
+ * Step sampler. The daemon thread periodically reads the {@link CurrentStep} path of each
+ * thread performing steps and aggregates the samples per step path: the wall time between
+ * samples and the thread CPU time consumed since the previous sample (if the JVM supports
+ * thread CPU time measurement) in a {@link StepPathTrie}. The result shows where time goes by
+ * step rather than by method.
+ * <p>
+ * The overhead is bounded: the daemon thread sleeps for the whole interval after each
+ * sample and the count of distinct step paths is limited, deeper paths over the limit are
+ * aggregated into their parent path. Raw step names are used, so steps with name templates
+ * are aggregated by the template.
+ */
+public final class StepSampler {
+    private static final int WALL_NANOS = 0;
+    private static final int CPU_NANOS = 1;
+    private final long intervalMillis;
+    private final int threadPriority;
+    private final ThreadMXBean threadMXBean;
+    private final boolean cpuTimeSupported;
+    private final StepPathTrie trie;
+    private final Map<Thread, Long> lastCpuNanos;
+    private long lastSampleNanos;
+    private long samplesCount;
+    private Thread daemonThread;
+
+    /**
+     * Ctor.
+     *
+     * @param intervalMillis the interval between samples in milliseconds
+     * @param maxPaths       the max count of distinct step paths
+     * @param threadPriority the daemon thread priority
+     * @throws XtepsException if {@code intervalMillis} or {@code maxPaths} is less than 1
+     *                        or if {@code threadPriority} is not in the range {@link Thread#MIN_PRIORITY} to
+     *                        {@link Thread#MAX_PRIORITY}
+     */
+    public StepSampler(final long intervalMillis,
+                       final int maxPaths,
+                       final int threadPriority) {
+        if (intervalMillis < 1L) { throw new XtepsException("intervalMillis arg is less than 1"); }
+        if (maxPaths < 1) { throw new XtepsException("maxPaths arg is less than 1"); }
+        if (threadPriority < Thread.MIN_PRIORITY || threadPriority > Thread.MAX_PRIORITY) {
+            throw new XtepsException("threadPriority arg not in the range " + Thread.MIN_PRIORITY + " to " +
+                Thread.MAX_PRIORITY);
+        }
+        this.intervalMillis = intervalMillis;
+        this.threadPriority = threadPriority;
+        this.threadMXBean = ManagementFactory.getThreadMXBean();
+        this.cpuTimeSupported = this.threadMXBean.isThreadCpuTimeSupported()
+            && this.threadMXBean.isThreadCpuTimeEnabled();
+        this.trie = new StepPathTrie(2, maxPaths);
+        this.lastCpuNanos = new HashMap<>();
+        this.lastSampleNanos = 0L;
+        this.samplesCount = 0L;
+        this.daemonThread = null;
+    }
+
+    /**
+     * Starts the daemon thread if it is not started.
+     *
+     * @see #start(ThrowingRunnable)
+     */
+    public void start() {
+        this.start(() -> { });
+    }
+
+    /**
+     * Starts the daemon thread if it is not started. The daemon thread adds the thread hook
+     * (see {@link ThreadHooks}) that stops the sampler and calls given hook, so given hook is
+     * called after the sampler is stopped or on JVM shutdown if the sampler is still running.
+     *
+     * @param stoppedHook the hook
+     * @throws XtepsException if {@code stoppedHook} is null
+     */
+    public synchronized void start(final ThrowingRunnable<?> stoppedHook) {
+        if (stoppedHook == null) { throw new XtepsException("stoppedHook arg is null"); }
+        if (this.daemonThread != null) {
+            return;
+        }
+        final Thread thread = new Thread(() -> {
+            final Thread samplerThread = Thread.currentThread();
+            ThreadHooks.addHook(NORM_HOOK_PRIORITY, () -> {
+                this.stop(samplerThread);
+                stoppedHook.run();
+            });
+            while (!samplerThread.isInterrupted()) {
+                this.sample();
+                try {
+                    Thread.sleep(this.intervalMillis);
+                } catch (final InterruptedException ex) {
+                    samplerThread.interrupt();
+                }
+            }
+        }, "xteps-step-sampler-daemon-thread");
+        thread.setDaemon(true);
+        thread.setPriority(this.threadPriority);
+        thread.start();
+        this.daemonThread = thread;
+    }
+
+    /**
+     * Stops the daemon thread and waits for it to finish.
+     */
+    public void stop() {
+        this.stop(null);
+    }
+
+    private void stop(final Thread expectedThread) {
+        final Thread thread;
+        synchronized (this) {
+            thread = this.daemonThread;
+            if (thread == null || (expectedThread != null && thread != expectedThread)) {
+                return;
+            }
+            this.daemonThread = null;
+        }
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1L));
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the count of taken samples.
+     *
+     * @return the count of samples
+     */
+    public synchronized long samplesCount() {
+        return this.samplesCount;
+    }
+
+    /**
+     * Writes the wall time of step paths in the collapsed stack format ({@code Login;Type password 1234})
+     * ready for flame graph tools. Values are written in microseconds.
+     *
+     * @param writer the writer
+     * @throws XtepsException if {@code writer} is null
+     * @throws IOException    if an I/O error occurs
+     */
+    public synchronized void writeWallTimeTo(final Writer writer) throws IOException {
+        if (writer == null) { throw new XtepsException("writer arg is null"); }
+        this.trie.writeFoldedTo(writer, WALL_NANOS, 1000L);
+    }
+
+    /**
+     * Writes the CPU time of step paths in the collapsed stack format ({@code Login;Type password 1234})
+     * ready for flame graph tools. Values are written in microseconds. Nothing is written if the JVM
+     * does not support thread CPU time measurement.
+     *
+     * @param writer the writer
+     * @throws XtepsException if {@code writer} is null
+     * @throws IOException    if an I/O error occurs
+     */
+    public synchronized void writeCpuTimeTo(final Writer writer) throws IOException {
+        if (writer == null) { throw new XtepsException("writer arg is null"); }
+        this.trie.writeFoldedTo(writer, CPU_NANOS, 1000L);
+    }
+
+    synchronized void sample() {
+        final long nowNanos = System.nanoTime();
+        final long wallNanos = this.lastSampleNanos == 0L
+            ? TimeUnit.MILLISECONDS.toNanos(this.intervalMillis)
+            : nowNanos - this.lastSampleNanos;
+        this.lastSampleNanos = nowNanos;
+        final Map<Thread, String[]> paths = CurrentStep.paths();
+        for (final Map.Entry<Thread, String[]> entry : paths.entrySet()) {
+            StepPathTrie.Node node = this.trie.root();
+            for (final String name : entry.getValue()) {
+                node = node.child(name);
+            }
+            node.add(WALL_NANOS, wallNanos);
+            if (this.cpuTimeSupported) {
+                final Thread thread = entry.getKey();
+                final long cpuNanos = this.threadMXBean.getThreadCpuTime(thread.getId());
+                final Long lastCpuNanos = this.lastCpuNanos.put(thread, cpuNanos);
+                if (lastCpuNanos != null && cpuNanos > lastCpuNanos) {
+                    node.add(CPU_NANOS, cpuNanos - lastCpuNanos);
+                }
+            }
+        }
+        /* The CPU time of threads that are not performing steps is not attributed to steps */
+        this.lastCpuNanos.keySet().retainAll(paths.keySet());
+        ++this.samplesCount;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.timeout;
+
+import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsBase;
+import com.plugatar.xteps.base.XtepsException;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step timeout utils. The deadline of the step is inherited by all nested steps
+ * performed in the same thread, a nested step cannot outlive its parent step.
+ * When the deadline expires the step thread will be interrupted, the step action
+ * should react to the interruption (cooperative cancellation).
+ */
+public final class StepTimeout {
+    private static final ThreadLocal<Deadline> CURRENT_DEADLINE = new ThreadLocal<>();
+
+    /**
+     * Utility class ctor.
+     */
+    private StepTimeout() {
+    }
+
+    /**
+     * Returns given action with given timeout. The returned action interrupts the
+     * current thread when the deadline expires and throws {@link StepTimeoutException}
+     * after the action completes. Zero or negative timeout leads to immediate expiration.
+     *
+     * @param timeout the timeout
+     * @param action  the action
+     * @param <R>     the type of the {@code action} result
+     * @param <E>     the {@code action} exception type
+     * @return action with timeout
+     * @throws XtepsException if {@code timeout} or {@code action} is null
+     */
+    public static <R, E extends Throwable> ThrowingSupplier<R, E> withTimeout(
+        final Duration timeout,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) {
+        if (timeout == null) { throw new XtepsException("timeout arg is null"); }
+        if (action == null) { throw new XtepsException("action arg is null"); }
+        return () -> performWithTimeout(timeout, action);
+    }
+
+    /**
+     * Returns the remaining time of the current thread deadline in nanoseconds
+     * or {@link Long#MAX_VALUE} if there is no deadline.
+     *
+     * @return remaining time in nanoseconds
+     */
+    public static long remainingNanos() {
+        final Deadline deadline = CURRENT_DEADLINE.get();
+        return deadline == null
+            ? Long.MAX_VALUE
+            : Math.max(0L, deadline.deadlineNanos - System.nanoTime());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R, E extends Throwable> R performWithTimeout(
+        final Duration timeout,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        final long startNanos = System.nanoTime();
+        final Deadline parent = CURRENT_DEADLINE.get();
+        long deadlineNanos = startNanos + Math.max(0L, saturatedNanos(timeout));
+        final boolean inherited = parent != null && parent.deadlineNanos - deadlineNanos < 0L;
+        if (inherited) {
+            deadlineNanos = parent.deadlineNanos;
+        }
+        final Deadline deadline = new Deadline(Thread.currentThread(), deadlineNanos);
+        CURRENT_DEADLINE.set(deadline);
+        deadline.schedule(deadlineNanos - startNanos);
+        R result = null;
+        Throwable actionException = null;
+        try {
+            result = action.get();
+        } catch (final Throwable ex) {
+            actionException = ex;
+        } finally {
+            if (parent == null) {
+                CURRENT_DEADLINE.remove();
+            } else {
+                CURRENT_DEADLINE.set(parent);
+            }
+        }
+        if (deadline.finish()) {
+            /* Clear the interrupted status set by the timeout daemon thread */
+            Thread.interrupted();
+            throw new StepTimeoutException(inherited
+                ? "Step timed out after " + Duration.ofNanos(Math.max(0L, deadlineNanos - startNanos)) +
+                    ", the deadline is inherited from the enclosing step (step timeout " + timeout + ")"
+                : "Step timed out after " + timeout, actionException);
+        }
+        if (actionException != null) {
+            throw (E) actionException;
+        }
+        return result;
+    }
+
+    private static long saturatedNanos(final Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (final ArithmeticException ex) {
+            return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private static final class Deadline implements Runnable {
+        private final Thread thread;
+        private final long deadlineNanos;
+        private ScheduledFuture<?> future;
+        private boolean finished;
+        private boolean expired;
+
+        private Deadline(final Thread thread,
+                         final long deadlineNanos) {
+            this.thread = thread;
+            this.deadlineNanos = deadlineNanos;
+            this.future = null;
+            this.finished = false;
+            this.expired = false;
+        }
+
+        private synchronized void schedule(final long delayNanos) {
+            this.future = Internal.EXECUTOR.schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized boolean finish() {
+            this.finished = true;
+            if (this.future != null) {
+                this.future.cancel(false);
+            }
+            return this.expired;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (!this.finished) {
+                this.expired = true;
+                this.thread.interrupt();
+            }
+        }
+    }
+
+    private static final class Internal {
+        private static final ScheduledThreadPoolExecutor EXECUTOR;
+
+        static {
+            final int threadPriority = XtepsBase.cached().threadHooksThreadPriority();
+            EXECUTOR = new ScheduledThreadPoolExecutor(1, runnable -> {
+                final Thread daemonThread = new Thread(runnable, "xteps-step-timeout-daemon-thread");
+                daemonThread.setDaemon(true);
+                daemonThread.setPriority(threadPriority);
+                return daemonThread;
+            });
+            EXECUTOR.setRemoveOnCancelPolicy(true);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.timeout;
+
+import com.plugatar.xteps.base.XtepsException;
+
+/**
+ * The step timeout exception. Thrown if the step did not complete before its deadline.
+ */
+public class StepTimeoutException extends XtepsException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Ctor.
+     *
+     * @param message the message
+     */
+    public StepTimeoutException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param message the message
+     * @param cause   the cause
+     */
+    public StepTimeoutException(final String message,
+                                final Throwable cause) {
+        super(message, cause);
+    }
+}
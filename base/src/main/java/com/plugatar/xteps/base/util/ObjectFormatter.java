@@ -0,0 +1,392 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.util;
+
+import com.plugatar.xteps.base.XtepsException;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Object formatter, the registry of type formatters. The formatter of the class is resolved
+ * once (exact class, superclasses, interfaces) and cached by {@link ClassValue}. The object is
+ * rendered into the reused per-thread builder, the output is bounded by the max length and the
+ * max count of array, collection and map elements, formatters stop rendering as soon as the
+ * output is full so the truncated part of the value is never rendered.
+ */
+public final class ObjectFormatter {
+    private static final String TRUNCATION_MARKER = "...";
+    private static final int MAX_DEPTH = 8;
+    private final int maxLength;
+    private final int maxElements;
+    private final ConcurrentMap<Class<?>, TypeFormatter<?>> formatters;
+    private final AtomicInteger version;
+    private final ClassValue<Resolved> resolvedFormatters;
+    private final ThreadLocal<Output> outputs;
+
+    /**
+     * Ctor.
+     *
+     * @param maxLength   the max length of the output
+     * @param maxElements the max count of rendered array, collection and map elements
+     * @throws XtepsException if {@code maxLength} or {@code maxElements} is less than 1
+     */
+    public ObjectFormatter(final int maxLength,
+                           final int maxElements) {
+        if (maxLength < 1) { throw new XtepsException("maxLength arg is less than 1"); }
+        if (maxElements < 1) { throw new XtepsException("maxElements arg is less than 1"); }
+        this.maxLength = maxLength;
+        this.maxElements = maxElements;
+        this.formatters = new ConcurrentHashMap<>();
+        this.version = new AtomicInteger();
+        this.resolvedFormatters = new ClassValue<Resolved>() {
+            @Override
+            protected Resolved computeValue(final Class<?> type) {
+                return new Resolved(ObjectFormatter.this.version.get(), ObjectFormatter.this.resolve(type));
+            }
+        };
+        this.outputs = ThreadLocal.withInitial(() -> new Output(this));
+        this.registerDefaultFormatters();
+    }
+
+    /**
+     * Registers given formatter for given type and its subtypes.
+     *
+     * @param type      the type
+     * @param formatter the formatter
+     * @param <T>       the type
+     * @throws XtepsException if {@code type} or {@code formatter} is null
+     */
+    public <T> void register(final Class<T> type,
+                             final TypeFormatter<? super T> formatter) {
+        if (type == null) { throw new XtepsException("type arg is null"); }
+        if (formatter == null) { throw new XtepsException("formatter arg is null"); }
+        this.formatters.put(type, formatter);
+        this.version.incrementAndGet();
+    }
+
+    /**
+     * Returns the max length of the output.
+     *
+     * @return the max length of the output
+     */
+    public int maxLength() {
+        return this.maxLength;
+    }
+
+    /**
+     * Returns the max count of rendered array, collection and map elements.
+     *
+     * @return the max count of rendered elements
+     */
+    public int maxElements() {
+        return this.maxElements;
+    }
+
+    /**
+     * Returns bounded {@code String} representation of given object.
+     *
+     * @param obj the object
+     * @return {@code String} representation of given object
+     */
+    public String format(final Object obj) {
+        Output output = this.outputs.get();
+        if (output.inUse) {
+            /* Reentrant call from a type formatter */
+            output = new Output(this);
+        }
+        output.inUse = true;
+        try {
+            output.append(obj);
+            return output.result();
+        } finally {
+            output.reset();
+            output.inUse = false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypeFormatter<Object> formatter(final Class<?> type) {
+        Resolved resolved = this.resolvedFormatters.get(type);
+        if (resolved.version != this.version.get()) {
+            this.resolvedFormatters.remove(type);
+            resolved = this.resolvedFormatters.get(type);
+        }
+        return (TypeFormatter<Object>) resolved.formatter;
+    }
+
+    private TypeFormatter<?> resolve(final Class<?> type) {
+        final TypeFormatter<?> exact = this.formatters.get(type);
+        if (exact != null) {
+            return exact;
+        }
+        if (type.isArray()) {
+            return this.formatters.get(Object[].class);
+        }
+        final Deque<Class<?>> interfaces = new ArrayDeque<>();
+        for (Class<?> cls = type.getSuperclass(); cls != null; cls = cls.getSuperclass()) {
+            final TypeFormatter<?> formatter = this.formatters.get(cls);
+            if (formatter != null && cls != Object.class) {
+                return formatter;
+            }
+        }
+        for (Class<?> cls = type; cls != null; cls = cls.getSuperclass()) {
+            Collections.addAll(interfaces, cls.getInterfaces());
+        }
+        while (!interfaces.isEmpty()) {
+            final Class<?> cls = interfaces.poll();
+            final TypeFormatter<?> formatter = this.formatters.get(cls);
+            if (formatter != null) {
+                return formatter;
+            }
+            Collections.addAll(interfaces, cls.getInterfaces());
+        }
+        return this.formatters.get(Object.class);
+    }
+
+    private void registerDefaultFormatters() {
+        this.formatters.put(Object.class, (TypeFormatter<Object>) (value, out) -> out.append(String.valueOf(value)));
+        this.formatters.put(CharSequence.class, (TypeFormatter<CharSequence>) (value, out) -> out.append(value));
+        this.formatters.put(Object[].class, arrayFormatter((Object[] arr) -> arr.length, (arr, idx, out) -> {
+            final Object element = arr[idx];
+            out.append(element == arr ? "(this Array)" : element);
+        }));
+        this.formatters.put(int[].class, arrayFormatter((int[] arr) -> arr.length,
+            (arr, idx, out) -> out.builder.append(arr[idx])));
+        this.formatters.put(long[].class, arrayFormatter((long[] arr) -> arr.length,
+            (arr, idx, out) -> out.builder.append(arr[idx])));
+        this.formatters.put(double[].class, arrayFormatter((double[] arr) -> arr.length,
+            (arr, idx, out) -> out.builder.append(arr[idx])));
+        this.formatters.put(float[].class, arrayFormatter((float[] arr) -> arr.length,
+            (arr, idx, out) -> out.builder.append(arr[idx])));
+        this.formatters.put(char[].class, arrayFormatter((char[] arr) -> arr.length,
+            (arr, idx, out) -> out.builder.append(arr[idx])));
+        this.formatters.put(boolean[].class, arrayFormatter((boolean[] arr) -> arr.length,
+            (arr, idx, out) -> out.builder.append(arr[idx])));
+        this.formatters.put(byte[].class, arrayFormatter((byte[] arr) -> arr.length,
+            (arr, idx, out) -> out.builder.append(arr[idx])));
+        this.formatters.put(short[].class, arrayFormatter((short[] arr) -> arr.length,
+            (arr, idx, out) -> out.builder.append(arr[idx])));
+        this.formatters.put(Collection.class, (TypeFormatter<Collection<?>>) (value, out) -> {
+            out.append('[');
+            final Iterator<?> iterator = value.iterator();
+            int count = 0;
+            while (iterator.hasNext() && !out.isFull()) {
+                if (count == out.maxElements()) {
+                    out.append(", ...");
+                    break;
+                }
+                if (count != 0) { out.append(", "); }
+                final Object element = iterator.next();
+                out.append(element == value ? "(this Collection)" : element);
+                ++count;
+            }
+            out.append(']');
+        });
+        this.formatters.put(Map.class, (TypeFormatter<Map<?, ?>>) (value, out) -> {
+            out.append('{');
+            final Iterator<? extends Map.Entry<?, ?>> iterator = value.entrySet().iterator();
+            int count = 0;
+            while (iterator.hasNext() && !out.isFull()) {
+                if (count == out.maxElements()) {
+                    out.append(", ...");
+                    break;
+                }
+                if (count != 0) { out.append(", "); }
+                final Map.Entry<?, ?> entry = iterator.next();
+                out.append(entry.getKey() == value ? "(this Map)" : entry.getKey());
+                out.append('=');
+                out.append(entry.getValue() == value ? "(this Map)" : entry.getValue());
+                ++count;
+            }
+            out.append('}');
+        });
+    }
+
+    private static <A> TypeFormatter<A> arrayFormatter(final ToIntFunction<A> length,
+                                                       final ElementFormatter<A> elementFormatter) {
+        return (arr, out) -> {
+            out.append('[');
+            final int arrLength = length.applyAsInt(arr);
+            final int count = Math.min(arrLength, out.maxElements());
+            int idx = 0;
+            for (; idx < count && !out.isFull(); ++idx) {
+                if (idx != 0) { out.append(", "); }
+                elementFormatter.format(arr, idx, out);
+            }
+            if (idx < arrLength && !out.isFull()) {
+                out.append(", ...");
+            }
+            out.append(']');
+        };
+    }
+
+    /**
+     * Type formatter.
+     *
+     * @param <T> the type of the value
+     */
+    @FunctionalInterface
+    public interface TypeFormatter<T> {
+
+        /**
+         * Renders given value to given output. The formatter should stop rendering
+         * when {@link Output#isFull()} returns {@code true}.
+         *
+         * @param value the value
+         * @param out   the output
+         */
+        void format(T value, Output out);
+    }
+
+    /**
+     * Bounded formatter output.
+     */
+    public static final class Output {
+        private final ObjectFormatter formatter;
+        private final StringBuilder builder;
+        private boolean truncated;
+        private int depth;
+        private boolean inUse;
+
+        private Output(final ObjectFormatter formatter) {
+            this.formatter = formatter;
+            this.builder = new StringBuilder();
+            this.truncated = false;
+            this.depth = 0;
+            this.inUse = false;
+        }
+
+        /**
+         * Returns {@code true} if the output is full and the rest of the value will be truncated.
+         *
+         * @return {@code true} if the output is full, otherwise {@code false}
+         */
+        public boolean isFull() {
+            return this.truncated || this.builder.length() >= this.formatter.maxLength;
+        }
+
+        /**
+         * Returns the max count of rendered array, collection and map elements.
+         *
+         * @return the max count of rendered elements
+         */
+        public int maxElements() {
+            return this.formatter.maxElements;
+        }
+
+        /**
+         * Appends given char.
+         *
+         * @param ch the char
+         * @return this output
+         */
+        public Output append(final char ch) {
+            if (this.builder.length() < this.formatter.maxLength) {
+                this.builder.append(ch);
+            } else {
+                this.truncated = true;
+            }
+            return this;
+        }
+
+        /**
+         * Appends given char sequence, the part of the sequence beyond the max length is truncated.
+         *
+         * @param seq the char sequence
+         * @return this output
+         */
+        public Output append(final CharSequence seq) {
+            final CharSequence notNullSeq = seq == null ? "null" : seq;
+            final int remaining = this.formatter.maxLength - this.builder.length();
+            if (notNullSeq.length() <= remaining) {
+                this.builder.append(notNullSeq);
+            } else {
+                this.builder.append(notNullSeq, 0, Math.max(remaining, 0));
+                this.truncated = true;
+            }
+            return this;
+        }
+
+        /**
+         * Appends given object rendered by the registered formatter.
+         *
+         * @param obj the object
+         * @return this output
+         */
+        public Output append(final Object obj) {
+            if (obj == null) {
+                return this.append("null");
+            }
+            if (this.isFull()) {
+                this.truncated = true;
+                return this;
+            }
+            if (this.depth >= MAX_DEPTH) {
+                return this.append(TRUNCATION_MARKER);
+            }
+            ++this.depth;
+            try {
+                this.formatter.formatter(obj.getClass()).format(obj, this);
+            } finally {
+                --this.depth;
+            }
+            return this;
+        }
+
+        private String result() {
+            if (this.truncated || this.builder.length() > this.formatter.maxLength) {
+                this.builder.setLength(Math.min(this.builder.length(), this.formatter.maxLength));
+                this.builder.append(TRUNCATION_MARKER);
+            }
+            return this.builder.toString();
+        }
+
+        private void reset() {
+            this.truncated = false;
+            this.depth = 0;
+            if (this.builder.capacity() > this.formatter.maxLength * 4) {
+                this.builder.setLength(this.formatter.maxLength);
+                this.builder.trimToSize();
+            }
+            this.builder.setLength(0);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ElementFormatter<A> {
+        void format(A arr, int idx, Output out);
+    }
+
+    private static final class Resolved {
+        private final int version;
+        private final TypeFormatter<?> formatter;
+
+        private Resolved(final int version,
+                         final TypeFormatter<?> formatter) {
+            this.version = version;
+            this.formatter = formatter;
+        }
+    }
+}
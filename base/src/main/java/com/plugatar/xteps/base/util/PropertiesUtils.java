@@ -0,0 +1,219 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.util;
+
+import com.plugatar.xteps.base.XtepsException;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Xteps properties utils. Property values are trimmed, empty values are treated as absent.
+ */
+public final class PropertiesUtils {
+
+    /**
+     * Utility class ctor.
+     */
+    private PropertiesUtils() {
+    }
+
+    /**
+     * Returns the properties of the given file (loaded by the system and the context class
+     * loaders) overridden by the system properties.
+     *
+     * @param propertiesFilePath the properties file path
+     * @return properties
+     */
+    public static Properties systemPropertiesWithFile(final String propertiesFilePath) {
+        if (propertiesFilePath == null) { throw new XtepsException("propertiesFilePath arg is null"); }
+        final Properties properties = new Properties();
+        try (final InputStream stream =
+                 ClassLoader.getSystemClassLoader().getResourceAsStream(propertiesFilePath)) {
+            if (stream != null) {
+                properties.load(stream);
+            }
+        } catch (final Exception ignored) { }
+        try (final InputStream stream =
+                 Thread.currentThread().getContextClassLoader().getResourceAsStream(propertiesFilePath)) {
+            if (stream != null) {
+                properties.load(stream);
+            }
+        } catch (final Exception ignored) { }
+        properties.putAll(System.getProperties());
+        return properties;
+    }
+
+    /**
+     * Returns the boolean property value.
+     *
+     * @param properties   the properties
+     * @param propertyName the property name
+     * @param defaultValue the default value
+     * @return property value or default value if the property is absent
+     * @throws XtepsException if the property value is incorrect
+     */
+    public static boolean booleanProperty(final Properties properties,
+                                          final String propertyName,
+                                          final boolean defaultValue) {
+        final String propertyValue = properties.getProperty(propertyName);
+        if (propertyValue == null) {
+            return defaultValue;
+        }
+        final String trimmedPropertyValue = propertyValue.trim();
+        if (trimmedPropertyValue.isEmpty()) {
+            return defaultValue;
+        }
+        if (trimmedPropertyValue.equalsIgnoreCase("false")) {
+            return false;
+        }
+        if (trimmedPropertyValue.equalsIgnoreCase("true")) {
+            return true;
+        }
+        throw propertyException(propertyName, propertyValue);
+    }
+
+    /**
+     * Returns the long property value.
+     *
+     * @param properties   the properties
+     * @param propertyName the property name
+     * @param min          the min value
+     * @param max          the max value
+     * @param defaultValue the default value
+     * @return property value or default value if the property is absent
+     * @throws XtepsException if the property value is incorrect or out of range
+     */
+    public static long longPropertyInRange(final Properties properties,
+                                           final String propertyName,
+                                           final long min,
+                                           final long max,
+                                           final long defaultValue) {
+        final String propertyValue = properties.getProperty(propertyName);
+        if (propertyValue == null) {
+            return defaultValue;
+        }
+        final String trimmedPropertyValue = propertyValue.trim();
+        if (trimmedPropertyValue.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            final long longValue = Long.parseLong(trimmedPropertyValue);
+            if (longValue < min || longValue > max) {
+                throw propertyException(propertyName, propertyValue);
+            }
+            return longValue;
+        } catch (final NumberFormatException ex) {
+            throw propertyException(propertyName, propertyValue);
+        }
+    }
+
+    /**
+     * Returns the int property value.
+     *
+     * @param properties   the properties
+     * @param propertyName the property name
+     * @param min          the min value
+     * @param max          the max value
+     * @param defaultValue the default value
+     * @return property value or default value if the property is absent
+     * @throws XtepsException if the property value is incorrect or out of range
+     */
+    public static int intPropertyInRange(final Properties properties,
+                                         final String propertyName,
+                                         final int min,
+                                         final int max,
+                                         final int defaultValue) {
+        final String propertyValue = properties.getProperty(propertyName);
+        if (propertyValue == null) {
+            return defaultValue;
+        }
+        final String trimmedPropertyValue = propertyValue.trim();
+        if (trimmedPropertyValue.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            final int intValue = Integer.parseInt(trimmedPropertyValue);
+            if (intValue < min || intValue > max) {
+                throw propertyException(propertyName, propertyValue);
+            }
+            return intValue;
+        } catch (final NumberFormatException ex) {
+            throw propertyException(propertyName, propertyValue);
+        }
+    }
+
+    /**
+     * Returns the string property value.
+     *
+     * @param properties   the properties
+     * @param propertyName the property name
+     * @param defaultValue the default value
+     * @return property value or default value if the property is absent
+     */
+    public static String stringProperty(final Properties properties,
+                                        final String propertyName,
+                                        final String defaultValue) {
+        final String propertyValue = properties.getProperty(propertyName);
+        if (propertyValue == null) {
+            return defaultValue;
+        }
+        final String trimmedPropertyValue = propertyValue.trim();
+        return trimmedPropertyValue.isEmpty() ? defaultValue : trimmedPropertyValue;
+    }
+
+    /**
+     * Returns the string list property value.
+     *
+     * @param properties   the properties
+     * @param propertyName the property name
+     * @param delimiter    the elements delimiter regex
+     * @param defaultValue the default value
+     * @return property value or default value if the property is absent
+     */
+    public static List<String> stringListProperty(final Properties properties,
+                                                  final String propertyName,
+                                                  final String delimiter,
+                                                  final List<String> defaultValue) {
+        final String propertyValue = properties.getProperty(propertyName);
+        if (propertyValue == null) {
+            return defaultValue;
+        }
+        final List<String> stringList = Arrays.stream(propertyValue.split(delimiter))
+            .map(String::trim)
+            .filter(str -> !str.isEmpty())
+            .collect(Collectors.toList());
+        if (stringList.isEmpty()) {
+            return defaultValue;
+        }
+        return stringList;
+    }
+
+    /**
+     * Returns the exception for the incorrect property value.
+     *
+     * @param propertyName  the property name
+     * @param propertyValue the property value
+     * @return exception
+     */
+    public static XtepsException propertyException(final String propertyName,
+                                                   final String propertyValue) {
+        return new XtepsException("Incorrect value " + propertyValue + " for " + propertyName + " property");
+    }
+}
@@ -15,12 +15,14 @@
  */
 package com.plugatar.xteps.base.util;
 
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.XtepsBase;
 import com.plugatar.xteps.base.XtepsException;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 /**
  * Step listener utils.
@@ -98,37 +100,117 @@ public final class StepListenerUtils {
     }
 
     /**
-     * Returns {@code String} representation of given object.
+     * Returns the step name processed by the template engine of a reporting tool. The
+     * engine is invoked only if the name is not empty and the step has params, it gets
+     * the {@link StepEvent#paramsByIndex()} map shared by all listeners.
+     *
+     * @param event                the step event
+     * @param emptyNameReplacement the empty step name replacement
+     * @param templateEngine       the template engine
+     * @return processed step name
+     */
+    public static String processedName(final StepEvent event,
+                                       final String emptyNameReplacement,
+                                       final BiFunction<String, Map<String, Object>, String> templateEngine) {
+        if (event == null) { throw new XtepsException("event arg is null"); }
+        if (emptyNameReplacement == null) { throw new XtepsException("emptyNameReplacement arg is null"); }
+        if (templateEngine == null) { throw new XtepsException("templateEngine arg is null"); }
+        final String name = event.name();
+        if (name.isEmpty()) {
+            return emptyNameReplacement;
+        }
+        return event.params().length == 0
+            ? name
+            : templateEngine.apply(name, event.paramsByIndex());
+    }
+
+    /**
+     * Returns the step description processed by the template engine of a reporting tool
+     * or null if the description is empty. The engine is invoked only if the step has
+     * params, it gets the {@link StepEvent#paramsByIndex()} map shared by all listeners.
+     *
+     * @param event          the step event
+     * @param templateEngine the template engine
+     * @return processed step description or null
+     */
+    public static String processedDescription(final StepEvent event,
+                                              final BiFunction<String, Map<String, Object>, String> templateEngine) {
+        if (event == null) { throw new XtepsException("event arg is null"); }
+        if (templateEngine == null) { throw new XtepsException("templateEngine arg is null"); }
+        final String description = event.description();
+        if (description.isEmpty()) {
+            return null;
+        }
+        return event.params().length == 0
+            ? description
+            : templateEngine.apply(description, event.paramsByIndex());
+    }
+
+    /**
+     * Returns the step name with the params names in the given borders replaced by the
+     * params. For the default {@code {}} borders it's the {@link StepEvent#renderedName()}
+     * shared by all listeners.
+     *
+     * @param event                the step event
+     * @param emptyNameReplacement the empty step name replacement
+     * @param leftNameBorder       the left param name border
+     * @param rightNameBorder      the right param name border
+     * @return processed step name
+     */
+    public static String processedName(final StepEvent event,
+                                       final String emptyNameReplacement,
+                                       final char leftNameBorder,
+                                       final char rightNameBorder) {
+        if (event == null) { throw new XtepsException("event arg is null"); }
+        if (emptyNameReplacement == null) { throw new XtepsException("emptyNameReplacement arg is null"); }
+        final String name = event.name();
+        if (name.isEmpty()) {
+            return emptyNameReplacement;
+        }
+        if (leftNameBorder == '{' && rightNameBorder == '}') {
+            return event.renderedName();
+        }
+        final Object[] params = event.params();
+        return params.length == 0
+            ? name
+            : processedTemplate(name, paramArrayAsMap(leftNameBorder, rightNameBorder, params));
+    }
+
+    /**
+     * Returns the step description with the params names in the given borders replaced by
+     * the params or null if the description is empty. For the default {@code {}} borders
+     * it's the {@link StepEvent#renderedDescription()} shared by all listeners.
+     *
+     * @param event           the step event
+     * @param leftNameBorder  the left param name border
+     * @param rightNameBorder the right param name border
+     * @return processed step description or null
+     */
+    public static String processedDescription(final StepEvent event,
+                                              final char leftNameBorder,
+                                              final char rightNameBorder) {
+        if (event == null) { throw new XtepsException("event arg is null"); }
+        final String description = event.description();
+        if (description.isEmpty()) {
+            return null;
+        }
+        if (leftNameBorder == '{' && rightNameBorder == '}') {
+            return event.renderedDescription();
+        }
+        final Object[] params = event.params();
+        return params.length == 0
+            ? description
+            : processedTemplate(description, paramArrayAsMap(leftNameBorder, rightNameBorder, params));
+    }
+
+    /**
+     * Returns bounded {@code String} representation of given object rendered by the
+     * {@link XtepsBase#objectFormatter()}.
      *
      * @param obj the object
      * @return {@code String} representation of given object
      */
     public static String objAsString(final Object obj) {
-        if (obj == null) {
-            return "null";
-        }
-        final Class<?> cls = obj.getClass();
-        if (cls.isArray()) {
-            if (cls == int[].class) {
-                return Arrays.toString((int[]) obj);
-            } else if (cls == long[].class) {
-                return Arrays.toString((long[]) obj);
-            } else if (cls == double[].class) {
-                return Arrays.toString((double[]) obj);
-            } else if (cls == char[].class) {
-                return Arrays.toString((char[]) obj);
-            } else if (cls == boolean[].class) {
-                return Arrays.toString((boolean[]) obj);
-            } else if (cls == byte[].class) {
-                return Arrays.toString((byte[]) obj);
-            } else if (cls == short[].class) {
-                return Arrays.toString((short[]) obj);
-            } else if (cls == float[].class) {
-                return Arrays.toString((float[]) obj);
-            } else {
-                return Arrays.toString((Object[]) obj);
-            }
-        }
-        return String.valueOf(obj);
+        return XtepsBase.cached().objectFormatter().format(obj);
     }
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.util;
+
+import com.plugatar.xteps.base.XtepsException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+
+/**
+ * Concurrent trie of step paths, each node holds the fixed count of counters. Each distinct
+ * step path is stored once, memory usage does not depend on the steps count. The count of
+ * paths can be limited, deeper paths over the limit are aggregated into their parent path.
+ * Nodes are visited in the step name order, paths are written in the collapsed stack format
+ * ({@code Login;Type password 1234}) ready for flame graph tools.
+ */
+public final class StepPathTrie {
+    private final int countersCount;
+    private final int maxPaths;
+    private final AtomicInteger pathsCount;
+    private final Node root;
+
+    /**
+     * Ctor.
+     *
+     * @param countersCount the count of counters of each node
+     * @param maxPaths      the max count of distinct step paths
+     * @throws XtepsException if {@code countersCount} or {@code maxPaths} is less than 1
+     */
+    public StepPathTrie(final int countersCount,
+                        final int maxPaths) {
+        if (countersCount < 1) { throw new XtepsException("countersCount arg is less than 1"); }
+        if (maxPaths < 1) { throw new XtepsException("maxPaths arg is less than 1"); }
+        this.countersCount = countersCount;
+        this.maxPaths = maxPaths;
+        this.pathsCount = new AtomicInteger();
+        this.root = new Node(this, "", "");
+    }
+
+    /**
+     * Returns the root node, the root node is not a step path.
+     *
+     * @return the root node
+     */
+    public Node root() {
+        return this.root;
+    }
+
+    /**
+     * Writes step paths with non-zero counter values in the collapsed stack format.
+     *
+     * @param writer  the writer
+     * @param counter the counter index
+     * @param divisor the counter value divisor, for example 1000 to write nanoseconds as microseconds
+     * @throws XtepsException if {@code writer} is null or if {@code counter} is not a counter index
+     *                        or if {@code divisor} is less than 1
+     * @throws IOException    if an I/O error occurs
+     */
+    public void writeFoldedTo(final Writer writer,
+                              final int counter,
+                              final long divisor) throws IOException {
+        if (writer == null) { throw new XtepsException("writer arg is null"); }
+        if (counter < 0 || counter >= this.countersCount) {
+            throw new XtepsException("counter arg not in the range 0 to " + (this.countersCount - 1));
+        }
+        if (divisor < 1L) { throw new XtepsException("divisor arg is less than 1"); }
+        final StringBuilder path = new StringBuilder(256);
+        for (final Node node : this.root.sortedChildren()) {
+            writeNode(writer, path, node, counter, divisor);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Performs given action for each step path, the path frames are separated by {@code ;}.
+     *
+     * @param action the action
+     * @throws XtepsException if {@code action} is null
+     */
+    public void forEachPath(final BiConsumer<String, Node> action) {
+        if (action == null) { throw new XtepsException("action arg is null"); }
+        for (final Node node : this.root.sortedChildren()) {
+            forEachPath("", node, action);
+        }
+    }
+
+    /**
+     * Returns the frame name of given step name: {@code Step} for empty name, {@code ;} is
+     * replaced by {@code ,}, tabs and line breaks are replaced by spaces.
+     *
+     * @param name the step name
+     * @return the frame name
+     * @throws XtepsException if {@code name} is null
+     */
+    public static String frameName(final String name) {
+        if (name == null) { throw new XtepsException("name arg is null"); }
+        if (name.isEmpty()) {
+            return "Step";
+        }
+        return name.replace(';', ',').replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private boolean reservePath() {
+        int count;
+        do {
+            if ((count = this.pathsCount.get()) >= this.maxPaths) {
+                return false;
+            }
+        } while (!this.pathsCount.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    private static void writeNode(final Writer writer,
+                                  final StringBuilder path,
+                                  final Node node,
+                                  final int counter,
+                                  final long divisor) throws IOException {
+        final int pathLength = path.length();
+        if (pathLength != 0) {
+            path.append(';');
+        }
+        path.append(node.frameName);
+        final long value = node.counters.get(counter) / divisor;
+        if (value != 0L) {
+            writer.append(path).append(' ').append(Long.toString(value)).append('\n');
+        }
+        for (final Node child : node.sortedChildren()) {
+            writeNode(writer, path, child, counter, divisor);
+        }
+        path.setLength(pathLength);
+    }
+
+    private static void forEachPath(final String parentPath,
+                                    final Node node,
+                                    final BiConsumer<String, Node> action) {
+        final String path = parentPath.isEmpty() ? node.frameName : parentPath + ";" + node.frameName;
+        action.accept(path, node);
+        for (final Node child : node.sortedChildren()) {
+            forEachPath(path, child, action);
+        }
+    }
+
+    /**
+     * Step path trie node.
+     */
+    public static final class Node {
+        private final StepPathTrie trie;
+        private final String name;
+        private final String frameName;
+        private final AtomicLongArray counters;
+        private volatile Map<String, Node> children;
+
+        private Node(final StepPathTrie trie,
+                     final String name,
+                     final String frameName) {
+            this.trie = trie;
+            this.name = name;
+            this.frameName = frameName;
+            this.counters = new AtomicLongArray(trie.countersCount);
+            this.children = null;
+        }
+
+        /**
+         * Returns the child node of given step name or this node if the paths count limit is reached.
+         *
+         * @param childName the step name
+         * @return the child node or this node
+         * @throws XtepsException if {@code childName} is null
+         */
+        public Node child(final String childName) {
+            if (childName == null) { throw new XtepsException("childName arg is null"); }
+            Map<String, Node> map = this.children;
+            if (map == null) {
+                synchronized (this) {
+                    if ((map = this.children) == null) {
+                        map = new ConcurrentHashMap<>(4);
+                        this.children = map;
+                    }
+                }
+            }
+            Node child = map.get(childName);
+            if (child == null) {
+                child = map.computeIfAbsent(childName, key -> this.trie.reservePath()
+                    ? new Node(this.trie, key, frameName(key))
+                    : null);
+            }
+            return child == null ? this : child;
+        }
+
+        /**
+         * Adds given value to the counter.
+         *
+         * @param counter the counter index
+         * @param value   the value
+         */
+        public void add(final int counter,
+                        final long value) {
+            this.counters.addAndGet(counter, value);
+        }
+
+        /**
+         * Returns the counter value.
+         *
+         * @param counter the counter index
+         * @return the counter value
+         */
+        public long get(final int counter) {
+            return this.counters.get(counter);
+        }
+
+        private List<Node> sortedChildren() {
+            final Map<String, Node> map = this.children;
+            if (map == null || map.isEmpty()) {
+                return Collections.emptyList();
+            }
+            final List<Node> list = new ArrayList<>(map.values());
+            list.sort((node1, node2) -> node1.name.compareTo(node2.name));
+            return list;
+        }
+    }
+}
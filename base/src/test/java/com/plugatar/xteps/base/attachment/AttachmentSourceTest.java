@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.attachment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link AttachmentSource}.
+ */
+final class AttachmentSourceTest {
+    private static final byte[] CONTENT = "attachment content".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void ofFileMethodThrowsExceptionForNullArg() {
+        assertThatCode(() -> AttachmentSource.ofFile(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void ofChannelMethodThrowsExceptionForNullArg() {
+        assertThatCode(() -> AttachmentSource.ofChannel(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void ofStreamMethodThrowsExceptionForNullArg() {
+        assertThatCode(() -> AttachmentSource.ofStream(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void fileSourceIsRepeatable(@TempDir final Path tempDir) throws IOException {
+        final Path file = Files.write(tempDir.resolve("file.txt"), CONTENT);
+        final AttachmentSource source = AttachmentSource.ofFile(file);
+
+        assertThat(source.isRepeatable()).isTrue();
+        assertThat(source.file()).isSameAs(file);
+        assertThat(source.size()).isEqualTo(CONTENT.length);
+        assertThat(transferredContent(source)).isEqualTo(CONTENT);
+        assertThat(transferredContent(source)).isEqualTo(CONTENT);
+        try (final InputStream stream = source.openStream()) {
+            assertThat(stream).hasBinaryContent(CONTENT);
+        }
+    }
+
+    @Test
+    void fileSourceTransferToFileChannel(@TempDir final Path tempDir) throws IOException {
+        final AttachmentSource source = AttachmentSource.ofFile(Files.write(tempDir.resolve("file.txt"), CONTENT));
+        final Path target = tempDir.resolve("target.txt");
+
+        try (final FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE)) {
+            assertThat(source.transferTo(channel)).isEqualTo(CONTENT.length);
+        }
+        assertThat(target).hasBinaryContent(CONTENT);
+    }
+
+    @Test
+    void streamSourceCanBeReadOnlyOnce() throws IOException {
+        final AttachmentSource source = AttachmentSource.ofStream(new ByteArrayInputStream(CONTENT));
+
+        assertThat(source.isRepeatable()).isFalse();
+        assertThat(source.file()).isNull();
+        assertThat(source.size()).isEqualTo(-1L);
+        assertThat(transferredContent(source)).isEqualTo(CONTENT);
+        assertThatCode(() -> transferredContent(source)).isInstanceOf(IOException.class);
+        assertThatCode(source::openStream).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void channelSourceTransferToFileChannel(@TempDir final Path tempDir) throws IOException {
+        final AttachmentSource source = AttachmentSource.ofChannel(
+            Channels.newChannel(new ByteArrayInputStream(CONTENT)));
+        final Path target = tempDir.resolve("target.txt");
+
+        try (final FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE)) {
+            assertThat(source.transferTo(channel)).isEqualTo(CONTENT.length);
+        }
+        assertThat(target).hasBinaryContent(CONTENT);
+    }
+
+    private static byte[] transferredContent(final AttachmentSource source) throws IOException {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        source.transferTo(Channels.newChannel(content));
+        return content.toByteArray();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.attachment;
+
+import com.plugatar.xteps.base.ThrowingFunction;
+import com.plugatar.xteps.base.XtepsException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link AttachmentStore}.
+ */
+final class AttachmentStoreTest {
+    private static final byte[] CONTENT = "attachment content".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OTHER_CONTENT = "other attachment content".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void ctorThrowsExceptionForInvalidMaxIndexSize() {
+        assertThatCode(() -> new AttachmentStore(true, 0)).isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void storeMethodThrowsExceptionForNullArgs() {
+        final AttachmentStore store = new AttachmentStore(true, 10);
+        final AttachmentSource source = streamSource(CONTENT);
+
+        assertThatCode(() -> store.store(null, source, s -> "ref")).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> store.store("ns", null, s -> "ref")).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> store.store("ns", source, null)).isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void disabledStoreWritesEveryAttachment() throws IOException {
+        final AttachmentStore store = new AttachmentStore(false, 10);
+        final List<String> written = new ArrayList<>();
+
+        final AttachmentStore.Stored stored1 = store.store("ns", streamSource(CONTENT), writer(written));
+        final AttachmentStore.Stored stored2 = store.store("ns", streamSource(CONTENT), writer(written));
+
+        assertThat(written).containsExactly(new String(CONTENT, StandardCharsets.UTF_8),
+            new String(CONTENT, StandardCharsets.UTF_8));
+        assertThat(stored1.isDuplicate()).isFalse();
+        assertThat(stored2.isDuplicate()).isFalse();
+        assertThat(store.storedCount()).isZero();
+    }
+
+    @Test
+    void sameContentIsWrittenOnce(@TempDir final Path tempDir) throws IOException {
+        final AttachmentStore store = new AttachmentStore(true, 10);
+        final List<String> written = new ArrayList<>();
+        final Path file = Files.write(tempDir.resolve("file.txt"), CONTENT);
+
+        final AttachmentStore.Stored stored1 = store.store("ns", streamSource(CONTENT), writer(written));
+        final AttachmentStore.Stored stored2 = store.store("ns", AttachmentSource.ofFile(file), writer(written));
+        final AttachmentStore.Stored stored3 = store.store("ns", streamSource(OTHER_CONTENT), writer(written));
+
+        assertThat(written).containsExactly(new String(CONTENT, StandardCharsets.UTF_8),
+            new String(OTHER_CONTENT, StandardCharsets.UTF_8));
+        assertThat(stored1.isDuplicate()).isFalse();
+        assertThat(stored2.isDuplicate()).isTrue();
+        assertThat(stored2.ref()).isEqualTo(stored1.ref());
+        assertThat(stored3.isDuplicate()).isFalse();
+        assertThat(stored3.ref()).isNotEqualTo(stored1.ref());
+        assertThat(store.storedCount()).isEqualTo(2L);
+        assertThat(store.duplicateCount()).isEqualTo(1L);
+        assertThat(store.bytesWritten()).isEqualTo(CONTENT.length + OTHER_CONTENT.length);
+        assertThat(store.bytesSaved()).isEqualTo(CONTENT.length);
+    }
+
+    @Test
+    void sameContentIsWrittenOncePerNamespace() throws IOException {
+        final AttachmentStore store = new AttachmentStore(true, 10);
+        final List<String> written = new ArrayList<>();
+
+        store.store("ns1", streamSource(CONTENT), writer(written));
+        final AttachmentStore.Stored stored = store.store("ns2", streamSource(CONTENT), writer(written));
+
+        assertThat(written).hasSize(2);
+        assertThat(stored.isDuplicate()).isFalse();
+    }
+
+    @Test
+    void nullRefIsNotDeduplicated() throws IOException {
+        final AttachmentStore store = new AttachmentStore(true, 10);
+
+        store.store("ns", streamSource(CONTENT), s -> null);
+        final AttachmentStore.Stored stored = store.store("ns", streamSource(CONTENT), s -> "ref");
+
+        assertThat(stored.isDuplicate()).isFalse();
+        assertThat(stored.ref()).isEqualTo("ref");
+    }
+
+    @Test
+    void writerExceptionIsNotDeduplicated() throws IOException {
+        final AttachmentStore store = new AttachmentStore(true, 10);
+        final IOException exception = new IOException();
+
+        assertThatCode(() -> store.store("ns", streamSource(CONTENT), s -> {
+            throw exception;
+        })).isSameAs(exception);
+        final AttachmentStore.Stored stored = store.store("ns", streamSource(CONTENT), s -> "ref");
+
+        assertThat(stored.isDuplicate()).isFalse();
+        assertThat(stored.ref()).isEqualTo("ref");
+    }
+
+    @Test
+    void evictedRefsAreSpilledAndReadBack() throws IOException {
+        final AttachmentStore store = new AttachmentStore(true, 1);
+        final List<String> written = new ArrayList<>();
+        try {
+            final AttachmentStore.Stored stored1 = store.store("ns", streamSource(CONTENT), writer(written));
+            store.store("ns", streamSource(OTHER_CONTENT), writer(written));
+            final AttachmentStore.Stored stored2 = store.store("ns", streamSource(CONTENT), writer(written));
+
+            assertThat(written).hasSize(2);
+            assertThat(store.spilledCount()).isGreaterThanOrEqualTo(1L);
+            assertThat(stored2.isDuplicate()).isTrue();
+            assertThat(stored2.ref()).isEqualTo(stored1.ref());
+        } finally {
+            store.clear();
+        }
+    }
+
+    private static AttachmentSource streamSource(final byte[] content) {
+        return AttachmentSource.ofStream(new ByteArrayInputStream(content));
+    }
+
+    private static ThrowingFunction<AttachmentSource, String, IOException> writer(
+        final List<String> written
+    ) {
+        return source -> {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            source.transferTo(Channels.newChannel(out));
+            written.add(new String(out.toByteArray(), StandardCharsets.UTF_8));
+            return "ref-" + written.size();
+        };
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.cache;
+
+import com.plugatar.xteps.base.HooksOrder;
+import com.plugatar.xteps.base.ThrowingRunnable;
+import com.plugatar.xteps.base.XtepsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link SharedResources}.
+ */
+final class SharedResourcesTest {
+
+    @Test
+    void concurrentLeasesLoadResultOnce() throws Throwable {
+        final SharedResources sharedResources = new SharedResources(HooksOrder.FROM_LAST);
+        final ThrowingRunnable<?> releaseHook = mock(ThrowingRunnable.class);
+        final AtomicInteger loadsCount = new AtomicInteger();
+        final CountDownLatch loadingStarted = new CountDownLatch(1);
+        final CountDownLatch loadingAllowed = new CountDownLatch(1);
+        final SharedResources.Lease ownerLease = sharedResources.lease("key");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<Object> ownerResult = executor.submit(() -> ownerLease.get(() -> {
+                loadsCount.incrementAndGet();
+                SharedResources.releaseHook(releaseHook);
+                loadingStarted.countDown();
+                loadingAllowed.await();
+                return "result";
+            }));
+            loadingStarted.await();
+            final List<SharedResources.Lease> leases = new ArrayList<>();
+            final List<Future<Object>> results = new ArrayList<>();
+            for (int idx = 0; idx < 3; ++idx) {
+                final SharedResources.Lease lease = sharedResources.lease("key");
+                leases.add(lease);
+                results.add(executor.submit(() -> lease.get(() -> {
+                    loadsCount.incrementAndGet();
+                    return "other result";
+                })));
+            }
+            assertThat(sharedResources.leaseCount("key")).isEqualTo(4);
+            loadingAllowed.countDown();
+
+            assertThat(ownerResult.get(10, TimeUnit.SECONDS)).isEqualTo("result");
+            for (final Future<Object> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("result");
+            }
+            assertThat(loadsCount).hasValue(1);
+            assertThat(ownerLease.isOwner()).isTrue();
+            assertThat(leases).noneMatch(SharedResources.Lease::isOwner);
+
+            ownerLease.release();
+            leases.get(0).release();
+            leases.get(0).release();
+            leases.get(1).release();
+            verify(releaseHook, never()).run();
+            leases.get(2).release();
+            verify(releaseHook, times(1)).run();
+            assertThat(sharedResources.leaseCount("key")).isZero();
+            assertThat(sharedResources.size()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void lastLeaseReleaseCallsReleaseHooks() throws Throwable {
+        final SharedResources sharedResources = new SharedResources(HooksOrder.FROM_LAST);
+        final ThrowingRunnable<?> releaseHook = mock(ThrowingRunnable.class);
+        final SharedResources.Lease lease1 = sharedResources.lease("key");
+        lease1.get(() -> {
+            SharedResources.releaseHook(releaseHook);
+            return "result";
+        });
+        final SharedResources.Lease lease2 = sharedResources.lease("key");
+        assertThat(lease2.<Object, RuntimeException>get(() -> "other result")).isEqualTo("result");
+
+        lease1.release();
+        verify(releaseHook, never()).run();
+        lease2.release();
+        verify(releaseHook, times(1)).run();
+        assertThat(sharedResources.lease("key").isOwner()).isTrue();
+    }
+
+    @Test
+    void failedLoadingCallsReleaseHooksAndRemovesResult() throws Throwable {
+        final SharedResources sharedResources = new SharedResources(HooksOrder.FROM_LAST);
+        final ThrowingRunnable<?> releaseHook = mock(ThrowingRunnable.class);
+        final RuntimeException exception = new RuntimeException();
+        final SharedResources.Lease ownerLease = sharedResources.lease("key");
+        final SharedResources.Lease lease = sharedResources.lease("key");
+        final SharedResources.Lease lease2 = sharedResources.lease("key");
+
+        assertThatCode(() -> ownerLease.get(() -> {
+            SharedResources.releaseHook(releaseHook);
+            throw exception;
+        })).isSameAs(exception);
+        verify(releaseHook, times(1)).run();
+        final Throwable waiterException = catchThrowable(() -> lease.get(() -> "result"));
+        final Throwable waiterException2 = catchThrowable(() -> lease2.get(() -> "result"));
+        assertThat(waiterException)
+            .isInstanceOf(XtepsException.class)
+            .hasCauseReference(exception)
+            .isNotSameAs(waiterException2);
+        assertThat(waiterException2)
+            .isInstanceOf(XtepsException.class)
+            .hasCauseReference(exception);
+        assertThat(sharedResources.size()).isZero();
+        assertThat(sharedResources.lease("key").isOwner()).isTrue();
+    }
+
+    @Test
+    void releaseHookMethodThrowsExceptionOutsideOfLoading() {
+        assertThatCode(() -> SharedResources.releaseHook(() -> { }))
+            .isInstanceOf(XtepsException.class);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.cache;
+
+import com.plugatar.xteps.base.HooksOrder;
+import com.plugatar.xteps.base.ThrowingRunnable;
+import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link StepCache}.
+ */
+final class StepCacheTest {
+
+    @Test
+    void ctorThrowsExceptionForIncorrectArgs() {
+        assertThatCode(() -> new StepCache(0L, Duration.ZERO, StepCache.defaultWeigher(), HooksOrder.FROM_LAST))
+            .isInstanceOf(XtepsException.class);
+        assertThatCode(() -> new StepCache(1L, Duration.ofMillis(-1L), StepCache.defaultWeigher(), HooksOrder.FROM_LAST))
+            .isInstanceOf(XtepsException.class);
+        assertThatCode(() -> new StepCache(1L, Duration.ZERO, null, HooksOrder.FROM_LAST))
+            .isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void getMethodLoadsValueOnce() {
+        final StepCache cache = new StepCache(10L, Duration.ZERO, StepCache.defaultWeigher(), HooksOrder.FROM_LAST);
+        @SuppressWarnings("unchecked")
+        final ThrowingSupplier<Object, RuntimeException> loader = mock(ThrowingSupplier.class);
+        final Object value = new Object();
+        when(loader.get()).thenReturn(value);
+
+        assertThat(cache.<Object, RuntimeException>get("key", loader)).isSameAs(value);
+        assertThat(cache.<Object, RuntimeException>get("key", loader)).isSameAs(value);
+        verify(loader, times(1)).get();
+        assertThat(cache.hitCount()).isEqualTo(1L);
+        assertThat(cache.missCount()).isEqualTo(1L);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesEvictedByWeight() throws Throwable {
+        final StepCache cache = new StepCache(3L, Duration.ZERO, StepCache.defaultWeigher(), HooksOrder.FROM_LAST);
+        final ThrowingRunnable<?> hook1 = mock(ThrowingRunnable.class);
+        final ThrowingRunnable<?> hook2 = mock(ThrowingRunnable.class);
+        final ThrowingRunnable<?> hook3 = mock(ThrowingRunnable.class);
+        cache.load("key1", () -> {
+            StepCache.evictionHook(hook1);
+            return "value1";
+        });
+        cache.load("key2", () -> {
+            StepCache.evictionHook(hook2);
+            return (StepCache.Weighted) () -> 2L;
+        });
+        assertThat(cache.getIfPresent("key1")).isEqualTo("value1");
+        verify(hook1, never()).run();
+        verify(hook2, never()).run();
+
+        cache.load("key3", () -> {
+            StepCache.evictionHook(hook3);
+            return "value3";
+        });
+        verify(hook2, times(1)).run();
+        verify(hook1, never()).run();
+        assertThat(cache.getIfPresent("key2")).isNull();
+        assertThat(cache.weight()).isEqualTo(2L);
+        assertThat(cache.evictionCount()).isEqualTo(1L);
+
+        cache.invalidateAll();
+        verify(hook1, times(1)).run();
+        verify(hook3, times(1)).run();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void expiredEntryRemoved() throws Throwable {
+        final StepCache cache = new StepCache(10L, Duration.ofMillis(1L), StepCache.defaultWeigher(),
+            HooksOrder.FROM_LAST);
+        final ThrowingRunnable<?> hook = mock(ThrowingRunnable.class);
+        cache.load("key", () -> {
+            StepCache.evictionHook(hook);
+            return "value";
+        });
+        Thread.sleep(10L);
+
+        assertThat(cache.getIfPresent("key")).isNull();
+        verify(hook, times(1)).run();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void expiredLeastRecentlyUsedEntryEvictedOnLoad() throws Throwable {
+        final StepCache cache = new StepCache(10L, Duration.ofMillis(50L), StepCache.defaultWeigher(),
+            HooksOrder.FROM_LAST);
+        final ThrowingRunnable<?> hook = mock(ThrowingRunnable.class);
+        cache.load("key1", () -> {
+            StepCache.evictionHook(hook);
+            return "value1";
+        });
+        Thread.sleep(100L);
+        cache.load("key2", () -> "value2");
+
+        verify(hook, times(1)).run();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getIfPresent("key2")).isEqualTo("value2");
+    }
+
+    @Test
+    void evictionHooksCalledIfLoaderThrewException() throws Throwable {
+        final StepCache cache = new StepCache(10L, Duration.ZERO, StepCache.defaultWeigher(), HooksOrder.FROM_LAST);
+        final ThrowingRunnable<?> hook = mock(ThrowingRunnable.class);
+        final RuntimeException exception = new RuntimeException();
+
+        assertThatCode(() -> cache.load("key", () -> {
+            StepCache.evictionHook(hook);
+            throw exception;
+        })).isSameAs(exception);
+        verify(hook, times(1)).run();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void evictionHookMethodThrowsExceptionOutsideOfLoading() {
+        assertThatCode(() -> StepCache.evictionHook(() -> { }))
+            .isInstanceOf(XtepsException.class);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.capture;
+
+import com.plugatar.xteps.base.XtepsException;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link StepLogCapture}.
+ */
+final class StepLogCaptureTest {
+
+    @Test
+    void ctorThrowsExceptionForInvalidBufferSize() {
+        assertThatCode(() -> new StepLogCapture(0, true, true)).isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void outputOutsideOfStepIsNotCaptured() {
+        final StepLogCapture capture = new StepLogCapture(64, false, false);
+        write(capture, "before");
+
+        final long position = capture.stepStarted();
+        assertThat(capture.stepFinished(position, true)).isNull();
+    }
+
+    @Test
+    void outputOfPassedStepIsNotReturned() {
+        final StepLogCapture capture = new StepLogCapture(64, false, false);
+
+        final long position = capture.stepStarted();
+        write(capture, "output");
+        assertThat(capture.stepFinished(position, false)).isNull();
+    }
+
+    @Test
+    void nestedStepsOutput() {
+        final StepLogCapture capture = new StepLogCapture(64, false, false);
+
+        final long position = capture.stepStarted();
+        write(capture, "1");
+        final long nestedPosition = capture.stepStarted();
+        write(capture, "2");
+        assertThat(capture.stepFinished(nestedPosition, true)).asString(StandardCharsets.UTF_8).isEqualTo("2");
+        write(capture, "3");
+        assertThat(capture.stepFinished(position, true)).asString(StandardCharsets.UTF_8).isEqualTo("123");
+    }
+
+    @Test
+    void oldestOutputIsOverwritten() {
+        final StepLogCapture capture = new StepLogCapture(8, false, false);
+
+        final long position = capture.stepStarted();
+        write(capture, "012345");
+        write(capture, "6789ab");
+        write(capture, "c");
+        assertThat(capture.stepFinished(position, true)).asString(StandardCharsets.UTF_8).isEqualTo("...\n56789abc");
+    }
+
+    @Test
+    void outputLongerThanBufferIsTruncated() {
+        final StepLogCapture capture = new StepLogCapture(4, false, false);
+
+        final long position = capture.stepStarted();
+        write(capture, "0123456789");
+        assertThat(capture.stepFinished(position, true)).asString(StandardCharsets.UTF_8).isEqualTo("...\n6789");
+    }
+
+    @Test
+    void installedCaptureCollectsStdoutAndLogging() {
+        final StepLogCapture capture = new StepLogCapture(4096, true, true);
+        final PrintStream originalOut = System.out;
+        capture.install();
+        try {
+            final long position = capture.stepStarted();
+            System.out.println("stdout line");
+            Logger.getLogger(StepLogCaptureTest.class.getName()).warning("logging line");
+            final String log = new String(capture.stepFinished(position, true), StandardCharsets.UTF_8);
+
+            assertThat(log).contains("stdout line").contains("logging line");
+        } finally {
+            capture.uninstall();
+        }
+        assertThat(System.out).isSameAs(originalOut);
+    }
+
+    private static void write(final StepLogCapture capture,
+                              final String str) {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        capture.write(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.handle;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link StepHandles}.
+ */
+final class StepHandlesTest {
+
+    @AfterEach
+    void afterEach() {
+        StepHandles.clearRequest();
+    }
+
+    @Test
+    void isRequestedMethod() {
+        assertThat(StepHandles.isRequested()).isFalse();
+        StepHandles.request();
+        assertThat(StepHandles.isRequested()).isTrue();
+        StepHandles.clearRequest();
+        assertThat(StepHandles.isRequested()).isFalse();
+    }
+
+    @Test
+    void bindMethodWithoutRequest() {
+        assertThatCode(() -> StepHandles.bind(mock(StepHandle.class))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void requestedHandleDelegatesToBoundHandles() {
+        final StepHandle handle = StepHandles.request();
+        final StepHandle toolHandle1 = mock(StepHandle.class);
+        final StepHandle toolHandle2 = mock(StepHandle.class);
+        final Object toolStep = new Object();
+        when(toolHandle2.toolStep(Object.class)).thenReturn(toolStep);
+        StepHandles.bind(toolHandle1);
+        StepHandles.bind(toolHandle2);
+
+        assertThat(handle.name("name").description("description").param("param", 1)).isSameAs(handle);
+        verify(toolHandle1).name("name");
+        verify(toolHandle1).description("description");
+        verify(toolHandle1).param("param", 1);
+        verify(toolHandle2).name("name");
+        verify(toolHandle2).description("description");
+        verify(toolHandle2).param("param", 1);
+        assertThat(handle.toolStep(Object.class)).isSameAs(toolStep);
+        assertThat(handle.toolStep(String.class)).isNull();
+    }
+
+    @Test
+    void requestedHandleWithoutBoundHandles() {
+        final StepHandle handle = StepHandles.request();
+
+        assertThatCode(() -> handle.name("name").description("description").param("param", 1))
+            .doesNotThrowAnyException();
+        assertThat(handle.toolStep(Object.class)).isNull();
+    }
+}
@@ -23,7 +23,10 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.plugatar.xteps.base.HookPriority.MAX_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.MIN_HOOK_PRIORITY;
@@ -134,4 +137,73 @@ final class DefaultHooksContainerTest {
             .hasSuppressedException(exception1)
             .hasSuppressedException(exception2);
     }
+
+    @Test
+    void callHooksMethodCallsEachHookOnce() {
+        final HooksContainer container = new DefaultHooksContainer(HooksOrder.FROM_LAST);
+        final List<String> executionLog = new ArrayList<>();
+        container.addHook(NORM_HOOK_PRIORITY, () -> executionLog.add("hook1"));
+        container.addHook(NORM_HOOK_PRIORITY, () -> executionLog.add("hook2"));
+
+        container.callHooks(new RuntimeException());
+        container.callHooks(new RuntimeException());
+        container.addHook(NORM_HOOK_PRIORITY, () -> executionLog.add("hook3"));
+        container.callHooks();
+        container.callHooks();
+        assertThat(executionLog).isEqualTo(Arrays.asList("hook2", "hook1", "hook3"));
+    }
+
+    @Test
+    void concurrentCallHooksMethodCallsEachHookOnce() throws Exception {
+        final HooksContainer container = new DefaultHooksContainer(HooksOrder.FROM_LAST);
+        final AtomicInteger callsCount = new AtomicInteger();
+        final int hooksCount = 10_000;
+        for (int idx = 0; idx < hooksCount; ++idx) {
+            container.addHook(NORM_HOOK_PRIORITY, callsCount::incrementAndGet);
+        }
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int idx = 0; idx < 4; ++idx) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+                container.callHooks();
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(callsCount).hasValue(hooksCount);
+    }
+
+    @Test
+    void concurrentCallHooksMethodTakesWholeHooksList() throws Exception {
+        final HooksContainer container = new DefaultHooksContainer(HooksOrder.FROM_FIRST);
+        final List<String> executionLog = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch firstHookStarted = new CountDownLatch(1);
+        final CountDownLatch firstHookAllowed = new CountDownLatch(1);
+        container.addHook(NORM_HOOK_PRIORITY, () -> executionLog.add("norm"));
+        container.addHook(MAX_HOOK_PRIORITY, () -> {
+            firstHookStarted.countDown();
+            firstHookAllowed.await();
+            executionLog.add("max");
+        });
+        container.addHook(MIN_HOOK_PRIORITY, () -> executionLog.add("min"));
+        final Thread thread = new Thread(container::callHooks);
+        thread.start();
+
+        firstHookStarted.await();
+        container.callHooks();
+        assertThat(executionLog).isEmpty();
+        firstHookAllowed.countDown();
+        thread.join();
+        assertThat(executionLog).containsExactly("max", "norm", "min");
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.listener;
+
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link ChromeTraceStepListener}.
+ */
+final class ChromeTraceStepListenerTest {
+    private static final Pattern STEP_EVENT = Pattern.compile(
+        "\\{\"name\":\"([^\"]*)\",\"ph\":\"([BE])\",\"pid\":(\\d+),\"tid\":(\\d+),\"ts\":(\\d+\\.\\d{3})"
+    );
+
+    @Test
+    void traceEventsWrittenToFile(@TempDir final Path dir) throws Exception {
+        final Path file = dir.resolve("trace-{pid}.json");
+        final ChromeTraceStepListener listener = new ChromeTraceStepListener(file.toString());
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+        final FakeHooksContainer hooksContainer = new FakeHooksContainer();
+        final FakeExceptionHandler exceptionHandler = new FakeExceptionHandler();
+        final RuntimeException exception = new RuntimeException("step \"failed\"");
+
+        reporter.report(hooksContainer, exceptionHandler, "root {0}", "", new Object[]{"param"}, () -> {
+            final Thread thread = new Thread(() -> reporter.report(hooksContainer, exceptionHandler,
+                "thread step", "", new Object[]{}, () -> { }), "trace thread");
+            thread.start();
+            thread.join();
+            assertThatCode(() -> reporter.report(hooksContainer, exceptionHandler, "nested step", "",
+                new Object[]{}, () -> { throw exception; })).isSameAs(exception);
+        });
+        listener.flush();
+
+        final String pid = ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+        final String json = new String(Files.readAllBytes(
+            dir.resolve("trace-" + pid + ".json")), StandardCharsets.UTF_8);
+        assertThat(json).startsWith("[\n{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + pid);
+        assertThat(json).contains("\"args\":{\"name\":\"trace thread\"}");
+        assertThat(json).contains("\"args\":{\"0\":\"param\"}");
+        assertThat(json).contains("\"args\":{\"exception\":\"java.lang.RuntimeException: step \\\"failed\\\"\"}");
+        final List<String[]> events = new ArrayList<>();
+        final Matcher matcher = STEP_EVENT.matcher(json);
+        while (matcher.find()) {
+            assertThat(matcher.group(3)).isEqualTo(pid);
+            events.add(new String[]{matcher.group(1), matcher.group(2), matcher.group(4), matcher.group(5)});
+        }
+        assertThat(events).extracting(event -> event[0] + " " + event[1]).containsExactly(
+            "root param B", "thread step B", "thread step E", "nested step B", "nested step E", "root param E"
+        );
+        final String mainThreadId = String.valueOf(Thread.currentThread().getId());
+        assertThat(events.get(0)[2]).isEqualTo(mainThreadId);
+        assertThat(events.get(1)[2]).isNotEqualTo(mainThreadId);
+        assertThat(events.get(5)[2]).isEqualTo(mainThreadId);
+        for (int idx = 1; idx < events.size(); ++idx) {
+            assertThat(Double.parseDouble(events.get(idx)[3]))
+                .isGreaterThanOrEqualTo(Double.parseDouble(events.get(idx - 1)[3]));
+        }
+    }
+
+    @Test
+    void paramsRenderedAtStepStart(@TempDir final Path dir) throws Exception {
+        final Path file = dir.resolve("trace.json");
+        final ChromeTraceStepListener listener = new ChromeTraceStepListener(file.toString());
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+        final StringBuilder param = new StringBuilder("before");
+
+        reporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), "step {0}", "", new Object[]{param},
+            () -> param.append(" after"));
+        listener.flush();
+
+        final String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertThat(json).contains("{\"name\":\"step before\",\"ph\":\"B\"");
+        assertThat(json).contains("{\"name\":\"step before\",\"ph\":\"E\"");
+        assertThat(json).contains("\"args\":{\"0\":\"before\"}");
+        assertThat(json).doesNotContain("after");
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.listener;
+
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link FoldedStacksStepListener}.
+ */
+final class FoldedStacksStepListenerTest {
+
+    @Test
+    void writeToMethod() throws Exception {
+        final FoldedStacksStepListener listener = new FoldedStacksStepListener(null);
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+        final FakeHooksContainer hooksContainer = new FakeHooksContainer();
+        final FakeExceptionHandler exceptionHandler = new FakeExceptionHandler();
+
+        for (int idx = 0; idx < 2; ++idx) {
+            reporter.report(hooksContainer, exceptionHandler, "root", "", new Object[]{}, () -> {
+                Thread.sleep(2L);
+                reporter.report(hooksContainer, exceptionHandler, "Login {0}", "", new Object[]{"user"}, () -> {
+                    reporter.report(hooksContainer, exceptionHandler, "Type; password", "", new Object[]{},
+                        () -> Thread.sleep(2L));
+                });
+            });
+        }
+        final StringWriter writer = new StringWriter();
+        listener.writeTo(writer);
+
+        final List<String> lines = Arrays.asList(writer.toString().split("\n"));
+        assertThat(lines).allMatch(line -> line.matches(".+ \\d+"));
+        final List<String> paths = lines.stream()
+            .map(line -> line.substring(0, line.lastIndexOf(' ')))
+            .collect(Collectors.toList());
+        assertThat(paths).contains("root", "root;Login {0};Type, password");
+        final long rootMicros = micros(lines, "root");
+        final long typePasswordMicros = micros(lines, "root;Login {0};Type, password");
+        assertThat(rootMicros).isGreaterThanOrEqualTo(4000L);
+        assertThat(typePasswordMicros).isGreaterThanOrEqualTo(4000L);
+    }
+
+    @Test
+    void deeperPathsOverLimitAreAggregatedIntoParent() throws Exception {
+        final FoldedStacksStepListener listener = new FoldedStacksStepListener(null, 1);
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+        final FakeHooksContainer hooksContainer = new FakeHooksContainer();
+        final FakeExceptionHandler exceptionHandler = new FakeExceptionHandler();
+
+        for (int idx = 0; idx < 2; ++idx) {
+            final int stepIdx = idx;
+            reporter.report(hooksContainer, exceptionHandler, "root", "", new Object[]{}, () ->
+                reporter.report(hooksContainer, exceptionHandler, "Nested step " + stepIdx, "", new Object[]{},
+                    () -> Thread.sleep(2L)));
+        }
+        final StringWriter writer = new StringWriter();
+        listener.writeTo(writer);
+
+        final List<String> lines = Arrays.asList(writer.toString().split("\n"));
+        assertThat(lines).hasSize(1);
+        assertThat(micros(lines, "root")).isGreaterThanOrEqualTo(4000L);
+    }
+
+    @Test
+    void ctorThrowsExceptionForInvalidMaxPaths() {
+        assertThatCode(() -> new FoldedStacksStepListener(null, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long micros(final List<String> lines,
+                               final String path) {
+        return lines.stream()
+            .filter(line -> line.startsWith(path + " "))
+            .mapToLong(line -> Long.parseLong(line.substring(path.length() + 1)))
+            .findFirst()
+            .orElse(0L);
+    }
+}
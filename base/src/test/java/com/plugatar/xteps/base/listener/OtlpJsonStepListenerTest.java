@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.listener;
+
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link OtlpJsonStepListener}.
+ */
+final class OtlpJsonStepListenerTest {
+    private static final Pattern SPAN = Pattern.compile(
+        "\\{\"traceId\":\"(\\w{32})\",\"spanId\":\"(\\w{16})\"(?:,\"parentSpanId\":\"(\\w{16})\")?,\"name\":\"([^\"]*)\""
+    );
+
+    @Test
+    void spansExportedToFile(@TempDir final Path dir) throws Exception {
+        final Path file = dir.resolve("spans.json");
+        final OtlpJsonStepListener listener = new OtlpJsonStepListener("service", file.toString(), null,
+            "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01", 100, 60_000L, 100);
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+        final FakeHooksContainer hooksContainer = new FakeHooksContainer();
+        final FakeExceptionHandler exceptionHandler = new FakeExceptionHandler();
+        final RuntimeException exception = new RuntimeException("step \"failed\"");
+
+        reporter.report(hooksContainer, exceptionHandler, "root {0}", "description", new Object[]{"param"}, () -> {
+            final Thread thread = new Thread(() -> reporter.report(hooksContainer, exceptionHandler,
+                "thread step", "", new Object[]{}, () -> { }));
+            thread.start();
+            thread.join();
+            assertThatCode(() -> reporter.report(hooksContainer, exceptionHandler, "nested step", "",
+                new Object[]{}, () -> { throw exception; })).isSameAs(exception);
+        });
+        listener.flush();
+
+        final String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertThat(json).startsWith("{\"resourceSpans\":[{\"resource\":{\"attributes\":[{\"key\":\"service.name\"");
+        assertThat(json).contains("{\"key\":\"xteps.step.param.0\",\"value\":{\"stringValue\":\"param\"}}");
+        assertThat(json).contains("\"status\":{\"code\":2,\"message\":\"step \\\"failed\\\"\"}");
+        final List<String[]> spans = new ArrayList<>();
+        final Matcher matcher = SPAN.matcher(json);
+        while (matcher.find()) {
+            spans.add(new String[]{matcher.group(1), matcher.group(2), matcher.group(3), matcher.group(4)});
+        }
+        assertThat(spans).hasSize(3);
+        final String[] thread = spans.get(0);
+        final String[] nested = spans.get(1);
+        final String[] root = spans.get(2);
+        assertThat(root[3]).isEqualTo("root param");
+        assertThat(root[0]).isEqualTo("0af7651916cd43dd8448eb211c80319c");
+        assertThat(root[2]).isEqualTo("b7ad6b7169203331");
+        assertThat(thread[3]).isEqualTo("thread step");
+        assertThat(thread[0]).isEqualTo(root[0]);
+        assertThat(thread[2]).isEqualTo("b7ad6b7169203331");
+        assertThat(nested[3]).isEqualTo("nested step");
+        assertThat(nested[0]).isEqualTo(root[0]);
+        assertThat(nested[2]).isEqualTo(root[1]);
+        assertThat(listener.droppedSpansCount()).isZero();
+    }
+
+    @Test
+    void spanContextPropagatedToExecutorThread(@TempDir final Path dir) throws Exception {
+        final Path file = dir.resolve("spans.json");
+        final OtlpJsonStepListener listener = new OtlpJsonStepListener("service", file.toString(), null,
+            null, 100, 60_000L, 100);
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+        final FakeHooksContainer hooksContainer = new FakeHooksContainer();
+        final FakeExceptionHandler exceptionHandler = new FakeExceptionHandler();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            reporter.report(hooksContainer, exceptionHandler, "root {0}", "", new Object[]{new StringBuilder("a")},
+                () -> executor.submit(OtlpJsonStepListener.currentContext().wrap(() ->
+                    reporter.report(hooksContainer, exceptionHandler, "executor step", "", new Object[]{},
+                        () -> { }))
+                ).get());
+            executor.submit(() -> reporter.report(hooksContainer, exceptionHandler, "unrelated step", "",
+                new Object[]{}, () -> { })).get();
+        } finally {
+            executor.shutdown();
+        }
+        listener.flush();
+
+        final String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        final List<String[]> spans = new ArrayList<>();
+        final Matcher matcher = SPAN.matcher(json);
+        while (matcher.find()) {
+            spans.add(new String[]{matcher.group(1), matcher.group(2), matcher.group(3), matcher.group(4)});
+        }
+        assertThat(spans).hasSize(3);
+        final String[] executorStep = spans.get(0);
+        final String[] root = spans.get(1);
+        final String[] unrelated = spans.get(2);
+        assertThat(root[3]).isEqualTo("root a");
+        assertThat(root[2]).isNull();
+        assertThat(executorStep[3]).isEqualTo("executor step");
+        assertThat(executorStep[0]).isEqualTo(root[0]);
+        assertThat(executorStep[2]).isEqualTo(root[1]);
+        assertThat(unrelated[3]).isEqualTo("unrelated step");
+        assertThat(unrelated[0]).isNotEqualTo(root[0]);
+        assertThat(unrelated[2]).isNull();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.listener;
+
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link ResourceAccountingStepListener}.
+ */
+final class ResourceAccountingStepListenerTest {
+
+    @Test
+    void writeToMethod() throws Exception {
+        final ResourceAccountingStepListener listener = new ResourceAccountingStepListener(null, false);
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+        final FakeHooksContainer hooksContainer = new FakeHooksContainer();
+        final FakeExceptionHandler exceptionHandler = new FakeExceptionHandler();
+        final List<byte[]> garbage = new ArrayList<>();
+
+        for (int idx = 0; idx < 2; ++idx) {
+            reporter.report(hooksContainer, exceptionHandler, "root", "", new Object[]{}, () -> {
+                reporter.report(hooksContainer, exceptionHandler, "Allocate\t1 MB", "", new Object[]{},
+                    () -> garbage.add(new byte[1024 * 1024]));
+                reporter.report(hooksContainer, exceptionHandler, "Nothing", "", new Object[]{}, () -> { });
+            });
+        }
+        final StringWriter writer = new StringWriter();
+        listener.writeTo(writer);
+
+        final List<String> lines = Arrays.asList(writer.toString().split("\n"));
+        assertThat(lines.get(0)).isEqualTo("path\tcount\tcpuMicros\tallocatedBytes");
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(1)).startsWith("root\t2\t");
+        assertThat(lines.get(2)).startsWith("root;Allocate 1 MB\t2\t");
+        assertThat(lines.get(3)).startsWith("root;Nothing\t2\t");
+        final long rootBytes = allocatedBytes(lines.get(1));
+        final long allocateBytes = allocatedBytes(lines.get(2));
+        if (allocateBytes != -1L && allocateBytes != 0L) {
+            assertThat(allocateBytes).isGreaterThanOrEqualTo(2L * 1024 * 1024);
+            assertThat(rootBytes).isGreaterThanOrEqualTo(allocateBytes);
+        }
+    }
+
+    @Test
+    void extraParamsAddedBeforeAnyListenerStepFinishedMethod() {
+        final List<Map<String, String>> params = new ArrayList<>();
+        final StepEventListener paramsListener = new StepEventListener() {
+            @Override
+            public void stepStarted(final StepEvent event) {
+            }
+
+            @Override
+            public void stepFinished(final StepEvent event) {
+                params.add(event.extraParams());
+            }
+        };
+        final ResourceAccountingStepListener listener = new ResourceAccountingStepListener(null, true);
+        final ResourceAccountingStepListener listenerWithoutParams = new ResourceAccountingStepListener(null, false);
+        final StepReporter reporter = new DefaultStepReporter(
+            new StepEventListener[]{paramsListener, listener, listenerWithoutParams});
+
+        reporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), "step", "", new Object[]{}, () -> { });
+
+        assertThat(params).hasSize(1);
+        assertThat(params.get(0)).isNotEmpty();
+        assertThat(params.get(0).keySet()).isSubsetOf("CPU time", "Allocated");
+    }
+
+    @Test
+    void extraParamsNotAddedIfDisabled() {
+        final List<Map<String, String>> params = new ArrayList<>();
+        final StepEventListener paramsListener = new StepEventListener() {
+            @Override
+            public void stepStarted(final StepEvent event) {
+            }
+
+            @Override
+            public void stepFinished(final StepEvent event) {
+                params.add(event.extraParams());
+            }
+        };
+        final ResourceAccountingStepListener listener = new ResourceAccountingStepListener(null, false);
+        new ResourceAccountingStepListener(null, true);
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{paramsListener, listener});
+
+        reporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), "step", "", new Object[]{}, () -> { });
+
+        assertThat(params).hasSize(1);
+        assertThat(params.get(0)).isEmpty();
+    }
+
+    @Test
+    void stepsOfPathsOverLimitAreNotAggregated() throws Exception {
+        final ResourceAccountingStepListener listener = new ResourceAccountingStepListener(null, false, 1);
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener});
+        final FakeHooksContainer hooksContainer = new FakeHooksContainer();
+        final FakeExceptionHandler exceptionHandler = new FakeExceptionHandler();
+
+        for (int idx = 0; idx < 2; ++idx) {
+            final int stepIdx = idx;
+            reporter.report(hooksContainer, exceptionHandler, "root", "", new Object[]{}, () ->
+                reporter.report(hooksContainer, exceptionHandler, "Nested step " + stepIdx, "", new Object[]{},
+                    () -> { }));
+        }
+        final StringWriter writer = new StringWriter();
+        listener.writeTo(writer);
+
+        final List<String> lines = Arrays.asList(writer.toString().split("\n"));
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(1)).startsWith("root\t2\t");
+    }
+
+    @Test
+    void ctorThrowsExceptionForInvalidMaxPaths() {
+        assertThatCode(() -> new ResourceAccountingStepListener(null, false, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long allocatedBytes(final String line) {
+        return Long.parseLong(line.substring(line.lastIndexOf('\t') + 1));
+    }
+}
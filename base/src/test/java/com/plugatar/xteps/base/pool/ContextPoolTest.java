@@ -0,0 +1,172 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.pool;
+
+import com.plugatar.xteps.base.ThrowingConsumer;
+import com.plugatar.xteps.base.XtepsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ContextPool}.
+ */
+final class ContextPoolTest {
+
+    @Test
+    void ctorThrowsExceptionForIncorrectArgs() {
+        assertThatCode(() -> new ContextPool<>(null, ctx -> true, ctx -> { }, 1, Duration.ZERO))
+            .isInstanceOf(XtepsException.class);
+        assertThatCode(() -> new ContextPool<>(Object::new, ctx -> true, ctx -> { }, 0, Duration.ZERO))
+            .isInstanceOf(XtepsException.class);
+        assertThatCode(() -> new ContextPool<>(Object::new, ctx -> true, ctx -> { }, 1, Duration.ofMillis(-1L)))
+            .isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void returnedContextReused() throws Throwable {
+        @SuppressWarnings("unchecked")
+        final ThrowingConsumer<Object, RuntimeException> destroyer = mock(ThrowingConsumer.class);
+        final ContextPool<Object> pool = new ContextPool<>(Object::new, ctx -> true, destroyer, 2, Duration.ZERO);
+
+        final Object context1 = pool.borrow();
+        final Object context2 = pool.borrow();
+        assertThat(context2).isNotSameAs(context1);
+        assertThat(pool.utilization()).isEqualTo(1.0);
+        pool.giveBack(context1);
+        assertThat(pool.borrow()).isSameAs(context1);
+        assertThat(pool.createdCount()).isEqualTo(2L);
+        assertThat(pool.borrowCount()).isEqualTo(3L);
+        verify(destroyer, never()).accept(any());
+    }
+
+    @Test
+    void invalidContextDestroyed() throws Throwable {
+        @SuppressWarnings("unchecked")
+        final ThrowingConsumer<Object, RuntimeException> destroyer = mock(ThrowingConsumer.class);
+        final AtomicInteger validations = new AtomicInteger();
+        final ContextPool<Object> pool = new ContextPool<>(Object::new, ctx -> validations.incrementAndGet() > 1,
+            destroyer, 1, Duration.ZERO);
+        final Object context = pool.borrow();
+        pool.giveBack(context);
+
+        assertThat(pool.borrow()).isNotSameAs(context);
+        verify(destroyer, times(1)).accept(context);
+        assertThat(pool.destroyedCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void idleContextEvicted() throws Throwable {
+        @SuppressWarnings("unchecked")
+        final ThrowingConsumer<Object, RuntimeException> destroyer = mock(ThrowingConsumer.class);
+        final ContextPool<Object> pool = new ContextPool<>(Object::new, ctx -> true, destroyer, 1, Duration.ofMillis(1L));
+        final Object context = pool.borrow();
+        pool.giveBack(context);
+        Thread.sleep(10L);
+
+        pool.evictIdle();
+        verify(destroyer, times(1)).accept(context);
+        assertThat(pool.idleCount()).isZero();
+    }
+
+    @Test
+    void borrowWaitsForReturnedContext() throws Exception {
+        final ContextPool<Object> pool = new ContextPool<>(Object::new, ctx -> true, ctx -> { }, 1, Duration.ZERO);
+        final Object context = pool.borrow();
+        final CompletableFuture<Object> borrowed = CompletableFuture.supplyAsync(pool::borrow);
+        Thread.sleep(50L);
+        assertThat(borrowed).isNotDone();
+
+        pool.giveBack(context);
+        assertThat(borrowed.get(10, TimeUnit.SECONDS)).isSameAs(context);
+        assertThat(pool.maxWaitTime()).isGreaterThan(Duration.ZERO);
+    }
+
+    @Test
+    void closedPoolDestroysContexts() throws Throwable {
+        @SuppressWarnings("unchecked")
+        final ThrowingConsumer<Object, RuntimeException> destroyer = mock(ThrowingConsumer.class);
+        final ContextPool<Object> pool = new ContextPool<>(Object::new, ctx -> true, destroyer, 2, Duration.ZERO);
+        final Object context1 = pool.borrow();
+        final Object context2 = pool.borrow();
+        pool.giveBack(context1);
+
+        pool.close();
+        verify(destroyer, times(1)).accept(context1);
+        pool.giveBack(context2);
+        verify(destroyer, times(1)).accept(context2);
+        assertThatCode(pool::borrow).isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void giveBackAndInvalidateThrowExceptionForNotBorrowedContext() {
+        final ContextPool<Object> pool = new ContextPool<>(Object::new, ctx -> true, ctx -> { }, 2, Duration.ZERO);
+        final Object context = pool.borrow();
+
+        assertThatCode(() -> pool.giveBack(new Object())).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> pool.invalidate(new Object())).isInstanceOf(XtepsException.class);
+        pool.giveBack(context);
+        assertThatCode(() -> pool.giveBack(context)).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> pool.invalidate(context)).isInstanceOf(XtepsException.class);
+        assertThat(pool.activeCount()).isZero();
+        assertThat(pool.idleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void destroyerExceptionThrown() {
+        final RuntimeException exception = new RuntimeException();
+        final ContextPool<Object> pool = new ContextPool<>(Object::new, ctx -> true, ctx -> { throw exception; },
+            2, Duration.ZERO);
+        final Object context1 = pool.borrow();
+        final Object context2 = pool.borrow();
+        pool.giveBack(context2);
+
+        assertThatCode(() -> pool.invalidate(context1))
+            .isInstanceOf(XtepsException.class)
+            .hasCause(exception);
+        assertThat(pool.activeCount()).isZero();
+        assertThatCode(pool::close)
+            .isInstanceOf(XtepsException.class)
+            .hasCause(exception);
+        assertThat(pool.destroyedCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void destroyerExceptionDoesNotFailBorrowing() {
+        final RuntimeException exception = new RuntimeException();
+        final AtomicInteger validations = new AtomicInteger();
+        final ContextPool<Object> pool = new ContextPool<>(Object::new, ctx -> validations.incrementAndGet() > 1,
+            ctx -> { throw exception; }, 1, Duration.ZERO);
+        final Object context1 = pool.borrow();
+        pool.giveBack(context1);
+
+        final Object context2 = pool.borrow();
+        assertThat(context2).isNotSameAs(context1);
+        assertThat(pool.destroyedCount()).isEqualTo(1L);
+        assertThat(pool.activeCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.reporter;
+
+import com.plugatar.xteps.base.ExceptionHandler;
+import com.plugatar.xteps.base.HooksContainer;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.ThrowingRunnable;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link CurrentStepHooksContainer}.
+ */
+final class CurrentStepHooksContainerTest {
+
+    @Test
+    void callHooksMethodThrowsExceptionForNullArg() {
+        assertThatCode(() -> new CurrentStepHooksContainer().callHooks(null))
+            .isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void hookAddedToNearestNotFakeStepHooksContainer() {
+        final StepReporter reporter = new FakeStepReporter();
+        final HooksContainer enclosingContainer = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final HooksContainer container = new CurrentStepHooksContainer();
+        final ThrowingRunnable<?> hook = () -> { };
+
+        reporter.report(enclosingContainer, handler, "step", "", new Object[]{}, () ->
+            reporter.report(new FakeHooksContainer(), handler, "nested step", "", new Object[]{}, () ->
+                container.addHook(1, hook)));
+
+        verify(enclosingContainer).addHook(eq(1), same(hook));
+    }
+}
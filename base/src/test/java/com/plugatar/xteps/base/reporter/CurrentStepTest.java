@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.reporter;
+
+import com.plugatar.xteps.base.XtepsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link CurrentStep}.
+ */
+final class CurrentStepTest {
+
+    @Test
+    void pathMethodThrowsExceptionForNullArg() {
+        assertThatCode(() -> CurrentStep.path(null)).isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void currentThreadStack() {
+        assertThat(CurrentStep.name()).isNull();
+        assertThat(CurrentStep.depth()).isZero();
+        assertThat(CurrentStep.path()).isEmpty();
+
+        for (int idx = 0; idx < 20; ++idx) {
+            CurrentStep.push("step " + idx, null);
+        }
+        assertThat(CurrentStep.name()).isEqualTo("step 19");
+        assertThat(CurrentStep.depth()).isEqualTo(20);
+        assertThat(CurrentStep.path()).hasSize(20).startsWith("step 0", "step 1").endsWith("step 19");
+        for (int idx = 0; idx < 19; ++idx) {
+            CurrentStep.pop();
+        }
+        assertThat(CurrentStep.path()).containsExactly("step 0");
+        CurrentStep.pop();
+        CurrentStep.pop();
+
+        assertThat(CurrentStep.name()).isNull();
+        assertThat(CurrentStep.depth()).isZero();
+    }
+
+    @Test
+    void otherThreadStack() throws InterruptedException {
+        final CountDownLatch pushed = new CountDownLatch(1);
+        final CountDownLatch checked = new CountDownLatch(1);
+        final Thread thread = new Thread(() -> {
+            CurrentStep.push("step", null);
+            CurrentStep.push("nested step", null);
+            pushed.countDown();
+            try {
+                checked.await();
+            } catch (final InterruptedException ignored) {
+            } finally {
+                CurrentStep.pop();
+                CurrentStep.pop();
+            }
+        });
+        thread.start();
+        try {
+            pushed.await();
+
+            assertThat(CurrentStep.path(thread)).containsExactly("step", "nested step");
+            assertThat(CurrentStep.paths()).containsKey(thread);
+            assertThat(CurrentStep.paths().get(thread)).containsExactly("step", "nested step");
+            assertThat(CurrentStep.path(new Thread(() -> { }))).isEmpty();
+        } finally {
+            checked.countDown();
+            thread.join();
+        }
+        assertThat(CurrentStep.path(thread)).isEmpty();
+        assertThat(CurrentStep.paths()).doesNotContainKey(thread);
+    }
+}
@@ -17,17 +17,44 @@ package com.plugatar.xteps.base.reporter;
 
 import com.plugatar.xteps.base.ExceptionHandler;
 import com.plugatar.xteps.base.HooksContainer;
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
 import com.plugatar.xteps.base.StepListener;
+import com.plugatar.xteps.base.StepOutcome;
 import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.ThrowingBiConsumer;
+import com.plugatar.xteps.base.ThrowingConsumer;
+import com.plugatar.xteps.base.ThrowingFunction;
+import com.plugatar.xteps.base.ThrowingRunnable;
+import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.ThrowingTriFunction;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+import com.plugatar.xteps.base.capture.StepLogCapture;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests for {@link DefaultStepReporter}.
@@ -95,4 +122,462 @@ final class DefaultStepReporterTest {
         verify(stepListener2).stepStarted(any(), eq("step name"), eq("step description"), same(contexts));
         verify(stepListener2).stepFailed(any(), same(expectedException));
     }
+
+    @Test
+    void reportRunnableStep() {
+        final StepListener stepListener = mock(StepListener.class);
+        final StepReporter reporter = new DefaultStepReporter(new StepListener[]{stepListener});
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final Object[] contexts = new Object[]{};
+        @SuppressWarnings("unchecked")
+        final ThrowingRunnable<RuntimeException> action = mock(ThrowingRunnable.class);
+
+        reporter.report(container, handler, "step name", "step description", contexts, action);
+        verify(action).run();
+        verify(stepListener).stepStarted(any(), eq("step name"), eq("step description"), same(contexts));
+        verify(stepListener).stepPassed(any());
+    }
+
+    @Test
+    void reportBiConsumerStep() {
+        final StepListener stepListener = mock(StepListener.class);
+        final StepReporter reporter = new DefaultStepReporter(new StepListener[]{stepListener});
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final Object arg1 = new Object();
+        final Object arg2 = new Object();
+        @SuppressWarnings("unchecked")
+        final ThrowingBiConsumer<Object, Object, RuntimeException> action = mock(ThrowingBiConsumer.class);
+
+        reporter.report(container, handler, "step name", "step description", action, arg1, arg2);
+        verify(action).accept(same(arg1), same(arg2));
+        verify(stepListener).stepStarted(any(), eq("step name"), eq("step description"), eq(new Object[]{arg1, arg2}));
+        verify(stepListener).stepPassed(any());
+    }
+
+    @Test
+    void reportFunctionStepWithException() {
+        final StepListener stepListener = mock(StepListener.class);
+        final StepReporter reporter = new DefaultStepReporter(new StepListener[]{stepListener});
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final Object arg = new Object();
+        final RuntimeException expectedException = new RuntimeException();
+        final ThrowingFunction<Object, Object, RuntimeException> action = a -> {
+            throw expectedException;
+        };
+
+        assertThatCode(() -> reporter.report(container, handler, "step name", "step description", action, arg))
+            .isSameAs(expectedException);
+        verify(stepListener).stepStarted(any(), eq("step name"), eq("step description"), eq(new Object[]{arg}));
+        verify(stepListener).stepFailed(any(), same(expectedException));
+        verify(container).callHooks(same(expectedException));
+        verify(handler).handle(same(expectedException));
+    }
+
+    @Test
+    void defaultMethodsDelegateToSupplierMethod() {
+        final StepListener stepListener = mock(StepListener.class);
+        final StepReporter defaultReporter = new DefaultStepReporter(new StepListener[]{stepListener});
+        final StepReporter reporter = new StepReporter() {
+            @Override
+            public <R, E extends Throwable> R report(final HooksContainer hooksContainer,
+                                                     final ExceptionHandler exceptionHandler,
+                                                     final String name,
+                                                     final String description,
+                                                     final Object[] params,
+                                                     final ThrowingSupplier<? extends R, ? extends E> action) throws E {
+                return defaultReporter.report(hooksContainer, exceptionHandler, name, description, params, action);
+            }
+        };
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final Object arg1 = new Object();
+        final Object arg2 = new Object();
+        final Object arg3 = new Object();
+        final Object expectedResult = new Object();
+
+        final Object methodResult = reporter.report(container, handler, "step name", "step description",
+            (ThrowingTriFunction<Object, Object, Object, Object, RuntimeException>) (a1, a2, a3) -> expectedResult,
+            arg1, arg2, arg3);
+        assertThat(methodResult).isSameAs(expectedResult);
+        verify(stepListener).stepStarted(any(), eq("step name"), eq("step description"),
+            eq(new Object[]{arg1, arg2, arg3}));
+        verify(stepListener).stepPassed(any());
+    }
+
+    @Test
+    void ctorThrowsExceptionForNullStepEventListenerArray() {
+        assertThatCode(() -> new DefaultStepReporter(new StepListener[]{mock(StepListener.class)}, null))
+            .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void ctorThrowsExceptionForEmptyStepListenerAndStepEventListenerArrays() {
+        assertThatCode(() -> new DefaultStepReporter(new StepListener[]{}, new StepEventListener[]{}))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reportNestedStepsEvents() {
+        final List<StepEvent> startedEvents = new ArrayList<>();
+        final List<StepEvent> finishedEvents = new ArrayList<>();
+        final List<StepOutcome> startedOutcomes = new ArrayList<>();
+        final StepEventListener eventListener = new StepEventListener() {
+            @Override
+            public void stepStarted(final StepEvent event) {
+                startedEvents.add(event);
+                startedOutcomes.add(event.outcome());
+            }
+
+            @Override
+            public void stepFinished(final StepEvent event) {
+                finishedEvents.add(event);
+            }
+        };
+        final StepListener stepListener = mock(StepListener.class);
+        final StepReporter reporter =
+            new DefaultStepReporter(new StepListener[]{stepListener}, new StepEventListener[]{eventListener});
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final Object[] contexts = new Object[]{};
+        final RuntimeException expectedException = new RuntimeException();
+
+        reporter.report(container, handler, "step 1", "", contexts, () -> {
+            assertThatCode(() -> reporter.report(container, handler, "step 2", "", contexts, () -> {
+                throw expectedException;
+            })).isSameAs(expectedException);
+        });
+        reporter.report(container, handler, "step 3", "", contexts, () -> { });
+
+        assertThat(startedEvents).hasSize(3);
+        assertThat(finishedEvents).containsExactly(startedEvents.get(1), startedEvents.get(0), startedEvents.get(2));
+        assertThat(startedOutcomes).containsOnly(StepOutcome.IN_PROGRESS);
+        final StepEvent event1 = startedEvents.get(0);
+        final StepEvent event2 = startedEvents.get(1);
+        final StepEvent event3 = startedEvents.get(2);
+        assertThat(event1.parent()).isNull();
+        assertThat(event1.parentUuid()).isNull();
+        assertThat(event1.depth()).isZero();
+        assertThat(event1.outcome()).isSameAs(StepOutcome.PASSED);
+        assertThat(event2.parent()).isSameAs(event1);
+        assertThat(event2.parentUuid()).isEqualTo(event1.uuid());
+        assertThat(event2.depth()).isEqualTo(1);
+        assertThat(event2.outcome()).isSameAs(StepOutcome.FAILED);
+        assertThat(event2.exception()).isSameAs(expectedException);
+        assertThat(event2.startNanos()).isGreaterThanOrEqualTo(event1.startNanos());
+        assertThat(event2.endNanos()).isLessThanOrEqualTo(event1.endNanos());
+        assertThat(event3.parent()).isNull();
+        assertThat(event3.depth()).isZero();
+        assertThat(event3.threadId()).isEqualTo(Thread.currentThread().getId());
+        assertThat(event3.threadName()).isEqualTo(Thread.currentThread().getName());
+        assertThat(event3.name()).isEqualTo("step 3");
+        assertThat(event3.params()).isSameAs(contexts);
+        assertThat(event3.durationNanos()).isNotNegative();
+        verify(stepListener).stepStarted(eq(event2.uuid()), eq("step 2"), eq(""), same(contexts));
+        verify(stepListener).stepFailed(eq(event2.uuid()), same(expectedException));
+        verify(stepListener).stepPassed(eq(event1.uuid()));
+        verify(stepListener).stepPassed(eq(event3.uuid()));
+    }
+
+    @Test
+    void reportStepEventWithoutUndeclaredCapabilities() {
+        final List<StepEvent> events = new ArrayList<>();
+        final StepEventListener eventListener = new StepEventListener() {
+            @Override
+            public Set<ListenerCapability> capabilities() {
+                return EnumSet.of(ListenerCapability.RENDERED_NAME, ListenerCapability.RENDERED_DESCRIPTION);
+            }
+
+            @Override
+            public void stepStarted(final StepEvent event) {
+                events.add(event);
+            }
+
+            @Override
+            public void stepFinished(final StepEvent event) {
+            }
+        };
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{eventListener});
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+
+        reporter.report(container, handler, "step {0}", "", (ThrowingConsumer<Object, RuntimeException>) arg -> {
+            reporter.report(container, handler, "step {0} {1}", "description {1}",
+                (ThrowingBiConsumer<Object, Object, RuntimeException>) (arg1, arg2) -> { }, "a", null);
+        }, "b");
+
+        assertThat(events).hasSize(2);
+        final StepEvent event1 = events.get(0);
+        final StepEvent event2 = events.get(1);
+        assertThat(event1.renderedName()).isEqualTo("step b");
+        assertThat(event1.renderedDescription()).isEmpty();
+        assertThat(event2.renderedName()).isEqualTo("step a null");
+        assertThat(event2.renderedDescription()).isEqualTo("description null");
+        assertThat(event2.params()).containsExactly("a", null);
+        assertThat(event2.params()).isSameAs(event2.params());
+        assertThat(event2.uuid()).isSameAs(event2.uuid());
+        assertThat(event2.parent()).isNull();
+        assertThat(event2.depth()).isZero();
+        assertThat(event2.threadId()).isEqualTo(-1L);
+        assertThat(event2.threadName()).isEmpty();
+        assertThat(event2.startNanos()).isZero();
+        assertThat(event2.endNanos()).isZero();
+        assertThat(event2.outcome()).isSameAs(StepOutcome.PASSED);
+    }
+
+    @Test
+    void attachThrowsExceptionWithoutCurrentStep() {
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{new AttachmentsListener()});
+
+        assertThatCode(() -> reporter.attach("name", "text/plain", AttachmentSource.ofStream(
+            new ByteArrayInputStream(new byte[0])))).isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void attachWithoutAttachmentsListeners() throws IOException {
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{mock(StepEventListener.class)});
+        final AttachmentSource source = mock(AttachmentSource.class);
+
+        assertThatCode(() -> reporter.attach("name", "text/plain", source)).doesNotThrowAnyException();
+        verify(source).close();
+    }
+
+    @Test
+    void attachSpoolsNotRepeatableSourceForAttachmentsListeners() {
+        final AttachmentsListener listener1 = new AttachmentsListener();
+        final AttachmentsListener listener2 = new AttachmentsListener();
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener1, listener2});
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final ByteArrayInputStream stream = new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8));
+
+        reporter.report(container, handler, "step", "", new Object[]{}, (ThrowingRunnable<RuntimeException>) () ->
+            reporter.attach("name", "text/plain", AttachmentSource.ofStream(stream)));
+
+        assertThat(listener1.attachments).containsExactly("step/name/text/plain/content");
+        assertThat(listener2.attachments).containsExactly("step/name/text/plain/content");
+        assertThat(stream.available()).isZero();
+    }
+
+    @Test
+    void attachDeletesSpoolFileAndKeepsListenerExceptionIfSourceCloseFailed() throws IOException {
+        final List<Path> spoolFiles = new ArrayList<>();
+        final RuntimeException listenerException = new RuntimeException();
+        final StepEventListener listener = new StepEventListener() {
+            @Override
+            public Set<ListenerCapability> capabilities() {
+                return EnumSet.of(ListenerCapability.ATTACHMENTS);
+            }
+
+            @Override
+            public void stepStarted(final StepEvent event) {
+            }
+
+            @Override
+            public void stepFinished(final StepEvent event) {
+            }
+
+            @Override
+            public void stepAttachment(final StepEvent event,
+                                       final String name,
+                                       final String mimeType,
+                                       final AttachmentSource source) {
+                spoolFiles.add(source.file());
+                throw listenerException;
+            }
+        };
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener, listener});
+        final AttachmentSource source = mock(AttachmentSource.class);
+        final IOException closeException = new IOException();
+        doThrow(closeException).when(source).close();
+        final List<Throwable> attachExceptions = new ArrayList<>();
+
+        reporter.report(mock(HooksContainer.class), mock(ExceptionHandler.class), "step", "", new Object[]{},
+            (ThrowingRunnable<RuntimeException>) () -> {
+                try {
+                    reporter.attach("name", "text/plain", source);
+                } catch (final XtepsException ex) {
+                    attachExceptions.add(ex);
+                }
+            });
+
+        assertThat(attachExceptions).hasSize(1);
+        final Throwable attachException = attachExceptions.get(0);
+        assertThat(attachException.getSuppressed()).contains(listenerException, listenerException);
+        assertThat(attachException.getSuppressed()[2]).isInstanceOf(XtepsException.class)
+            .hasCause(closeException);
+        assertThat(spoolFiles).hasSize(2).doesNotContainNull();
+        assertThat(Files.exists(spoolFiles.get(0))).isFalse();
+    }
+
+    @Test
+    void attachClosesSourceIfSpoolingFailed() throws IOException {
+        final StepReporter reporter = new DefaultStepReporter(
+            new StepEventListener[]{new AttachmentsListener(), new AttachmentsListener()});
+        final AttachmentSource source = mock(AttachmentSource.class);
+        final IOException transferException = new IOException();
+        when(source.transferTo(any())).thenThrow(transferException);
+        final List<Throwable> attachExceptions = new ArrayList<>();
+
+        reporter.report(mock(HooksContainer.class), mock(ExceptionHandler.class), "step", "", new Object[]{},
+            (ThrowingRunnable<RuntimeException>) () -> {
+                try {
+                    reporter.attach("name", "text/plain", source);
+                } catch (final XtepsException ex) {
+                    attachExceptions.add(ex);
+                }
+            });
+
+        assertThat(attachExceptions).hasSize(1);
+        assertThat(attachExceptions.get(0)).hasCause(transferException);
+        verify(source).close();
+    }
+
+    @Test
+    void attachCallsStepListenerWithStepUuid() {
+        final List<String> uuids = new ArrayList<>();
+        final StepListener listener = new StepListener() {
+            @Override
+            public void stepStarted(final String uuid,
+                                    final String name,
+                                    final String description,
+                                    final Object[] params) {
+                uuids.add(uuid);
+            }
+
+            @Override
+            public void stepPassed(final String uuid) {
+            }
+
+            @Override
+            public void stepFailed(final String uuid,
+                                   final Throwable exception) {
+            }
+
+            @Override
+            public void stepAttachment(final String uuid,
+                                       final String name,
+                                       final String mimeType,
+                                       final AttachmentSource source) {
+                uuids.add(uuid);
+            }
+        };
+        final StepReporter reporter = new DefaultStepReporter(new StepListener[]{listener});
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+
+        reporter.report(container, handler, "step", "", new Object[]{}, (ThrowingRunnable<RuntimeException>) () ->
+            reporter.attach("name", "text/plain", AttachmentSource.ofStream(new ByteArrayInputStream(new byte[0]))));
+
+        assertThat(uuids).hasSize(2);
+        assertThat(uuids.get(1)).isSameAs(uuids.get(0));
+    }
+
+    @Test
+    void stepFinishingMethodInvokedBeforeAnyStepFinishedMethod() {
+        final List<String> calls = new ArrayList<>();
+        final StepEventListener listener1 = new StepEventListener() {
+            @Override
+            public void stepStarted(final StepEvent event) {
+            }
+
+            @Override
+            public void stepFinished(final StepEvent event) {
+                calls.add("finished 1 " + event.extraParams());
+            }
+        };
+        final StepEventListener listener2 = new StepEventListener() {
+            @Override
+            public void stepStarted(final StepEvent event) {
+            }
+
+            @Override
+            public void stepFinishing(final StepEvent event) {
+                calls.add("finishing 2");
+                event.addExtraParam("param", "value");
+            }
+
+            @Override
+            public void stepFinished(final StepEvent event) {
+                calls.add("finished 2 " + event.extraParams());
+            }
+        };
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{listener1, listener2});
+
+        reporter.report(mock(HooksContainer.class), mock(ExceptionHandler.class), "step", "", new Object[]{},
+            (ThrowingRunnable<RuntimeException>) () -> { });
+
+        assertThat(calls).containsExactly("finishing 2", "finished 1 {param=value}", "finished 2 {param=value}");
+    }
+
+    @Test
+    void reportMethodMaintainsCurrentStep() {
+        final StepReporter reporter = new DefaultStepReporter(new StepEventListener[]{mock(StepEventListener.class)});
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final List<String[]> paths = new ArrayList<>();
+
+        reporter.report(container, handler, "step", "", new Object[]{}, () -> {
+            paths.add(CurrentStep.path());
+            reporter.report(container, handler, "nested step {0}", "", new Object[]{1}, () ->
+                paths.add(CurrentStep.path()));
+        });
+
+        assertThat(paths).containsExactly(new String[]{"step"}, new String[]{"step", "nested step {0}"});
+        assertThat(CurrentStep.depth()).isZero();
+    }
+
+    @Test
+    void logCaptureAttachesOutputOfFailedStepOnly() {
+        final AttachmentsListener listener = new AttachmentsListener();
+        final StepLogCapture logCapture = new StepLogCapture(1024, false, false);
+        final StepReporter reporter = new DefaultStepReporter(new StepListener[0],
+            new StepEventListener[]{listener}, logCapture);
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final RuntimeException exception = new RuntimeException();
+        final byte[] passedLog = "passed\n".getBytes(StandardCharsets.UTF_8);
+        final byte[] failedLog = "failed\n".getBytes(StandardCharsets.UTF_8);
+
+        reporter.report(container, handler, "passed step", "", new Object[]{}, () ->
+            logCapture.write(passedLog, 0, passedLog.length));
+        assertThatCode(() -> reporter.report(container, handler, "failed step", "", new Object[]{}, () -> {
+            logCapture.write(failedLog, 0, failedLog.length);
+            throw exception;
+        })).isSameAs(exception);
+        logCapture.write(failedLog, 0, failedLog.length);
+
+        assertThat(listener.attachments).containsExactly(
+            "failed step/" + DefaultStepReporter.LOG_ATTACHMENT_NAME + "/text/plain/failed\n");
+    }
+
+    private static final class AttachmentsListener implements StepEventListener {
+        private final List<String> attachments = new ArrayList<>();
+
+        @Override
+        public Set<ListenerCapability> capabilities() {
+            return EnumSet.of(ListenerCapability.NAME, ListenerCapability.ATTACHMENTS);
+        }
+
+        @Override
+        public void stepStarted(final StepEvent event) {
+        }
+
+        @Override
+        public void stepFinished(final StepEvent event) {
+        }
+
+        @Override
+        public void stepAttachment(final StepEvent event,
+                                   final String name,
+                                   final String mimeType,
+                                   final AttachmentSource source) throws IOException {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            source.transferTo(Channels.newChannel(content));
+            this.attachments.add(event.name() + "/" + name + "/" + mimeType + "/"
+                + new String(content.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
 }
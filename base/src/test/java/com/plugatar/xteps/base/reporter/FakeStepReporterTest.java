@@ -18,8 +18,13 @@ package com.plugatar.xteps.base.reporter;
 import com.plugatar.xteps.base.ExceptionHandler;
 import com.plugatar.xteps.base.HooksContainer;
 import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.ThrowingBiFunction;
+import com.plugatar.xteps.base.ThrowingConsumer;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.same;
@@ -63,4 +68,55 @@ final class FakeStepReporterTest {
         verify(container).callHooks(same(expectedException));
         verify(handler).handle(same(expectedException));
     }
+
+    @Test
+    void reportConsumerStepWithoutException() {
+        final StepReporter reporter = new FakeStepReporter();
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final Object arg = new Object();
+        @SuppressWarnings("unchecked")
+        final ThrowingConsumer<Object, RuntimeException> action = mock(ThrowingConsumer.class);
+
+        reporter.report(container, handler, "step name", "step description", action, arg);
+        verify(action).accept(same(arg));
+        verifyNoInteractions(container);
+        verifyNoInteractions(handler);
+    }
+
+    @Test
+    void reportBiFunctionStepWithException() {
+        final StepReporter reporter = new FakeStepReporter();
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final RuntimeException expectedException = new RuntimeException();
+        final ThrowingBiFunction<Object, Object, Object, RuntimeException> action = (a1, a2) -> {
+            throw expectedException;
+        };
+
+        assertThatCode(() -> reporter.report(container, handler, "step name", "step description", action,
+            new Object(), new Object()))
+            .isSameAs(expectedException);
+        verify(container).callHooks(same(expectedException));
+        verify(handler).handle(same(expectedException));
+    }
+
+    @Test
+    void reportMethodMaintainsCurrentStep() {
+        final StepReporter reporter = new FakeStepReporter();
+        final HooksContainer container = mock(HooksContainer.class);
+        final ExceptionHandler handler = mock(ExceptionHandler.class);
+        final RuntimeException exception = new RuntimeException();
+        final List<String[]> paths = new ArrayList<>();
+
+        assertThatCode(() -> reporter.report(container, handler, "step", "", new Object[]{}, () -> {
+            paths.add(CurrentStep.path());
+            reporter.report(container, handler, "nested step", "", new Object[]{}, () ->
+                paths.add(CurrentStep.path()));
+            throw exception;
+        })).isSameAs(exception);
+
+        assertThat(paths).containsExactly(new String[]{"step"}, new String[]{"step", "nested step"});
+        assertThat(CurrentStep.depth()).isZero();
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.sampler;
+
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.FakeStepReporter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link StepSampler}.
+ */
+final class StepSamplerTest {
+
+    @Test
+    void ctorThrowsExceptionForInvalidArgs() {
+        assertThatCode(() -> new StepSampler(0L, 10, Thread.NORM_PRIORITY)).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> new StepSampler(10L, 0, Thread.NORM_PRIORITY)).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> new StepSampler(10L, 10, 0)).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> new StepSampler(10L, 10, 11)).isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void writeMethodsThrowExceptionForNullArg() {
+        final StepSampler sampler = new StepSampler(10L, 10, Thread.NORM_PRIORITY);
+
+        assertThatCode(() -> sampler.writeWallTimeTo(null)).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> sampler.writeCpuTimeTo(null)).isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void samplesAreAggregatedPerStepPath() throws IOException {
+        final StepSampler sampler = new StepSampler(1000L, 10, Thread.NORM_PRIORITY);
+        final StepReporter reporter = new FakeStepReporter();
+        reporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), "Step", "", new Object[]{}, () ->
+            reporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), "Nested;step", "", new Object[]{},
+                () -> {
+                    sampler.sample();
+                    sampler.sample();
+                }));
+        sampler.sample();
+        final StringWriter writer = new StringWriter();
+        sampler.writeWallTimeTo(writer);
+
+        assertThat(sampler.samplesCount()).isEqualTo(3L);
+        assertThat(writer.toString()).startsWith("Step;Nested,step ");
+        final long micros = Long.parseLong(writer.toString().trim().substring("Step;Nested,step ".length()));
+        assertThat(micros).isGreaterThanOrEqualTo(TimeUnit.SECONDS.toMicros(1L));
+    }
+
+    @Test
+    void deeperPathsOverLimitAreAggregatedIntoParent() throws IOException {
+        final StepSampler sampler = new StepSampler(1000L, 1, Thread.NORM_PRIORITY);
+        final StepReporter reporter = new FakeStepReporter();
+        reporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), "Step", "", new Object[]{}, () ->
+            reporter.report(new FakeHooksContainer(), new FakeExceptionHandler(), "Nested step", "", new Object[]{},
+                sampler::sample));
+        final StringWriter writer = new StringWriter();
+        sampler.writeWallTimeTo(writer);
+
+        assertThat(writer.toString()).startsWith("Step ").doesNotContain("Nested step");
+    }
+
+    @Test
+    void startedSamplerTakesSamples() throws InterruptedException {
+        final StepSampler sampler = new StepSampler(1L, 10, Thread.NORM_PRIORITY);
+        sampler.start();
+        try {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+            while (sampler.samplesCount() < 3L && System.nanoTime() < deadline) {
+                Thread.sleep(5L);
+            }
+        } finally {
+            sampler.stop();
+        }
+        assertThat(sampler.samplesCount()).isGreaterThanOrEqualTo(3L);
+    }
+
+    @Test
+    void stoppedHookCalledAfterSamplerStopped() throws InterruptedException {
+        final StepSampler sampler = new StepSampler(1L, 10, Thread.NORM_PRIORITY);
+        final CountDownLatch latch = new CountDownLatch(1);
+        sampler.start(latch::countDown);
+        sampler.stop();
+
+        assertThat(latch.await(10L, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void startThrowsExceptionForNullArg() {
+        final StepSampler sampler = new StepSampler(10L, 10, Thread.NORM_PRIORITY);
+
+        assertThatCode(() -> sampler.start(null)).isInstanceOf(XtepsException.class);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.timeout;
+
+import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static com.plugatar.xteps.base.timeout.StepTimeout.withTimeout;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Tests for {@link StepTimeout}.
+ */
+final class StepTimeoutTest {
+
+    @Test
+    void nullArgException() {
+        assertThatCode(() -> withTimeout(null, () -> null))
+            .isInstanceOf(XtepsException.class);
+        assertThatCode(() -> withTimeout(Duration.ofSeconds(1), null))
+            .isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void resultIfActionCompletedInTime() throws Throwable {
+        final Object result = new Object();
+        final ThrowingSupplier<Object, RuntimeException> action = withTimeout(Duration.ofSeconds(10), () -> result);
+
+        assertThat(action.get()).isSameAs(result);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void actionExceptionIfActionFailedInTime() {
+        final RuntimeException exception = new RuntimeException();
+        final ThrowingSupplier<Object, RuntimeException> action = withTimeout(Duration.ofSeconds(10), () -> {
+            throw exception;
+        });
+
+        assertThatCode(action::get).isSameAs(exception);
+    }
+
+    @Test
+    void timeoutExceptionIfActionTimedOut() {
+        final ThrowingSupplier<Object, InterruptedException> action = withTimeout(Duration.ofMillis(50), () -> {
+            Thread.sleep(10_000L);
+            return null;
+        });
+
+        assertThatCode(action::get)
+            .isInstanceOf(StepTimeoutException.class)
+            .hasMessage("Step timed out after PT0.05S")
+            .hasCauseInstanceOf(InterruptedException.class);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void timeoutExceptionMessageContainsInheritedDeadline() {
+        final ThrowingSupplier<Object, Throwable> action = withTimeout(Duration.ofSeconds(1), () ->
+            withTimeout(Duration.ofMinutes(10), () -> {
+                Thread.sleep(10_000L);
+                return null;
+            }).get()
+        );
+        final Throwable exception = catchThrowable(action::get);
+        /* Both deadlines expire at the same time, the outer step wraps the nested step exception if it expires first */
+        final Throwable nestedException = exception.getCause() instanceof StepTimeoutException
+            ? exception.getCause()
+            : exception;
+
+        assertThat(nestedException)
+            .isInstanceOf(StepTimeoutException.class)
+            .hasMessageMatching("Step timed out after PT[0-9.]+S, " +
+                "the deadline is inherited from the enclosing step \\(step timeout PT10M\\)")
+            .hasCauseInstanceOf(InterruptedException.class);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void nestedActionInheritsParentDeadline() throws Throwable {
+        final long[] nestedRemainingNanos = new long[1];
+        final ThrowingSupplier<Object, RuntimeException> action = withTimeout(Duration.ofSeconds(1), () ->
+            withTimeout(Duration.ofDays(1), () -> {
+                nestedRemainingNanos[0] = StepTimeout.remainingNanos();
+                return null;
+            }).get()
+        );
+
+        action.get();
+        assertThat(nestedRemainingNanos[0]).isBetween(1L, Duration.ofSeconds(1).toNanos());
+        assertThat(StepTimeout.remainingNanos()).isEqualTo(Long.MAX_VALUE);
+    }
+}
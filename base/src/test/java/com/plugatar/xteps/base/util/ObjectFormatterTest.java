@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.util;
+
+import com.plugatar.xteps.base.XtepsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link ObjectFormatter}.
+ */
+final class ObjectFormatterTest {
+
+    @Test
+    void ctorThrowsExceptionForInvalidArgs() {
+        assertThatCode(() -> new ObjectFormatter(0, 10)).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> new ObjectFormatter(10, 0)).isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void registerMethodThrowsExceptionForNullArgs() {
+        final ObjectFormatter formatter = new ObjectFormatter(100, 10);
+
+        assertThatCode(() -> formatter.register(null, (value, out) -> { }))
+            .isInstanceOf(XtepsException.class);
+        assertThatCode(() -> formatter.register(String.class, null))
+            .isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void formatMethodRendersValuesAsToString() {
+        final ObjectFormatter formatter = new ObjectFormatter(1000, 100);
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("b", Arrays.asList(2, 3));
+
+        assertThat(formatter.format(null)).isEqualTo("null");
+        assertThat(formatter.format("str")).isEqualTo("str");
+        assertThat(formatter.format(111)).isEqualTo("111");
+        assertThat(formatter.format(new int[]{1, 2})).isEqualTo(Arrays.toString(new int[]{1, 2}));
+        assertThat(formatter.format(new byte[]{1, 2})).isEqualTo(Arrays.toString(new byte[]{1, 2}));
+        assertThat(formatter.format(new char[]{'a', 'b'})).isEqualTo(Arrays.toString(new char[]{'a', 'b'}));
+        assertThat(formatter.format(new Object[]{"a", null})).isEqualTo(Arrays.toString(new Object[]{"a", null}));
+        assertThat(formatter.format(Arrays.asList("a", "b"))).isEqualTo(Arrays.asList("a", "b").toString());
+        assertThat(formatter.format(map)).isEqualTo(map.toString());
+        assertThat(formatter.format(Collections.emptyList())).isEqualTo("[]");
+    }
+
+    @Test
+    void formatMethodLimitsElements() {
+        final ObjectFormatter formatter = new ObjectFormatter(1000, 3);
+        final List<Integer> list = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+
+        assertThat(formatter.format(new byte[10])).isEqualTo("[0, 0, 0, ...]");
+        assertThat(formatter.format(new String[]{"a", "b", "c", "d"})).isEqualTo("[a, b, c, ...]");
+        assertThat(formatter.format(new String[]{"a", "b", "c"})).isEqualTo("[a, b, c]");
+        assertThat(formatter.format(list)).isEqualTo("[0, 1, 2, ...]");
+        assertThat(formatter.format(list.stream().collect(Collectors.toMap(i -> i, i -> i))))
+            .isEqualTo("{0=0, 1=1, 2=2, ...}");
+    }
+
+    @Test
+    void formatMethodLimitsLength() {
+        final ObjectFormatter formatter = new ObjectFormatter(10, 100);
+        final List<Object> iteratedElements = new ArrayList<>();
+        final List<Object> list = new ArrayList<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                final Iterator<Object> iterator = super.iterator();
+                return new Iterator<Object>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Object next() {
+                        final Object element = iterator.next();
+                        iteratedElements.add(element);
+                        return element;
+                    }
+                };
+            }
+        };
+        IntStream.range(0, 1000).forEach(list::add);
+
+        assertThat(formatter.format("0123456789abc")).isEqualTo("0123456789...");
+        assertThat(formatter.format(new byte[10 * 1024 * 1024])).isEqualTo("[0, 0, 0, ...");
+        assertThat(formatter.format(list)).isEqualTo("[0, 1, 2, ...");
+        assertThat(iteratedElements).hasSizeLessThan(10);
+    }
+
+    @Test
+    void formatMethodUsesRegisteredFormatters() {
+        final ObjectFormatter formatter = new ObjectFormatter(1000, 100);
+        assertThat(formatter.format(new StringBuilder("sb"))).isEqualTo("sb");
+
+        formatter.register(CharSequence.class, (value, out) -> out.append('\'').append(value).append('\''));
+        formatter.register(Number.class, (value, out) -> out.append("#").append(value.toString()));
+
+        assertThat(formatter.format(new StringBuilder("sb"))).isEqualTo("'sb'");
+        assertThat(formatter.format(1)).isEqualTo("#1");
+        assertThat(formatter.format(Arrays.asList(1L, "s"))).isEqualTo("[#1, 's']");
+    }
+
+    @Test
+    void formatMethodRendersSelfReferences() {
+        final ObjectFormatter formatter = new ObjectFormatter(1000, 100);
+        final List<Object> list = new ArrayList<>();
+        list.add(list);
+        final Object[] array = new Object[1];
+        array[0] = array;
+
+        assertThat(formatter.format(list)).isEqualTo("[(this Collection)]");
+        assertThat(formatter.format(array)).isEqualTo("[(this Array)]");
+    }
+}
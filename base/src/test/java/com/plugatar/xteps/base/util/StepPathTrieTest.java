@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.base.util;
+
+import com.plugatar.xteps.base.XtepsException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Tests for {@link StepPathTrie}.
+ */
+final class StepPathTrieTest {
+
+    @Test
+    void ctorThrowsExceptionForInvalidArgs() {
+        assertThatCode(() -> new StepPathTrie(0, 10)).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> new StepPathTrie(1, 0)).isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void writeFoldedToThrowsExceptionForInvalidArgs() {
+        final StepPathTrie trie = new StepPathTrie(2, 10);
+
+        assertThatCode(() -> trie.writeFoldedTo(null, 0, 1L)).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> trie.writeFoldedTo(new StringWriter(), -1, 1L)).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> trie.writeFoldedTo(new StringWriter(), 2, 1L)).isInstanceOf(XtepsException.class);
+        assertThatCode(() -> trie.writeFoldedTo(new StringWriter(), 0, 0L)).isInstanceOf(XtepsException.class);
+    }
+
+    @Test
+    void frameName() {
+        assertThat(StepPathTrie.frameName("")).isEqualTo("Step");
+        assertThat(StepPathTrie.frameName("a;b\tc\nd\re")).isEqualTo("a,b c d e");
+    }
+
+    @Test
+    void sameStepPathStoredOnce() {
+        final StepPathTrie trie = new StepPathTrie(1, 10);
+        final StepPathTrie.Node node = trie.root().child("Step").child("Nested step");
+
+        assertThat(trie.root().child("Step").child("Nested step")).isSameAs(node);
+        assertThat(trie.root().child("Nested step")).isNotSameAs(node);
+    }
+
+    @Test
+    void writeFoldedToWritesNonZeroValuesInNameOrder() throws IOException {
+        final StepPathTrie trie = new StepPathTrie(2, 10);
+        trie.root().child("Step 2").add(0, 3000L);
+        trie.root().child("Step 1").add(0, 1000L);
+        trie.root().child("Step 1").child("Nested;step").add(0, 2999L);
+        trie.root().child("Step 1").child("Zero").add(0, 999L);
+        trie.root().child("Step 1").add(1, 5000L);
+        final StringWriter writer = new StringWriter();
+        trie.writeFoldedTo(writer, 0, 1000L);
+
+        assertThat(writer.toString()).isEqualTo("Step 1 1\nStep 1;Nested,step 2\nStep 2 3\n");
+    }
+
+    @Test
+    void forEachPath() {
+        final StepPathTrie trie = new StepPathTrie(1, 10);
+        trie.root().child("Step").child("").add(0, 1L);
+        trie.root().child("Another step");
+        final List<String> paths = new ArrayList<>();
+        trie.forEachPath((path, node) -> paths.add(path + " " + node.get(0)));
+
+        assertThat(paths).containsExactly("Another step 0", "Step 0", "Step;Step 1");
+    }
+
+    @Test
+    void deeperPathsOverLimitAreAggregatedIntoParent() {
+        final StepPathTrie trie = new StepPathTrie(1, 2);
+        final StepPathTrie.Node node = trie.root().child("Step").child("Nested step");
+
+        assertThat(node.child("Deeper step")).isSameAs(node);
+        assertThat(trie.root().child("Another step")).isSameAs(trie.root());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.benchmark;
+
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.allure.AllureStepListener;
+import com.plugatar.xteps.base.allure.AllureStepTreeListener;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allure listeners benchmark. Measures a test of 10000 steps (100 steps with 99 nested
+ * steps each) reported by the lifecycle-per-step {@link AllureStepListener} and by the
+ * in-memory tree {@link AllureStepTreeListener}. Results are not written anywhere.
+ * <pre>{@code
+ * mvn -P benchmarks package -pl benchmarks -am -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar AllureListenersBenchmark -prof gc
+ * }</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllureListenersBenchmark {
+    private static final int STEPS = 100;
+    private static final int NESTED_STEPS = 99;
+    @Param({"lifecycle", "tree"})
+    private String listener;
+    private StepReporter stepReporter;
+    private FakeExceptionHandler exceptionHandler;
+    private FakeHooksContainer hooksContainer;
+    private Object[] params;
+
+    @Setup
+    public void setup() {
+        Allure.setLifecycle(new AllureLifecycle(new NoopResultsWriter()));
+        this.stepReporter = new DefaultStepReporter(new StepEventListener[]{"tree".equals(this.listener)
+            ? new AllureStepTreeListener()
+            : new AllureStepListener()});
+        this.exceptionHandler = new FakeExceptionHandler();
+        this.hooksContainer = new FakeHooksContainer();
+        this.params = new Object[]{"param"};
+    }
+
+    @Benchmark
+    public TestResult test10000Steps() {
+        final AllureLifecycle allureLifecycle = Allure.getLifecycle();
+        final String uuid = UUID.randomUUID().toString();
+        final TestResult testResult = new TestResult().setUuid(uuid).setName("test");
+        allureLifecycle.scheduleTestCase(testResult);
+        allureLifecycle.startTestCase(uuid);
+        for (int idx = 0; idx < STEPS; ++idx) {
+            this.stepReporter.report(this.hooksContainer, this.exceptionHandler, "Step {0}", "", this.params, () -> {
+                for (int nestedIdx = 0; nestedIdx < NESTED_STEPS; ++nestedIdx) {
+                    this.stepReporter.report(this.hooksContainer, this.exceptionHandler, "Nested step {0}", "",
+                        this.params, () -> { });
+                }
+            });
+        }
+        allureLifecycle.stopTestCase(uuid);
+        allureLifecycle.writeTestCase(uuid);
+        return testResult;
+    }
+
+    private static final class NoopResultsWriter implements AllureResultsWriter {
+
+        @Override
+        public void write(final TestResult testResult) {
+        }
+
+        @Override
+        public void write(final TestResultContainer testResultContainer) {
+        }
+
+        @Override
+        public void write(final String source,
+                          final InputStream attachment) {
+        }
+    }
+}
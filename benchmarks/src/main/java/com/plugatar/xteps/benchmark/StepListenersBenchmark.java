@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.benchmark;
+
+import com.plugatar.xteps.base.ListenerCapability;
+import com.plugatar.xteps.base.StepEvent;
+import com.plugatar.xteps.base.StepEventListener;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.listener.ChromeTraceStepListener;
+import com.plugatar.xteps.base.listener.FoldedStacksStepListener;
+import com.plugatar.xteps.base.listener.OtlpJsonStepListener;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step listeners benchmark. Measures the per-step overhead of the dependency-free
+ * step listeners compared with a no-op listener.
+ * <pre>{@code
+ * mvn -P benchmarks package -pl benchmarks -am -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar StepListenersBenchmark -prof gc
+ * }</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StepListenersBenchmark {
+    @Param({"noop", "otlp", "folded", "chrome"})
+    private String listener;
+    private File file;
+    private StepReporter stepReporter;
+    private FakeExceptionHandler exceptionHandler;
+    private FakeHooksContainer hooksContainer;
+    private Object[] params;
+
+    @Setup
+    public void setup() throws IOException {
+        this.file = File.createTempFile("xteps-benchmark", ".json");
+        this.stepReporter = new DefaultStepReporter(new StepEventListener[]{this.stepEventListener()});
+        this.exceptionHandler = new FakeExceptionHandler();
+        this.hooksContainer = new FakeHooksContainer();
+        this.params = new Object[]{"param"};
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.file.delete();
+    }
+
+    private StepEventListener stepEventListener() {
+        switch (this.listener) {
+            case "otlp":
+                return new OtlpJsonStepListener("benchmark", this.file.getPath(), null, null, 512, 100L, 65536);
+            case "folded":
+                return new FoldedStacksStepListener(null);
+            case "chrome":
+                return new ChromeTraceStepListener(this.file.getPath());
+            default:
+                return new NoopStepEventListener();
+        }
+    }
+
+    @Benchmark
+    public void step() {
+        this.stepReporter.report(this.hooksContainer, this.exceptionHandler, "Step {0}", "", this.params, () -> { });
+    }
+
+    @Benchmark
+    public void nestedStep() {
+        this.stepReporter.report(this.hooksContainer, this.exceptionHandler, "Step", "", this.params,
+            () -> this.stepReporter.report(this.hooksContainer, this.exceptionHandler, "Nested step", "",
+                this.params, () -> { }));
+    }
+
+    private static final class NoopStepEventListener implements StepEventListener {
+        private static final Set<ListenerCapability> CAPABILITIES =
+            Collections.unmodifiableSet(EnumSet.allOf(ListenerCapability.class));
+
+        @Override
+        public Set<ListenerCapability> capabilities() {
+            return CAPABILITIES;
+        }
+
+        @Override
+        public void stepStarted(final StepEvent event) {
+        }
+
+        @Override
+        public void stepFinished(final StepEvent event) {
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.benchmark;
+
+import com.plugatar.xteps.base.StepListener;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.ThrowingBiConsumer;
+import com.plugatar.xteps.base.ThrowingConsumer;
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.DefaultStepReporter;
+import com.plugatar.xteps.base.reporter.FakeStepReporter;
+import com.plugatar.xteps.checked.chain.CtxSC;
+import com.plugatar.xteps.checked.chain.NoCtxSC;
+import com.plugatar.xteps.checked.chain.flat.FlatNoCtxSCOf;
+import com.plugatar.xteps.checked.chain.impl.NoCtxSCOf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps chain implementations benchmark. Compares the default steps chain
+ * implementation with the flat steps chain implementation.
+ * <p>
+ * The {@code fake} step reporter only invokes the step actions, so the allocations
+ * of the steps chains themselves are measured. The {@code default} step reporter adds
+ * the allocations of the step events and step UUIDs.
+ * <p>
+ * Run with the GC profiler to compare allocations:
+ * <pre>{@code
+ * mvn -P benchmarks package -pl benchmarks -am -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar StepsChainBenchmark -prof gc
+ * }</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StepsChainBenchmark {
+    @Param({"impl", "flat"})
+    private String chain;
+    @Param({"default", "fake"})
+    private String reporter;
+    @Param({"100"})
+    private int steps;
+    private StepReporter stepReporter;
+    private FakeExceptionHandler exceptionHandler;
+    private FakeHooksContainer hooksContainer;
+
+    @Setup
+    public void setup() {
+        this.stepReporter = "fake".equals(this.reporter)
+            ? new FakeStepReporter()
+            : new DefaultStepReporter(new StepListener[]{new NoopStepListener()});
+        this.exceptionHandler = new FakeExceptionHandler();
+        this.hooksContainer = new FakeHooksContainer();
+    }
+
+    private NoCtxSC stepsChain() {
+        return "flat".equals(this.chain)
+            ? new FlatNoCtxSCOf(this.stepReporter, this.exceptionHandler, this.hooksContainer)
+            : new NoCtxSCOf(this.stepReporter, this.exceptionHandler, this.hooksContainer);
+    }
+
+    @Benchmark
+    public void contextSteps(final Blackhole blackhole) {
+        final CtxSC<Integer, NoCtxSC> stepsChain = this.stepsChain().withCtx(0);
+        final ThrowingConsumer<Integer, RuntimeException> action = blackhole::consume;
+        for (int idx = 0; idx < this.steps; ++idx) {
+            stepsChain.step("Step", action);
+        }
+    }
+
+    @Benchmark
+    public void contextChanges(final Blackhole blackhole) {
+        final NoCtxSC stepsChain = this.stepsChain();
+        final ThrowingBiConsumer<Integer, Integer, RuntimeException> action = (ctx1, ctx2) -> blackhole.consume(ctx1);
+        for (int idx = 0; idx < this.steps; ++idx) {
+            stepsChain.withCtx(idx)
+                .stepToCtx("Step", ctx -> ctx + 1)
+                .step("Step", action);
+        }
+    }
+
+    @Benchmark
+    public void nestedSteps(final Blackhole blackhole) {
+        final NoCtxSC stepsChain = this.stepsChain();
+        final ThrowingConsumer<NoCtxSC, RuntimeException> nestedStepsChain = nested -> nested
+            .withCtx(blackhole)
+            .step("Nested step", bh -> bh.consume(bh));
+        for (int idx = 0; idx < this.steps; ++idx) {
+            stepsChain.nestedSteps("Step", nestedStepsChain);
+        }
+    }
+
+    private static final class NoopStepListener implements StepListener {
+
+        @Override
+        public void stepStarted(final String uuid,
+                                final String name,
+                                final String desc,
+                                final Object[] params) {
+        }
+
+        @Override
+        public void stepPassed(final String uuid) {
+        }
+
+        @Override
+        public void stepFailed(final String uuid,
+                               final Throwable exception) {
+        }
+    }
+}
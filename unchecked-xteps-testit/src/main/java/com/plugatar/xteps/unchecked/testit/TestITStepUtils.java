@@ -18,11 +18,13 @@ package com.plugatar.xteps.unchecked.testit;
 import com.plugatar.xteps.base.ThrowingConsumer;
 import com.plugatar.xteps.base.ThrowingFunction;
 import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.testit.TestITStepTreeListener;
 import ru.testit.models.StepResult;
 import ru.testit.services.Adapter;
 
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Utility class. TestIT step utils.
@@ -42,7 +44,7 @@ public final class TestITStepUtils {
      * @return step name
      */
     public static String stepName(final String name) {
-        Adapter.getAdapterManager().updateStep(stepResult -> stepResult.setName(name));
+        updateCurrentStep(stepResult -> stepResult.setName(name));
         return name;
     }
 
@@ -58,7 +60,7 @@ public final class TestITStepUtils {
     ) {
         if (updateFunction == null) { throw new XtepsException("updateFunction arg is null"); }
         final AtomicReference<String> newNameRef = new AtomicReference<>();
-        Adapter.getAdapterManager().updateStep(stepResult -> {
+        updateCurrentStep(stepResult -> {
             final String newName = ThrowingFunction.unchecked(updateFunction).apply(stepResult.getName());
             newNameRef.set(newName);
             stepResult.setName(newName);
@@ -73,7 +75,7 @@ public final class TestITStepUtils {
      * @return step description
      */
     public static String stepDescription(final String description) {
-        Adapter.getAdapterManager().updateStep(stepResult -> stepResult.setDescription(description));
+        updateCurrentStep(stepResult -> stepResult.setDescription(description));
         return description;
     }
 
@@ -89,7 +91,7 @@ public final class TestITStepUtils {
     ) {
         if (updateFunction == null) { throw new XtepsException("updateFunction arg is null"); }
         final AtomicReference<String> newDescriptionRef = new AtomicReference<>();
-        Adapter.getAdapterManager().updateStep(stepResult -> {
+        updateCurrentStep(stepResult -> {
             final String newDescription = ThrowingFunction.unchecked(updateFunction).apply(stepResult.getDescription());
             newDescriptionRef.set(newDescription);
             stepResult.setDescription(newDescription);
@@ -107,7 +109,7 @@ public final class TestITStepUtils {
      */
     public static <T> T stepParameter(final String name,
                                       final T value) {
-        Adapter.getAdapterManager().updateStep(stepResult ->
+        updateCurrentStep(stepResult ->
             stepResult.getParameters().put(name, Objects.toString(value)));
         return value;
     }
@@ -122,7 +124,13 @@ public final class TestITStepUtils {
         final ThrowingConsumer<StepResult, ?> updateConsumer
     ) {
         if (updateConsumer == null) { throw new XtepsException("updateConsumer arg is null"); }
-        Adapter.getAdapterManager().updateStep(stepResult ->
+        updateCurrentStep(stepResult ->
             ThrowingConsumer.unchecked(updateConsumer).accept(stepResult));
     }
+
+    private static void updateCurrentStep(final Consumer<StepResult> updateConsumer) {
+        if (!TestITStepTreeListener.updateCurrentStep(updateConsumer)) {
+            Adapter.getAdapterManager().updateStep(updateConsumer);
+        }
+    }
 }
@@ -17,6 +17,8 @@ package com.plugatar.xteps.unchecked.chain;
 
 import com.plugatar.xteps.base.ThrowingFunction;
 import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.pool.ContextPool;
 import com.plugatar.xteps.unchecked.chain.base.Base1CtxSC;
 import com.plugatar.xteps.unchecked.chain.base.BaseCtxSC;
 import com.plugatar.xteps.unchecked.chain.base.BaseSC;
@@ -41,6 +43,12 @@ public interface CtxSC<C, PS extends BaseSC<PS>> extends
     @Override
     <U> Ctx2SC<U, C, CtxSC<C, PS>> withCtx(U context);
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    <U> Ctx2SC<U, C, CtxSC<C, PS>> withPooledCtx(ContextPool<U> pool);
+
     /**
      * {@inheritDoc}
      */
@@ -144,4 +152,14 @@ public interface CtxSC<C, PS extends BaseSC<PS>> extends
         String desc,
         ThrowingFunction<? super C, ? extends U, ?> action
     );
+
+    /**
+     * Returns this steps chain without the previous steps chain. The returned steps chain
+     * has the same contexts and chain hooks but does not retain the previous steps chains,
+     * so their contexts can be garbage collected. The {@link #previousStepsChain()} method
+     * of the returned steps chain throws {@link XtepsException}.
+     *
+     * @return this steps chain without the previous steps chain
+     */
+    CtxSC<C, PS> forgetHistory();
 }
@@ -15,6 +15,7 @@
  */
 package com.plugatar.xteps.unchecked.chain;
 
+import com.plugatar.xteps.base.XtepsException;
 import com.plugatar.xteps.unchecked.chain.base.BaseCtxSC;
 import com.plugatar.xteps.unchecked.chain.base.BaseNoCtxSC;
 import com.plugatar.xteps.unchecked.chain.base.MemSC;
@@ -27,4 +28,14 @@ import com.plugatar.xteps.unchecked.chain.base.MemSC;
 public interface MemNoCtxSC<PS extends BaseCtxSC<PS>> extends
     BaseNoCtxSC<MemNoCtxSC<PS>>,
     MemSC<PS> {
+
+    /**
+     * Returns this steps chain without the previous steps chain. The returned steps chain
+     * has the same contexts and chain hooks but does not retain the previous steps chains,
+     * so their contexts can be garbage collected. The {@link #previousStepsChain()} method
+     * of the returned steps chain throws {@link XtepsException}.
+     *
+     * @return this steps chain without the previous steps chain
+     */
+    MemNoCtxSC<PS> forgetHistory();
 }
@@ -16,6 +16,7 @@
 package com.plugatar.xteps.unchecked.chain.base;
 
 import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.pool.ContextPool;
 import com.plugatar.xteps.unchecked.chain.CtxSC;
 import com.plugatar.xteps.unchecked.stepobject.SupplierStep;
 
@@ -32,6 +33,12 @@ public interface BaseNoCtxSC<S extends BaseNoCtxSC<S>> extends BaseSC<S> {
     @Override
     <U> CtxSC<U, S> withCtx(U context);
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    <U> CtxSC<U, S> withPooledCtx(ContextPool<U> pool);
+
     /**
      * {@inheritDoc}
      */
@@ -22,9 +22,14 @@ import com.plugatar.xteps.base.ThrowingFunction;
 import com.plugatar.xteps.base.ThrowingRunnable;
 import com.plugatar.xteps.base.ThrowingSupplier;
 import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.handle.StepHandle;
+import com.plugatar.xteps.base.pool.ContextPool;
+import com.plugatar.xteps.base.timeout.StepTimeoutException;
 import com.plugatar.xteps.unchecked.stepobject.RunnableStep;
 import com.plugatar.xteps.unchecked.stepobject.SupplierStep;
 
+import java.time.Duration;
+
 /**
  * Base steps chain.
  *
@@ -124,6 +129,19 @@ public interface BaseSC<S extends BaseSC<S>> {
      */
     <U> BaseCtxSC<?> withCtx(U context);
 
+    /**
+     * Borrows the context from given pool and returns a contextual steps chain of the borrowed
+     * context. The context will be returned to the pool by the chain hook of this steps chain
+     * instead of being destroyed.
+     *
+     * @param pool the context pool
+     * @param <U>  the context type
+     * @return contextual steps chain
+     * @throws XtepsException if {@code pool} is null
+     *                        or if it's impossible to borrow the context
+     */
+    <U> BaseCtxSC<?> withPooledCtx(ContextPool<U> pool);
+
     /**
      * Returns a context steps chain of the new context.
      *
@@ -276,6 +294,25 @@ public interface BaseSC<S extends BaseSC<S>> {
         ThrowingRunnable<?> action
     );
 
+    /**
+     * Performs and reports given step with given name and timeout and returns this steps chain.
+     * The step thread will be interrupted when the timeout expires, nested steps inherit
+     * the deadline of this step.
+     *
+     * @param name    the step name
+     * @param timeout the step timeout
+     * @param action  the step action
+     * @return this steps chain
+     * @throws XtepsException       if {@code name} or {@code timeout} or {@code action} is null
+     *                              or if it's impossible to correctly report the step
+     * @throws StepTimeoutException if the step timed out
+     */
+    S step(
+        String name,
+        Duration timeout,
+        ThrowingRunnable<?> action
+    );
+
     /**
      * Performs and reports given step and returns a contextual steps chain of the new context.
      *
@@ -427,6 +464,160 @@ public interface BaseSC<S extends BaseSC<S>> {
         ThrowingSupplier<? extends R, ?> action
     );
 
+    /**
+     * Performs and reports given step with given name and timeout and returns the step result.
+     * The step thread will be interrupted when the timeout expires, nested steps inherit
+     * the deadline of this step.
+     *
+     * @param name    the step name
+     * @param timeout the step timeout
+     * @param action  the step action
+     * @param <R>     the result type
+     * @return {@code action} result
+     * @throws XtepsException       if {@code name} or {@code timeout} or {@code action} is null
+     *                              or if it's impossible to correctly report the step
+     * @throws StepTimeoutException if the step timed out
+     */
+    <R> R stepTo(
+        String name,
+        Duration timeout,
+        ThrowingSupplier<? extends R, ?> action
+    );
+
+    /**
+     * Performs and reports given step with given name and returns the step result cached
+     * by given key. If the result is already cached, {@code action} will not be performed
+     * and the step will be reported with the {@code " (cached)"} name suffix. Use
+     * {@link com.plugatar.xteps.base.cache.StepCache#evictionHook(ThrowingRunnable)} in
+     * {@code action} to release the result resources when the result is evicted.
+     *
+     * @param key    the cache key
+     * @param name   the step name
+     * @param action the step action
+     * @param <R>    the result type
+     * @return {@code action} result or cached result
+     * @throws XtepsException if {@code key} or {@code name} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     * @see com.plugatar.xteps.base.cache.StepCache
+     */
+    <R> R stepToCached(
+        Object key,
+        String name,
+        ThrowingSupplier<? extends R, ?> action
+    );
+
+    /**
+     * Performs and reports given step with given name and description and returns the step
+     * result cached by given key. If the result is already cached, {@code action} will not be
+     * performed and the step will be reported with the {@code " (cached)"} name suffix. Use
+     * {@link com.plugatar.xteps.base.cache.StepCache#evictionHook(ThrowingRunnable)} in
+     * {@code action} to release the result resources when the result is evicted.
+     *
+     * @param key    the cache key
+     * @param name   the step name
+     * @param desc   the step description
+     * @param action the step action
+     * @param <R>    the result type
+     * @return {@code action} result or cached result
+     * @throws XtepsException if {@code key} or {@code name} or {@code desc} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     * @see com.plugatar.xteps.base.cache.StepCache
+     */
+    <R> R stepToCached(
+        Object key,
+        String name,
+        String desc,
+        ThrowingSupplier<? extends R, ?> action
+    );
+
+    /**
+     * Performs and reports given step with given name and returns the step result shared
+     * by given key. Concurrent steps with the same key perform {@code action} once, other
+     * steps wait for the result and will be reported with the {@code " (shared with <thread
+     * name>)"} name suffix. The shared result is released by the chain hook of this steps
+     * chain when the last step that uses the result releases it. Use
+     * {@link com.plugatar.xteps.base.cache.SharedResources#releaseHook(ThrowingRunnable)} in
+     * {@code action} to release the result resources.
+     *
+     * @param key    the shared result key
+     * @param name   the step name
+     * @param action the step action
+     * @param <R>    the result type
+     * @return shared result
+     * @throws XtepsException if {@code key} or {@code name} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     *                        or if the shared result loading in another thread failed
+     * @see com.plugatar.xteps.base.cache.SharedResources
+     */
+    <R> R stepToShared(
+        Object key,
+        String name,
+        ThrowingSupplier<? extends R, ?> action
+    );
+
+    /**
+     * Performs and reports given step with given name and description and returns the step
+     * result shared by given key. Concurrent steps with the same key perform {@code action}
+     * once, other steps wait for the result and will be reported with the {@code " (shared
+     * with <thread name>)"} name suffix. The shared result is released by the chain hook of
+     * this steps chain when the last step that uses the result releases it. Use
+     * {@link com.plugatar.xteps.base.cache.SharedResources#releaseHook(ThrowingRunnable)} in
+     * {@code action} to release the result resources.
+     *
+     * @param key    the shared result key
+     * @param name   the step name
+     * @param desc   the step description
+     * @param action the step action
+     * @param <R>    the result type
+     * @return shared result
+     * @throws XtepsException if {@code key} or {@code name} or {@code desc} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     *                        or if the shared result loading in another thread failed
+     * @see com.plugatar.xteps.base.cache.SharedResources
+     */
+    <R> R stepToShared(
+        Object key,
+        String name,
+        String desc,
+        ThrowingSupplier<? extends R, ?> action
+    );
+
+    /**
+     * Performs and reports given step with given name and returns this steps chain.
+     * The step action gets the step handle with direct references to the step results of
+     * the reporting tools, it allows to update the step without lookups of the current step.
+     *
+     * @param name   the step name
+     * @param action the step action
+     * @return this steps chain
+     * @throws XtepsException if {@code name} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     * @see StepHandle
+     */
+    S stepWithHandle(
+        String name,
+        ThrowingConsumer<? super StepHandle, ?> action
+    );
+
+    /**
+     * Performs and reports given step with given name and description and returns this steps chain.
+     * The step action gets the step handle with direct references to the step results of
+     * the reporting tools, it allows to update the step without lookups of the current step.
+     *
+     * @param name   the step name
+     * @param desc   the step description
+     * @param action the step action
+     * @return this steps chain
+     * @throws XtepsException if {@code name} or {@code desc} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     * @see StepHandle
+     */
+    S stepWithHandle(
+        String name,
+        String desc,
+        ThrowingConsumer<? super StepHandle, ?> action
+    );
+
     /**
      * Performs and reports the step with empty name and nested steps chain and returns
      * this steps chain.
@@ -472,6 +663,25 @@ public interface BaseSC<S extends BaseSC<S>> {
         ThrowingConsumer<S, ?> stepsChain
     );
 
+    /**
+     * Performs and reports the step with given name and timeout and nested steps chain and
+     * returns this steps chain. The step thread will be interrupted when the timeout expires,
+     * nested steps inherit the deadline of this step.
+     *
+     * @param name       the step name
+     * @param timeout    the step timeout
+     * @param stepsChain the nested steps chain
+     * @return this steps chain
+     * @throws XtepsException       if {@code name} or {@code timeout} or {@code stepsChain} is null
+     *                              or if it's impossible to correctly report the step
+     * @throws StepTimeoutException if the step timed out
+     */
+    S nestedSteps(
+        String name,
+        Duration timeout,
+        ThrowingConsumer<S, ?> stepsChain
+    );
+
     /**
      * Performs and reports given step with empty name and returns the steps chain result.
      *
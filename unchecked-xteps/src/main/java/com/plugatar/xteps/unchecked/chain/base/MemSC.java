@@ -15,6 +15,8 @@
  */
 package com.plugatar.xteps.unchecked.chain.base;
 
+import com.plugatar.xteps.base.XtepsException;
+
 /**
  * Steps chain memorizing a previous steps chain.
  *
@@ -26,6 +28,7 @@ public interface MemSC<PS extends BaseSC<PS>> {
      * Returns the previous steps chain.
      *
      * @return previous steps chain
+     * @throws XtepsException if the previous steps chain is forgotten
      */
     PS previousStepsChain();
 }
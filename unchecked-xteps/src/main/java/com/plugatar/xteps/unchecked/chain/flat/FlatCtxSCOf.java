@@ -0,0 +1,881 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.unchecked.chain.flat;
+
+import com.plugatar.xteps.base.HooksOrder;
+import com.plugatar.xteps.base.ThrowingConsumer;
+import com.plugatar.xteps.base.ThrowingFunction;
+import com.plugatar.xteps.base.ThrowingRunnable;
+import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsBase;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.handle.StepHandle;
+import com.plugatar.xteps.base.handle.StepHandles;
+import com.plugatar.xteps.base.hook.ThreadHooks;
+import com.plugatar.xteps.base.pool.ContextPool;
+import com.plugatar.xteps.unchecked.chain.Ctx2SC;
+import com.plugatar.xteps.unchecked.chain.CtxSC;
+import com.plugatar.xteps.unchecked.chain.MemNoCtxSC;
+import com.plugatar.xteps.unchecked.chain.base.BaseSC;
+import com.plugatar.xteps.unchecked.stepobject.ConsumerStep;
+import com.plugatar.xteps.unchecked.stepobject.FunctionStep;
+import com.plugatar.xteps.unchecked.stepobject.RunnableStep;
+import com.plugatar.xteps.unchecked.stepobject.SupplierStep;
+
+import java.time.Duration;
+
+import static com.plugatar.xteps.base.HookPriority.MAX_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.HookPriority.MIN_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.HookPriority.NORM_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.timeout.StepTimeout.withTimeout;
+import static com.plugatar.xteps.unchecked.chain.flat.StepsChainUtils.sneakyThrow;
+
+/**
+ * Contextual flat steps chain implementation.
+ *
+ * @param <C>  the context type
+ * @param <PS> the previous steps chain type
+ */
+final class FlatCtxSCOf<C, PS extends BaseSC<PS>> implements CtxSC<C, PS> {
+    private final FlatSCState state;
+    private final int depth;
+
+    /**
+     * Ctor.
+     *
+     * @param state the flat steps chain state
+     * @param depth the frame depth
+     */
+    FlatCtxSCOf(final FlatSCState state,
+                final int depth) {
+        this.state = state;
+        this.depth = depth;
+    }
+
+    @Override
+    public CtxSC<C, PS> callChainHooks() {
+        try {
+            this.state.hooksContainer.callHooks();
+        } catch (final Throwable ex) {
+            this.state.exceptionHandler.handle(ex);
+            throw ex;
+        }
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> chainHooksOrder(final HooksOrder order) {
+        if (order == null) { this.throwNullArgException("order"); }
+        this.state.hooksContainer.setOrder(order);
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> threadHooksOrder(final HooksOrder order) {
+        if (order == null) { this.throwNullArgException("order"); }
+        ThreadHooks.setOrder(order);
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> chainHook(
+        final ThrowingRunnable<?> hook
+    ) {
+        return this.chainHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public CtxSC<C, PS> chainHook(
+        final int priority,
+        final ThrowingRunnable<?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        this.state.hooksContainer.addHook(priority, hook);
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> chainHook(
+        final ThrowingConsumer<? super C, ?> hook
+    ) {
+        return this.chainHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public CtxSC<C, PS> chainHook(
+        final int priority,
+        final ThrowingConsumer<? super C, ?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        final C context = this.ctx();
+        this.state.hooksContainer.addHook(priority, () -> hook.accept(context));
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> threadHook(
+        final ThrowingRunnable<?> hook
+    ) {
+        return this.threadHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public CtxSC<C, PS> threadHook(
+        final int priority,
+        final ThrowingRunnable<?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        ThreadHooks.addHook(priority, hook);
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> threadHook(
+        final ThrowingConsumer<? super C, ?> hook
+    ) {
+        return this.threadHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public CtxSC<C, PS> threadHook(
+        final int priority,
+        final ThrowingConsumer<? super C, ?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        final C context = this.ctx();
+        ThreadHooks.addHook(priority, () -> hook.accept(context));
+        return this;
+    }
+
+    @Override
+    public C ctx() {
+        return this.state.context(this.depth);
+    }
+
+    @Override
+    public PS previousStepsChain() {
+        if (this.state.isHistoryForgotten(this.depth)) {
+            final XtepsException baseEx = new XtepsException("previous steps chain is forgotten");
+            this.state.hooksContainer.callHooks(baseEx);
+            this.state.exceptionHandler.handle(baseEx);
+            throw baseEx;
+        }
+        return this.state.view(this.depth - 1);
+    }
+
+    @Override
+    public CtxSC<C, PS> forgetHistory() {
+        this.state.forgetHistory(this.depth, 1);
+        return this;
+    }
+
+    @Override
+    public MemNoCtxSC<CtxSC<C, PS>> withoutContext() {
+        return this.state.pushMemNoCtx(this.depth);
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> withCtx(final U context) {
+        return newMem1CtxStepsChain(context);
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> withPooledCtx(final ContextPool<U> pool) {
+        if (pool == null) { this.throwNullArgException("pool"); }
+        final U context = this.execAction(pool::borrow);
+        this.state.hooksContainer.addHook(NORM_HOOK_PRIORITY, () -> pool.giveBack(context));
+        return this.newMem1CtxStepsChain(context);
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> withCtx(
+        final ThrowingSupplier<? extends U, ?> supplier
+    ) {
+        if (supplier == null) { this.throwNullArgException("supplier"); }
+        return newMem1CtxStepsChain(this.execAction(supplier));
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> withCtx(
+        final ThrowingFunction<? super C, ? extends U, ?> function
+    ) {
+        if (function == null) { this.throwNullArgException("function"); }
+        return newMem1CtxStepsChain(this.execAction(() -> function.apply(this.ctx())));
+    }
+
+    @Override
+    public CtxSC<C, PS> action(
+        final ThrowingRunnable<?> action
+    ) {
+        if (action == null) { this.throwNullArgException("action"); }
+        this.execAction(() -> {
+            action.run();
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> action(
+        final ThrowingConsumer<? super C, ?> action
+    ) {
+        if (action == null) { this.throwNullArgException("action"); }
+        this.execAction(() -> {
+            action.accept(this.ctx());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <R> R actionTo(
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.execAction(action);
+    }
+
+    @Override
+    public <R> R actionTo(
+        final ThrowingFunction<? super C, ? extends R, ?> action
+    ) {
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.execAction(() -> action.apply(this.ctx()));
+    }
+
+    @Override
+    public CtxSC<C, PS> step(final String name) {
+        return this.step(name, "");
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final String name,
+        final String desc
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        this.reportStep(name, desc, () -> null);
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final RunnableStep step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.run();
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final SupplierStep<?> step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(step);
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final ConsumerStep<? super C> step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.accept(this.ctx());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final FunctionStep<? super C, ?> step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> step.apply(this.ctx()));
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final String keyword,
+        final RunnableStep step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.withKeyword(keyword).run();
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final String keyword,
+        final SupplierStep<?> step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(step);
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final String keyword,
+        final ConsumerStep<? super C> step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.withKeyword(keyword).accept(this.ctx());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final String keyword,
+        final FunctionStep<? super C, ?> step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> step.withKeyword(keyword).apply(this.ctx()));
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final ThrowingRunnable<?> action
+    ) {
+        return this.step("", "", action);
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final ThrowingConsumer<? super C, ?> action
+    ) {
+        return this.step("", "", action);
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final String name,
+        final ThrowingRunnable<?> action
+    ) {
+        return this.step(name, "", action);
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final String name,
+        final ThrowingConsumer<? super C, ?> action
+    ) {
+        return this.step(name, "", action);
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final String name,
+        final String desc,
+        final ThrowingRunnable<?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        this.reportStep(name, desc, action);
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final String name,
+        final Duration timeout,
+        final ThrowingRunnable<?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
+            action.run();
+            return null;
+        }));
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> step(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<? super C, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        this.reportStep(name, desc, action);
+        return this;
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> stepToCtx(
+        final SupplierStep<? extends U> step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        return newMem1CtxStepsChain(this.execAction(step));
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> stepToCtx(
+        final FunctionStep<? super C, ? extends U> step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        return newMem1CtxStepsChain(this.execAction(() -> step.apply(this.ctx())));
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> stepToCtx(
+        final String keyword,
+        final SupplierStep<? extends U> step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return newMem1CtxStepsChain(this.execAction(step.withKeyword(keyword)));
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> stepToCtx(
+        final String keyword,
+        final FunctionStep<? super C, ? extends U> step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return newMem1CtxStepsChain(this.execAction(() -> step.withKeyword(keyword).apply(this.ctx())));
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> stepToCtx(
+        final ThrowingSupplier<? extends U, ?> action
+    ) {
+        return this.stepToCtx("", "", action);
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> stepToCtx(
+        final ThrowingFunction<? super C, ? extends U, ?> step
+    ) {
+        return this.stepToCtx("", "", step);
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> stepToCtx(
+        final String name,
+        final ThrowingSupplier<? extends U, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.stepToCtx(name, "", action);
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> stepToCtx(
+        final String name,
+        final ThrowingFunction<? super C, ? extends U, ?> action
+    ) {
+        return this.stepToCtx(name, "", action);
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> stepToCtx(
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends U, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return newMem1CtxStepsChain(this.reportStep(name, desc, action));
+    }
+
+    @Override
+    public <U> Ctx2SC<U, C, CtxSC<C, PS>> stepToCtx(
+        final String name,
+        final String desc,
+        final ThrowingFunction<? super C, ? extends U, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return newMem1CtxStepsChain(this.reportStep(name, desc, action));
+    }
+
+    @Override
+    public <R> R stepTo(
+        final SupplierStep<? extends R> step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(step);
+    }
+
+    @Override
+    public <R> R stepTo(
+        final FunctionStep<? super C, ? extends R> step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(() -> step.apply(this.ctx()));
+    }
+
+    @Override
+    public <R> R stepTo(
+        final String keyword,
+        final SupplierStep<? extends R> step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(step.withKeyword(keyword));
+    }
+
+    @Override
+    public <R> R stepTo(
+        final String keyword,
+        final FunctionStep<? super C, ? extends R> step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(() -> step.withKeyword(keyword).apply(this.ctx()));
+    }
+
+    @Override
+    public <R> R stepTo(
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepTo("", "", action);
+    }
+
+    @Override
+    public <R> R stepTo(
+        final ThrowingFunction<? super C, ? extends R, ?> action
+    ) {
+        return this.stepTo("", "", action);
+    }
+
+    @Override
+    public <R> R stepTo(
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepTo(name, "", action);
+    }
+
+    @Override
+    public <R> R stepTo(
+        final String name,
+        final ThrowingFunction<? super C, ? extends R, ?> action
+    ) {
+        return this.stepTo(name, "", action);
+    }
+
+    @Override
+    public <R> R stepTo(
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.reportStep(name, desc, action);
+    }
+
+    @Override
+    public <R> R stepTo(
+        final String name,
+        final Duration timeout,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.reportStep(name, "", withTimeout(timeout, action));
+    }
+
+    @Override
+    public <R> R stepToCached(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToCached(key, name, "", action);
+    }
+
+    @Override
+    public <R> R stepToCached(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepCache stepCache = XtepsBase.cached().stepCache();
+        @SuppressWarnings("unchecked")
+        final R cachedResult = (R) stepCache.getIfPresent(key);
+        if (cachedResult != null) {
+            return this.reportStep(name + " (cached)", desc, () -> cachedResult);
+        }
+        return this.reportStep(name, desc, () -> stepCache.load(key, action));
+    }
+
+    @Override
+    public <R> R stepToShared(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToShared(key, name, "", action);
+    }
+
+    @Override
+    public <R> R stepToShared(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final SharedResources.Lease lease = XtepsBase.cached().sharedResources().lease(key);
+        this.state.hooksContainer.addHook(NORM_HOOK_PRIORITY, lease::release);
+        return this.reportStep(
+            lease.isOwner() ? name : name + " (shared with " + lease.ownerThreadName() + ")",
+            desc,
+            () -> lease.get(action)
+        );
+    }
+
+    @Override
+    public CtxSC<C, PS> stepWithHandle(
+        final String name,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        return this.stepWithHandle(name, "", action);
+    }
+
+    @Override
+    public CtxSC<C, PS> stepWithHandle(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepHandle handle = StepHandles.request();
+        try {
+            this.reportStep(name, desc, () -> {
+                StepHandles.clearRequest();
+                action.accept(handle);
+                return null;
+            });
+        } finally {
+            StepHandles.clearRequest();
+        }
+        return this;
+    }
+
+    @Override
+    public <R> R stepTo(
+        final String name,
+        final String desc,
+        final ThrowingFunction<? super C, ? extends R, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.reportStep(name, desc, action);
+    }
+
+    @Override
+    public CtxSC<C, PS> nestedSteps(
+        final ThrowingConsumer<CtxSC<C, PS>, ?> stepsChain
+    ) {
+        return this.nestedSteps("", "", stepsChain);
+    }
+
+    @Override
+    public CtxSC<C, PS> nestedSteps(
+        final String name,
+        final ThrowingConsumer<CtxSC<C, PS>, ?> stepsChain
+    ) {
+        return this.nestedSteps(name, "", stepsChain);
+    }
+
+    @Override
+    public CtxSC<C, PS> nestedSteps(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<CtxSC<C, PS>, ?> stepsChain
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.reportStep(name, desc, () -> {
+            stepsChain.accept(this);
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public CtxSC<C, PS> nestedSteps(
+        final String name,
+        final Duration timeout,
+        final ThrowingConsumer<CtxSC<C, PS>, ?> stepsChain
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
+            stepsChain.accept(this);
+            return null;
+        }));
+        return this;
+    }
+
+    @Override
+    public <R> R nestedStepsTo(
+        final ThrowingFunction<CtxSC<C, PS>, ? extends R, ?> stepsChain
+    ) {
+        return this.nestedStepsTo("", "", stepsChain);
+    }
+
+    @Override
+    public <R> R nestedStepsTo(
+        final String name,
+        final ThrowingFunction<CtxSC<C, PS>, ? extends R, ?> stepsChain
+    ) {
+        return this.nestedStepsTo(name, "", stepsChain);
+    }
+
+    @Override
+    public <R> R nestedStepsTo(
+        final String name,
+        final String desc,
+        final ThrowingFunction<CtxSC<C, PS>, ? extends R, ?> stepsChain
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        return this.reportStep(name, desc, () -> stepsChain.apply(this));
+    }
+
+    @Override
+    public CtxSC<C, PS> branchSteps(
+        final ThrowingConsumer<CtxSC<C, PS>, ?> stepsChain
+    ) {
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.execAction(() -> {
+            stepsChain.accept(this);
+            return null;
+        });
+        return this;
+    }
+
+    private <R> R reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingSupplier<R, ?> step
+    ) {
+        return this.state.stepReporter.report(this.state.hooksContainer, this.state.exceptionHandler,
+            stepName, stepDescription, this.state.params(this.depth, 1), ThrowingSupplier.unchecked(step));
+    }
+
+    private void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingRunnable<?> step
+    ) {
+        this.state.stepReporter.report(this.state.hooksContainer, this.state.exceptionHandler,
+            stepName, stepDescription, this.state.params(this.depth, 1), ThrowingRunnable.unchecked(step));
+    }
+
+    private void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingConsumer<? super C, ?> step
+    ) {
+        this.state.stepReporter.report(this.state.hooksContainer, this.state.exceptionHandler,
+            stepName, stepDescription, ThrowingConsumer.unchecked(step), this.ctx());
+    }
+
+    private <R> R reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingFunction<? super C, ? extends R, ?> step
+    ) {
+        return this.state.stepReporter.report(this.state.hooksContainer, this.state.exceptionHandler,
+            stepName, stepDescription, ThrowingFunction.unchecked(step), this.ctx());
+    }
+
+    private <R> R execAction(
+        final ThrowingSupplier<R, ?> action
+    ) {
+        try {
+            return action.get();
+        } catch (final Throwable ex) {
+            this.state.hooksContainer.callHooks(ex);
+            this.state.exceptionHandler.handle(ex);
+            throw sneakyThrow(ex);
+        }
+    }
+
+    private <U> Ctx2SC<U, C, CtxSC<C, PS>> newMem1CtxStepsChain(final U newContext) {
+        return this.state.pushCtx2(this.depth, newContext);
+    }
+
+    private void throwNullArgException(final String argName) {
+        final XtepsException baseEx = new XtepsException(argName + " arg is null");
+        this.state.hooksContainer.callHooks(baseEx);
+        this.state.exceptionHandler.handle(baseEx);
+        throw baseEx;
+    }
+
+    private void checkPriorityArg(final int priority) {
+        if (priority < MIN_HOOK_PRIORITY || priority > MAX_HOOK_PRIORITY) {
+            final XtepsException baseEx = new XtepsException("priority arg not in the range " + MIN_HOOK_PRIORITY +
+                " to " + MAX_HOOK_PRIORITY);
+            this.state.hooksContainer.callHooks(baseEx);
+            this.state.exceptionHandler.handle(baseEx);
+            throw baseEx;
+        }
+    }
+}
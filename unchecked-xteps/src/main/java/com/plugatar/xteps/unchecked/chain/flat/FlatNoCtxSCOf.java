@@ -0,0 +1,612 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.unchecked.chain.flat;
+
+import com.plugatar.xteps.base.ExceptionHandler;
+import com.plugatar.xteps.base.HooksContainer;
+import com.plugatar.xteps.base.HooksOrder;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.ThrowingConsumer;
+import com.plugatar.xteps.base.ThrowingFunction;
+import com.plugatar.xteps.base.ThrowingRunnable;
+import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsBase;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.handle.StepHandle;
+import com.plugatar.xteps.base.handle.StepHandles;
+import com.plugatar.xteps.base.hook.ThreadHooks;
+import com.plugatar.xteps.base.pool.ContextPool;
+import com.plugatar.xteps.unchecked.chain.CtxSC;
+import com.plugatar.xteps.unchecked.chain.NoCtxSC;
+import com.plugatar.xteps.unchecked.stepobject.RunnableStep;
+import com.plugatar.xteps.unchecked.stepobject.SupplierStep;
+
+import java.time.Duration;
+
+import static com.plugatar.xteps.base.HookPriority.MAX_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.HookPriority.MIN_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.HookPriority.NORM_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.timeout.StepTimeout.withTimeout;
+import static com.plugatar.xteps.unchecked.chain.flat.StepsChainUtils.sneakyThrow;
+
+/**
+ * No context flat steps chain implementation. The root of the flat steps chain.
+ * <p>
+ * The flat steps chain keeps the contexts of all derived steps chains in a single
+ * frames stack and caches the steps chain views of each frame, so the steps chain
+ * methods do not allocate new steps chains and step params arrays.
+ * <p>
+ * The flat steps chain is single-owner and not thread-safe. The new context steps
+ * chain overwrites all steps chains derived from the same steps chain earlier,
+ * only the last derived steps chain and its previous steps chains can be used.
+ */
+public final class FlatNoCtxSCOf implements NoCtxSC {
+    private final FlatSCState state;
+    private final int depth;
+
+    /**
+     * Ctor.
+     *
+     * @param stepReporter     the step reporter
+     * @param exceptionHandler the exception handler
+     * @param hooksContainer   the hooks container
+     * @throws NullPointerException if {@code stepReporter} or {@code exceptionHandler}
+     *                              or {@code hooksContainer} is null
+     */
+    public FlatNoCtxSCOf(final StepReporter stepReporter,
+                         final ExceptionHandler exceptionHandler,
+                         final HooksContainer hooksContainer) {
+        if (stepReporter == null) { throw new NullPointerException("stepReporter arg is null"); }
+        if (exceptionHandler == null) { throw new NullPointerException("exceptionHandler arg is null"); }
+        if (hooksContainer == null) { throw new NullPointerException("hooksContainer arg is null"); }
+        this.state = new FlatSCState(stepReporter, exceptionHandler, hooksContainer, this);
+        this.depth = 0;
+    }
+
+    @Override
+    public NoCtxSC callChainHooks() {
+        try {
+            this.state.hooksContainer.callHooks();
+        } catch (final Throwable ex) {
+            this.state.exceptionHandler.handle(ex);
+            throw ex;
+        }
+        return this;
+    }
+
+    @Override
+    public NoCtxSC chainHooksOrder(final HooksOrder order) {
+        if (order == null) { this.throwNullArgException("order"); }
+        this.state.hooksContainer.setOrder(order);
+        return this;
+    }
+
+    @Override
+    public NoCtxSC threadHooksOrder(final HooksOrder order) {
+        if (order == null) { this.throwNullArgException("order"); }
+        ThreadHooks.setOrder(order);
+        return this;
+    }
+
+    @Override
+    public NoCtxSC chainHook(
+        final ThrowingRunnable<?> hook
+    ) {
+        return this.chainHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public NoCtxSC chainHook(
+        final int priority,
+        final ThrowingRunnable<?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        this.state.hooksContainer.addHook(priority, hook);
+        return this;
+    }
+
+    @Override
+    public NoCtxSC threadHook(
+        final ThrowingRunnable<?> hook
+    ) {
+        return this.threadHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public NoCtxSC threadHook(
+        final int priority,
+        final ThrowingRunnable<?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        ThreadHooks.addHook(priority, hook);
+        return this;
+    }
+
+    @Override
+    public <U> CtxSC<U, NoCtxSC> withCtx(final U context) {
+        return this.newCtxStepsChain(context);
+    }
+
+    @Override
+    public <U> CtxSC<U, NoCtxSC> withPooledCtx(final ContextPool<U> pool) {
+        if (pool == null) { this.throwNullArgException("pool"); }
+        final U context = this.execAction(pool::borrow);
+        this.state.hooksContainer.addHook(NORM_HOOK_PRIORITY, () -> pool.giveBack(context));
+        return this.newCtxStepsChain(context);
+    }
+
+    @Override
+    public <U> CtxSC<U, NoCtxSC> withCtx(
+        final ThrowingSupplier<? extends U, ?> supplier
+    ) {
+        if (supplier == null) { this.throwNullArgException("supplier"); }
+        return this.newCtxStepsChain(this.execAction(supplier));
+    }
+
+    @Override
+    public NoCtxSC action(
+        final ThrowingRunnable<?> action
+    ) {
+        if (action == null) { this.throwNullArgException("action"); }
+        this.execAction(() -> {
+            action.run();
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <R> R actionTo(
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.execAction(action);
+    }
+
+    @Override
+    public NoCtxSC step(final String name) {
+        return this.step(name, "");
+    }
+
+    @Override
+    public NoCtxSC step(
+        final String name,
+        final String desc
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        this.reportStep(name, desc, () -> null);
+        return this;
+    }
+
+    @Override
+    public NoCtxSC step(
+        final RunnableStep step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.run();
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public NoCtxSC step(
+        final SupplierStep<?> step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(step);
+        return this;
+    }
+
+    @Override
+    public NoCtxSC step(
+        final String keyword,
+        final RunnableStep step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.withKeyword(keyword).run();
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public NoCtxSC step(
+        final String keyword,
+        final SupplierStep<?> step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(step.withKeyword(keyword));
+        return this;
+    }
+
+    @Override
+    public NoCtxSC step(
+        final ThrowingRunnable<?> action
+    ) {
+        return this.step("", "", action);
+    }
+
+    @Override
+    public NoCtxSC step(
+        final String name,
+        final ThrowingRunnable<?> action
+    ) {
+        return this.step(name, "", action);
+    }
+
+    @Override
+    public NoCtxSC step(
+        final String name,
+        final String desc,
+        final ThrowingRunnable<?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        this.reportStep(name, desc, action);
+        return this;
+    }
+
+    @Override
+    public NoCtxSC step(
+        final String name,
+        final Duration timeout,
+        final ThrowingRunnable<?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
+            action.run();
+            return null;
+        }));
+        return this;
+    }
+
+    @Override
+    public <U> CtxSC<U, NoCtxSC> stepToCtx(
+        final SupplierStep<? extends U> step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.newCtxStepsChain(this.execAction(step));
+    }
+
+    @Override
+    public <U> CtxSC<U, NoCtxSC> stepToCtx(
+        final String keyword,
+        final SupplierStep<? extends U> step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.newCtxStepsChain(this.execAction(step.withKeyword(keyword)));
+    }
+
+    @Override
+    public <U> CtxSC<U, NoCtxSC> stepToCtx(
+        final ThrowingSupplier<? extends U, ?> action
+    ) {
+        return this.stepToCtx("", "", action);
+    }
+
+    @Override
+    public <U> CtxSC<U, NoCtxSC> stepToCtx(
+        final String name,
+        final ThrowingSupplier<? extends U, ?> action
+    ) {
+        return this.stepToCtx(name, "", action);
+    }
+
+    @Override
+    public <U> CtxSC<U, NoCtxSC> stepToCtx(
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends U, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.newCtxStepsChain(this.reportStep(name, desc, action));
+    }
+
+    @Override
+    public <R> R stepTo(
+        final SupplierStep<? extends R> step
+    ) {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(step);
+    }
+
+    @Override
+    public <R> R stepTo(
+        final String keyword,
+        final SupplierStep<? extends R> step
+    ) {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(step.withKeyword(keyword));
+    }
+
+    @Override
+    public <R> R stepTo(
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepTo("", "", action);
+    }
+
+    @Override
+    public <R> R stepTo(
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepTo(name, "", action);
+    }
+
+    @Override
+    public <R> R stepTo(
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.reportStep(name, desc, action);
+    }
+
+    @Override
+    public <R> R stepTo(
+        final String name,
+        final Duration timeout,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.reportStep(name, "", withTimeout(timeout, action));
+    }
+
+    @Override
+    public <R> R stepToCached(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToCached(key, name, "", action);
+    }
+
+    @Override
+    public <R> R stepToCached(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepCache stepCache = XtepsBase.cached().stepCache();
+        @SuppressWarnings("unchecked")
+        final R cachedResult = (R) stepCache.getIfPresent(key);
+        if (cachedResult != null) {
+            return this.reportStep(name + " (cached)", desc, () -> cachedResult);
+        }
+        return this.reportStep(name, desc, () -> stepCache.load(key, action));
+    }
+
+    @Override
+    public <R> R stepToShared(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToShared(key, name, "", action);
+    }
+
+    @Override
+    public <R> R stepToShared(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final SharedResources.Lease lease = XtepsBase.cached().sharedResources().lease(key);
+        this.state.hooksContainer.addHook(NORM_HOOK_PRIORITY, lease::release);
+        return this.reportStep(
+            lease.isOwner() ? name : name + " (shared with " + lease.ownerThreadName() + ")",
+            desc,
+            () -> lease.get(action)
+        );
+    }
+
+    @Override
+    public NoCtxSC stepWithHandle(
+        final String name,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        return this.stepWithHandle(name, "", action);
+    }
+
+    @Override
+    public NoCtxSC stepWithHandle(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepHandle handle = StepHandles.request();
+        try {
+            this.reportStep(name, desc, () -> {
+                StepHandles.clearRequest();
+                action.accept(handle);
+                return null;
+            });
+        } finally {
+            StepHandles.clearRequest();
+        }
+        return this;
+    }
+
+    @Override
+    public NoCtxSC nestedSteps(
+        final ThrowingConsumer<NoCtxSC, ?> stepsChain
+    ) {
+        return this.nestedSteps("", "", stepsChain);
+    }
+
+    @Override
+    public NoCtxSC nestedSteps(
+        final String name,
+        final ThrowingConsumer<NoCtxSC, ?> stepsChain
+    ) {
+        return this.nestedSteps(name, "", stepsChain);
+    }
+
+    @Override
+    public NoCtxSC nestedSteps(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<NoCtxSC, ?> stepsChain
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.reportStep(name, desc, () -> {
+            stepsChain.accept(this);
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public NoCtxSC nestedSteps(
+        final String name,
+        final Duration timeout,
+        final ThrowingConsumer<NoCtxSC, ?> stepsChain
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
+            stepsChain.accept(this);
+            return null;
+        }));
+        return this;
+    }
+
+    @Override
+    public <R> R nestedStepsTo(
+        final ThrowingFunction<NoCtxSC, ? extends R, ?> stepsChain
+    ) {
+        return this.nestedStepsTo("", "", stepsChain);
+    }
+
+    @Override
+    public <R> R nestedStepsTo(
+        final String name,
+        final ThrowingFunction<NoCtxSC, ? extends R, ?> stepsChain
+    ) {
+        return this.nestedStepsTo(name, "", stepsChain);
+    }
+
+    @Override
+    public <R> R nestedStepsTo(
+        final String name,
+        final String desc,
+        final ThrowingFunction<NoCtxSC, ? extends R, ?> stepsChain
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        return this.reportStep(name, desc, () -> stepsChain.apply(this));
+    }
+
+    @Override
+    public NoCtxSC branchSteps(
+        final ThrowingConsumer<NoCtxSC, ?> stepsChain
+    ) {
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.execAction(() -> {
+            stepsChain.accept(this);
+            return null;
+        });
+        return this;
+    }
+
+    private <R> R reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingSupplier<R, ?> step
+    ) {
+        return this.state.stepReporter.report(this.state.hooksContainer, this.state.exceptionHandler,
+            stepName, stepDescription, this.state.params(this.depth, 0), ThrowingSupplier.unchecked(step));
+    }
+
+    private void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingRunnable<?> step
+    ) {
+        this.state.stepReporter.report(this.state.hooksContainer, this.state.exceptionHandler,
+            stepName, stepDescription, this.state.params(this.depth, 0), ThrowingRunnable.unchecked(step));
+    }
+
+    private <R> R execAction(
+        final ThrowingSupplier<R, ?> action
+    ) {
+        try {
+            return action.get();
+        } catch (final Throwable ex) {
+            this.state.exceptionHandler.handle(ex);
+            throw sneakyThrow(ex);
+        }
+    }
+
+    private <U> CtxSC<U, NoCtxSC> newCtxStepsChain(final U newContext) {
+        return this.state.pushCtx(this.depth, newContext);
+    }
+
+    private void throwNullArgException(final String argName) {
+        final XtepsException baseEx = new XtepsException(argName + " arg is null");
+        this.state.exceptionHandler.handle(baseEx);
+        throw baseEx;
+    }
+
+    private void checkPriorityArg(final int priority) {
+        if (priority < MIN_HOOK_PRIORITY || priority > MAX_HOOK_PRIORITY) {
+            final XtepsException baseEx = new XtepsException("priority arg not in the range " + MIN_HOOK_PRIORITY +
+                " to " + MAX_HOOK_PRIORITY);
+            this.state.exceptionHandler.handle(baseEx);
+            throw baseEx;
+        }
+    }
+}
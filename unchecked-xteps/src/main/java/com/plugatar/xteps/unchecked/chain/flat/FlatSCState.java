@@ -0,0 +1,178 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.unchecked.chain.flat;
+
+import com.plugatar.xteps.base.ExceptionHandler;
+import com.plugatar.xteps.base.HooksContainer;
+import com.plugatar.xteps.base.StepReporter;
+
+import java.util.Arrays;
+
+/**
+ * Flat steps chain state. Contains the frames stack of the steps chain: the context,
+ * the cached steps chain view and the cached step params of each frame.
+ * <p>
+ * Pushing a new frame discards all frames above the current one: the contexts and
+ * the step params of the discarded frames are cleared. The steps chain views are not
+ * cleared, they are reused by the frames pushed later at the same depth. So a steps
+ * chain view of a discarded frame is either the view of the new frame of the same
+ * depth or a view of the cleared frame, it must not be used after the push.
+ * <p>
+ * Forgetting the history discards all frames above the current one, as pushing does,
+ * and clears the contexts of all frames below the current frame contexts.
+ * <p>
+ * Not thread-safe.
+ */
+final class FlatSCState {
+    private static final Object[] EMPTY_PARAMS = {};
+    private static final int INITIAL_CAPACITY = 8;
+    final StepReporter stepReporter;
+    final ExceptionHandler exceptionHandler;
+    final HooksContainer hooksContainer;
+    private Object[] contexts;
+    private Object[] views;
+    private Object[][] params;
+    private int topDepth;
+    private int forgottenDepth;
+    private int clearedDepth;
+
+    /**
+     * Ctor.
+     *
+     * @param stepReporter     the step reporter
+     * @param exceptionHandler the exception handler
+     * @param hooksContainer   the hooks container
+     * @param rootView         the root steps chain view
+     */
+    FlatSCState(final StepReporter stepReporter,
+                final ExceptionHandler exceptionHandler,
+                final HooksContainer hooksContainer,
+                final FlatNoCtxSCOf rootView) {
+        this.stepReporter = stepReporter;
+        this.exceptionHandler = exceptionHandler;
+        this.hooksContainer = hooksContainer;
+        this.contexts = new Object[INITIAL_CAPACITY];
+        this.views = new Object[INITIAL_CAPACITY];
+        this.params = new Object[INITIAL_CAPACITY][];
+        this.views[0] = rootView;
+        this.params[0] = EMPTY_PARAMS;
+        this.topDepth = 0;
+        this.forgottenDepth = 0;
+        this.clearedDepth = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T context(final int depth) {
+        return (T) this.contexts[depth];
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T view(final int depth) {
+        return (T) this.views[depth];
+    }
+
+    boolean isHistoryForgotten(final int depth) {
+        return depth <= this.forgottenDepth;
+    }
+
+    void forgetHistory(final int depth,
+                       final int contextsCount) {
+        for (int idx = depth + 1; idx <= this.topDepth; ++idx) {
+            this.contexts[idx] = null;
+            this.params[idx] = null;
+        }
+        this.topDepth = depth;
+        final int lastClearedDepth = depth - contextsCount;
+        for (int idx = this.clearedDepth + 1; idx <= lastClearedDepth; ++idx) {
+            this.contexts[idx] = null;
+            this.params[idx] = null;
+        }
+        this.clearedDepth = Math.max(this.clearedDepth, lastClearedDepth);
+        this.forgottenDepth = depth;
+    }
+
+    Object[] params(final int depth,
+                    final int contextsCount) {
+        Object[] frameParams = this.params[depth];
+        if (frameParams == null) {
+            frameParams = new Object[contextsCount];
+            for (int idx = 0; idx < contextsCount; ++idx) {
+                frameParams[idx] = this.contexts[depth - idx];
+            }
+            this.params[depth] = frameParams;
+        }
+        return frameParams;
+    }
+
+    <V> V pushMemNoCtx(final int depth) {
+        final int newDepth = this.push(depth, null);
+        if (!(this.views[newDepth] instanceof FlatMemNoCtxSCOf)) {
+            this.views[newDepth] = new FlatMemNoCtxSCOf<>(this, newDepth);
+        }
+        this.params[newDepth] = EMPTY_PARAMS;
+        return this.view(newDepth);
+    }
+
+    <V> V pushCtx(final int depth,
+                  final Object context) {
+        final int newDepth = this.push(depth, context);
+        if (!(this.views[newDepth] instanceof FlatCtxSCOf)) {
+            this.views[newDepth] = new FlatCtxSCOf<>(this, newDepth);
+        }
+        return this.view(newDepth);
+    }
+
+    <V> V pushCtx2(final int depth,
+                   final Object context) {
+        final int newDepth = this.push(depth, context);
+        if (!(this.views[newDepth] instanceof FlatCtx2SCOf)) {
+            this.views[newDepth] = new FlatCtx2SCOf<>(this, newDepth);
+        }
+        return this.view(newDepth);
+    }
+
+    <V> V pushCtx3(final int depth,
+                   final Object context) {
+        final int newDepth = this.push(depth, context);
+        if (!(this.views[newDepth] instanceof FlatCtx3SCOf)) {
+            this.views[newDepth] = new FlatCtx3SCOf<>(this, newDepth);
+        }
+        return this.view(newDepth);
+    }
+
+    private int push(final int depth,
+                     final Object context) {
+        final int newDepth = depth + 1;
+        if (newDepth == this.contexts.length) {
+            final int newCapacity = this.contexts.length << 1;
+            this.contexts = Arrays.copyOf(this.contexts, newCapacity);
+            this.views = Arrays.copyOf(this.views, newCapacity);
+            this.params = Arrays.copyOf(this.params, newCapacity);
+        }
+        for (int idx = newDepth + 1; idx <= this.topDepth; ++idx) {
+            this.contexts[idx] = null;
+            this.params[idx] = null;
+        }
+        this.topDepth = newDepth;
+        this.contexts[newDepth] = context;
+        this.params[newDepth] = null;
+        if (this.forgottenDepth >= newDepth) {
+            this.forgottenDepth = depth;
+            this.clearedDepth = Math.min(this.clearedDepth, depth);
+        }
+        return newDepth;
+    }
+}
@@ -25,8 +25,14 @@ import com.plugatar.xteps.base.ThrowingConsumer;
 import com.plugatar.xteps.base.ThrowingFunction;
 import com.plugatar.xteps.base.ThrowingRunnable;
 import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsBase;
 import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.handle.StepHandle;
+import com.plugatar.xteps.base.handle.StepHandles;
 import com.plugatar.xteps.base.hook.ThreadHooks;
+import com.plugatar.xteps.base.pool.ContextPool;
 import com.plugatar.xteps.unchecked.chain.Ctx2SC;
 import com.plugatar.xteps.unchecked.chain.Ctx3SC;
 import com.plugatar.xteps.unchecked.chain.MemNoCtxSC;
@@ -38,9 +44,12 @@ import com.plugatar.xteps.unchecked.stepobject.FunctionStep;
 import com.plugatar.xteps.unchecked.stepobject.RunnableStep;
 import com.plugatar.xteps.unchecked.stepobject.SupplierStep;
 
+import java.time.Duration;
+
 import static com.plugatar.xteps.base.HookPriority.MAX_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.MIN_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.NORM_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.timeout.StepTimeout.withTimeout;
 import static com.plugatar.xteps.unchecked.chain.impl.StepsChainUtils.sneakyThrow;
 
 /**
@@ -88,6 +97,28 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         this.previousStepsChain = previousStepsChain;
     }
 
+    /**
+     * Ctor without the previous steps chain.
+     *
+     * @param stepReporter     the step reporter
+     * @param exceptionHandler the exception handler
+     * @param hooksContainer   the hooks container
+     * @param context          the context
+     * @param context2         the second context
+     */
+    private Ctx2SCOf(final StepReporter stepReporter,
+                     final ExceptionHandler exceptionHandler,
+                     final HooksContainer hooksContainer,
+                     final C context,
+                     final C2 context2) {
+        this.stepReporter = stepReporter;
+        this.exceptionHandler = exceptionHandler;
+        this.hooksContainer = hooksContainer;
+        this.context = context;
+        this.context2 = context2;
+        this.previousStepsChain = null;
+    }
+
     @Override
     public final Ctx2SC<C, C2, PS> callChainHooks() {
         try {
@@ -233,9 +264,23 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
 
     @Override
     public final PS previousStepsChain() {
+        if (this.previousStepsChain == null) {
+            final XtepsException baseEx = new XtepsException("previous steps chain is forgotten");
+            this.hooksContainer.callHooks(baseEx);
+            this.exceptionHandler.handle(baseEx);
+            throw baseEx;
+        }
         return this.previousStepsChain;
     }
 
+    @Override
+    public final Ctx2SC<C, C2, PS> forgetHistory() {
+        return this.previousStepsChain == null
+            ? this
+            : new Ctx2SCOf<>(this.stepReporter, this.exceptionHandler, this.hooksContainer,
+                this.context, this.context2);
+    }
+
     @Override
     public final MemNoCtxSC<Ctx2SC<C, C2, PS>> withoutContext() {
         return new MemNoCtxSCOf<>(this.stepReporter, this.exceptionHandler, this.hooksContainer, this);
@@ -246,6 +291,14 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         return this.newMem2CtxStepsChain(context);
     }
 
+    @Override
+    public final <U> Ctx3SC<U, C, C2, Ctx2SC<C, C2, PS>> withPooledCtx(final ContextPool<U> pool) {
+        if (pool == null) { this.throwNullArgException("pool"); }
+        final U context = this.execAction(pool::borrow);
+        this.hooksContainer.addHook(NORM_HOOK_PRIORITY, () -> pool.giveBack(context));
+        return this.newMem2CtxStepsChain(context);
+    }
+
     @Override
     public final <U> Ctx3SC<U, C, C2, Ctx2SC<C, C2, PS>> withCtx(
         final ThrowingSupplier<? extends U, ?> supplier
@@ -539,10 +592,23 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        this.reportStep(name, desc, () -> {
+        this.reportStep(name, desc, action);
+        return this;
+    }
+
+    @Override
+    public final Ctx2SC<C, C2, PS> step(
+        final String name,
+        final Duration timeout,
+        final ThrowingRunnable<?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
             action.run();
             return null;
-        });
+        }));
         return this;
     }
 
@@ -571,10 +637,7 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        this.reportStep(name, desc, () -> {
-            action.accept(this.context, this.context2);
-            return null;
-        });
+        this.reportStep(name, desc, action);
         return this;
     }
 
@@ -712,8 +775,7 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        return this.newMem2CtxStepsChain(this.reportStep(name, desc,
-            () -> action.apply(this.context, this.context2)));
+        return this.newMem2CtxStepsChain(this.reportStep(name, desc, action));
     }
 
     @Override
@@ -827,6 +889,106 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         return this.reportStep(name, desc, action);
     }
 
+    @Override
+    public final <R> R stepTo(
+        final String name,
+        final Duration timeout,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.reportStep(name, "", withTimeout(timeout, action));
+    }
+
+    @Override
+    public final <R> R stepToCached(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToCached(key, name, "", action);
+    }
+
+    @Override
+    public final <R> R stepToCached(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepCache stepCache = XtepsBase.cached().stepCache();
+        @SuppressWarnings("unchecked")
+        final R cachedResult = (R) stepCache.getIfPresent(key);
+        if (cachedResult != null) {
+            return this.reportStep(name + " (cached)", desc, () -> cachedResult);
+        }
+        return this.reportStep(name, desc, () -> stepCache.load(key, action));
+    }
+
+    @Override
+    public final <R> R stepToShared(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToShared(key, name, "", action);
+    }
+
+    @Override
+    public final <R> R stepToShared(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final SharedResources.Lease lease = XtepsBase.cached().sharedResources().lease(key);
+        this.hooksContainer.addHook(NORM_HOOK_PRIORITY, lease::release);
+        return this.reportStep(
+            lease.isOwner() ? name : name + " (shared with " + lease.ownerThreadName() + ")",
+            desc,
+            () -> lease.get(action)
+        );
+    }
+
+    @Override
+    public final Ctx2SC<C, C2, PS> stepWithHandle(
+        final String name,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        return this.stepWithHandle(name, "", action);
+    }
+
+    @Override
+    public final Ctx2SC<C, C2, PS> stepWithHandle(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepHandle handle = StepHandles.request();
+        try {
+            this.reportStep(name, desc, () -> {
+                StepHandles.clearRequest();
+                action.accept(handle);
+                return null;
+            });
+        } finally {
+            StepHandles.clearRequest();
+        }
+        return this;
+    }
+
     @Override
     public final <R> R stepTo(
         final String name,
@@ -848,7 +1010,7 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        return this.reportStep(name, desc, () -> action.apply(this.context, this.context2));
+        return this.reportStep(name, desc, action);
     }
 
     @Override
@@ -882,6 +1044,22 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         return this;
     }
 
+    @Override
+    public final Ctx2SC<C, C2, PS> nestedSteps(
+        final String name,
+        final Duration timeout,
+        final ThrowingConsumer<Ctx2SC<C, C2, PS>, ?> stepsChain
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
+            stepsChain.accept(this);
+            return null;
+        }));
+        return this;
+    }
+
     @Override
     public final <R> R nestedStepsTo(
         final ThrowingFunction<Ctx2SC<C, C2, PS>, ? extends R, ?> stepsChain
@@ -930,6 +1108,33 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
             new Object[]{this.context, this.context2}, ThrowingSupplier.unchecked(step));
     }
 
+    private void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingRunnable<?> step
+    ) {
+        this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            new Object[]{this.context, this.context2}, ThrowingRunnable.unchecked(step));
+    }
+
+    private void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingBiConsumer<? super C, ? super C2, ?> step
+    ) {
+        this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            ThrowingBiConsumer.unchecked(step), this.context, this.context2);
+    }
+
+    private <R> R reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingBiFunction<? super C, ? super C2, ? extends R, ?> step
+    ) {
+        return this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            ThrowingBiFunction.unchecked(step), this.context, this.context2);
+    }
+
     private <R> R execAction(
         final ThrowingSupplier<R, ?> action
     ) {
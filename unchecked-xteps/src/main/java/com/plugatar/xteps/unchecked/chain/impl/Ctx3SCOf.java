@@ -27,8 +27,14 @@ import com.plugatar.xteps.base.ThrowingRunnable;
 import com.plugatar.xteps.base.ThrowingSupplier;
 import com.plugatar.xteps.base.ThrowingTriConsumer;
 import com.plugatar.xteps.base.ThrowingTriFunction;
+import com.plugatar.xteps.base.XtepsBase;
 import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.handle.StepHandle;
+import com.plugatar.xteps.base.handle.StepHandles;
 import com.plugatar.xteps.base.hook.ThreadHooks;
+import com.plugatar.xteps.base.pool.ContextPool;
 import com.plugatar.xteps.unchecked.chain.Ctx3SC;
 import com.plugatar.xteps.unchecked.chain.MemNoCtxSC;
 import com.plugatar.xteps.unchecked.chain.base.BaseSC;
@@ -41,9 +47,12 @@ import com.plugatar.xteps.unchecked.stepobject.SupplierStep;
 import com.plugatar.xteps.unchecked.stepobject.TriConsumerStep;
 import com.plugatar.xteps.unchecked.stepobject.TriFunctionStep;
 
+import java.time.Duration;
+
 import static com.plugatar.xteps.base.HookPriority.MAX_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.MIN_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.NORM_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.timeout.StepTimeout.withTimeout;
 import static com.plugatar.xteps.unchecked.chain.impl.StepsChainUtils.sneakyThrow;
 
 /**
@@ -96,6 +105,31 @@ public class Ctx3SCOf<C, C2, C3, PS extends BaseSC<PS>> implements Ctx3SC<C, C2,
         this.previousStepsChain = previousStepsChain;
     }
 
+    /**
+     * Ctor without the previous steps chain.
+     *
+     * @param stepReporter     the step reporter
+     * @param exceptionHandler the exception handler
+     * @param hooksContainer   the hooks container
+     * @param context          the context
+     * @param context2         the second context
+     * @param context3         the third context
+     */
+    private Ctx3SCOf(final StepReporter stepReporter,
+                     final ExceptionHandler exceptionHandler,
+                     final HooksContainer hooksContainer,
+                     final C context,
+                     final C2 context2,
+                     final C3 context3) {
+        this.stepReporter = stepReporter;
+        this.exceptionHandler = exceptionHandler;
+        this.hooksContainer = hooksContainer;
+        this.context = context;
+        this.context2 = context2;
+        this.context3 = context3;
+        this.previousStepsChain = null;
+    }
+
     @Override
     public final Ctx3SC<C, C2, C3, PS> callChainHooks() {
         try {
@@ -282,9 +316,23 @@ public class Ctx3SCOf<C, C2, C3, PS extends BaseSC<PS>> implements Ctx3SC<C, C2,
 
     @Override
     public final PS previousStepsChain() {
+        if (this.previousStepsChain == null) {
+            final XtepsException baseEx = new XtepsException("previous steps chain is forgotten");
+            this.hooksContainer.callHooks(baseEx);
+            this.exceptionHandler.handle(baseEx);
+            throw baseEx;
+        }
         return this.previousStepsChain;
     }
 
+    @Override
+    public final Ctx3SC<C, C2, C3, PS> forgetHistory() {
+        return this.previousStepsChain == null
+            ? this
+            : new Ctx3SCOf<>(this.stepReporter, this.exceptionHandler, this.hooksContainer,
+                this.context, this.context2, this.context3);
+    }
+
     @Override
     public final MemNoCtxSC<Ctx3SC<C, C2, C3, PS>> withoutContext() {
         return new MemNoCtxSCOf<>(this.stepReporter, this.exceptionHandler, this.hooksContainer, this);
@@ -295,6 +343,14 @@ public class Ctx3SCOf<C, C2, C3, PS extends BaseSC<PS>> implements Ctx3SC<C, C2,
         return this.newMem2CtxStepsChain(context);
     }
 
+    @Override
+    public final <U> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> withPooledCtx(final ContextPool<U> pool) {
+        if (pool == null) { this.throwNullArgException("pool"); }
+        final U context = this.execAction(pool::borrow);
+        this.hooksContainer.addHook(NORM_HOOK_PRIORITY, () -> pool.giveBack(context));
+        return this.newMem2CtxStepsChain(context);
+    }
+
     @Override
     public final <U> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> withCtx(
         final ThrowingSupplier<? extends U, ?> supplier
@@ -678,10 +734,23 @@ public class Ctx3SCOf<C, C2, C3, PS extends BaseSC<PS>> implements Ctx3SC<C, C2,
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("step"); }
-        this.reportStep(name, desc, () -> {
+        this.reportStep(name, desc, action);
+        return this;
+    }
+
+    @Override
+    public final Ctx3SC<C, C2, C3, PS> step(
+        final String name,
+        final Duration timeout,
+        final ThrowingRunnable<?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
             action.run();
             return null;
-        });
+        }));
         return this;
     }
 
@@ -726,10 +795,7 @@ public class Ctx3SCOf<C, C2, C3, PS extends BaseSC<PS>> implements Ctx3SC<C, C2,
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("step"); }
-        this.reportStep(name, desc, () -> {
-            action.accept(this.context, this.context2, this.context3);
-            return null;
-        });
+        this.reportStep(name, desc, action);
         return this;
     }
 
@@ -916,8 +982,7 @@ public class Ctx3SCOf<C, C2, C3, PS extends BaseSC<PS>> implements Ctx3SC<C, C2,
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("step"); }
-        return this.newMem2CtxStepsChain(this.reportStep(name, desc,
-            () -> action.apply(this.context, this.context2, this.context3)));
+        return this.newMem2CtxStepsChain(this.reportStep(name, desc, action));
     }
 
     @Override
@@ -1065,6 +1130,106 @@ public class Ctx3SCOf<C, C2, C3, PS extends BaseSC<PS>> implements Ctx3SC<C, C2,
         return this.reportStep(name, desc, action);
     }
 
+    @Override
+    public final <R> R stepTo(
+        final String name,
+        final Duration timeout,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        return this.reportStep(name, "", withTimeout(timeout, action));
+    }
+
+    @Override
+    public final <R> R stepToCached(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToCached(key, name, "", action);
+    }
+
+    @Override
+    public final <R> R stepToCached(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepCache stepCache = XtepsBase.cached().stepCache();
+        @SuppressWarnings("unchecked")
+        final R cachedResult = (R) stepCache.getIfPresent(key);
+        if (cachedResult != null) {
+            return this.reportStep(name + " (cached)", desc, () -> cachedResult);
+        }
+        return this.reportStep(name, desc, () -> stepCache.load(key, action));
+    }
+
+    @Override
+    public final <R> R stepToShared(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToShared(key, name, "", action);
+    }
+
+    @Override
+    public final <R> R stepToShared(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final SharedResources.Lease lease = XtepsBase.cached().sharedResources().lease(key);
+        this.hooksContainer.addHook(NORM_HOOK_PRIORITY, lease::release);
+        return this.reportStep(
+            lease.isOwner() ? name : name + " (shared with " + lease.ownerThreadName() + ")",
+            desc,
+            () -> lease.get(action)
+        );
+    }
+
+    @Override
+    public final Ctx3SC<C, C2, C3, PS> stepWithHandle(
+        final String name,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        return this.stepWithHandle(name, "", action);
+    }
+
+    @Override
+    public final Ctx3SC<C, C2, C3, PS> stepWithHandle(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepHandle handle = StepHandles.request();
+        try {
+            this.reportStep(name, desc, () -> {
+                StepHandles.clearRequest();
+                action.accept(handle);
+                return null;
+            });
+        } finally {
+            StepHandles.clearRequest();
+        }
+        return this;
+    }
+
     @Override
     public final <R> R stepTo(
         final String name,
@@ -1099,8 +1264,7 @@ public class Ctx3SCOf<C, C2, C3, PS extends BaseSC<PS>> implements Ctx3SC<C, C2,
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("step"); }
-        return this.reportStep(name, desc,
-            () -> action.apply(this.context, this.context2, this.context3));
+        return this.reportStep(name, desc, action);
     }
 
     @Override
@@ -1134,6 +1298,22 @@ public class Ctx3SCOf<C, C2, C3, PS extends BaseSC<PS>> implements Ctx3SC<C, C2,
         return this;
     }
 
+    @Override
+    public final Ctx3SC<C, C2, C3, PS> nestedSteps(
+        final String name,
+        final Duration timeout,
+        final ThrowingConsumer<Ctx3SC<C, C2, C3, PS>, ?> stepsChain
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
+            stepsChain.accept(this);
+            return null;
+        }));
+        return this;
+    }
+
     @Override
     public final <R> R nestedStepsTo(
         final ThrowingFunction<Ctx3SC<C, C2, C3, PS>, ? extends R, ?> stepsChain
@@ -1182,6 +1362,33 @@ public class Ctx3SCOf<C, C2, C3, PS extends BaseSC<PS>> implements Ctx3SC<C, C2,
             new Object[]{this.context, this.context2, this.context3}, ThrowingSupplier.unchecked(step));
     }
 
+    private void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingRunnable<?> step
+    ) {
+        this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            new Object[]{this.context, this.context2, this.context3}, ThrowingRunnable.unchecked(step));
+    }
+
+    private void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingTriConsumer<? super C, ? super C2, ? super C3, ?> step
+    ) {
+        this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            ThrowingTriConsumer.unchecked(step), this.context, this.context2, this.context3);
+    }
+
+    private <R> R reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingTriFunction<? super C, ? super C2, ? super C3, ? extends R, ?> step
+    ) {
+        return this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            ThrowingTriFunction.unchecked(step), this.context, this.context2, this.context3);
+    }
+
     private <R> R execAction(
         final ThrowingSupplier<R, ?> action
     ) {
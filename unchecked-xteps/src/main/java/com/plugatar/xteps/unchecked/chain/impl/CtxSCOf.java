@@ -23,8 +23,14 @@ import com.plugatar.xteps.base.ThrowingConsumer;
 import com.plugatar.xteps.base.ThrowingFunction;
 import com.plugatar.xteps.base.ThrowingRunnable;
 import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsBase;
 import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.handle.StepHandle;
+import com.plugatar.xteps.base.handle.StepHandles;
 import com.plugatar.xteps.base.hook.ThreadHooks;
+import com.plugatar.xteps.base.pool.ContextPool;
 import com.plugatar.xteps.unchecked.chain.Ctx2SC;
 import com.plugatar.xteps.unchecked.chain.CtxSC;
 import com.plugatar.xteps.unchecked.chain.MemNoCtxSC;
@@ -34,9 +40,12 @@ import com.plugatar.xteps.unchecked.stepobject.FunctionStep;
 import com.plugatar.xteps.unchecked.stepobject.RunnableStep;
 import com.plugatar.xteps.unchecked.stepobject.SupplierStep;
 
+import java.time.Duration;
+
 import static com.plugatar.xteps.base.HookPriority.MAX_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.MIN_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.NORM_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.timeout.StepTimeout.withTimeout;
 import static com.plugatar.xteps.unchecked.chain.impl.StepsChainUtils.sneakyThrow;
 
 /**
@@ -79,6 +88,25 @@ public class CtxSCOf<C, PS extends BaseSC<PS>> implements CtxSC<C, PS> {
         this.previousStepsChain = previousStepsChain;
     }
 
+    /**
+     * Ctor without the previous steps chain.
+     *
+     * @param stepReporter     the step reporter
+     * @param exceptionHandler the exception handler
+     * @param hooksContainer   the hooks container
+     * @param context          the context
+     */
+    private CtxSCOf(final StepReporter stepReporter,
+                    final ExceptionHandler exceptionHandler,
+                    final HooksContainer hooksContainer,
+                    final C context) {
+        this.stepReporter = stepReporter;
+        this.exceptionHandler = exceptionHandler;
+        this.hooksContainer = hooksContainer;
+        this.context = context;
+        this.previousStepsChain = null;
+    }
+
     @Override
     public final CtxSC<C, PS> callChainHooks() {
         try {
@@ -183,9 +211,22 @@ public class CtxSCOf<C, PS extends BaseSC<PS>> implements CtxSC<C, PS> {
 
     @Override
     public final PS previousStepsChain() {
+        if (this.previousStepsChain == null) {
+            final XtepsException baseEx = new XtepsException("previous steps chain is forgotten");
+            this.hooksContainer.callHooks(baseEx);
+            this.exceptionHandler.handle(baseEx);
+            throw baseEx;
+        }
         return this.previousStepsChain;
     }
 
+    @Override
+    public final CtxSC<C, PS> forgetHistory() {
+        return this.previousStepsChain == null
+            ? this
+            : new CtxSCOf<>(this.stepReporter, this.exceptionHandler, this.hooksContainer, this.context);
+    }
+
     @Override
     public final MemNoCtxSC<CtxSC<C, PS>> withoutContext() {
         return new MemNoCtxSCOf<>(this.stepReporter, this.exceptionHandler, this.hooksContainer, this);
@@ -196,6 +237,14 @@ public class CtxSCOf<C, PS extends BaseSC<PS>> implements CtxSC<C, PS> {
         return newMem1CtxStepsChain(context);
     }
 
+    @Override
+    public final <U> Ctx2SC<U, C, CtxSC<C, PS>> withPooledCtx(final ContextPool<U> pool) {
+        if (pool == null) { this.throwNullArgException("pool"); }
+        final U context = this.execAction(pool::borrow);
+        this.hooksContainer.addHook(NORM_HOOK_PRIORITY, () -> pool.giveBack(context));
+        return this.newMem1CtxStepsChain(context);
+    }
+
     @Override
     public final <U> Ctx2SC<U, C, CtxSC<C, PS>> withCtx(
         final ThrowingSupplier<? extends U, ?> supplier
@@ -399,10 +448,23 @@ public class CtxSCOf<C, PS extends BaseSC<PS>> implements CtxSC<C, PS> {
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        this.reportStep(name, desc, () -> {
+        this.reportStep(name, desc, action);
+        return this;
+    }
+
+    @Override
+    public final CtxSC<C, PS> step(
+        final String name,
+        final Duration timeout,
+        final ThrowingRunnable<?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
             action.run();
             return null;
-        });
+        }));
         return this;
     }
 
@@ -415,10 +477,7 @@ public class CtxSCOf<C, PS extends BaseSC<PS>> implements CtxSC<C, PS> {
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        this.reportStep(name, desc, () -> {
-            action.accept(this.context);
-            return null;
-        });
+        this.reportStep(name, desc, action);
         return this;
     }
 
@@ -511,7 +570,7 @@ public class CtxSCOf<C, PS extends BaseSC<PS>> implements CtxSC<C, PS> {
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        return newMem1CtxStepsChain(this.reportStep(name, desc, () -> action.apply(this.context)));
+        return newMem1CtxStepsChain(this.reportStep(name, desc, action));
     }
 
     @Override
@@ -592,6 +651,106 @@ public class CtxSCOf<C, PS extends BaseSC<PS>> implements CtxSC<C, PS> {
         return this.reportStep(name, desc, action);
     }
 
+    @Override
+    public final <R> R stepTo(
+        final String name,
+        final Duration timeout,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.reportStep(name, "", withTimeout(timeout, action));
+    }
+
+    @Override
+    public final <R> R stepToCached(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToCached(key, name, "", action);
+    }
+
+    @Override
+    public final <R> R stepToCached(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepCache stepCache = XtepsBase.cached().stepCache();
+        @SuppressWarnings("unchecked")
+        final R cachedResult = (R) stepCache.getIfPresent(key);
+        if (cachedResult != null) {
+            return this.reportStep(name + " (cached)", desc, () -> cachedResult);
+        }
+        return this.reportStep(name, desc, () -> stepCache.load(key, action));
+    }
+
+    @Override
+    public final <R> R stepToShared(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToShared(key, name, "", action);
+    }
+
+    @Override
+    public final <R> R stepToShared(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final SharedResources.Lease lease = XtepsBase.cached().sharedResources().lease(key);
+        this.hooksContainer.addHook(NORM_HOOK_PRIORITY, lease::release);
+        return this.reportStep(
+            lease.isOwner() ? name : name + " (shared with " + lease.ownerThreadName() + ")",
+            desc,
+            () -> lease.get(action)
+        );
+    }
+
+    @Override
+    public final CtxSC<C, PS> stepWithHandle(
+        final String name,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        return this.stepWithHandle(name, "", action);
+    }
+
+    @Override
+    public final CtxSC<C, PS> stepWithHandle(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepHandle handle = StepHandles.request();
+        try {
+            this.reportStep(name, desc, () -> {
+                StepHandles.clearRequest();
+                action.accept(handle);
+                return null;
+            });
+        } finally {
+            StepHandles.clearRequest();
+        }
+        return this;
+    }
+
     @Override
     public final <R> R stepTo(
         final String name,
@@ -601,7 +760,7 @@ public class CtxSCOf<C, PS extends BaseSC<PS>> implements CtxSC<C, PS> {
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        return this.reportStep(name, desc, () -> action.apply(this.context));
+        return this.reportStep(name, desc, action);
     }
 
     @Override
@@ -635,6 +794,22 @@ public class CtxSCOf<C, PS extends BaseSC<PS>> implements CtxSC<C, PS> {
         return this;
     }
 
+    @Override
+    public final CtxSC<C, PS> nestedSteps(
+        final String name,
+        final Duration timeout,
+        final ThrowingConsumer<CtxSC<C, PS>, ?> stepsChain
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
+            stepsChain.accept(this);
+            return null;
+        }));
+        return this;
+    }
+
     @Override
     public final <R> R nestedStepsTo(
         final ThrowingFunction<CtxSC<C, PS>, ? extends R, ?> stepsChain
@@ -683,6 +858,33 @@ public class CtxSCOf<C, PS extends BaseSC<PS>> implements CtxSC<C, PS> {
             new Object[]{this.context}, ThrowingSupplier.unchecked(step));
     }
 
+    private void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingRunnable<?> step
+    ) {
+        this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            new Object[]{this.context}, ThrowingRunnable.unchecked(step));
+    }
+
+    private void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingConsumer<? super C, ?> step
+    ) {
+        this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            ThrowingConsumer.unchecked(step), this.context);
+    }
+
+    private <R> R reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingFunction<? super C, ? extends R, ?> step
+    ) {
+        return this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            ThrowingFunction.unchecked(step), this.context);
+    }
+
     private <R> R execAction(
         final ThrowingSupplier<R, ?> action
     ) {
@@ -23,17 +23,26 @@ import com.plugatar.xteps.base.ThrowingConsumer;
 import com.plugatar.xteps.base.ThrowingFunction;
 import com.plugatar.xteps.base.ThrowingRunnable;
 import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsBase;
 import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.handle.StepHandle;
+import com.plugatar.xteps.base.handle.StepHandles;
 import com.plugatar.xteps.base.hook.ThreadHooks;
+import com.plugatar.xteps.base.pool.ContextPool;
 import com.plugatar.xteps.unchecked.chain.CtxSC;
 import com.plugatar.xteps.unchecked.chain.MemNoCtxSC;
 import com.plugatar.xteps.unchecked.chain.base.BaseCtxSC;
 import com.plugatar.xteps.unchecked.stepobject.RunnableStep;
 import com.plugatar.xteps.unchecked.stepobject.SupplierStep;
 
+import java.time.Duration;
+
 import static com.plugatar.xteps.base.HookPriority.MAX_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.MIN_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.NORM_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.timeout.StepTimeout.withTimeout;
 import static com.plugatar.xteps.unchecked.chain.impl.StepsChainUtils.sneakyThrow;
 
 /**
@@ -71,6 +80,22 @@ public class MemNoCtxSCOf<PS extends BaseCtxSC<PS>> implements MemNoCtxSC<PS> {
         this.previousStepsChain = previousStepsChain;
     }
 
+    /**
+     * Ctor without the previous steps chain.
+     *
+     * @param stepReporter     the step reporter
+     * @param exceptionHandler the exception handler
+     * @param hooksContainer   the hooks container
+     */
+    private MemNoCtxSCOf(final StepReporter stepReporter,
+                         final ExceptionHandler exceptionHandler,
+                         final HooksContainer hooksContainer) {
+        this.stepReporter = stepReporter;
+        this.exceptionHandler = exceptionHandler;
+        this.hooksContainer = hooksContainer;
+        this.previousStepsChain = null;
+    }
+
     @Override
     public final MemNoCtxSC<PS> callChainHooks() {
         try {
@@ -134,14 +159,35 @@ public class MemNoCtxSCOf<PS extends BaseCtxSC<PS>> implements MemNoCtxSC<PS> {
 
     @Override
     public final PS previousStepsChain() {
+        if (this.previousStepsChain == null) {
+            final XtepsException baseEx = new XtepsException("previous steps chain is forgotten");
+            this.hooksContainer.callHooks(baseEx);
+            this.exceptionHandler.handle(baseEx);
+            throw baseEx;
+        }
         return this.previousStepsChain;
     }
 
+    @Override
+    public final MemNoCtxSC<PS> forgetHistory() {
+        return this.previousStepsChain == null
+            ? this
+            : new MemNoCtxSCOf<>(this.stepReporter, this.exceptionHandler, this.hooksContainer);
+    }
+
     @Override
     public final <U> CtxSC<U, MemNoCtxSC<PS>> withCtx(final U context) {
         return newCtxStepsChain(context);
     }
 
+    @Override
+    public final <U> CtxSC<U, MemNoCtxSC<PS>> withPooledCtx(final ContextPool<U> pool) {
+        if (pool == null) { this.throwNullArgException("pool"); }
+        final U context = this.execAction(pool::borrow);
+        this.hooksContainer.addHook(NORM_HOOK_PRIORITY, () -> pool.giveBack(context));
+        return this.newCtxStepsChain(context);
+    }
+
     @Override
     public final <U> CtxSC<U, MemNoCtxSC<PS>> withCtx(
         final ThrowingSupplier<? extends U, ?> supplier
@@ -256,10 +302,23 @@ public class MemNoCtxSCOf<PS extends BaseCtxSC<PS>> implements MemNoCtxSC<PS> {
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        this.reportStep(name, desc, () -> {
+        this.reportStep(name, desc, action);
+        return this;
+    }
+
+    @Override
+    public final MemNoCtxSCOf<PS> step(
+        final String name,
+        final Duration timeout,
+        final ThrowingRunnable<?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
             action.run();
             return null;
-        });
+        }));
         return this;
     }
 
@@ -353,6 +412,106 @@ public class MemNoCtxSCOf<PS extends BaseCtxSC<PS>> implements MemNoCtxSC<PS> {
         return this.reportStep(name, desc, action);
     }
 
+    @Override
+    public final <R> R stepTo(
+        final String name,
+        final Duration timeout,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.reportStep(name, "", withTimeout(timeout, action));
+    }
+
+    @Override
+    public final <R> R stepToCached(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToCached(key, name, "", action);
+    }
+
+    @Override
+    public final <R> R stepToCached(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepCache stepCache = XtepsBase.cached().stepCache();
+        @SuppressWarnings("unchecked")
+        final R cachedResult = (R) stepCache.getIfPresent(key);
+        if (cachedResult != null) {
+            return this.reportStep(name + " (cached)", desc, () -> cachedResult);
+        }
+        return this.reportStep(name, desc, () -> stepCache.load(key, action));
+    }
+
+    @Override
+    public final <R> R stepToShared(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        return this.stepToShared(key, name, "", action);
+    }
+
+    @Override
+    public final <R> R stepToShared(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ?> action
+    ) {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final SharedResources.Lease lease = XtepsBase.cached().sharedResources().lease(key);
+        this.hooksContainer.addHook(NORM_HOOK_PRIORITY, lease::release);
+        return this.reportStep(
+            lease.isOwner() ? name : name + " (shared with " + lease.ownerThreadName() + ")",
+            desc,
+            () -> lease.get(action)
+        );
+    }
+
+    @Override
+    public final MemNoCtxSCOf<PS> stepWithHandle(
+        final String name,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        return this.stepWithHandle(name, "", action);
+    }
+
+    @Override
+    public final MemNoCtxSCOf<PS> stepWithHandle(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<? super StepHandle, ?> action
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepHandle handle = StepHandles.request();
+        try {
+            this.reportStep(name, desc, () -> {
+                StepHandles.clearRequest();
+                action.accept(handle);
+                return null;
+            });
+        } finally {
+            StepHandles.clearRequest();
+        }
+        return this;
+    }
+
     @Override
     public final MemNoCtxSC<PS> nestedSteps(
         final ThrowingConsumer<MemNoCtxSC<PS>, ?> stepsChain
@@ -384,6 +543,22 @@ public class MemNoCtxSCOf<PS extends BaseCtxSC<PS>> implements MemNoCtxSC<PS> {
         return this;
     }
 
+    @Override
+    public final MemNoCtxSC<PS> nestedSteps(
+        final String name,
+        final Duration timeout,
+        final ThrowingConsumer<MemNoCtxSC<PS>, ?> stepsChain
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
+            stepsChain.accept(this);
+            return null;
+        }));
+        return this;
+    }
+
     @Override
     public final <R> R nestedStepsTo(
         final ThrowingFunction<MemNoCtxSC<PS>, ? extends R, ?> stepsChain
@@ -432,6 +607,15 @@ public class MemNoCtxSCOf<PS extends BaseCtxSC<PS>> implements MemNoCtxSC<PS> {
             new Object[]{}, ThrowingSupplier.unchecked(step));
     }
 
+    private void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingRunnable<?> step
+    ) {
+        this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            new Object[]{}, ThrowingRunnable.unchecked(step));
+    }
+
     private <R> R execAction(
         final ThrowingSupplier<R, ?> action
     ) {
@@ -41,6 +41,11 @@ public class BiConsumerStep<T, U> implements ThrowingBiConsumer<T, U, RuntimeExc
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -59,6 +64,7 @@ public class BiConsumerStep<T, U> implements ThrowingBiConsumer<T, U, RuntimeExc
     public BiConsumerStep(final ThrowingBiConsumer<? super T, ? super U, ?> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(BiConsumerStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -101,6 +107,7 @@ public class BiConsumerStep<T, U> implements ThrowingBiConsumer<T, U, RuntimeExc
                           final ThrowingBiConsumer<? super T, ? super U, ?> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -128,7 +135,7 @@ public class BiConsumerStep<T, U> implements ThrowingBiConsumer<T, U, RuntimeExc
      */
     @Override
     public final void accept(final T t, final U u) {
-        stepsChainOf(t, u).step(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        stepsChainOf(t, u).step(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -243,6 +250,6 @@ public class BiConsumerStep<T, U> implements ThrowingBiConsumer<T, U, RuntimeExc
 
     @Override
     public final String toString() {
-        return "BiConsumerStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "BiConsumerStep(" + this.nameWithKeyword + ")";
     }
 }
@@ -42,6 +42,11 @@ public class BiFunctionStep<T, U, R> implements ThrowingBiFunction<T, U, R, Runt
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -60,6 +65,7 @@ public class BiFunctionStep<T, U, R> implements ThrowingBiFunction<T, U, R, Runt
     public BiFunctionStep(final ThrowingBiFunction<? super T, ? super U, ? extends R, ?> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(BiFunctionStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -102,6 +108,7 @@ public class BiFunctionStep<T, U, R> implements ThrowingBiFunction<T, U, R, Runt
                           final ThrowingBiFunction<? super T, ? super U, ? extends R, ?> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -131,7 +138,7 @@ public class BiFunctionStep<T, U, R> implements ThrowingBiFunction<T, U, R, Runt
      */
     @Override
     public final R apply(final T t, final U u) {
-        return stepsChainOf(t, u).stepTo(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        return stepsChainOf(t, u).stepTo(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -226,6 +233,6 @@ public class BiFunctionStep<T, U, R> implements ThrowingBiFunction<T, U, R, Runt
 
     @Override
     public final String toString() {
-        return "BiFunctionStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "BiFunctionStep(" + this.nameWithKeyword + ")";
     }
 }
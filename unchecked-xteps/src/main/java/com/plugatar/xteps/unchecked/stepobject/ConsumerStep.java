@@ -40,6 +40,11 @@ public class ConsumerStep<T> implements ThrowingConsumer<T, RuntimeException> {
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -58,6 +63,7 @@ public class ConsumerStep<T> implements ThrowingConsumer<T, RuntimeException> {
     public ConsumerStep(final ThrowingConsumer<? super T, ?> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(ConsumerStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -100,6 +106,7 @@ public class ConsumerStep<T> implements ThrowingConsumer<T, RuntimeException> {
                         final ThrowingConsumer<? super T, ?> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -125,7 +132,7 @@ public class ConsumerStep<T> implements ThrowingConsumer<T, RuntimeException> {
      */
     @Override
     public final void accept(final T t) {
-        stepsChainOf(t).step(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        stepsChainOf(t).step(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -231,6 +238,6 @@ public class ConsumerStep<T> implements ThrowingConsumer<T, RuntimeException> {
 
     @Override
     public final String toString() {
-        return "ConsumerStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "ConsumerStep(" + this.nameWithKeyword + ")";
     }
 }
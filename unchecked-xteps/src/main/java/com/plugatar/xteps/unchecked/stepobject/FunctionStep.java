@@ -41,6 +41,11 @@ public class FunctionStep<T, R> implements ThrowingFunction<T, R, RuntimeExcepti
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -59,6 +64,7 @@ public class FunctionStep<T, R> implements ThrowingFunction<T, R, RuntimeExcepti
     public FunctionStep(final ThrowingFunction<? super T, ? extends R, ?> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(FunctionStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -101,6 +107,7 @@ public class FunctionStep<T, R> implements ThrowingFunction<T, R, RuntimeExcepti
                         final ThrowingFunction<? super T, ? extends R, ?> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -128,7 +135,7 @@ public class FunctionStep<T, R> implements ThrowingFunction<T, R, RuntimeExcepti
      */
     @Override
     public final R apply(final T t) {
-        return stepsChainOf(t).stepTo(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        return stepsChainOf(t).stepTo(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -214,6 +221,6 @@ public class FunctionStep<T, R> implements ThrowingFunction<T, R, RuntimeExcepti
 
     @Override
     public final String toString() {
-        return "FunctionStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "FunctionStep(" + this.nameWithKeyword + ")";
     }
 }
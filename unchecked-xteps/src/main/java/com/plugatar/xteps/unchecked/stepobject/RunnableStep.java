@@ -38,6 +38,11 @@ public class RunnableStep implements ThrowingRunnable<RuntimeException> {
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -56,6 +61,7 @@ public class RunnableStep implements ThrowingRunnable<RuntimeException> {
     public RunnableStep(final ThrowingRunnable<?> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(RunnableStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -98,6 +104,7 @@ public class RunnableStep implements ThrowingRunnable<RuntimeException> {
                         final ThrowingRunnable<?> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -121,7 +128,7 @@ public class RunnableStep implements ThrowingRunnable<RuntimeException> {
      */
     @Override
     public final void run() {
-        step(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        step(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -231,6 +238,6 @@ public class RunnableStep implements ThrowingRunnable<RuntimeException> {
 
     @Override
     public final String toString() {
-        return "RunnableStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "RunnableStep(" + this.nameWithKeyword + ")";
     }
 }
@@ -40,6 +40,11 @@ public class SupplierStep<R> implements ThrowingSupplier<R, RuntimeException> {
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -58,6 +63,7 @@ public class SupplierStep<R> implements ThrowingSupplier<R, RuntimeException> {
     public SupplierStep(final ThrowingSupplier<? extends R, ?> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(SupplierStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -100,6 +106,7 @@ public class SupplierStep<R> implements ThrowingSupplier<R, RuntimeException> {
                         final ThrowingSupplier<? extends R, ?> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -125,7 +132,7 @@ public class SupplierStep<R> implements ThrowingSupplier<R, RuntimeException> {
      */
     @Override
     public final R get() {
-        return stepTo(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        return stepTo(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -215,6 +222,6 @@ public class SupplierStep<R> implements ThrowingSupplier<R, RuntimeException> {
 
     @Override
     public final String toString() {
-        return "SupplierStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "SupplierStep(" + this.nameWithKeyword + ")";
     }
 }
@@ -42,6 +42,11 @@ public class TriConsumerStep<T, U, V> implements ThrowingTriConsumer<T, U, V, Ru
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -60,6 +65,7 @@ public class TriConsumerStep<T, U, V> implements ThrowingTriConsumer<T, U, V, Ru
     public TriConsumerStep(final ThrowingTriConsumer<? super T, ? super U, ? super V, ?> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(TriConsumerStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -102,6 +108,7 @@ public class TriConsumerStep<T, U, V> implements ThrowingTriConsumer<T, U, V, Ru
                            final ThrowingTriConsumer<? super T, ? super U, ? super V, ?> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -131,7 +138,7 @@ public class TriConsumerStep<T, U, V> implements ThrowingTriConsumer<T, U, V, Ru
      */
     @Override
     public final void accept(final T t, final U u, final V v) {
-        stepsChainOf(t, u, v).step(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        stepsChainOf(t, u, v).step(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -286,6 +293,6 @@ public class TriConsumerStep<T, U, V> implements ThrowingTriConsumer<T, U, V, Ru
 
     @Override
     public final String toString() {
-        return "TriConsumerStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "TriConsumerStep(" + this.nameWithKeyword + ")";
     }
 }
@@ -43,6 +43,11 @@ public class TriFunctionStep<T, U, V, R> implements ThrowingTriFunction<T, U, V,
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -63,6 +68,7 @@ public class TriFunctionStep<T, U, V, R> implements ThrowingTriFunction<T, U, V,
     ) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(TriFunctionStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -111,6 +117,7 @@ public class TriFunctionStep<T, U, V, R> implements ThrowingTriFunction<T, U, V,
     ) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -142,7 +149,7 @@ public class TriFunctionStep<T, U, V, R> implements ThrowingTriFunction<T, U, V,
      */
     @Override
     public final R apply(final T t, final U u, final V v) {
-        return stepsChainOf(t, u, v).stepTo(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        return stepsChainOf(t, u, v).stepTo(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -277,6 +284,6 @@ public class TriFunctionStep<T, U, V, R> implements ThrowingTriFunction<T, U, V,
 
     @Override
     public final String toString() {
-        return "TriFunctionStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "TriFunctionStep(" + this.nameWithKeyword + ")";
     }
 }
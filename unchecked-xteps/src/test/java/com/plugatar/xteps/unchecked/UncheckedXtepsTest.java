@@ -21,8 +21,19 @@ import com.plugatar.xteps.base.ThrowingConsumer;
 import com.plugatar.xteps.base.ThrowingRunnable;
 import com.plugatar.xteps.base.ThrowingSupplier;
 import com.plugatar.xteps.base.ThrowingTriConsumer;
+import com.plugatar.xteps.base.XtepsBase;
 import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.handle.StepHandle;
+import com.plugatar.xteps.base.handle.StepHandles;
+import com.plugatar.xteps.base.pool.ContextPool;
+import com.plugatar.xteps.base.timeout.StepTimeoutException;
+import com.plugatar.xteps.unchecked.chain.Ctx2SC;
+import com.plugatar.xteps.unchecked.chain.Ctx3SC;
+import com.plugatar.xteps.unchecked.chain.CtxSC;
+import com.plugatar.xteps.unchecked.chain.MemNoCtxSC;
 import com.plugatar.xteps.unchecked.chain.NoCtxSC;
+import com.plugatar.xteps.unchecked.stepobject.RunnableStep;
+import com.plugatar.xteps.unchecked.stepobject.StepName;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -30,12 +41,17 @@ import org.junit.jupiter.api.parallel.ResourceAccessMode;
 import org.junit.jupiter.api.parallel.ResourceLock;
 import org.junit.jupiter.api.parallel.Resources;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -172,6 +188,110 @@ final class UncheckedXtepsTest {
         verify(action, times(1)).get();
     }
 
+    @Test
+    void stepMethodWithNameAndTimeoutAndAction() {
+        final String stepName = "stepMethodWithNameAndTimeoutAndAction";
+        @SuppressWarnings("unchecked")
+        final ThrowingRunnable<RuntimeException> action = mock(ThrowingRunnable.class);
+
+        UncheckedXteps.step(stepName, Duration.ofSeconds(10), action);
+        assertThatStepPassed(stepName, "", new Object[]{});
+        verify(action, times(1)).run();
+    }
+
+    @Test
+    void stepToMethodWithNameAndTimeoutAndAction() {
+        final String stepName = "stepToMethodWithNameAndTimeoutAndAction";
+        @SuppressWarnings("unchecked")
+        final ThrowingSupplier<Object, RuntimeException> action = mock(ThrowingSupplier.class);
+        final Object result = new Object();
+        when(action.get()).thenReturn(result);
+
+        assertThat(UncheckedXteps.stepTo(stepName, Duration.ofSeconds(10), action)).isSameAs(result);
+        assertThatStepPassed(stepName, "", new Object[]{});
+        verify(action, times(1)).get();
+    }
+
+    @Test
+    void stepToCachedMethodWithKeyAndNameAndDescAndAction() {
+        final String stepName = "stepToCachedMethodWithKeyAndNameAndDescAndAction";
+        final String stepDescription = "description";
+        final Object key = new Object();
+        @SuppressWarnings("unchecked")
+        final ThrowingSupplier<Object, RuntimeException> action = mock(ThrowingSupplier.class);
+        final Object result = new Object();
+        when(action.get()).thenReturn(result);
+
+        assertThat(UncheckedXteps.stepToCached(key, stepName, stepDescription, action)).isSameAs(result);
+        assertThatStepPassed(stepName, stepDescription, new Object[]{});
+        assertThat(UncheckedXteps.stepToCached(key, stepName, stepDescription, action)).isSameAs(result);
+        assertThatStepPassed(stepName + " (cached)", stepDescription, new Object[]{});
+        verify(action, times(1)).get();
+    }
+
+    @Test
+    void stepWithHandleMethodWithNameAndDescAndAction() {
+        final String stepName = "stepWithHandleMethodWithNameAndDescAndAction";
+        final String stepDescription = "description";
+        final AtomicReference<StepHandle> handleRef = new AtomicReference<>();
+        final AtomicBoolean requestedInAction = new AtomicBoolean(true);
+
+        UncheckedXteps.stepWithHandle(stepName, stepDescription, handle -> {
+            handleRef.set(handle);
+            requestedInAction.set(StepHandles.isRequested());
+            handle.name("new name").param("param", 1);
+        });
+        assertThatStepPassed(stepName, stepDescription, new Object[]{});
+        assertThat(handleRef.get()).isNotNull();
+        assertThat(requestedInAction.get()).isFalse();
+        assertThat(StepHandles.isRequested()).isFalse();
+    }
+
+    @Test
+    void stepToSharedMethodWithKeyAndNameAndDescAndAction() {
+        final String stepName = "stepToSharedMethodWithKeyAndNameAndDescAndAction";
+        final String stepDescription = "description";
+        final Object key = new Object();
+        @SuppressWarnings("unchecked")
+        final ThrowingSupplier<Object, RuntimeException> action = mock(ThrowingSupplier.class);
+        final Object result = new Object();
+        when(action.get()).thenReturn(result);
+
+        assertThat(UncheckedXteps.stepToShared(key, stepName, stepDescription, action)).isSameAs(result);
+        assertThatStepPassed(stepName, stepDescription, new Object[]{});
+        assertThat(UncheckedXteps.stepToShared(key, stepName, stepDescription, action)).isSameAs(result);
+        assertThatStepPassed(stepName + " (shared with " + Thread.currentThread().getName() + ")",
+            stepDescription, new Object[]{});
+        verify(action, times(1)).get();
+    }
+
+    @Test
+    void stepToSharedMethodLeaseReleasedWithEnclosingChainHooks() {
+        final String stepName = "stepToSharedMethodLeaseReleasedWithEnclosingChainHooks";
+        final Object key = new Object();
+        final NoCtxSC chain = UncheckedXteps.stepsChain();
+
+        chain.step("enclosing step", () -> UncheckedXteps.stepToShared(key, stepName, () -> "result"));
+        assertThat(XtepsBase.cached().sharedResources().leaseCount(key)).isEqualTo(1);
+        chain.callChainHooks();
+        assertThat(XtepsBase.cached().sharedResources().leaseCount(key)).isZero();
+    }
+
+    @Test
+    void stepMethodWithNameAndTimeoutAndActionIfTimedOut() {
+        final String stepName = "stepMethodWithNameAndTimeoutAndActionIfTimedOut";
+
+        assertThatCode(() -> UncheckedXteps.step(stepName, Duration.ofMillis(50), () -> Thread.sleep(10_000L)))
+            .isInstanceOf(StepTimeoutException.class)
+            .hasCauseInstanceOf(InterruptedException.class);
+        final String stepStartedUuid = StaticStepListener.stepStartedUUID();
+        assertThat(StaticStepListener.stepStartedName()).isEqualTo(stepName);
+        assertThat(StaticStepListener.stepStartedDescription()).isEmpty();
+        assertThat(StaticStepListener.stepStartedContexts()).isEmpty();
+        assertThat(StaticStepListener.stepFailedUUID()).isSameAs(stepStartedUuid);
+        assertThat(StaticStepListener.stepFailedException()).isInstanceOf(StepTimeoutException.class);
+    }
+
     @Test
     void stepsChainMethod() {
         @SuppressWarnings("unchecked")
@@ -250,6 +370,161 @@ final class UncheckedXtepsTest {
         assertThatStepPassed(stepName3, "", new Object[]{context3, context2, context1});
     }
 
+    @Test
+    void flatStepsChainMethod() {
+        @SuppressWarnings("unchecked")
+        final ThrowingRunnable<RuntimeException> action = mock(ThrowingRunnable.class);
+
+        final NoCtxSC stepsChain = UncheckedXteps.flatStepsChain();
+        assertThat(UncheckedXteps.flatStepsChain()).isNotSameAs(stepsChain);
+
+        final String stepName = "flatStepsChainMethod";
+        stepsChain.step(stepName, action);
+        assertThatStepPassed(stepName, "", new Object[]{});
+        verify(action, times(1)).run();
+    }
+
+    @Test
+    void flatStepsChainMethodWithContexts() {
+        final Object context1 = new Object();
+        final Object context2 = new Object();
+        final Object context3 = new Object();
+        final Object context4 = new Object();
+        final NoCtxSC stepsChain = UncheckedXteps.flatStepsChain();
+
+        final String stepName1 = "flatStepsChainMethodWithContexts 1";
+        stepsChain
+            .withCtx(context1)
+            .step(stepName1, ctx -> { });
+        assertThatStepPassed(stepName1, "", new Object[]{context1});
+
+        final String stepName2 = "flatStepsChainMethodWithContexts 2";
+        stepsChain
+            .withCtx(context1).withCtx(context2)
+            .step(stepName2, ctx -> { });
+        assertThatStepPassed(stepName2, "", new Object[]{context2, context1});
+
+        final String stepName3 = "flatStepsChainMethodWithContexts 3";
+        stepsChain
+            .withCtx(context1).withCtx(context2).withCtx(context3).withCtx(context4)
+            .step(stepName3, ctx -> { });
+        assertThatStepPassed(stepName3, "", new Object[]{context4, context3, context2});
+
+        final String stepName4 = "flatStepsChainMethodWithContexts 4";
+        final Object previousContext = stepsChain
+            .withCtx(context1).withoutContext().withCtx(context2)
+            .step(stepName4, ctx -> { })
+            .previousStepsChain().previousStepsChain().ctx();
+        assertThatStepPassed(stepName4, "", new Object[]{context2});
+        assertThat(previousContext).isSameAs(context1);
+    }
+
+    @Test
+    void flatStepsChainHooksCaptureContexts() {
+        @SuppressWarnings("unchecked")
+        final ThrowingConsumer<Object, RuntimeException> hook = mock(ThrowingConsumer.class);
+        final Object context1 = new Object();
+        final Object context2 = new Object();
+        final NoCtxSC stepsChain = UncheckedXteps.flatStepsChain();
+
+        stepsChain.withCtx(context1).chainHook(hook);
+        stepsChain.withCtx(context2).callChainHooks();
+        verify(hook, times(1)).accept(same(context1));
+    }
+
+    @Test
+    void chainHookCalledOnceForNestedStepsFailure() {
+        @SuppressWarnings("unchecked")
+        final ThrowingRunnable<RuntimeException> hook = mock(ThrowingRunnable.class);
+        final RuntimeException exception = new RuntimeException();
+        final NoCtxSC stepsChain = UncheckedXteps.stepsChain().chainHook(hook);
+
+        assertThatCode(() -> stepsChain.nestedSteps("outer step", chain1 -> chain1
+            .nestedSteps("inner step", chain2 -> chain2
+                .step("failed step", () -> { throw exception; }))
+        )).isSameAs(exception);
+        stepsChain.callChainHooks();
+        verify(hook, times(1)).run();
+    }
+
+    @Test
+    void withPooledCtxMethod() {
+        final String stepName = "withPooledCtxMethod";
+        final Object context = new Object();
+        @SuppressWarnings("unchecked")
+        final ThrowingConsumer<Object, RuntimeException> destroyer = mock(ThrowingConsumer.class);
+        final ContextPool<Object> pool = new ContextPool<>(() -> context, ctx -> true, destroyer, 1, Duration.ZERO);
+
+        UncheckedXteps.stepsChain().withPooledCtx(pool)
+            .step(stepName, ctx -> {
+                assertThat(ctx).isSameAs(context);
+                assertThat(pool.activeCount()).isEqualTo(1);
+            })
+            .callChainHooks();
+        assertThatStepPassed(stepName, "", new Object[]{context});
+        assertThat(pool.idleCount()).isEqualTo(1);
+        assertThat(UncheckedXteps.flatStepsChain().withPooledCtx(pool).ctx()).isSameAs(context);
+        assertThat(pool.createdCount()).isEqualTo(1L);
+        assertThat(pool.borrowCount()).isEqualTo(2L);
+        verify(destroyer, never()).accept(any());
+    }
+
+    @Test
+    void forgetHistoryMethod() {
+        assertForgetHistory(UncheckedXteps.stepsChain());
+    }
+
+    @Test
+    void flatStepsChainForgetHistoryMethod() {
+        assertForgetHistory(UncheckedXteps.flatStepsChain());
+    }
+
+    private static void assertForgetHistory(final NoCtxSC stepsChain) {
+        @SuppressWarnings("unchecked")
+        final ThrowingBiConsumer<Object, Object, RuntimeException> hook = mock(ThrowingBiConsumer.class);
+        final Object context1 = new Object();
+        final Object context2 = new Object();
+        final Object context3 = new Object();
+        final String stepName = "forgetHistory";
+
+        final CtxSC<Object, MemNoCtxSC<Ctx3SC<Object, Object, Object, Ctx2SC<Object, Object, CtxSC<Object, NoCtxSC>>>>>
+            forgotten = stepsChain
+            .withCtx(context1).withCtx(context2).chainHook(hook)
+            .forgetHistory()
+            .withCtx(context3).withoutContext().forgetHistory()
+            .withCtx(context3);
+        forgotten.step(stepName, ctx -> { });
+        assertThatStepPassed(stepName, "", new Object[]{context3});
+        assertThatCode(() -> forgotten.previousStepsChain().previousStepsChain())
+            .isInstanceOf(XtepsException.class);
+        verify(hook, times(1)).accept(same(context2), same(context1));
+    }
+
+    @Test
+    void stepObjectNames() {
+        new Derived_step_name().run();
+        assertThatStepPassed("Derived step name", "", new Object[]{});
+
+        new AnnotatedStep().run();
+        assertThatStepPassed("annotated step name", "", new Object[]{});
+
+        new AnnotatedStep().withKeyword("Given").run();
+        assertThatStepPassed("Given annotated step name", "", new Object[]{});
+    }
+
+    private static final class Derived_step_name extends RunnableStep {
+        private Derived_step_name() {
+            super(() -> { });
+        }
+    }
+
+    @StepName("annotated step name")
+    private static final class AnnotatedStep extends RunnableStep {
+        private AnnotatedStep() {
+            super(() -> { });
+        }
+    }
+
     @Test
     void chainWithAutoCloseableContextsIfActionFailed() {
         final RuntimeException baseException = new RuntimeException("base ex");
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.unchecked.chain.flat;
+
+import com.plugatar.xteps.base.handler.FakeExceptionHandler;
+import com.plugatar.xteps.base.hook.FakeHooksContainer;
+import com.plugatar.xteps.base.reporter.FakeStepReporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FlatSCState}.
+ */
+final class FlatSCStateTest {
+    private FlatSCState state;
+
+    @BeforeEach
+    void beforeEach() {
+        final FakeStepReporter stepReporter = new FakeStepReporter();
+        final FakeExceptionHandler exceptionHandler = new FakeExceptionHandler();
+        final FakeHooksContainer hooksContainer = new FakeHooksContainer();
+        this.state = new FlatSCState(stepReporter, exceptionHandler, hooksContainer,
+            new FlatNoCtxSCOf(stepReporter, exceptionHandler, hooksContainer));
+    }
+
+    @Test
+    void pushClearsFramesAboveNewFrame() {
+        final Object context1 = new Object();
+        final Object context2 = new Object();
+        final Object context3 = new Object();
+        final Object context4 = new Object();
+        this.state.pushCtx(0, context1);
+        this.state.pushCtx2(1, context2);
+        this.state.pushCtx3(2, context3);
+        this.state.pushCtx(0, context4);
+
+        assertThat(this.state.<Object>context(1)).isSameAs(context4);
+        assertThat(this.state.<Object>context(2)).isNull();
+        assertThat(this.state.<Object>context(3)).isNull();
+    }
+
+    @Test
+    void pushKeepsFramesBelowNewFrame() {
+        final Object context1 = new Object();
+        final Object context2 = new Object();
+        final Object context3 = new Object();
+        this.state.pushCtx(0, context1);
+        this.state.pushCtx2(1, context2);
+        this.state.pushCtx2(1, context3);
+
+        assertThat(this.state.<Object>context(1)).isSameAs(context1);
+        assertThat(this.state.<Object>context(2)).isSameAs(context3);
+        assertThat(this.state.params(2, 2)).containsExactly(context3, context1);
+    }
+
+    @Test
+    void pushBeyondInitialCapacity() {
+        final int depth = 100;
+        for (int idx = 0; idx < depth; ++idx) {
+            this.state.pushCtx(idx, idx);
+        }
+
+        for (int idx = 1; idx <= depth; ++idx) {
+            assertThat(this.state.<Object>context(idx)).isEqualTo(idx - 1);
+        }
+        assertThat(this.state.params(depth, 3)).containsExactly(depth - 1, depth - 2, depth - 3);
+    }
+
+    @Test
+    void forgetHistoryClearsFramesAboveAndBelowCurrentFrameContexts() {
+        final Object context1 = new Object();
+        final Object context2 = new Object();
+        final Object context3 = new Object();
+        final Object context4 = new Object();
+        this.state.pushCtx(0, context1);
+        this.state.pushCtx2(1, context2);
+        this.state.pushCtx3(2, context3);
+        this.state.pushCtx(3, context4);
+        this.state.forgetHistory(2, 2);
+
+        assertThat(this.state.isHistoryForgotten(2)).isTrue();
+        assertThat(this.state.<Object>context(1)).isSameAs(context1);
+        assertThat(this.state.<Object>context(2)).isSameAs(context2);
+        assertThat(this.state.<Object>context(3)).isNull();
+        assertThat(this.state.<Object>context(4)).isNull();
+        this.state.forgetHistory(2, 1);
+        assertThat(this.state.<Object>context(1)).isNull();
+        assertThat(this.state.<Object>context(2)).isSameAs(context2);
+    }
+
+    @Test
+    void paramsCachedUntilFrameIsPushedAgain() {
+        final Object context1 = new Object();
+        final Object context2 = new Object();
+        this.state.pushCtx(0, context1);
+        final Object[] params = this.state.params(1, 1);
+
+        assertThat(this.state.params(1, 1)).isSameAs(params).containsExactly(context1);
+        this.state.pushCtx(0, context2);
+        assertThat(this.state.params(1, 1)).isNotSameAs(params).containsExactly(context2);
+    }
+
+    @Test
+    void viewReusedForFrameOfSameTypeAndDepth() {
+        final Object view = this.state.pushCtx(0, new Object());
+
+        assertThat(this.state.<Object>pushCtx(0, new Object())).isSameAs(view);
+        assertThat(this.state.<Object>pushCtx2(0, new Object())).isNotSameAs(view)
+            .isInstanceOf(FlatCtx2SCOf.class);
+        assertThat(this.state.<Object>view(1)).isInstanceOf(FlatCtx2SCOf.class);
+        assertThat(this.state.<Object>view(0)).isInstanceOf(FlatNoCtxSCOf.class);
+    }
+}
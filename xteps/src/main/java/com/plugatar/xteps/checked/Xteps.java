@@ -20,16 +20,24 @@ import com.plugatar.xteps.base.HookPriority;
 import com.plugatar.xteps.base.HooksContainer;
 import com.plugatar.xteps.base.HooksOrder;
 import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.ThrowingConsumer;
 import com.plugatar.xteps.base.ThrowingRunnable;
 import com.plugatar.xteps.base.ThrowingSupplier;
 import com.plugatar.xteps.base.XtepsBase;
 import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.attachment.AttachmentSource;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.handle.StepHandle;
 import com.plugatar.xteps.base.hook.FakeHooksContainer;
 import com.plugatar.xteps.base.hook.ThreadHooks;
+import com.plugatar.xteps.base.reporter.CurrentStepHooksContainer;
+import com.plugatar.xteps.base.timeout.StepTimeoutException;
 import com.plugatar.xteps.checked.chain.Ctx2SC;
 import com.plugatar.xteps.checked.chain.Ctx3SC;
 import com.plugatar.xteps.checked.chain.CtxSC;
 import com.plugatar.xteps.checked.chain.NoCtxSC;
+import com.plugatar.xteps.checked.chain.flat.FlatNoCtxSCOf;
 import com.plugatar.xteps.checked.chain.impl.Ctx2SCOf;
 import com.plugatar.xteps.checked.chain.impl.Ctx3SCOf;
 import com.plugatar.xteps.checked.chain.impl.CtxSCOf;
@@ -37,6 +45,10 @@ import com.plugatar.xteps.checked.chain.impl.NoCtxSCOf;
 import com.plugatar.xteps.checked.stepobject.RunnableStep;
 import com.plugatar.xteps.checked.stepobject.SupplierStep;
 
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.function.Supplier;
 
 /**
@@ -53,22 +65,38 @@ import java.util.function.Supplier;
  * <li>{@link #step(ThrowingRunnable)}</li>
  * <li>{@link #step(String, ThrowingRunnable)}</li>
  * <li>{@link #step(String, String, ThrowingRunnable)}</li>
+ * <li>{@link #step(String, Duration, ThrowingRunnable)}</li>
  * <li>{@link #stepTo(SupplierStep)}</li>
  * <li>{@link #stepTo(String, SupplierStep)}</li>
  * <li>{@link #stepTo(ThrowingSupplier)}</li>
  * <li>{@link #stepTo(String, ThrowingSupplier)}</li>
  * <li>{@link #stepTo(String, String, ThrowingSupplier)}</li>
+ * <li>{@link #stepTo(String, Duration, ThrowingSupplier)}</li>
+ * <li>{@link #stepToCached(Object, String, ThrowingSupplier)}</li>
+ * <li>{@link #stepToCached(Object, String, String, ThrowingSupplier)}</li>
+ * <li>{@link #stepToShared(Object, String, ThrowingSupplier)}</li>
+ * <li>{@link #stepToShared(Object, String, String, ThrowingSupplier)}</li>
+ * <li>{@link #stepWithHandle(String, ThrowingConsumer)}</li>
+ * <li>{@link #stepWithHandle(String, String, ThrowingConsumer)}</li>
  * </ul>
  * <p>
  * Steps chain methods:
  * <ul>
  * <li>{@link #stepsChain()}</li>
+ * <li>{@link #flatStepsChain()}</li>
  * <li>{@link #stepsChainOf()}</li>
  * <li>{@link #stepsChainOf(Object)}</li>
  * <li>{@link #stepsChainOf(Object, Object)}</li>
  * <li>{@link #stepsChainOf(Object, Object, Object)}</li>
  * </ul>
  * <p>
+ * Attachment methods:
+ * <ul>
+ * <li>{@link #attach(String, String, Path)}</li>
+ * <li>{@link #attach(String, String, InputStream)}</li>
+ * <li>{@link #attach(String, String, ReadableByteChannel)}</li>
+ * </ul>
+ * <p>
  * Thread hooks methods:
  * <ul>
  * <li>{@link #threadHook(ThrowingRunnable)}</li>
@@ -341,6 +369,36 @@ public final class Xteps {
         CACHED_FAKE_HOOKS_NO_CTX_SC.get().step(name, desc, action);
     }
 
+    /**
+     * Performs and reports given step with given name and timeout.
+     * The step thread will be interrupted when the timeout expires, nested steps inherit
+     * the deadline of this step.
+     * <p>
+     * Code example:
+     * <pre>{@code
+     * step("Step 1", Duration.ofSeconds(10), () -> {
+     *     //...
+     * });
+     * }</pre>
+     *
+     * @param name    the step name
+     * @param timeout the step timeout
+     * @param action  the step action
+     * @param <E>     the {@code action} exception type
+     * @throws XtepsException       if Xteps configuration is incorrect
+     *                              or if {@code name} or {@code timeout} or {@code action} is null
+     *                              or if it's impossible to correctly report the step
+     * @throws StepTimeoutException if the step timed out
+     * @throws E                    if {@code action} threw exception
+     */
+    public static <E extends Throwable> void step(
+        final String name,
+        final Duration timeout,
+        final ThrowingRunnable<? extends E> action
+    ) throws E {
+        CACHED_FAKE_HOOKS_NO_CTX_SC.get().step(name, timeout, action);
+    }
+
     /**
      * Performs and reports given step and returns the step result.
      * <p>
@@ -514,6 +572,236 @@ public final class Xteps {
         return CACHED_FAKE_HOOKS_NO_CTX_SC.get().stepTo(name, desc, action);
     }
 
+    /**
+     * Performs and reports given step with given name and timeout and returns the step result.
+     * The step thread will be interrupted when the timeout expires, nested steps inherit
+     * the deadline of this step.
+     * <p>
+     * Code example:
+     * <pre>{@code
+     * String stepResult = stepTo("Step 1", Duration.ofSeconds(10), () -> {
+     *     //...
+     *     return "result";
+     * });
+     * }</pre>
+     *
+     * @param name    the step name
+     * @param timeout the step timeout
+     * @param action  the step action
+     * @param <R>     the result type
+     * @param <E>     the {@code action} exception type
+     * @return {@code action} result
+     * @throws XtepsException       if Xteps configuration is incorrect
+     *                              or if {@code name} or {@code timeout} or {@code action} is null
+     *                              or if it's impossible to correctly report the step
+     * @throws StepTimeoutException if the step timed out
+     * @throws E                    if {@code action} threw exception
+     */
+    public static <R, E extends Throwable> R stepTo(
+        final String name,
+        final Duration timeout,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        return CACHED_FAKE_HOOKS_NO_CTX_SC.get().stepTo(name, timeout, action);
+    }
+
+    /**
+     * Performs and reports given step with given name and returns the step result cached
+     * by given key. If the result is already cached, {@code action} will not be performed
+     * and the step will be reported with the {@code " (cached)"} name suffix.
+     * <p>
+     * Code example:
+     * <pre>{@code
+     * String token = stepToCached("user token", "Get user token", () -> {
+     *     //...
+     *     return "token";
+     * });
+     * }</pre>
+     *
+     * @param key    the cache key
+     * @param name   the step name
+     * @param action the step action
+     * @param <R>    the result type
+     * @param <E>    the {@code action} exception type
+     * @return {@code action} result or cached result
+     * @throws XtepsException if Xteps configuration is incorrect
+     *                        or if {@code key} or {@code name} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     * @throws E              if {@code action} threw exception
+     * @see StepCache
+     */
+    public static <R, E extends Throwable> R stepToCached(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        return CACHED_FAKE_HOOKS_NO_CTX_SC.get().stepToCached(key, name, action);
+    }
+
+    /**
+     * Performs and reports given step with given name and description and returns the step
+     * result cached by given key. If the result is already cached, {@code action} will not be
+     * performed and the step will be reported with the {@code " (cached)"} name suffix. Eviction
+     * hooks added in {@code action} will be called only when the cached result is evicted.
+     * <p>
+     * Code example:
+     * <pre>{@code
+     * WebDriver driver = stepToCached("driver", "Create driver", "Description", () -> {
+     *     final WebDriver newDriver = new ChromeDriver();
+     *     StepCache.evictionHook(newDriver::quit);
+     *     return newDriver;
+     * });
+     * }</pre>
+     *
+     * @param key    the cache key
+     * @param name   the step name
+     * @param desc   the step description
+     * @param action the step action
+     * @param <R>    the result type
+     * @param <E>    the {@code action} exception type
+     * @return {@code action} result or cached result
+     * @throws XtepsException if Xteps configuration is incorrect
+     *                        or if {@code key} or {@code name} or {@code desc} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     * @throws E              if {@code action} threw exception
+     * @see StepCache
+     */
+    public static <R, E extends Throwable> R stepToCached(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        return CACHED_FAKE_HOOKS_NO_CTX_SC.get().stepToCached(key, name, desc, action);
+    }
+
+    /**
+     * Performs and reports given step with given name and returns the step result shared
+     * by given key. Concurrent steps with the same key perform {@code action} once, other
+     * steps wait for the result and will be reported with the {@code " (shared with <thread
+     * name>)"} name suffix. The lease of the result is released with the hooks
+     * of the nearest enclosing steps chain step (or by the thread hook if there is no such
+     * step), the shared result is released when the last lease is released.
+     * <p>
+     * Code example:
+     * <pre>{@code
+     * WebDriver driver = stepToShared("driver", "Create driver", () -> {
+     *     final WebDriver newDriver = new ChromeDriver();
+     *     SharedResources.releaseHook(newDriver::quit);
+     *     return newDriver;
+     * });
+     * }</pre>
+     *
+     * @param key    the shared result key
+     * @param name   the step name
+     * @param action the step action
+     * @param <R>    the result type
+     * @param <E>    the {@code action} exception type
+     * @return shared result
+     * @throws XtepsException if Xteps configuration is incorrect
+     *                        or if {@code key} or {@code name} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     *                        or if the shared result loading in another thread failed
+     * @throws E              if {@code action} threw exception
+     * @see SharedResources
+     */
+    public static <R, E extends Throwable> R stepToShared(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        return CACHED_CURRENT_STEP_HOOKS_NO_CTX_SC.get().stepToShared(key, name, action);
+    }
+
+    /**
+     * Performs and reports given step with given name and description and returns the step
+     * result shared by given key. Concurrent steps with the same key perform {@code action}
+     * once, other steps wait for the result and will be reported with the {@code " (shared
+     * with <thread name>)"} name suffix. The lease of the result is released with the hooks
+     * of the nearest enclosing steps chain step (or by the thread hook if there is no such
+     * step), the shared result is released when the last lease is released.
+     *
+     * @param key    the shared result key
+     * @param name   the step name
+     * @param desc   the step description
+     * @param action the step action
+     * @param <R>    the result type
+     * @param <E>    the {@code action} exception type
+     * @return shared result
+     * @throws XtepsException if Xteps configuration is incorrect
+     *                        or if {@code key} or {@code name} or {@code desc} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     *                        or if the shared result loading in another thread failed
+     * @throws E              if {@code action} threw exception
+     * @see SharedResources
+     */
+    public static <R, E extends Throwable> R stepToShared(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        return CACHED_CURRENT_STEP_HOOKS_NO_CTX_SC.get().stepToShared(key, name, desc, action);
+    }
+
+    /**
+     * Performs and reports given step with given name. The step action gets the step handle
+     * with direct references to the step results of the reporting tools.
+     * <p>
+     * Code example:
+     * <pre>{@code
+     * stepWithHandle("Step", handle -> {
+     *     handle.param("first", 1).param("second", 2);
+     *     //...
+     * });
+     * }</pre>
+     *
+     * @param name   the step name
+     * @param action the step action
+     * @param <E>    the {@code action} exception type
+     * @throws XtepsException if Xteps configuration is incorrect
+     *                        or if {@code name} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     * @throws E              if {@code action} threw exception
+     * @see StepHandle
+     */
+    public static <E extends Throwable> void stepWithHandle(
+        final String name,
+        final ThrowingConsumer<? super StepHandle, ? extends E> action
+    ) throws E {
+        CACHED_FAKE_HOOKS_NO_CTX_SC.get().stepWithHandle(name, action);
+    }
+
+    /**
+     * Performs and reports given step with given name and description. The step action gets
+     * the step handle with direct references to the step results of the reporting tools.
+     * <p>
+     * Code example:
+     * <pre>{@code
+     * stepWithHandle("Step", "Description", handle -> {
+     *     handle.param("first", 1).param("second", 2);
+     *     //...
+     * });
+     * }</pre>
+     *
+     * @param name   the step name
+     * @param desc   the step description
+     * @param action the step action
+     * @param <E>    the {@code action} exception type
+     * @throws XtepsException if Xteps configuration is incorrect
+     *                        or if {@code name} or {@code desc} or {@code action} is null
+     *                        or if it's impossible to correctly report the step
+     * @throws E              if {@code action} threw exception
+     * @see StepHandle
+     */
+    public static <E extends Throwable> void stepWithHandle(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<? super StepHandle, ? extends E> action
+    ) throws E {
+        CACHED_FAKE_HOOKS_NO_CTX_SC.get().stepWithHandle(name, desc, action);
+    }
+
     /**
      * Returns no context steps chain.
      * <p>
@@ -557,6 +845,33 @@ public final class Xteps {
         return new NoCtxSCOf(xb.stepReporter(), xb.exceptionHandler(), xb.hooksContainerGenerator().get());
     }
 
+    /**
+     * Returns no context flat steps chain. The flat steps chain does not allocate new
+     * steps chains and step params arrays on each call, but it is single-owner and
+     * not thread-safe: the new context steps chain overwrites all steps chains derived
+     * from the same steps chain earlier.
+     * <p>
+     * Code example:
+     * <pre>{@code
+     * flatStepsChain().withCtx("context")
+     *     .step("Step 1", ctx -> {
+     *         //...
+     *     })
+     *     .stepToCtx("Step 2", ctx -> "context 2")
+     *     .step("Step 3", (ctx1, ctx2) -> {
+     *         //...
+     *     });
+     * }</pre>
+     *
+     * @return no context flat steps chain
+     * @throws XtepsException if Xteps configuration is incorrect
+     * @see #stepsChain()
+     */
+    public static NoCtxSC flatStepsChain() {
+        final XtepsBase xb = XtepsBase.cached();
+        return new FlatNoCtxSCOf(xb.stepReporter(), xb.exceptionHandler(), xb.hooksContainerGenerator().get());
+    }
+
     /**
      * Returns no context steps chain. Alias for {@link #stepsChain()} method.
      *
@@ -668,6 +983,71 @@ public final class Xteps {
         );
     }
 
+    /**
+     * Adds given file as an attachment to the current step. The file content is streamed
+     * to the reporting tools.
+     * <p>
+     * Code example:
+     * <pre>{@code
+     * step("Step", () -> {
+     *     //...
+     *     attach("server.log", "text/plain", Paths.get("logs/server.log"));
+     * });
+     * }</pre>
+     *
+     * @param name     the attachment name
+     * @param mimeType the attachment MIME type
+     * @param file     the file
+     * @throws XtepsException if Xteps configuration is incorrect
+     *                        or if {@code name} or {@code mimeType} or {@code file} is null
+     *                        or if there is no current step
+     *                        or if it's impossible to add the attachment
+     */
+    public static void attach(final String name,
+                              final String mimeType,
+                              final Path file) {
+        if (file == null) { throw new XtepsException("file arg is null"); }
+        XtepsBase.cached().stepReporter().attach(name, mimeType, AttachmentSource.ofFile(file));
+    }
+
+    /**
+     * Adds given stream as an attachment to the current step. The stream content is streamed
+     * to the reporting tools, the stream will be closed.
+     *
+     * @param name     the attachment name
+     * @param mimeType the attachment MIME type
+     * @param stream   the stream
+     * @throws XtepsException if Xteps configuration is incorrect
+     *                        or if {@code name} or {@code mimeType} or {@code stream} is null
+     *                        or if there is no current step
+     *                        or if it's impossible to add the attachment
+     */
+    public static void attach(final String name,
+                              final String mimeType,
+                              final InputStream stream) {
+        if (stream == null) { throw new XtepsException("stream arg is null"); }
+        XtepsBase.cached().stepReporter().attach(name, mimeType, AttachmentSource.ofStream(stream));
+    }
+
+    /**
+     * Adds given channel as an attachment to the current step. The channel content is streamed
+     * to the reporting tools, the channel will be closed.
+     *
+     * @param name     the attachment name
+     * @param mimeType the attachment MIME type
+     * @param channel  the channel
+     * @throws XtepsException if Xteps configuration is incorrect
+     *                        or if {@code name} or {@code mimeType} or {@code channel} is null
+     *                        or if there is no current step
+     *                        or if it's impossible to add the attachment
+     */
+    public static void attach(final String name,
+                              final String mimeType,
+                              final ReadableByteChannel channel) {
+        if (channel == null) { throw new XtepsException("channel arg is null"); }
+        XtepsBase.cached().stepReporter().attach(name, mimeType, AttachmentSource.ofChannel(channel));
+    }
+
     /**
      * Adds given hook for the current thread. This hook will be called after current
      * thread is finished.
@@ -726,4 +1106,24 @@ public final class Xteps {
             return result;
         }
     };
+
+    private static final Supplier<NoCtxSC> CACHED_CURRENT_STEP_HOOKS_NO_CTX_SC = new Supplier<NoCtxSC>() {
+        private volatile NoCtxSC instance = null;
+
+        @Override
+        public NoCtxSC get() {
+            NoCtxSC result;
+            if ((result = this.instance) == null) {
+                synchronized (this) {
+                    if ((result = this.instance) == null) {
+                        final XtepsBase xb = XtepsBase.cached();
+                        result = new NoCtxSCOf(xb.stepReporter(), xb.exceptionHandler(), new CurrentStepHooksContainer());
+                        this.instance = result;
+                    }
+                    return result;
+                }
+            }
+            return result;
+        }
+    };
 }
@@ -19,6 +19,8 @@ import com.plugatar.xteps.base.ThrowingBiFunction;
 import com.plugatar.xteps.base.ThrowingFunction;
 import com.plugatar.xteps.base.ThrowingSupplier;
 import com.plugatar.xteps.base.ThrowingTriFunction;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.pool.ContextPool;
 import com.plugatar.xteps.checked.chain.base.Base1CtxSC;
 import com.plugatar.xteps.checked.chain.base.Base2CtxSC;
 import com.plugatar.xteps.checked.chain.base.Base3CtxSC;
@@ -51,6 +53,12 @@ public interface Ctx3SC<C, C2, C3, PS extends BaseSC<PS>> extends
     @Override
     <U> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> withCtx(U context);
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    <U> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> withPooledCtx(ContextPool<U> pool);
+
     /**
      * {@inheritDoc}
      */
@@ -258,4 +266,14 @@ public interface Ctx3SC<C, C2, C3, PS extends BaseSC<PS>> extends
         String desc,
         ThrowingTriFunction<? super C, ? super C2, ? super C3, ? extends U, ? extends E> action
     ) throws E;
+
+    /**
+     * Returns this steps chain without the previous steps chain. The returned steps chain
+     * has the same contexts and chain hooks but does not retain the previous steps chains,
+     * so their contexts can be garbage collected. The {@link #previousStepsChain()} method
+     * of the returned steps chain throws {@link XtepsException}.
+     *
+     * @return this steps chain without the previous steps chain
+     */
+    Ctx3SC<C, C2, C3, PS> forgetHistory();
 }
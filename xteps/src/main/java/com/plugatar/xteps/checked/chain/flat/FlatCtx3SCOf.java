@@ -0,0 +1,1379 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.checked.chain.flat;
+
+import com.plugatar.xteps.base.HooksOrder;
+import com.plugatar.xteps.base.ThrowingBiConsumer;
+import com.plugatar.xteps.base.ThrowingBiFunction;
+import com.plugatar.xteps.base.ThrowingConsumer;
+import com.plugatar.xteps.base.ThrowingFunction;
+import com.plugatar.xteps.base.ThrowingRunnable;
+import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.ThrowingTriConsumer;
+import com.plugatar.xteps.base.ThrowingTriFunction;
+import com.plugatar.xteps.base.XtepsBase;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.handle.StepHandle;
+import com.plugatar.xteps.base.handle.StepHandles;
+import com.plugatar.xteps.base.hook.ThreadHooks;
+import com.plugatar.xteps.base.pool.ContextPool;
+import com.plugatar.xteps.checked.chain.Ctx3SC;
+import com.plugatar.xteps.checked.chain.MemNoCtxSC;
+import com.plugatar.xteps.checked.chain.base.BaseSC;
+import com.plugatar.xteps.checked.stepobject.BiConsumerStep;
+import com.plugatar.xteps.checked.stepobject.BiFunctionStep;
+import com.plugatar.xteps.checked.stepobject.ConsumerStep;
+import com.plugatar.xteps.checked.stepobject.FunctionStep;
+import com.plugatar.xteps.checked.stepobject.RunnableStep;
+import com.plugatar.xteps.checked.stepobject.SupplierStep;
+import com.plugatar.xteps.checked.stepobject.TriConsumerStep;
+import com.plugatar.xteps.checked.stepobject.TriFunctionStep;
+
+import java.time.Duration;
+
+import static com.plugatar.xteps.base.HookPriority.MAX_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.HookPriority.MIN_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.HookPriority.NORM_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.timeout.StepTimeout.withTimeout;
+
+/**
+ * Memorizing triple context flat steps chain implementation.
+ *
+ * @param <C>  the context type
+ * @param <C2> the second context type
+ * @param <C3> the third context type
+ * @param <PS> the previous steps chain type
+ */
+final class FlatCtx3SCOf<C, C2, C3, PS extends BaseSC<PS>> implements Ctx3SC<C, C2, C3, PS> {
+    private final FlatSCState state;
+    private final int depth;
+
+    /**
+     * Ctor.
+     *
+     * @param state the flat steps chain state
+     * @param depth the frame depth
+     */
+    FlatCtx3SCOf(final FlatSCState state,
+                 final int depth) {
+        this.state = state;
+        this.depth = depth;
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> callChainHooks() {
+        try {
+            this.state.hooksContainer.callHooks();
+        } catch (final Throwable ex) {
+            this.state.exceptionHandler.handle(ex);
+            throw ex;
+        }
+        return this;
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> chainHooksOrder(final HooksOrder order) {
+        if (order == null) { this.throwNullArgException("order"); }
+        this.state.hooksContainer.setOrder(order);
+        return this;
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> threadHooksOrder(final HooksOrder order) {
+        if (order == null) { this.throwNullArgException("order"); }
+        ThreadHooks.setOrder(order);
+        return this;
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> chainHook(
+        final ThrowingRunnable<?> hook
+    ) {
+        return this.chainHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> chainHook(
+        final int priority,
+        final ThrowingRunnable<?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        this.state.hooksContainer.addHook(priority, hook);
+        return this;
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> chainHook(
+        final ThrowingConsumer<? super C, ?> hook
+    ) {
+        return this.chainHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> chainHook(
+        final int priority,
+        final ThrowingConsumer<? super C, ?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        final C context = this.ctx();
+        this.state.hooksContainer.addHook(priority, () -> hook.accept(context));
+        return this;
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> chainHook(
+        final ThrowingBiConsumer<? super C, ? super C2, ?> hook
+    ) {
+        return this.chainHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> chainHook(
+        final int priority,
+        final ThrowingBiConsumer<? super C, ? super C2, ?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        final C context = this.ctx();
+        final C2 context2 = this.ctx2();
+        this.state.hooksContainer.addHook(priority, () -> hook.accept(context, context2));
+        return this;
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> chainHook(
+        final ThrowingTriConsumer<? super C, ? super C2, ? super C3, ?> hook
+    ) {
+        return this.chainHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> chainHook(
+        final int priority,
+        final ThrowingTriConsumer<? super C, ? super C2, ? super C3, ?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        final C context = this.ctx();
+        final C2 context2 = this.ctx2();
+        final C3 context3 = this.ctx3();
+        this.state.hooksContainer.addHook(priority, () -> hook.accept(context, context2, context3));
+        return this;
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> threadHook(
+        final ThrowingRunnable<?> hook
+    ) {
+        return this.threadHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> threadHook(
+        final int priority,
+        final ThrowingRunnable<?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        ThreadHooks.addHook(priority, hook);
+        return this;
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> threadHook(
+        final ThrowingConsumer<? super C, ?> hook
+    ) {
+        return this.threadHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> threadHook(
+        final int priority,
+        final ThrowingConsumer<? super C, ?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        final C context = this.ctx();
+        ThreadHooks.addHook(priority, () -> hook.accept(context));
+        return this;
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> threadHook(
+        final ThrowingBiConsumer<? super C, ? super C2, ?> hook
+    ) {
+        return this.threadHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> threadHook(
+        final int priority,
+        final ThrowingBiConsumer<? super C, ? super C2, ?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        final C context = this.ctx();
+        final C2 context2 = this.ctx2();
+        ThreadHooks.addHook(priority, () -> hook.accept(context, context2));
+        return this;
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> threadHook(
+        final ThrowingTriConsumer<? super C, ? super C2, ? super C3, ?> hook
+    ) {
+        return this.threadHook(NORM_HOOK_PRIORITY, hook);
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> threadHook(
+        final int priority,
+        final ThrowingTriConsumer<? super C, ? super C2, ? super C3, ?> hook
+    ) {
+        if (hook == null) { this.throwNullArgException("hook"); }
+        this.checkPriorityArg(priority);
+        final C context = this.ctx();
+        final C2 context2 = this.ctx2();
+        final C3 context3 = this.ctx3();
+        ThreadHooks.addHook(priority, () -> hook.accept(context, context2, context3));
+        return this;
+    }
+
+    @Override
+    public C ctx() {
+        return this.state.context(this.depth);
+    }
+
+    @Override
+    public C2 ctx2() {
+        return this.state.context(this.depth - 1);
+    }
+
+    @Override
+    public C3 ctx3() {
+        return this.state.context(this.depth - 2);
+    }
+
+    @Override
+    public PS previousStepsChain() {
+        if (this.state.isHistoryForgotten(this.depth)) {
+            final XtepsException baseEx = new XtepsException("previous steps chain is forgotten");
+            this.state.hooksContainer.callHooks(baseEx);
+            this.state.exceptionHandler.handle(baseEx);
+            throw baseEx;
+        }
+        return this.state.view(this.depth - 1);
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> forgetHistory() {
+        this.state.forgetHistory(this.depth, 3);
+        return this;
+    }
+
+    @Override
+    public MemNoCtxSC<Ctx3SC<C, C2, C3, PS>> withoutContext() {
+        return this.state.pushMemNoCtx(this.depth);
+    }
+
+    @Override
+    public <U> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> withCtx(final U context) {
+        return this.newMem2CtxStepsChain(context);
+    }
+
+    @Override
+    public <U> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> withPooledCtx(final ContextPool<U> pool) {
+        if (pool == null) { this.throwNullArgException("pool"); }
+        final U context = this.execAction(pool::borrow);
+        this.state.hooksContainer.addHook(NORM_HOOK_PRIORITY, () -> pool.giveBack(context));
+        return this.newMem2CtxStepsChain(context);
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> withCtx(
+        final ThrowingSupplier<? extends U, ? extends E> supplier
+    ) throws E {
+        if (supplier == null) { this.throwNullArgException("supplier"); }
+        return this.newMem2CtxStepsChain(this.execAction(supplier));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> withCtx(
+        final ThrowingFunction<? super C, ? extends U, ? extends E> function
+    ) throws E {
+        if (function == null) { this.throwNullArgException("function"); }
+        return this.newMem2CtxStepsChain(this.execAction(() -> function.apply(this.ctx())));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> withCtx(
+        final ThrowingBiFunction<? super C, ? super C2, ? extends U, ? extends E> function
+    ) throws E {
+        if (function == null) { this.throwNullArgException("function"); }
+        return this.newMem2CtxStepsChain(this.execAction(
+            () -> function.apply(this.ctx(), this.ctx2())));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> withCtx(
+        final ThrowingTriFunction<? super C, ? super C2, ? super C3, ? extends U, ? extends E> function
+    ) throws E {
+        if (function == null) { this.throwNullArgException("function"); }
+        return this.newMem2CtxStepsChain(this.execAction(
+            () -> function.apply(this.ctx(), this.ctx2(), this.ctx3())));
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> action(
+        final ThrowingRunnable<? extends E> action
+    ) throws E {
+        if (action == null) { this.throwNullArgException("action"); }
+        this.execAction(() -> {
+            action.run();
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> action(
+        final ThrowingConsumer<? super C, ? extends E> action
+    ) throws E {
+        if (action == null) { this.throwNullArgException("action"); }
+        this.execAction(() -> {
+            action.accept(this.ctx());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> action(
+        final ThrowingBiConsumer<? super C, ? super C2, ? extends E> action
+    ) throws E {
+        if (action == null) { this.throwNullArgException("action"); }
+        this.execAction(() -> {
+            action.accept(this.ctx(), this.ctx2());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> action(
+        final ThrowingTriConsumer<? super C, ? super C2, ? super C3, ? extends E> action
+    ) throws E {
+        if (action == null) { this.throwNullArgException("action"); }
+        this.execAction(() -> {
+            action.accept(this.ctx(), this.ctx2(), this.ctx3());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <R, E extends Throwable> R actionTo(
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.execAction(action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R actionTo(
+        final ThrowingFunction<? super C, ? extends R, ? extends E> action
+    ) throws E {
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.execAction(() -> action.apply(this.ctx()));
+    }
+
+    @Override
+    public <R, E extends Throwable> R actionTo(
+        final ThrowingBiFunction<? super C, ? super C2, ? extends R, ? extends E> action
+    ) throws E {
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.execAction(() -> action.apply(this.ctx(), this.ctx2()));
+    }
+
+    @Override
+    public <R, E extends Throwable> R actionTo(
+        final ThrowingTriFunction<? super C, ? super C2, ? super C3, ? extends R, ? extends E> action
+    ) throws E {
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.execAction(() -> action.apply(this.ctx(), this.ctx2(), this.ctx3()));
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> step(final String name) {
+        return this.step(name, "");
+    }
+
+    @Override
+    public Ctx3SC<C, C2, C3, PS> step(
+        final String name,
+        final String desc
+    ) {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        this.reportStep(name, desc, () -> null);
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final RunnableStep<? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.run();
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final SupplierStep<?, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(step);
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final ConsumerStep<? super C, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.accept(this.ctx());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final FunctionStep<? super C, ?, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> step.apply(this.ctx()));
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final BiConsumerStep<? super C, ? super C2, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.accept(this.ctx(), this.ctx2());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final BiFunctionStep<? super C, ? super C2, ?, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> step.apply(this.ctx(), this.ctx2()));
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final TriConsumerStep<? super C, ? super C2, ? super C3, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.accept(this.ctx(), this.ctx2(), this.ctx3());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final TriFunctionStep<? super C, ? super C2, ? super C3, ?, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> step.apply(this.ctx(), this.ctx2(), this.ctx3()));
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String keyword,
+        final RunnableStep<? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.withKeyword(keyword).run();
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String keyword,
+        final SupplierStep<?, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(step);
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String keyword,
+        final ConsumerStep<? super C, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.withKeyword(keyword).accept(this.ctx());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String keyword,
+        final FunctionStep<? super C, ?, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> step.withKeyword(keyword).apply(this.ctx()));
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String keyword,
+        final BiConsumerStep<? super C, ? super C2, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.withKeyword(keyword).accept(this.ctx(), this.ctx2());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String keyword,
+        final BiFunctionStep<? super C, ? super C2, ?, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> step.withKeyword(keyword).apply(this.ctx(), this.ctx2()));
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String keyword,
+        final TriConsumerStep<? super C, ? super C2, ? super C3, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> {
+            step.withKeyword(keyword).accept(this.ctx(), this.ctx2(), this.ctx3());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String keyword,
+        final TriFunctionStep<? super C, ? super C2, ? super C3, ?, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        this.execAction(() -> step.withKeyword(keyword).apply(this.ctx(), this.ctx2(), this.ctx3()));
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final ThrowingRunnable<? extends E> action
+    ) throws E {
+        return this.step("", "", action);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final ThrowingConsumer<? super C, ? extends E> action
+    ) throws E {
+        return this.step("", "", action);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final ThrowingBiConsumer<? super C, ? super C2, ? extends E> action
+    ) throws E {
+        return this.step("", "", action);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final ThrowingTriConsumer<? super C, ? super C2, ? super C3, ? extends E> action
+    ) throws E {
+        return this.step("", "", action);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String name,
+        final ThrowingRunnable<? extends E> action
+    ) throws E {
+        return this.step(name, "", action);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String name,
+        final ThrowingConsumer<? super C, ? extends E> action
+    ) throws E {
+        return this.step(name, "", action);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String name,
+        final ThrowingBiConsumer<? super C, ? super C2, ? extends E> action
+    ) throws E {
+        return this.step(name, "", action);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String name,
+        final ThrowingTriConsumer<? super C, ? super C2, ? super C3, ? extends E> action
+    ) throws E {
+        return this.step(name, "", action);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String name,
+        final String desc,
+        final ThrowingRunnable<? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        this.reportStep(name, desc, action);
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String name,
+        final Duration timeout,
+        final ThrowingRunnable<? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
+            action.run();
+            return null;
+        }));
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<? super C, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        this.reportStep(name, desc, () -> {
+            action.accept(this.ctx());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String name,
+        final String desc,
+        final ThrowingBiConsumer<? super C, ? super C2, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        this.reportStep(name, desc, () -> {
+            action.accept(this.ctx(), this.ctx2());
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> step(
+        final String name,
+        final String desc,
+        final ThrowingTriConsumer<? super C, ? super C2, ? super C3, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        this.reportStep(name, desc, action);
+        return this;
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final SupplierStep<? extends U, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.execAction(step));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final FunctionStep<? super C, ? extends U, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.execAction(() -> step.apply(this.ctx())));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final BiFunctionStep<? super C, ? super C2, ? extends U, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.execAction(() -> step.apply(this.ctx(), this.ctx2())));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final TriFunctionStep<? super C, ? super C2, ? super C3, ? extends U, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.execAction(
+            () -> step.apply(this.ctx(), this.ctx2(), this.ctx3())));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String keyword,
+        final SupplierStep<? extends U, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.execAction(step.withKeyword(keyword)));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String keyword,
+        final FunctionStep<? super C, ? extends U, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.execAction(
+            () -> step.withKeyword(keyword).apply(this.ctx())));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String keyword,
+        final BiFunctionStep<? super C, ? super C2, ? extends U, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.execAction(
+            () -> step.withKeyword(keyword).apply(this.ctx(), this.ctx2())));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String keyword,
+        final TriFunctionStep<? super C, ? super C2, ? super C3, ? extends U, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.execAction(
+            () -> step.withKeyword(keyword)
+                .apply(this.ctx(), this.ctx2(), this.ctx3())));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final ThrowingSupplier<? extends U, ? extends E> action
+    ) throws E {
+        return this.stepToCtx("", "", action);
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final ThrowingFunction<? super C, ? extends U, ? extends E> step
+    ) throws E {
+        return this.stepToCtx("", "", step);
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final ThrowingBiFunction<? super C, ? super C2, ? extends U, ? extends E> action
+    ) throws E {
+        return this.stepToCtx("", "", action);
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final ThrowingTriFunction<? super C, ? super C2, ? super C3, ? extends U, ? extends E> action
+    ) throws E {
+        return this.stepToCtx("", "", action);
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String name,
+        final ThrowingSupplier<? extends U, ? extends E> action
+    ) throws E {
+        return this.stepToCtx(name, "", action);
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String name,
+        final ThrowingFunction<? super C, ? extends U, ? extends E> action
+    ) throws E {
+        return this.stepToCtx(name, "", action);
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String name,
+        final ThrowingBiFunction<? super C, ? super C2, ? extends U, ? extends E> action
+    ) throws E {
+        return this.stepToCtx(name, "", action);
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String name,
+        final ThrowingTriFunction<? super C, ? super C2, ? super C3, ? extends U, ? extends E> action
+    ) throws E {
+        return this.stepToCtx(name, "", action);
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends U, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.reportStep(name, desc, action));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String name,
+        final String desc,
+        final ThrowingFunction<? super C, ? extends U, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.reportStep(name, desc, () -> action.apply(this.ctx())));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String name,
+        final String desc,
+        final ThrowingBiFunction<? super C, ? super C2, ? extends U, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.reportStep(name, desc,
+            () -> action.apply(this.ctx(), this.ctx2())));
+    }
+
+    @Override
+    public <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> stepToCtx(
+        final String name,
+        final String desc,
+        final ThrowingTriFunction<? super C, ? super C2, ? super C3, ? extends U, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        return this.newMem2CtxStepsChain(this.reportStep(name, desc, action));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final SupplierStep<? extends R, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(step);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final FunctionStep<? super C, ? extends R, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(() -> step.apply(this.ctx()));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final BiFunctionStep<? super C, ? super C2, ? extends R, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(() -> step.apply(this.ctx(), this.ctx2()));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final TriFunctionStep<? super C, ? super C2, ? super C3, ? extends R, ? extends E> step
+    ) throws E {
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(() -> step.apply(this.ctx(), this.ctx2(), this.ctx3()));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String keyword,
+        final SupplierStep<? extends R, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(step.withKeyword(keyword));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String keyword,
+        final FunctionStep<? super C, ? extends R, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(() -> step.withKeyword(keyword).apply(this.ctx()));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String keyword,
+        final BiFunctionStep<? super C, ? super C2, ? extends R, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(() -> step.withKeyword(keyword).apply(this.ctx(), this.ctx2()));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String keyword,
+        final TriFunctionStep<? super C, ? super C2, ? super C3, ? extends R, ? extends E> step
+    ) throws E {
+        if (keyword == null) { this.throwNullArgException("keyword"); }
+        if (step == null) { this.throwNullArgException("step"); }
+        return this.execAction(() ->
+            step.withKeyword(keyword).apply(this.ctx(), this.ctx2(), this.ctx3()));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        return this.stepTo("", "", action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final ThrowingFunction<? super C, ? extends R, ? extends E> action
+    ) throws E {
+        return this.stepTo("", "", action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final ThrowingBiFunction<? super C, ? super C2, ? extends R, ? extends E> action
+    ) throws E {
+        return this.stepTo("", "", action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final ThrowingTriFunction<? super C, ? super C2, ? super C3, ? extends R, ? extends E> action
+    ) throws E {
+        return this.stepTo("", "", action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String name,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        return this.stepTo(name, "", action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String name,
+        final ThrowingFunction<? super C, ? extends R, ? extends E> action
+    ) throws E {
+        return this.stepTo(name, "", action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String name,
+        final ThrowingBiFunction<? super C, ? super C2, ? extends R, ? extends E> action
+    ) throws E {
+        return this.stepTo(name, "", action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String name,
+        final ThrowingTriFunction<? super C, ? super C2, ? super C3, ? extends R, ? extends E> action
+    ) throws E {
+        return this.stepTo(name, "", action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        return this.reportStep(name, desc, action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String name,
+        final Duration timeout,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        return this.reportStep(name, "", withTimeout(timeout, action));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepToCached(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        return this.stepToCached(key, name, "", action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepToCached(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepCache stepCache = XtepsBase.cached().stepCache();
+        @SuppressWarnings("unchecked")
+        final R cachedResult = (R) stepCache.getIfPresent(key);
+        if (cachedResult != null) {
+            return this.reportStep(name + " (cached)", desc, () -> cachedResult);
+        }
+        return this.reportStep(name, desc, () -> stepCache.<R, E>load(key, action));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepToShared(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        return this.stepToShared(key, name, "", action);
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepToShared(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final SharedResources.Lease lease = XtepsBase.cached().sharedResources().lease(key);
+        this.state.hooksContainer.addHook(NORM_HOOK_PRIORITY, lease::release);
+        return this.reportStep(
+            lease.isOwner() ? name : name + " (shared with " + lease.ownerThreadName() + ")",
+            desc,
+            () -> lease.<R, E>get(action)
+        );
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> stepWithHandle(
+        final String name,
+        final ThrowingConsumer<? super StepHandle, ? extends E> action
+    ) throws E {
+        return this.stepWithHandle(name, "", action);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> stepWithHandle(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<? super StepHandle, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepHandle handle = StepHandles.request();
+        try {
+            this.reportStep(name, desc, () -> {
+                StepHandles.clearRequest();
+                action.accept(handle);
+                return null;
+            });
+        } finally {
+            StepHandles.clearRequest();
+        }
+        return this;
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String name,
+        final String desc,
+        final ThrowingFunction<? super C, ? extends R, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        return this.reportStep(name, desc, () -> action.apply(this.ctx()));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String name,
+        final String desc,
+        final ThrowingBiFunction<? super C, ? super C2, ? extends R, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        return this.reportStep(name, desc,
+            () -> action.apply(this.ctx(), this.ctx2()));
+    }
+
+    @Override
+    public <R, E extends Throwable> R stepTo(
+        final String name,
+        final String desc,
+        final ThrowingTriFunction<? super C, ? super C2, ? super C3, ? extends R, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("step"); }
+        return this.reportStep(name, desc, action);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> nestedSteps(
+        final ThrowingConsumer<Ctx3SC<C, C2, C3, PS>, ? extends E> stepsChain
+    ) throws E {
+        return this.nestedSteps("", "", stepsChain);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> nestedSteps(
+        final String name,
+        final ThrowingConsumer<Ctx3SC<C, C2, C3, PS>, ? extends E> stepsChain
+    ) throws E {
+        return this.nestedSteps(name, "", stepsChain);
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> nestedSteps(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<Ctx3SC<C, C2, C3, PS>, ? extends E> stepsChain
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.reportStep(name, desc, () -> {
+            stepsChain.accept(this);
+            return null;
+        });
+        return this;
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> nestedSteps(
+        final String name,
+        final Duration timeout,
+        final ThrowingConsumer<Ctx3SC<C, C2, C3, PS>, ? extends E> stepsChain
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
+            stepsChain.accept(this);
+            return null;
+        }));
+        return this;
+    }
+
+    @Override
+    public <R, E extends Throwable> R nestedStepsTo(
+        final ThrowingFunction<Ctx3SC<C, C2, C3, PS>, ? extends R, ? extends E> stepsChain
+    ) throws E {
+        return this.nestedStepsTo("", "", stepsChain);
+    }
+
+    @Override
+    public <R, E extends Throwable> R nestedStepsTo(
+        final String name,
+        final ThrowingFunction<Ctx3SC<C, C2, C3, PS>, ? extends R, ? extends E> stepsChain
+    ) throws E {
+        return this.nestedStepsTo(name, "", stepsChain);
+    }
+
+    @Override
+    public <R, E extends Throwable> R nestedStepsTo(
+        final String name,
+        final String desc,
+        final ThrowingFunction<Ctx3SC<C, C2, C3, PS>, ? extends R, ? extends E> stepsChain
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        return this.reportStep(name, desc, () -> stepsChain.apply(this));
+    }
+
+    @Override
+    public <E extends Throwable> Ctx3SC<C, C2, C3, PS> branchSteps(
+        final ThrowingConsumer<Ctx3SC<C, C2, C3, PS>, ? extends E> stepsChain
+    ) throws E {
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.execAction(() -> {
+            stepsChain.accept(this);
+            return null;
+        });
+        return this;
+    }
+
+    private <R, E extends Throwable> R reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingSupplier<R, E> step
+    ) throws E {
+        return this.state.stepReporter.report(this.state.hooksContainer, this.state.exceptionHandler,
+            stepName, stepDescription, this.state.params(this.depth, 3), step);
+    }
+
+    private <E extends Throwable> void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingRunnable<? extends E> step
+    ) throws E {
+        this.state.stepReporter.report(this.state.hooksContainer, this.state.exceptionHandler,
+            stepName, stepDescription, this.state.params(this.depth, 3), step);
+    }
+
+    private <E extends Throwable> void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingTriConsumer<? super C, ? super C2, ? super C3, ? extends E> step
+    ) throws E {
+        this.state.stepReporter.report(this.state.hooksContainer, this.state.exceptionHandler,
+            stepName, stepDescription, step, this.ctx(), this.ctx2(), this.ctx3());
+    }
+
+    private <R, E extends Throwable> R reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingTriFunction<? super C, ? super C2, ? super C3, ? extends R, ? extends E> step
+    ) throws E {
+        return this.state.stepReporter.report(this.state.hooksContainer, this.state.exceptionHandler,
+            stepName, stepDescription, step, this.ctx(), this.ctx2(), this.ctx3());
+    }
+
+    private <R, E extends Throwable> R execAction(
+        final ThrowingSupplier<R, E> action
+    ) throws E {
+        try {
+            return action.get();
+        } catch (final Throwable ex) {
+            this.state.hooksContainer.callHooks(ex);
+            this.state.exceptionHandler.handle(ex);
+            throw ex;
+        }
+    }
+
+    private <U> Ctx3SC<U, C, C2, Ctx3SC<C, C2, C3, PS>> newMem2CtxStepsChain(final U newContext) {
+        return this.state.pushCtx3(this.depth, newContext);
+    }
+
+    private void throwNullArgException(final String argName) {
+        final XtepsException baseEx = new XtepsException(argName + " arg is null");
+        this.state.hooksContainer.callHooks(baseEx);
+        this.state.exceptionHandler.handle(baseEx);
+        throw baseEx;
+    }
+
+    private void checkPriorityArg(final int priority) {
+        if (priority < MIN_HOOK_PRIORITY || priority > MAX_HOOK_PRIORITY) {
+            final XtepsException baseEx = new XtepsException("priority arg not in the range " + MIN_HOOK_PRIORITY +
+                " to " + MAX_HOOK_PRIORITY);
+            this.state.hooksContainer.callHooks(baseEx);
+            this.state.exceptionHandler.handle(baseEx);
+            throw baseEx;
+        }
+    }
+}
@@ -25,8 +25,14 @@ import com.plugatar.xteps.base.ThrowingConsumer;
 import com.plugatar.xteps.base.ThrowingFunction;
 import com.plugatar.xteps.base.ThrowingRunnable;
 import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsBase;
 import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.base.cache.SharedResources;
+import com.plugatar.xteps.base.cache.StepCache;
+import com.plugatar.xteps.base.handle.StepHandle;
+import com.plugatar.xteps.base.handle.StepHandles;
 import com.plugatar.xteps.base.hook.ThreadHooks;
+import com.plugatar.xteps.base.pool.ContextPool;
 import com.plugatar.xteps.checked.chain.Ctx2SC;
 import com.plugatar.xteps.checked.chain.Ctx3SC;
 import com.plugatar.xteps.checked.chain.MemNoCtxSC;
@@ -38,9 +44,12 @@ import com.plugatar.xteps.checked.stepobject.FunctionStep;
 import com.plugatar.xteps.checked.stepobject.RunnableStep;
 import com.plugatar.xteps.checked.stepobject.SupplierStep;
 
+import java.time.Duration;
+
 import static com.plugatar.xteps.base.HookPriority.MAX_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.MIN_HOOK_PRIORITY;
 import static com.plugatar.xteps.base.HookPriority.NORM_HOOK_PRIORITY;
+import static com.plugatar.xteps.base.timeout.StepTimeout.withTimeout;
 
 /**
  * Memorizing double context steps chain implementation.
@@ -87,6 +96,28 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         this.previousStepsChain = previousStepsChain;
     }
 
+    /**
+     * Ctor without the previous steps chain.
+     *
+     * @param stepReporter     the step reporter
+     * @param exceptionHandler the exception handler
+     * @param hooksContainer   the hooks container
+     * @param context          the context
+     * @param context2         the second context
+     */
+    private Ctx2SCOf(final StepReporter stepReporter,
+                     final ExceptionHandler exceptionHandler,
+                     final HooksContainer hooksContainer,
+                     final C context,
+                     final C2 context2) {
+        this.stepReporter = stepReporter;
+        this.exceptionHandler = exceptionHandler;
+        this.hooksContainer = hooksContainer;
+        this.context = context;
+        this.context2 = context2;
+        this.previousStepsChain = null;
+    }
+
     @Override
     public final Ctx2SC<C, C2, PS> callChainHooks() {
         try {
@@ -232,9 +263,23 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
 
     @Override
     public final PS previousStepsChain() {
+        if (this.previousStepsChain == null) {
+            final XtepsException baseEx = new XtepsException("previous steps chain is forgotten");
+            this.hooksContainer.callHooks(baseEx);
+            this.exceptionHandler.handle(baseEx);
+            throw baseEx;
+        }
         return this.previousStepsChain;
     }
 
+    @Override
+    public final Ctx2SC<C, C2, PS> forgetHistory() {
+        return this.previousStepsChain == null
+            ? this
+            : new Ctx2SCOf<>(this.stepReporter, this.exceptionHandler, this.hooksContainer,
+                this.context, this.context2);
+    }
+
     @Override
     public final MemNoCtxSC<Ctx2SC<C, C2, PS>> withoutContext() {
         return new MemNoCtxSCOf<>(this.stepReporter, this.exceptionHandler, this.hooksContainer, this);
@@ -245,6 +290,14 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         return this.newMem2CtxStepsChain(context);
     }
 
+    @Override
+    public final <U> Ctx3SC<U, C, C2, Ctx2SC<C, C2, PS>> withPooledCtx(final ContextPool<U> pool) {
+        if (pool == null) { this.throwNullArgException("pool"); }
+        final U context = this.execAction(pool::borrow);
+        this.hooksContainer.addHook(NORM_HOOK_PRIORITY, () -> pool.giveBack(context));
+        return this.newMem2CtxStepsChain(context);
+    }
+
     @Override
     public final <U, E extends Throwable> Ctx3SC<U, C, C2, Ctx2SC<C, C2, PS>> withCtx(
         final ThrowingSupplier<? extends U, ? extends E> supplier
@@ -538,10 +591,23 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        this.reportStep(name, desc, () -> {
+        this.reportStep(name, desc, action);
+        return this;
+    }
+
+    @Override
+    public final <E extends Throwable> Ctx2SC<C, C2, PS> step(
+        final String name,
+        final Duration timeout,
+        final ThrowingRunnable<? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
             action.run();
             return null;
-        });
+        }));
         return this;
     }
 
@@ -570,10 +636,7 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        this.reportStep(name, desc, () -> {
-            action.accept(this.context, this.context2);
-            return null;
-        });
+        this.reportStep(name, desc, action);
         return this;
     }
 
@@ -711,8 +774,7 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        return this.newMem2CtxStepsChain(this.reportStep(name, desc,
-            () -> action.apply(this.context, this.context2)));
+        return this.newMem2CtxStepsChain(this.reportStep(name, desc, action));
     }
 
     @Override
@@ -826,6 +888,106 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         return this.reportStep(name, desc, action);
     }
 
+    @Override
+    public final <R, E extends Throwable> R stepTo(
+        final String name,
+        final Duration timeout,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        return this.reportStep(name, "", withTimeout(timeout, action));
+    }
+
+    @Override
+    public final <R, E extends Throwable> R stepToCached(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        return this.stepToCached(key, name, "", action);
+    }
+
+    @Override
+    public final <R, E extends Throwable> R stepToCached(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepCache stepCache = XtepsBase.cached().stepCache();
+        @SuppressWarnings("unchecked")
+        final R cachedResult = (R) stepCache.getIfPresent(key);
+        if (cachedResult != null) {
+            return this.reportStep(name + " (cached)", desc, () -> cachedResult);
+        }
+        return this.reportStep(name, desc, () -> stepCache.<R, E>load(key, action));
+    }
+
+    @Override
+    public final <R, E extends Throwable> R stepToShared(
+        final Object key,
+        final String name,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        return this.stepToShared(key, name, "", action);
+    }
+
+    @Override
+    public final <R, E extends Throwable> R stepToShared(
+        final Object key,
+        final String name,
+        final String desc,
+        final ThrowingSupplier<? extends R, ? extends E> action
+    ) throws E {
+        if (key == null) { this.throwNullArgException("key"); }
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final SharedResources.Lease lease = XtepsBase.cached().sharedResources().lease(key);
+        this.hooksContainer.addHook(NORM_HOOK_PRIORITY, lease::release);
+        return this.reportStep(
+            lease.isOwner() ? name : name + " (shared with " + lease.ownerThreadName() + ")",
+            desc,
+            () -> lease.<R, E>get(action)
+        );
+    }
+
+    @Override
+    public final <E extends Throwable> Ctx2SC<C, C2, PS> stepWithHandle(
+        final String name,
+        final ThrowingConsumer<? super StepHandle, ? extends E> action
+    ) throws E {
+        return this.stepWithHandle(name, "", action);
+    }
+
+    @Override
+    public final <E extends Throwable> Ctx2SC<C, C2, PS> stepWithHandle(
+        final String name,
+        final String desc,
+        final ThrowingConsumer<? super StepHandle, ? extends E> action
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (desc == null) { this.throwNullArgException("desc"); }
+        if (action == null) { this.throwNullArgException("action"); }
+        final StepHandle handle = StepHandles.request();
+        try {
+            this.reportStep(name, desc, () -> {
+                StepHandles.clearRequest();
+                action.accept(handle);
+                return null;
+            });
+        } finally {
+            StepHandles.clearRequest();
+        }
+        return this;
+    }
+
     @Override
     public final <R, E extends Throwable> R stepTo(
         final String name,
@@ -847,7 +1009,7 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         if (name == null) { this.throwNullArgException("name"); }
         if (desc == null) { this.throwNullArgException("desc"); }
         if (action == null) { this.throwNullArgException("action"); }
-        return this.reportStep(name, desc, () -> action.apply(this.context, this.context2));
+        return this.reportStep(name, desc, action);
     }
 
     @Override
@@ -881,6 +1043,22 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
         return this;
     }
 
+    @Override
+    public final <E extends Throwable> Ctx2SC<C, C2, PS> nestedSteps(
+        final String name,
+        final Duration timeout,
+        final ThrowingConsumer<Ctx2SC<C, C2, PS>, ? extends E> stepsChain
+    ) throws E {
+        if (name == null) { this.throwNullArgException("name"); }
+        if (timeout == null) { this.throwNullArgException("timeout"); }
+        if (stepsChain == null) { this.throwNullArgException("stepsChain"); }
+        this.reportStep(name, "", withTimeout(timeout, () -> {
+            stepsChain.accept(this);
+            return null;
+        }));
+        return this;
+    }
+
     @Override
     public final <R, E extends Throwable> R nestedStepsTo(
         final ThrowingFunction<Ctx2SC<C, C2, PS>, ? extends R, ? extends E> stepsChain
@@ -929,6 +1107,33 @@ public class Ctx2SCOf<C, C2, PS extends BaseSC<PS>> implements Ctx2SC<C, C2, PS>
             new Object[]{this.context, this.context2}, step);
     }
 
+    private <E extends Throwable> void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingRunnable<? extends E> step
+    ) throws E {
+        this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            new Object[]{this.context, this.context2}, step);
+    }
+
+    private <E extends Throwable> void reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingBiConsumer<? super C, ? super C2, ? extends E> step
+    ) throws E {
+        this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            step, this.context, this.context2);
+    }
+
+    private <R, E extends Throwable> R reportStep(
+        final String stepName,
+        final String stepDescription,
+        final ThrowingBiFunction<? super C, ? super C2, ? extends R, ? extends E> step
+    ) throws E {
+        return this.stepReporter.report(this.hooksContainer, this.exceptionHandler, stepName, stepDescription,
+            step, this.context, this.context2);
+    }
+
     private <R, E extends Throwable> R execAction(
         final ThrowingSupplier<R, E> action
     ) throws E {
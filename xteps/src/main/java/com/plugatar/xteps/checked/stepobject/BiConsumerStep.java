@@ -42,6 +42,11 @@ public class BiConsumerStep<T, U, E extends Throwable> implements ThrowingBiCons
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -60,6 +65,7 @@ public class BiConsumerStep<T, U, E extends Throwable> implements ThrowingBiCons
     public BiConsumerStep(final ThrowingBiConsumer<? super T, ? super U, ? extends E> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(BiConsumerStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -102,6 +108,7 @@ public class BiConsumerStep<T, U, E extends Throwable> implements ThrowingBiCons
                           final ThrowingBiConsumer<? super T, ? super U, ? extends E> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -130,7 +137,7 @@ public class BiConsumerStep<T, U, E extends Throwable> implements ThrowingBiCons
      */
     @Override
     public final void accept(final T t, final U u) throws E {
-        stepsChainOf(t, u).step(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        stepsChainOf(t, u).step(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -255,6 +262,6 @@ public class BiConsumerStep<T, U, E extends Throwable> implements ThrowingBiCons
 
     @Override
     public final String toString() {
-        return "BiConsumerStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "BiConsumerStep(" + this.nameWithKeyword + ")";
     }
 }
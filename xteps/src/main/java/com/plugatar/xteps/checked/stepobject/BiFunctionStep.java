@@ -43,6 +43,11 @@ public class BiFunctionStep<T, U, R, E extends Throwable> implements ThrowingBiF
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -61,6 +66,7 @@ public class BiFunctionStep<T, U, R, E extends Throwable> implements ThrowingBiF
     public BiFunctionStep(final ThrowingBiFunction<? super T, ? super U, ? extends R, ? extends E> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(BiFunctionStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -103,6 +109,7 @@ public class BiFunctionStep<T, U, R, E extends Throwable> implements ThrowingBiF
                           final ThrowingBiFunction<? super T, ? super U, ? extends R, ? extends E> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -133,7 +140,7 @@ public class BiFunctionStep<T, U, R, E extends Throwable> implements ThrowingBiF
      */
     @Override
     public final R apply(final T t, final U u) throws E {
-        return stepsChainOf(t, u).stepTo(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        return stepsChainOf(t, u).stepTo(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -238,6 +245,6 @@ public class BiFunctionStep<T, U, R, E extends Throwable> implements ThrowingBiF
 
     @Override
     public final String toString() {
-        return "BiFunctionStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "BiFunctionStep(" + this.nameWithKeyword + ")";
     }
 }
@@ -41,6 +41,11 @@ public class ConsumerStep<T, E extends Throwable> implements ThrowingConsumer<T,
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -59,6 +64,7 @@ public class ConsumerStep<T, E extends Throwable> implements ThrowingConsumer<T,
     public ConsumerStep(final ThrowingConsumer<? super T, ? extends E> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(ConsumerStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -101,6 +107,7 @@ public class ConsumerStep<T, E extends Throwable> implements ThrowingConsumer<T,
                         final ThrowingConsumer<? super T, ? extends E> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -127,7 +134,7 @@ public class ConsumerStep<T, E extends Throwable> implements ThrowingConsumer<T,
      */
     @Override
     public final void accept(final T t) throws E {
-        stepsChainOf(t).step(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        stepsChainOf(t).step(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -243,6 +250,6 @@ public class ConsumerStep<T, E extends Throwable> implements ThrowingConsumer<T,
 
     @Override
     public final String toString() {
-        return "ConsumerStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "ConsumerStep(" + this.nameWithKeyword + ")";
     }
 }
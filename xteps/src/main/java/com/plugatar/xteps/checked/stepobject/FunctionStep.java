@@ -42,6 +42,11 @@ public class FunctionStep<T, R, E extends Throwable> implements ThrowingFunction
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -60,6 +65,7 @@ public class FunctionStep<T, R, E extends Throwable> implements ThrowingFunction
     public FunctionStep(final ThrowingFunction<? super T, ? extends R, ? extends E> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(FunctionStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -102,6 +108,7 @@ public class FunctionStep<T, R, E extends Throwable> implements ThrowingFunction
                         final ThrowingFunction<? super T, ? extends R, ? extends E> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -130,7 +137,7 @@ public class FunctionStep<T, R, E extends Throwable> implements ThrowingFunction
      */
     @Override
     public final R apply(final T t) throws E {
-        return stepsChainOf(t).stepTo(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        return stepsChainOf(t).stepTo(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -226,6 +233,6 @@ public class FunctionStep<T, R, E extends Throwable> implements ThrowingFunction
 
     @Override
     public final String toString() {
-        return "FunctionStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "FunctionStep(" + this.nameWithKeyword + ")";
     }
 }
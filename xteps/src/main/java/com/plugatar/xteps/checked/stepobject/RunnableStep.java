@@ -40,6 +40,11 @@ public class RunnableStep<E extends Throwable> implements ThrowingRunnable<E> {
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -58,6 +63,7 @@ public class RunnableStep<E extends Throwable> implements ThrowingRunnable<E> {
     public RunnableStep(final ThrowingRunnable<? extends E> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(RunnableStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -100,6 +106,7 @@ public class RunnableStep<E extends Throwable> implements ThrowingRunnable<E> {
                         final ThrowingRunnable<? extends E> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -124,7 +131,7 @@ public class RunnableStep<E extends Throwable> implements ThrowingRunnable<E> {
      */
     @Override
     public final void run() throws E {
-        step(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        step(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -244,6 +251,6 @@ public class RunnableStep<E extends Throwable> implements ThrowingRunnable<E> {
 
     @Override
     public final String toString() {
-        return "RunnableStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "RunnableStep(" + this.nameWithKeyword + ")";
     }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.checked.stepobject;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Step object name. Overrides the name derived from the simple name of the step
+ * object class. Used only by the ctors without the step name, resolved once per class.
+ * <pre>{@code
+ * @StepName("user logs in")
+ * class UserLogsIn extends RunnableStep<RuntimeException> {
+ *     UserLogsIn() {
+ *         super(() -> {
+ *             //...
+ *         });
+ *     }
+ * }
+ * }</pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface StepName {
+
+    /**
+     * Returns the step name.
+     *
+     * @return the step name
+     */
+    String value();
+}
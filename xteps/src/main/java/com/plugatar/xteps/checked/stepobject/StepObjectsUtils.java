@@ -19,6 +19,15 @@ package com.plugatar.xteps.checked.stepobject;
  * Step objects utils.
  */
 final class StepObjectsUtils {
+    private static final ClassValue<String> HUMAN_READABLE_STEP_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(final Class<?> type) {
+            final StepName stepName = type.getAnnotation(StepName.class);
+            return stepName == null
+                ? type.getSimpleName().replace('_', ' ')
+                : stepName.value();
+        }
+    };
 
     /**
      * Utility class ctor.
@@ -30,7 +39,7 @@ final class StepObjectsUtils {
                                                    final Class<? extends T> thisClass) {
         return thisClass == baseClass
             ? ""
-            : thisClass.getSimpleName().replace('_', ' ');
+            : HUMAN_READABLE_STEP_NAMES.get(thisClass);
     }
 
     static String stepNameWithKeyword(final String keyword,
@@ -41,6 +41,11 @@ public class SupplierStep<R, E extends Throwable> implements ThrowingSupplier<R,
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -59,6 +64,7 @@ public class SupplierStep<R, E extends Throwable> implements ThrowingSupplier<R,
     public SupplierStep(final ThrowingSupplier<? extends R, ? extends E> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(SupplierStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -101,6 +107,7 @@ public class SupplierStep<R, E extends Throwable> implements ThrowingSupplier<R,
                         final ThrowingSupplier<? extends R, ? extends E> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -127,7 +134,7 @@ public class SupplierStep<R, E extends Throwable> implements ThrowingSupplier<R,
      */
     @Override
     public final R get() throws E {
-        return stepTo(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        return stepTo(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -227,6 +234,6 @@ public class SupplierStep<R, E extends Throwable> implements ThrowingSupplier<R,
 
     @Override
     public final String toString() {
-        return "SupplierStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "SupplierStep(" + this.nameWithKeyword + ")";
     }
 }
@@ -43,6 +43,11 @@ public class TriConsumerStep<T, U, V, E extends Throwable> implements ThrowingTr
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -61,6 +66,7 @@ public class TriConsumerStep<T, U, V, E extends Throwable> implements ThrowingTr
     public TriConsumerStep(final ThrowingTriConsumer<? super T, ? super U, ? super V, ? extends E> action) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(TriConsumerStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -103,6 +109,7 @@ public class TriConsumerStep<T, U, V, E extends Throwable> implements ThrowingTr
                            final ThrowingTriConsumer<? super T, ? super U, ? super V, ? extends E> action) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -133,7 +140,7 @@ public class TriConsumerStep<T, U, V, E extends Throwable> implements ThrowingTr
      */
     @Override
     public final void accept(final T t, final U u, final V v) throws E {
-        stepsChainOf(t, u, v).step(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        stepsChainOf(t, u, v).step(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -298,6 +305,6 @@ public class TriConsumerStep<T, U, V, E extends Throwable> implements ThrowingTr
 
     @Override
     public final String toString() {
-        return "TriConsumerStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "TriConsumerStep(" + this.nameWithKeyword + ")";
     }
 }
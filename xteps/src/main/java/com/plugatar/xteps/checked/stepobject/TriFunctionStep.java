@@ -44,6 +44,11 @@ public class TriFunctionStep<T, U, V, R, E extends Throwable> implements Throwin
      */
     private final String name;
 
+    /**
+     * The name of this step with the keyword.
+     */
+    private final String nameWithKeyword;
+
     /**
      * The description of this step.
      */
@@ -64,6 +69,7 @@ public class TriFunctionStep<T, U, V, R, E extends Throwable> implements Throwin
     ) {
         this.keyword = "";
         this.name = humanReadableOrEmptyStepName(TriFunctionStep.class, this.getClass());
+        this.nameWithKeyword = this.name;
         this.desc = "";
         this.action = action;
     }
@@ -112,6 +118,7 @@ public class TriFunctionStep<T, U, V, R, E extends Throwable> implements Throwin
     ) {
         this.keyword = keyword;
         this.name = name;
+        this.nameWithKeyword = stepNameWithKeyword(keyword, name);
         this.desc = desc;
         this.action = action;
     }
@@ -144,7 +151,7 @@ public class TriFunctionStep<T, U, V, R, E extends Throwable> implements Throwin
      */
     @Override
     public final R apply(final T t, final U u, final V v) throws E {
-        return stepsChainOf(t, u, v).stepTo(stepNameWithKeyword(this.keyword, this.name), this.desc, this.action);
+        return stepsChainOf(t, u, v).stepTo(this.nameWithKeyword, this.desc, this.action);
     }
 
     /**
@@ -289,6 +296,6 @@ public class TriFunctionStep<T, U, V, R, E extends Throwable> implements Throwin
 
     @Override
     public final String toString() {
-        return "TriFunctionStep(" + stepNameWithKeyword(this.keyword, this.name) + ")";
+        return "TriFunctionStep(" + this.nameWithKeyword + ")";
     }
 }
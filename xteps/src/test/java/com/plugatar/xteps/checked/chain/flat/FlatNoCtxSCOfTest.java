@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 Evgenii Plugatar
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.plugatar.xteps.checked.chain.flat;
+
+import com.plugatar.xteps.base.ExceptionHandler;
+import com.plugatar.xteps.base.HooksContainer;
+import com.plugatar.xteps.base.StepReporter;
+import com.plugatar.xteps.base.ThrowingSupplier;
+import com.plugatar.xteps.base.XtepsException;
+import com.plugatar.xteps.checked.chain.Ctx2SC;
+import com.plugatar.xteps.checked.chain.Ctx3SC;
+import com.plugatar.xteps.checked.chain.CtxSC;
+import com.plugatar.xteps.checked.chain.NoCtxSC;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link FlatNoCtxSCOf} and the steps chains derived from it.
+ */
+final class FlatNoCtxSCOfTest {
+    private RecordingStepReporter stepReporter;
+    private ExceptionHandler exceptionHandler;
+    private HooksContainer hooksContainer;
+    private NoCtxSC stepsChain;
+
+    @BeforeEach
+    void beforeEach() {
+        this.stepReporter = new RecordingStepReporter();
+        this.exceptionHandler = mock(ExceptionHandler.class);
+        this.hooksContainer = mock(HooksContainer.class);
+        this.stepsChain = new FlatNoCtxSCOf(this.stepReporter, this.exceptionHandler, this.hooksContainer);
+    }
+
+    @Test
+    void nullArgsForCtor() {
+        assertThatCode(() -> new FlatNoCtxSCOf(null, this.exceptionHandler, this.hooksContainer))
+            .isInstanceOf(NullPointerException.class);
+        assertThatCode(() -> new FlatNoCtxSCOf(this.stepReporter, null, this.hooksContainer))
+            .isInstanceOf(NullPointerException.class);
+        assertThatCode(() -> new FlatNoCtxSCOf(this.stepReporter, this.exceptionHandler, null))
+            .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void stepParamsAreContextsInReverseOrder() {
+        final Object context1 = new Object();
+        final Object context2 = new Object();
+        final Object context3 = new Object();
+        final Object context4 = new Object();
+
+        this.stepsChain.step("Step 0");
+        this.stepsChain.withCtx(context1).step("Step 1");
+        this.stepsChain.withCtx(context1).withCtx(context2).step("Step 2");
+        this.stepsChain.withCtx(context1).withCtx(context2).withCtx(context3).step("Step 3");
+        this.stepsChain.withCtx(context1).withCtx(context2).withCtx(context3).withCtx(context4).step("Step 4");
+
+        assertThat(this.stepReporter.names).containsExactly("Step 0", "Step 1", "Step 2", "Step 3", "Step 4");
+        assertThat(this.stepReporter.params.get(0)).isEmpty();
+        assertThat(this.stepReporter.params.get(1)).containsExactly(context1);
+        assertThat(this.stepReporter.params.get(2)).containsExactly(context2, context1);
+        assertThat(this.stepReporter.params.get(3)).containsExactly(context3, context2, context1);
+        assertThat(this.stepReporter.params.get(4)).containsExactly(context4, context3, context2);
+    }
+
+    @Test
+    void stepParamsArrayReusedBySteps() {
+        final CtxSC<Object, NoCtxSC> ctxStepsChain = this.stepsChain.withCtx(new Object());
+
+        ctxStepsChain.step("Step 1").step("Step 2");
+
+        assertThat(this.stepReporter.params).hasSize(2);
+        assertThat(this.stepReporter.params.get(1)).isSameAs(this.stepReporter.params.get(0));
+    }
+
+    @Test
+    void contextsOfDerivedStepsChains() {
+        final Ctx3SC<String, Integer, Integer, Ctx2SC<Integer, Integer, CtxSC<Integer, NoCtxSC>>> ctx3StepsChain =
+            this.stepsChain.withCtx(1)
+                .stepToCtx("Step 1", ctx -> ctx + 1)
+                .stepToCtx("Step 2", (ctx, ctx2) -> "context " + (ctx + ctx2));
+
+        assertThat(ctx3StepsChain.ctx()).isEqualTo("context 3");
+        assertThat(ctx3StepsChain.ctx2()).isEqualTo(2);
+        assertThat(ctx3StepsChain.ctx3()).isEqualTo(1);
+        assertThat(ctx3StepsChain.previousStepsChain().ctx()).isEqualTo(2);
+        assertThat(ctx3StepsChain.previousStepsChain().previousStepsChain().ctx()).isEqualTo(1);
+        assertThat(ctx3StepsChain.previousStepsChain().previousStepsChain().previousStepsChain())
+            .isSameAs(this.stepsChain);
+    }
+
+    @Test
+    void withoutContextKeepsPreviousContexts() {
+        final Object context1 = new Object();
+        final Object context2 = new Object();
+
+        final CtxSC<Object, ?> ctxStepsChain = this.stepsChain.withCtx(context1).withoutContext().withCtx(context2)
+            .step("Step");
+
+        assertThat(this.stepReporter.params.get(0)).containsExactly(context2);
+        assertThat(ctxStepsChain.ctx()).isSameAs(context2);
+    }
+
+    @Test
+    void newContextStepsChainOverwritesEarlierDerivedStepsChain() {
+        final Object context1 = new Object();
+        final Object context2 = new Object();
+
+        final CtxSC<Object, NoCtxSC> ctxStepsChain1 = this.stepsChain.withCtx(context1);
+        final CtxSC<Object, NoCtxSC> ctxStepsChain2 = this.stepsChain.withCtx(context2);
+
+        assertThat(ctxStepsChain2).isSameAs(ctxStepsChain1);
+        assertThat(ctxStepsChain2.ctx()).isSameAs(context2);
+    }
+
+    @Test
+    void deepStepsChain() {
+        CtxSC<Integer, ?> ctxStepsChain = this.stepsChain.withCtx(0);
+        for (int idx = 1; idx < 100; ++idx) {
+            ctxStepsChain = ctxStepsChain.withoutContext().withCtx(idx);
+        }
+
+        assertThat(ctxStepsChain.ctx()).isEqualTo(99);
+        ctxStepsChain.step("Step");
+        assertThat(this.stepReporter.params.get(0)).containsExactly(99);
+    }
+
+    @Test
+    void stepExceptionPassedToHooksAndHandler() {
+        final RuntimeException exception = new RuntimeException();
+
+        assertThatCode(() -> this.stepsChain.withCtx(new Object()).branchSteps(chain -> { throw exception; }))
+            .isSameAs(exception);
+        verify(this.hooksContainer).callHooks(same(exception));
+        verify(this.exceptionHandler).handle(same(exception));
+    }
+
+    @Test
+    void nullArgExceptionPassedToHooksAndHandler() {
+        assertThatCode(() -> this.stepsChain.withCtx(new Object()).step((String) null))
+            .isInstanceOf(XtepsException.class);
+        verify(this.hooksContainer).callHooks(any(XtepsException.class));
+        verify(this.exceptionHandler).handle(any(XtepsException.class));
+    }
+
+    private static final class RecordingStepReporter implements StepReporter {
+        private final List<String> names = new ArrayList<>();
+        private final List<Object[]> params = new ArrayList<>();
+
+        @Override
+        public <R, E extends Throwable> R report(final HooksContainer hooksContainer,
+                                                 final ExceptionHandler exceptionHandler,
+                                                 final String name,
+                                                 final String description,
+                                                 final Object[] params,
+                                                 final ThrowingSupplier<? extends R, ? extends E> action) throws E {
+            this.names.add(name);
+            this.params.add(params);
+            return action.get();
+        }
+    }
+}